@@ -39,6 +39,7 @@ import org.killbill.billing.account.dao.AccountEmailModelDao;
 import org.killbill.billing.account.dao.AccountModelDao;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.callcontext.KeysetPaginationTenantContext;
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
@@ -114,7 +115,11 @@ public class DefaultAccountUserApi extends DefaultAccountApiBase implements Acco
                                               new SourcePaginationBuilder<AccountModelDao, AccountApiException>() {
                                                   @Override
                                                   public Pagination<AccountModelDao> build() {
-                                                      return accountDao.searchAccounts(searchKey, offset, limit, internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context));
+                                                      final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context);
+                                                      if (KeysetPaginationTenantContext.isKeysetPagination(context)) {
+                                                          return accountDao.searchAccountsFromRecordId(searchKey, offset, limit, internalTenantContext);
+                                                      }
+                                                      return accountDao.searchAccounts(searchKey, offset, limit, internalTenantContext);
                                                   }
                                               },
                                               DefaultAccount::new
@@ -127,7 +132,11 @@ public class DefaultAccountUserApi extends DefaultAccountApiBase implements Acco
                                               new SourcePaginationBuilder<AccountModelDao, AccountApiException>() {
                                                   @Override
                                                   public Pagination<AccountModelDao> build() {
-                                                      return accountDao.get(offset, limit, internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context));
+                                                      final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context);
+                                                      if (KeysetPaginationTenantContext.isKeysetPagination(context)) {
+                                                          return accountDao.getFromRecordId(offset, limit, internalTenantContext);
+                                                      }
+                                                      return accountDao.get(offset, limit, internalTenantContext);
                                                   }
                                               },
                                               DefaultAccount::new
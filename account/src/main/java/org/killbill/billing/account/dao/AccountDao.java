@@ -36,6 +36,9 @@ public interface AccountDao extends EntityDao<AccountModelDao, Account, AccountA
 
     Pagination<AccountModelDao> searchAccounts(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset pagination, see DefaultPaginationSqlDaoHelper#getKeysetPagination
+    Pagination<AccountModelDao> searchAccountsFromRecordId(String searchKey, Long fromRecordId, Long limit, InternalTenantContext context);
+
     /**
      * @throws AccountApiException when externalKey is null
      */
@@ -55,6 +55,7 @@ import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.KeysetPaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.EntityDaoBase;
@@ -172,6 +173,43 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
                                                           accountModelDao == null ? Collections.emptyIterator() : List.of(accountModelDao).iterator());
         }
 
+        final SearchQuery searchQuery = buildSearchQuery(searchKey);
+
+        // Otherwise, we pretty much need to do a full table scan (leading % in the like clause).
+        // Note: forcing MySQL to search indexes (like luckySearch above) doesn't always seem to help on large tables, especially with large offsets
+        return paginationHelper.getPagination(AccountSqlDao.class,
+                                              new PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
+                                                  @Override
+                                                  public Long getCount(final AccountSqlDao accountSqlDao, final InternalTenantContext context) {
+                                                      return accountSqlDao.getSearchCount(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), context);
+                                                  }
+
+                                                  @Override
+                                                  public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                      return accountSqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
+                                                  }
+                                              },
+                                              offset,
+                                              limit,
+                                              context);
+    }
+
+    @Override
+    public Pagination<AccountModelDao> searchAccountsFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        final SearchQuery searchQuery = buildSearchQuery(searchKey);
+        return paginationHelper.getKeysetPagination(AccountSqlDao.class,
+                                                    new KeysetPaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
+                                                        @Override
+                                                        public Iterator<AccountModelDao> buildFromRecordId(final AccountSqlDao accountSqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                            return accountSqlDao.searchFromRecordId(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+                                                        }
+                                                    },
+                                                    fromRecordId,
+                                                    limit,
+                                                    context);
+    }
+
+    private SearchQuery buildSearchQuery(final String searchKey) {
         final SearchQuery searchQuery;
         if (searchKey.startsWith(SEARCH_QUERY_MARKER)) {
             searchQuery = new SearchQuery(searchKey,
@@ -216,24 +254,7 @@ public class DefaultAccountDao extends EntityDaoBase<AccountModelDao, Account, A
             searchQuery.addSearchClause("external_key", SqlOperator.LIKE, likeSearchKey);
             searchQuery.addSearchClause("company_name", SqlOperator.LIKE, likeSearchKey);
         }
-
-        // Otherwise, we pretty much need to do a full table scan (leading % in the like clause).
-        // Note: forcing MySQL to search indexes (like luckySearch above) doesn't always seem to help on large tables, especially with large offsets
-        return paginationHelper.getPagination(AccountSqlDao.class,
-                                              new PaginationIteratorBuilder<AccountModelDao, Account, AccountSqlDao>() {
-                                                  @Override
-                                                  public Long getCount(final AccountSqlDao accountSqlDao, final InternalTenantContext context) {
-                                                      return accountSqlDao.getSearchCount(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), context);
-                                                  }
-
-                                                  @Override
-                                                  public Iterator<AccountModelDao> build(final AccountSqlDao accountSqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      return accountSqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
-                                                  }
-                                              },
-                                              offset,
-                                              limit,
-                                              context);
+        return searchQuery;
     }
 
     @Override
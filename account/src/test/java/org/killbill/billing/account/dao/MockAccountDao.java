@@ -22,6 +22,8 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -117,10 +119,7 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         int maxNbRecords = 0;
         for (final AccountModelDao account : getAll(context)) {
             maxNbRecords++;
-            if ((account.getName() != null && account.getName().contains(searchKey)) ||
-                (account.getEmail() != null && account.getEmail().contains(searchKey)) ||
-                (account.getExternalKey() != null && account.getExternalKey().contains(searchKey)) ||
-                (account.getCompanyName() != null && account.getCompanyName().contains(searchKey))) {
+            if (matches(account, searchKey)) {
                 results.add(account);
             }
         }
@@ -128,6 +127,34 @@ public class MockAccountDao extends MockEntityDaoBase<AccountModelDao, Account,
         return DefaultPagination.<AccountModelDao>build(offset, limit, maxNbRecords, results);
     }
 
+    @Override
+    public Pagination<AccountModelDao> searchAccountsFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        // Walk the accounts in record id order, as the keyset queries do
+        final SortedMap<Long, AccountModelDao> accountsByRecordId = new TreeMap<Long, AccountModelDao>();
+        for (final Map<Long, AccountModelDao> accountRow : entities.values()) {
+            accountsByRecordId.putAll(accountRow);
+        }
+
+        final Collection<AccountModelDao> results = new LinkedList<AccountModelDao>();
+        for (final AccountModelDao account : accountsByRecordId.tailMap(fromRecordId + 1).values()) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if (matches(account, searchKey)) {
+                results.add(account);
+            }
+        }
+
+        return DefaultPagination.<AccountModelDao>withKeyset(fromRecordId, limit, null, results.iterator());
+    }
+
+    private static boolean matches(final AccountModelDao account, final String searchKey) {
+        return (account.getName() != null && account.getName().contains(searchKey)) ||
+               (account.getEmail() != null && account.getEmail().contains(searchKey)) ||
+               (account.getExternalKey() != null && account.getExternalKey().contains(searchKey)) ||
+               (account.getCompanyName() != null && account.getCompanyName().contains(searchKey));
+    }
+
     @Override
     public UUID getIdFromKey(final String externalKey, final InternalTenantContext context) {
         final AccountModelDao account = getAccountByKey(externalKey, context);
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.callcontext;
+
+import java.util.UUID;
+
+import org.killbill.billing.util.callcontext.TenantContext;
+
+/**
+ * Requests keyset (seek) pagination from the pagination APIs (getAccounts, searchInvoices, etc.): the offset passed
+ * is then the record id of the last record previously returned (0 for the first page), instead of a number of records to skip.
+ * The next offset of the returned pagination follows the same convention.
+ * <p>
+ * The pagination APIs only take an offset, hence the context carries the pagination mode.
+ */
+public class KeysetPaginationTenantContext implements TenantContext {
+
+    private final TenantContext delegate;
+
+    public KeysetPaginationTenantContext(final TenantContext delegate) {
+        this.delegate = delegate;
+    }
+
+    public static boolean isKeysetPagination(final TenantContext context) {
+        return context instanceof KeysetPaginationTenantContext;
+    }
+
+    @Override
+    public UUID getAccountId() {
+        return delegate.getAccountId();
+    }
+
+    @Override
+    public UUID getTenantId() {
+        return delegate.getTenantId();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("KeysetPaginationTenantContext{");
+        sb.append("delegate=").append(delegate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
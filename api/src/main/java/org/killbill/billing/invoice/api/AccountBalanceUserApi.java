@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.api;
+
+import java.util.UUID;
+
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.TenantContext;
+
+public interface AccountBalanceUserApi {
+
+    /**
+     * Compare the materialized balance and CBA of the account with the values recomputed from its invoices.
+     *
+     * @param accountId the account id
+     * @param context   the tenant context
+     * @return the verification result
+     */
+    public AccountBalanceVerification verifyAccountBalance(UUID accountId, TenantContext context);
+
+    /**
+     * Recompute the balance and CBA of the account from its invoices and materialize them.
+     *
+     * @param accountId the account id
+     * @param context   the call context
+     * @return the values before and after the rebuild
+     */
+    public AccountBalanceVerification rebuildAccountBalance(UUID accountId, CallContext context);
+}
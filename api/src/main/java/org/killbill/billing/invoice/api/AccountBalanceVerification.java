@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.api;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Materialized balance and CBA of an account, compared with the values recomputed from its invoices.
+ */
+public interface AccountBalanceVerification {
+
+    public UUID getAccountId();
+
+    /**
+     * @return the materialized balance, null if it was invalidated and not recomputed yet
+     */
+    public BigDecimal getStoredBalance();
+
+    /**
+     * @return the materialized CBA, null if it was invalidated and not recomputed yet
+     */
+    public BigDecimal getStoredCBA();
+
+    public BigDecimal getBalance();
+
+    public BigDecimal getCBA();
+
+    /**
+     * @return false if the materialized values are up-to-date but don't match the recomputed ones
+     */
+    public boolean isConsistent();
+}
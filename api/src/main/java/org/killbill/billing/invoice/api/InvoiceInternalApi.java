@@ -39,6 +39,12 @@ public interface InvoiceInternalApi {
 
     Collection<Invoice> getUnpaidInvoicesByAccountId(UUID accountId, LocalDate upToDate, InternalTenantContext context);
 
+    /**
+     * Same as {@link #getUnpaidInvoicesByAccountId(UUID, LocalDate, InternalTenantContext)}, but only returns the count, the summed balance
+     * and the earliest unpaid invoice, which doesn't require to materialize the invoices when the summary is up-to-date.
+     */
+    UnpaidInvoicesSummary getUnpaidInvoicesSummaryByAccountId(UUID accountId, LocalDate upToDate, InternalTenantContext context);
+
     void recordPaymentAttemptInit(UUID invoiceId, BigDecimal amountOutstanding, Currency currency, Currency processedCurrency, UUID paymentId, UUID paymentAttemptId, String transactionExternalKey, DateTime paymentDate, InternalCallContext context) throws InvoiceApiException;
 
     void recordPaymentAttemptCompletion(UUID invoiceId, BigDecimal amountOutstanding, Currency currency, Currency processedCurrency, UUID paymentId, UUID paymentAttemptId, String transactionExternalKey, DateTime paymentDate, InvoicePaymentStatus status, InternalCallContext context) throws InvoiceApiException;
@@ -83,4 +89,15 @@ public interface InvoiceInternalApi {
     List<InvoicePayment> getInvoicePaymentsByInvoice(UUID invoiceId, InternalTenantContext context);
 
     InvoicePayment getInvoicePaymentByCookieId(String cookieId, TenantContext context);
+
+    /**
+     * Bulk version of {@link org.killbill.billing.invoice.api.InvoiceUserApi#getAccountBalance(UUID, TenantContext)}: the materialized balances
+     * of all accounts are read at once, only the stale ones are recomputed.
+     */
+    Map<UUID, BigDecimal> getAccountBalances(Collection<UUID> accountIds, TenantContext context);
+
+    /**
+     * Bulk version of {@link org.killbill.billing.invoice.api.InvoiceUserApi#getAccountCBA(UUID, TenantContext)}.
+     */
+    Map<UUID, BigDecimal> getAccountCBAs(Collection<UUID> accountIds, TenantContext context);
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage;
+
+import java.math.BigDecimal;
+
+import org.killbill.billing.usage.api.RawUsageRecord;
+
+/**
+ * Usage points of a subscription and unit type aggregated over a (UTC) day: {@link #getDate()} is the start of the day,
+ * {@link #getAmount()} the sum of the points and {@link #getMaxAmount()} their max.
+ */
+public interface AggregatedUsageRecord extends RawUsageRecord {
+
+    public BigDecimal getMaxAmount();
+
+    public int getNbRecords();
+}
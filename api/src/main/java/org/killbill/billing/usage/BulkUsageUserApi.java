@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage;
+
+import java.util.List;
+
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.util.callcontext.CallContext;
+
+public interface BulkUsageUserApi {
+
+    /**
+     * Record usage for multiple subscriptions (and accounts) in a single transaction.
+     * <p>
+     * Unlike {@link org.killbill.billing.usage.api.UsageUserApi#recordRolledUpUsage}, a record whose tracking id already exists for its
+     * subscription (or appears earlier in the batch) isn't an error: it is skipped, so that a batch can safely be retried.
+     *
+     * @param records     the usage records
+     * @param callContext the call context, without account id
+     * @return the records which were skipped
+     */
+    public List<SubscriptionUsageRecord> recordRolledUpUsage(Iterable<SubscriptionUsageRecord> records, CallContext callContext);
+}
@@ -18,8 +18,10 @@
 package org.killbill.billing.usage;
 
 import java.util.List;
+import java.util.Set;
 
 import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.invoice.api.DryRunInfo;
 import org.killbill.billing.payment.api.PluginProperty;
@@ -28,4 +30,11 @@ import org.killbill.billing.usage.api.RawUsageRecord;
 public interface InternalUserApi {
 
     public List<RawUsageRecord> getRawUsageForAccount(DateTime stateDate, DateTime endDate, DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, InternalTenantContext tenantContext);
+
+    /**
+     * Same as {@link #getRawUsageForAccount}, except that the usage points are returned as {@link AggregatedUsageRecord} (one per
+     * subscription, unit type and UTC day), except for the partial days of the range and the specified UTC days which are returned as is.
+     * Tracking ids of aggregated records are meaningless.
+     */
+    public List<RawUsageRecord> getAggregatedUsageForAccount(DateTime startDate, DateTime endDate, Set<LocalDate> rawUsageDays, DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, InternalTenantContext tenantContext);
 }
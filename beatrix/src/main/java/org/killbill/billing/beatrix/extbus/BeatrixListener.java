@@ -363,6 +363,10 @@ public class BeatrixListener {
 
             case BROADCAST_SERVICE:
                 final BroadcastInternalEvent realBroadcastEvent = (BroadcastInternalEvent) event;
+                // Security broadcasts (user, role and password changes) only invalidate the local security caches: they aren't exposed to plugins
+                if (KILLBILL_SERVICES.SECURITY_SERVICE.getServiceName().equals(realBroadcastEvent.getServiceName())) {
+                    break;
+                }
                 objectType = ObjectType.SERVICE_BROADCAST;
                 objectId = null;
                 eventBusType = ExtBusEventType.BROADCAST_SERVICE;
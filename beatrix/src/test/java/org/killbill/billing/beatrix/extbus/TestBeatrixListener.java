@@ -57,6 +57,7 @@ import org.killbill.billing.notification.plugin.api.TagMetadata;
 import org.killbill.billing.notification.plugin.api.TenantConfigMetadata;
 import org.killbill.billing.payment.api.TransactionStatus;
 import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
 import org.killbill.billing.util.callcontext.CallOrigin;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
@@ -728,6 +729,20 @@ public class TestBeatrixListener {
         assertEquals(broadcastMetadata.getEventJson(), BROADCAST_EVENT_JSON);
     }
 
+    @Test(groups = "fast")
+    public void testSecurityBroadcastServiceIsNotForwarded() throws Exception {
+        BroadcastInternalEvent event = mock(BroadcastInternalEvent.class);
+        provideCommonBusEventInfo(event);
+        when(event.getBusEventType()).thenReturn(BusInternalEventType.BROADCAST_SERVICE);
+        when(event.getServiceName()).thenReturn(KILLBILL_SERVICES.SECURITY_SERVICE.getServiceName());
+        when(event.getType()).thenReturn("INVALIDATE_USER");
+        when(event.getJsonEvent()).thenReturn("admin");
+
+        beatrixListener.handleAllInternalKillbillEvents(event);
+
+        verify(externalBus, never()).post(isA(BusEvent.class));
+    }
+
     @Test(groups = "fast")
     public void testInvalidInternalEvent() throws Exception {
         BusInternalEvent event = mock(BusInternalEvent.class);
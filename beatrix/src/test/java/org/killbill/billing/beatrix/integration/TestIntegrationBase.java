@@ -1301,6 +1301,16 @@ public class TestIntegrationBase extends BeatrixTestSuiteWithEmbeddedDB implemen
             return defaultInvoiceConfig.isUsageMissingLenient();
         }
 
+        @Override
+        public boolean isAggregatedUsageForDryRunEnabled() {
+            return defaultInvoiceConfig.isAggregatedUsageForDryRunEnabled();
+        }
+
+        @Override
+        public boolean isAggregatedUsageForDryRunEnabled(final InternalTenantContext tenantContext) {
+            return defaultInvoiceConfig.isAggregatedUsageForDryRunEnabled();
+        }
+
         @Override
         public boolean isUsageMissingLenient(final InternalTenantContext tenantContext) {
             return defaultInvoiceConfig.isUsageMissingLenient();
@@ -1369,6 +1379,36 @@ public class TestIntegrationBase extends BeatrixTestSuiteWithEmbeddedDB implemen
             return defaultInvoiceConfig.getMaxGlobalLockRetries();
         }
 
+        @Override
+        public int getInvoiceGenerationParallelism() {
+            return defaultInvoiceConfig.getInvoiceGenerationParallelism();
+        }
+
+        @Override
+        public int getInvoiceGenerationParallelismMinSubscriptions() {
+            return defaultInvoiceConfig.getInvoiceGenerationParallelismMinSubscriptions();
+        }
+
+        @Override
+        public boolean isCompactItemTreeEnabled() {
+            return defaultInvoiceConfig.isCompactItemTreeEnabled();
+        }
+
+        @Override
+        public int getInvoicePluginParallelism() {
+            return defaultInvoiceConfig.getInvoicePluginParallelism();
+        }
+
+        @Override
+        public List<String> getInvoicePluginDependencies() {
+            return defaultInvoiceConfig.getInvoicePluginDependencies();
+        }
+
+        @Override
+        public TimeSpan getInvoicePluginTimeout() {
+            return defaultInvoiceConfig.getInvoicePluginTimeout();
+        }
+
         @Override
         public List<String> getInvoicePluginNames() {
             return defaultInvoiceConfig.getInvoicePluginNames();
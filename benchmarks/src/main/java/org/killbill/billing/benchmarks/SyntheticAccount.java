@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.ImmutableAccountData;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.MockPlan;
+import org.killbill.billing.catalog.api.BillingAlignment;
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.model.DefaultInvoice;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.junction.plumbing.billing.DefaultBillingEvent;
+import org.killbill.billing.junction.plumbing.billing.DefaultBillingEventSet;
+import org.killbill.billing.mock.MockSubscription;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.subscription.api.user.DefaultSubscriptionBillingEvent;
+import org.killbill.billing.subscription.api.user.SubscriptionBillingEvent;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.UserType;
+import org.mockito.Mockito;
+
+/**
+ * Deterministic, in-memory account used by the benchmarks: a set of monthly in-advance subscriptions (BCD 1, account aligned),
+ * their billing events and {@code nbMonthsOfHistory} months of already invoiced recurring items.
+ * <p>
+ * Invoicing the account for {@link #getTargetDate()} yields exactly one new recurring item per subscription, which mirrors a
+ * regular monthly bill run.
+ */
+public class SyntheticAccount {
+
+    public static final LocalDate START_DATE = new LocalDate(2020, 1, 1);
+    public static final Currency CURRENCY = Currency.USD;
+
+    private static final int NB_SUBSCRIPTIONS_PER_BUNDLE = 4;
+
+    private final UUID accountId;
+    private final ImmutableAccountData account;
+    private final Plan plan;
+    private final PlanPhase planPhase;
+    private final LocalDate targetDate;
+    private final InternalCallContext internalCallContext;
+    private final Map<UUID, List<SubscriptionBase>> subscriptionsPerBundle;
+    private final Map<UUID, List<SubscriptionBillingEvent>> billingTransitionsPerSubscription;
+    private final DefaultBillingEventSet billingEvents;
+    private final List<Invoice> existingInvoices;
+
+    public SyntheticAccount(final int nbSubscriptions, final int nbMonthsOfHistory) throws CatalogApiException {
+        // Fixed seed, to generate the same ids (and therefore the same iteration orders) across runs
+        final Random random = new Random(nbSubscriptions * 31L + nbMonthsOfHistory);
+
+        this.accountId = randomUUID(random);
+        this.plan = MockPlan.createBicycleNoTrialEvergreen1USD();
+        this.planPhase = plan.getFinalPhase();
+        this.targetDate = START_DATE.plusMonths(nbMonthsOfHistory);
+
+        final DateTime referenceDateTime = START_DATE.toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime utcNow = targetDate.toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        this.internalCallContext = new InternalCallContext(1L, 1L, DateTimeZone.UTC, DateTimeZone.UTC, referenceDateTime, randomUUID(random),
+                                                           "benchmark", CallOrigin.INTERNAL, UserType.SYSTEM, null, null, utcNow, utcNow);
+
+        this.account = Mockito.mock(ImmutableAccountData.class, Mockito.withSettings().stubOnly());
+        Mockito.when(account.getId()).thenReturn(accountId);
+        Mockito.when(account.getExternalKey()).thenReturn(accountId.toString());
+        Mockito.when(account.getCurrency()).thenReturn(CURRENCY);
+        Mockito.when(account.getTimeZone()).thenReturn(DateTimeZone.UTC);
+        Mockito.when(account.getFixedOffsetTimeZone()).thenReturn(DateTimeZone.UTC);
+        Mockito.when(account.getReferenceTime()).thenReturn(referenceDateTime);
+
+        this.subscriptionsPerBundle = new LinkedHashMap<>();
+        this.billingTransitionsPerSubscription = new LinkedHashMap<>();
+        this.billingEvents = new DefaultBillingEventSet(false, false, false);
+
+        final DateTime subscriptionStartDate = START_DATE.toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        UUID bundleId = null;
+        long totalOrdering = 0;
+        for (int i = 0; i < nbSubscriptions; i++) {
+            if (i % NB_SUBSCRIPTIONS_PER_BUNDLE == 0) {
+                bundleId = randomUUID(random);
+                subscriptionsPerBundle.put(bundleId, new ArrayList<>());
+            }
+
+            final MockSubscription subscription = new MockSubscription(randomUUID(random), bundleId, null, plan, subscriptionStartDate, subscriptionStartDate);
+            subscription.setBillingAlignment(BillingAlignment.ACCOUNT);
+            subscriptionsPerBundle.get(bundleId).add(subscription);
+
+            final SubscriptionBillingEvent creation = new DefaultSubscriptionBillingEvent(SubscriptionBaseTransitionType.CREATE, plan, planPhase, subscriptionStartDate,
+                                                                                          ++totalOrdering, null, 1, referenceDateTime);
+            billingTransitionsPerSubscription.put(subscription.getId(), List.of(creation));
+            billingEvents.add(new DefaultBillingEvent(creation, subscription, 1, BillingAlignment.ACCOUNT, CURRENCY));
+        }
+
+        this.existingInvoices = new ArrayList<>(nbMonthsOfHistory);
+        final BigDecimal rate = planPhase.getRecurring().getRecurringPrice().getPrice(CURRENCY);
+        for (int month = 0; month < nbMonthsOfHistory; month++) {
+            final LocalDate periodStart = START_DATE.plusMonths(month);
+            final DefaultInvoice invoice = new DefaultInvoice(randomUUID(random), accountId, month + 1, periodStart, periodStart, CURRENCY, false, InvoiceStatus.COMMITTED);
+            final List<InvoiceItem> items = new ArrayList<>(nbSubscriptions);
+            for (final List<SubscriptionBase> subscriptions : subscriptionsPerBundle.values()) {
+                for (final SubscriptionBase subscription : subscriptions) {
+                    items.add(new RecurringInvoiceItem(randomUUID(random), referenceDateTime, invoice.getId(), accountId, subscription.getBundleId(), subscription.getId(),
+                                                       plan.getProduct().getName(), plan.getName(), planPhase.getName(), referenceDateTime,
+                                                       periodStart, periodStart.plusMonths(1), rate, rate, CURRENCY));
+                }
+            }
+            invoice.addInvoiceItems(items);
+            existingInvoices.add(invoice);
+        }
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public ImmutableAccountData getAccount() {
+        return account;
+    }
+
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
+
+    public InternalCallContext getInternalCallContext() {
+        return internalCallContext;
+    }
+
+    public Map<UUID, List<SubscriptionBase>> getSubscriptionsPerBundle() {
+        return subscriptionsPerBundle;
+    }
+
+    public List<SubscriptionBillingEvent> getBillingTransitions(final UUID subscriptionId) {
+        return billingTransitionsPerSubscription.getOrDefault(subscriptionId, Collections.emptyList());
+    }
+
+    public DefaultBillingEventSet getBillingEvents() {
+        return billingEvents;
+    }
+
+    public List<Invoice> getExistingInvoices() {
+        return existingInvoices;
+    }
+
+    private static UUID randomUUID(final Random random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.tree.AccountItemTree;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * {@link AccountItemTree} build and merge for the synthetic account, in isolation from the proposed items generation:
+ * all existing items are proposed again, together with the next period.
+ */
+public class AccountItemTreeBenchmark extends InvoiceBenchmarkBase {
+
+    private static final UUID TARGET_INVOICE_ID = new UUID(0L, 1L);
+
+    private List<InvoiceItem> existingItems;
+    private List<InvoiceItem> proposedItems;
+    private PerSubscriptionExecutor perSubscriptionExecutor;
+
+    @Override
+    protected void setUpGenerators() {
+        perSubscriptionExecutor = new PerSubscriptionExecutor(invoiceConfig);
+        existingItems = new ArrayList<>();
+        proposedItems = new ArrayList<>();
+        for (final Invoice invoice : syntheticAccount.getExistingInvoices()) {
+            for (final InvoiceItem item : invoice.getInvoiceItems()) {
+                existingItems.add(item);
+                proposedItems.add(createProposedItem(item, 0));
+            }
+        }
+
+        final Invoice lastInvoice = syntheticAccount.getExistingInvoices().get(syntheticAccount.getExistingInvoices().size() - 1);
+        for (final InvoiceItem item : lastInvoice.getInvoiceItems()) {
+            proposedItems.add(createProposedItem(item, 1));
+        }
+    }
+
+    @Benchmark
+    public List<InvoiceItem> mergeWithProposedItems() {
+        final AccountItemTree tree = new AccountItemTree(syntheticAccount.getAccountId(), TARGET_INVOICE_ID, invoiceConfig.getProrationFixedDays(), perSubscriptionExecutor);
+        for (final InvoiceItem item : existingItems) {
+            tree.addExistingItem(item);
+        }
+        tree.mergeWithProposedItems(proposedItems);
+        return tree.getResultingItemList();
+    }
+
+    private static InvoiceItem createProposedItem(final InvoiceItem item, final int monthsOffset) {
+        return new RecurringInvoiceItem(TARGET_INVOICE_ID, item.getAccountId(), item.getBundleId(), item.getSubscriptionId(),
+                                        item.getProductName(), item.getPlanName(), item.getPhaseName(), item.getCatalogEffectiveDate(),
+                                        item.getStartDate().plusMonths(monthsOffset), item.getEndDate().plusMonths(monthsOffset),
+                                        item.getAmount(), item.getRate(), item.getCurrency());
+    }
+}
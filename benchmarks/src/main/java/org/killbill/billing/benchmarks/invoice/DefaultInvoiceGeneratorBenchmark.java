@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.util.Collections;
+
+import org.killbill.billing.benchmarks.SyntheticAccount;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.generator.DefaultInvoiceGenerator;
+import org.killbill.billing.invoice.generator.FixedAndRecurringInvoiceItemGenerator;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata;
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
+import org.killbill.billing.invoice.generator.UsageInvoiceItemGenerator;
+import org.killbill.billing.invoice.usage.RawUsageOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * End-to-end proposed invoice computation for a monthly bill run ({@link DefaultInvoiceGenerator#generateInvoice}),
+ * i.e. the GENERATE_INVOICE phase reported by the InvoiceDispatcher timings.
+ */
+public class DefaultInvoiceGeneratorBenchmark extends InvoiceBenchmarkBase {
+
+    private DefaultInvoiceGenerator generator;
+
+    @Override
+    protected void setUpGenerators() {
+        // The synthetic catalog doesn't define any usage section: the raw usage is never looked up
+        final RawUsageOptimizer rawUsageOptimizer = new RawUsageOptimizer(invoiceConfig, null, null, clock);
+        final PerSubscriptionExecutor perSubscriptionExecutor = new PerSubscriptionExecutor(invoiceConfig);
+        generator = new DefaultInvoiceGenerator(clock,
+                                                invoiceConfig,
+                                                new FixedAndRecurringInvoiceItemGenerator(invoiceConfig, perSubscriptionExecutor, clock),
+                                                new UsageInvoiceItemGenerator(rawUsageOptimizer, invoiceConfig, perSubscriptionExecutor));
+    }
+
+    @Benchmark
+    public InvoiceWithMetadata generateInvoice() throws InvoiceApiException {
+        return generator.generateInvoice(syntheticAccount.getAccount(),
+                                         syntheticAccount.getBillingEvents(),
+                                         accountInvoices,
+                                         null,
+                                         syntheticAccount.getTargetDate(),
+                                         SyntheticAccount.CURRENCY,
+                                         null,
+                                         Collections.emptyList(),
+                                         syntheticAccount.getInternalCallContext());
+    }
+}
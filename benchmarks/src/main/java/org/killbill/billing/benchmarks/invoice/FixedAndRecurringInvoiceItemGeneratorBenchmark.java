@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.UUID;
+
+import org.killbill.billing.benchmarks.SyntheticAccount;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.generator.FixedAndRecurringInvoiceItemGenerator;
+import org.killbill.billing.invoice.generator.InvoiceItemGenerator.InvoiceGeneratorResult;
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
+import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Fixed and recurring items generation, with and without the existing invoice history (the former includes the
+ * construction and the merge of the {@link org.killbill.billing.invoice.tree.AccountItemTree}).
+ */
+public class FixedAndRecurringInvoiceItemGeneratorBenchmark extends InvoiceBenchmarkBase {
+
+    private static final UUID INVOICE_ID = new UUID(0L, 1L);
+
+    private FixedAndRecurringInvoiceItemGenerator generator;
+
+    @Override
+    protected void setUpGenerators() {
+        generator = new FixedAndRecurringInvoiceItemGenerator(invoiceConfig, new PerSubscriptionExecutor(invoiceConfig), clock);
+    }
+
+    @Benchmark
+    public InvoiceGeneratorResult generateItemsWithHistory() throws InvoiceApiException {
+        return generateItems(accountInvoices);
+    }
+
+    @Benchmark
+    public InvoiceGeneratorResult generateItemsWithoutHistory() throws InvoiceApiException {
+        return generateItems(new AccountInvoices());
+    }
+
+    private InvoiceGeneratorResult generateItems(final AccountInvoices existingInvoices) throws InvoiceApiException {
+        return generator.generateItems(syntheticAccount.getAccount(),
+                                       INVOICE_ID,
+                                       syntheticAccount.getBillingEvents(),
+                                       existingInvoices,
+                                       syntheticAccount.getTargetDate(),
+                                       SyntheticAccount.CURRENCY,
+                                       new HashMap<>(),
+                                       null,
+                                       Collections.emptyList(),
+                                       syntheticAccount.getInternalCallContext());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.benchmarks.SyntheticAccount;
+import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.clock.ClockMock;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+
+/**
+ * Common state for the invoice generation benchmarks. The {@link InvoiceConfig} is built from the system properties,
+ * so any org.killbill.invoice.* setting can be overridden through the JMH -jvmArgs option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public abstract class InvoiceBenchmarkBase {
+
+    @Param({"10", "100", "1000", "10000"})
+    protected int nbSubscriptions;
+
+    @Param({"12", "36"})
+    protected int nbMonthsOfHistory;
+
+    protected SyntheticAccount syntheticAccount;
+    protected AccountInvoices accountInvoices;
+    protected InvoiceConfig invoiceConfig;
+    protected ClockMock clock;
+
+    @Setup(Level.Trial)
+    public void setUpAccount() throws Exception {
+        syntheticAccount = new SyntheticAccount(nbSubscriptions, nbMonthsOfHistory);
+        accountInvoices = new AccountInvoices(null, null, syntheticAccount.getExistingInvoices());
+        invoiceConfig = new AugmentedConfigurationObjectFactory(System.getProperties()).build(InvoiceConfig.class);
+
+        clock = new ClockMock();
+        clock.setDay(syntheticAccount.getTargetDate());
+
+        setUpGenerators();
+    }
+
+    protected abstract void setUpGenerators();
+}
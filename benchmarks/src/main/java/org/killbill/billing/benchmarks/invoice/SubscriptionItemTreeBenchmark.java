@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.invoice;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.benchmarks.SyntheticAccount;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.tree.CompactSubscriptionItemTree;
+import org.killbill.billing.invoice.tree.ItemTree;
+import org.killbill.billing.invoice.tree.SubscriptionItemTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Item tree reconciliation (ItemsNodeInterval build and merge) for one subscription with a long history, whose last
+ * period is changed mid-way: the proposed items split the last existing item, which triggers a repair.
+ * The compact parameter switches to the array-based tree (org.killbill.invoice.tree.compact).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SubscriptionItemTreeBenchmark {
+
+    private static final UUID TARGET_INVOICE_ID = new UUID(0L, 1L);
+    private static final UUID ACCOUNT_ID = new UUID(0L, 2L);
+    private static final UUID BUNDLE_ID = new UUID(0L, 3L);
+    private static final UUID SUBSCRIPTION_ID = new UUID(0L, 4L);
+
+    private static final BigDecimal OLD_RATE = new BigDecimal("10.00");
+    private static final BigDecimal NEW_RATE = new BigDecimal("25.00");
+
+    @Param({"12", "120", "600"})
+    public int nbMonthsOfHistory;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private List<InvoiceItem> existingItems;
+    private List<InvoiceItem> proposedItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        existingItems = new ArrayList<>(nbMonthsOfHistory);
+        proposedItems = new ArrayList<>(nbMonthsOfHistory + 1);
+
+        final UUID existingInvoiceId = new UUID(1L, 0L);
+        for (int month = 0; month < nbMonthsOfHistory; month++) {
+            final LocalDate startDate = SyntheticAccount.START_DATE.plusMonths(month);
+            final LocalDate endDate = startDate.plusMonths(1);
+            existingItems.add(createItem(existingInvoiceId, startDate, endDate, OLD_RATE, OLD_RATE));
+
+            if (month < nbMonthsOfHistory - 1) {
+                proposedItems.add(createItem(TARGET_INVOICE_ID, startDate, endDate, OLD_RATE, OLD_RATE));
+            } else {
+                // Upgrade in the middle of the last period
+                final LocalDate changeDate = startDate.plusDays(15);
+                proposedItems.add(createItem(TARGET_INVOICE_ID, startDate, changeDate, new BigDecimal("5.00"), OLD_RATE));
+                proposedItems.add(createItem(TARGET_INVOICE_ID, changeDate, endDate, new BigDecimal("12.50"), NEW_RATE));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<InvoiceItem> mergeWithRepair() {
+        final ItemTree tree = compact ? new CompactSubscriptionItemTree(SUBSCRIPTION_ID, TARGET_INVOICE_ID, 0) : new SubscriptionItemTree(SUBSCRIPTION_ID, TARGET_INVOICE_ID, 0);
+        for (final InvoiceItem item : existingItems) {
+            tree.addItem(item);
+        }
+        tree.flatten(true);
+        for (final InvoiceItem item : proposedItems) {
+            tree.mergeProposedItem(item);
+        }
+        tree.buildForMerge();
+        return tree.getView();
+    }
+
+    private static InvoiceItem createItem(final UUID invoiceId, final LocalDate startDate, final LocalDate endDate, final BigDecimal amount, final BigDecimal rate) {
+        return new RecurringInvoiceItem(invoiceId, ACCOUNT_ID, BUNDLE_ID, SUBSCRIPTION_ID, "product", "plan", "phase", null, startDate, endDate, amount, rate, SyntheticAccount.CURRENCY);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.benchmarks.junction;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.account.api.AccountInternalApi;
+import org.killbill.billing.benchmarks.SyntheticAccount;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.catalog.DefaultVersionedCatalog;
+import org.killbill.billing.catalog.MockCatalog;
+import org.killbill.billing.catalog.api.CatalogInternalApi;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.junction.BlockingInternalApi;
+import org.killbill.billing.junction.plumbing.billing.BillingTransitionsCache;
+import org.killbill.billing.junction.plumbing.billing.BlockingCalculator;
+import org.killbill.billing.junction.plumbing.billing.DefaultInternalBillingApi;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.SubscriptionBaseInternalApi;
+import org.killbill.billing.tag.TagInternalApi;
+import org.killbill.billing.util.config.definition.JunctionConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+
+/**
+ * Billing events computation ({@link DefaultInternalBillingApi#getBillingEventsForAccountAndUpdateAccountBCD}), i.e. the
+ * BILLING_EVENTS phase reported by the InvoiceDispatcher timings, without the DAO round trips: the subscription,
+ * account, catalog, blocking state and tag internal APIs are in-memory stubs backed by the {@link SyntheticAccount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DefaultInternalBillingApiBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int nbSubscriptions;
+
+    private SyntheticAccount syntheticAccount;
+    private DefaultInternalBillingApi billingApi;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Billing events don't depend on the invoice history
+        syntheticAccount = new SyntheticAccount(nbSubscriptions, 0);
+
+        final DefaultVersionedCatalog catalog = new DefaultVersionedCatalog();
+        catalog.add(new MockCatalog());
+        final CatalogInternalApi catalogInternalApi = stub(CatalogInternalApi.class);
+        Mockito.when(catalogInternalApi.getFullCatalog(Mockito.anyBoolean(), Mockito.anyBoolean(), Mockito.<InternalTenantContext>any())).thenReturn(catalog);
+        Mockito.when(catalogInternalApi.getPriceOverrideSvcStatus()).thenReturn(planName -> false);
+
+        final AccountInternalApi accountInternalApi = stub(AccountInternalApi.class);
+        Mockito.when(accountInternalApi.getImmutableAccountDataById(Mockito.<UUID>any(), Mockito.<InternalTenantContext>any())).thenReturn(syntheticAccount.getAccount());
+        // Account BCD already set: the events are computed once per call
+        Mockito.when(accountInternalApi.getBCD(Mockito.<InternalTenantContext>any())).thenReturn(1);
+
+        final SubscriptionBaseInternalApi subscriptionInternalApi = stub(SubscriptionBaseInternalApi.class);
+        Mockito.when(subscriptionInternalApi.getSubscriptionsForAccount(Mockito.<VersionedCatalog>any(), Mockito.<LocalDate>any(), Mockito.<InternalTenantContext>any()))
+               .thenReturn(syntheticAccount.getSubscriptionsPerBundle());
+        Mockito.when(subscriptionInternalApi.getSubscriptionBillingEvents(Mockito.<VersionedCatalog>any(), Mockito.<SubscriptionBase>any(), Mockito.<InternalTenantContext>any()))
+               .thenAnswer(invocation -> syntheticAccount.getBillingTransitions(invocation.<SubscriptionBase>getArgument(1).getId()));
+
+        final BlockingInternalApi blockingInternalApi = stub(BlockingInternalApi.class);
+        Mockito.when(blockingInternalApi.getBlockingActiveForAccount(Mockito.<VersionedCatalog>any(), Mockito.<LocalDate>any(), Mockito.<InternalTenantContext>any()))
+               .thenReturn(Collections.emptyList());
+
+        final TagInternalApi tagInternalApi = stub(TagInternalApi.class);
+        Mockito.when(tagInternalApi.getTagsForAccount(Mockito.anyBoolean(), Mockito.<InternalTenantContext>any())).thenReturn(Collections.emptyList());
+
+        // Cache disabled by default: the benchmark measures the full computation
+        final JunctionConfig junctionConfig = new AugmentedConfigurationObjectFactory(System.getProperties()).build(JunctionConfig.class);
+        final BillingTransitionsCache billingTransitionsCache = new BillingTransitionsCache(junctionConfig, new NoOpMetricRegistry());
+
+        billingApi = new DefaultInternalBillingApi(accountInternalApi, subscriptionInternalApi, new BlockingCalculator(blockingInternalApi), catalogInternalApi, tagInternalApi,
+                                                   billingTransitionsCache);
+    }
+
+    @Benchmark
+    public BillingEventSet getBillingEventsForAccount() throws Exception {
+        final InternalCallContext context = syntheticAccount.getInternalCallContext();
+        return billingApi.getBillingEventsForAccountAndUpdateAccountBCD(syntheticAccount.getAccountId(), null, null, context);
+    }
+
+    // Stubs don't record their invocations, which would otherwise grow unbounded during the measurement
+    private static <T> T stub(final Class<T> klass) {
+        return Mockito.mock(klass, Mockito.withSettings().stubOnly());
+    }
+}
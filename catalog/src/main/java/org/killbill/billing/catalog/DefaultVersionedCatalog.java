@@ -24,8 +24,6 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -89,12 +87,10 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
     }
 
     private int indexOfVersionForDate(final Date date) {
-
-        for (int i = versions.size() - 1; i >= 0; i--) {
-            final StaticCatalog c = versions.get(i);
-            if (c.getEffectiveDate().getTime() <= date.getTime()) {
-                return i;
-            }
+        // Versions are kept sorted by effective date: the answer is the last one effective at or before the input date
+        final int i = upperBound(date.getTime()) - 1;
+        if (i >= 0) {
+            return i;
         }
         // If the only version we have are after the input date, we return the first version
         // This is not strictly correct from an api point of view, but there is no real good use case
@@ -110,13 +106,23 @@ public class DefaultVersionedCatalog extends ValidatingConfig<DefaultVersionedCa
         if (catalogName == null && e.getCatalogName() != null) {
             catalogName = e.getCatalogName();
         }
-        versions.add(e);
-        Collections.sort(versions, new Comparator<StaticCatalog>() {
-            @Override
-            public int compare(final StaticCatalog c1, final StaticCatalog c2) {
-                return c1.getEffectiveDate().compareTo(c2.getEffectiveDate());
+        // Insert after any version sharing the same effective date, to preserve the ordering a stable sort would give
+        versions.add(upperBound(e.getEffectiveDate().getTime()), e);
+    }
+
+    // Index of the first version whose effective date is strictly after the input time (versions.size() if none)
+    private int upperBound(final long time) {
+        int low = 0;
+        int high = versions.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (versions.get(mid).getEffectiveDate().getTime() <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-        });
+        }
+        return low;
     }
 
     @Override
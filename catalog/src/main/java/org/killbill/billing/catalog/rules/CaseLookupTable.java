@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.catalog.rules;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.killbill.billing.catalog.api.CatalogApiException;
+import org.killbill.billing.catalog.api.PlanPhaseSpecifier;
+import org.killbill.billing.catalog.api.PlanSpecifier;
+
+/**
+ * Decision table for one family of plan rule cases, keyed by the (plan or product, billing period, price list, phase)
+ * coordinates of the lookup. The first lookup for a given key scans the cases in declaration order, exactly as
+ * before; the outcome (including the absence of a match) is then recorded so that subsequent lookups for the same
+ * key are a single hash probe. Lookups which fail (e.g. unknown plan or product) are not recorded.
+ */
+final class CaseLookupTable<T> {
+
+    // Upper bound on the number of recorded keys, so that a flood of distinct (possibly bogus) specifiers cannot grow the table forever
+    static final int MAX_ENTRIES = 16384;
+
+    private static final Object NO_MATCH = new Object();
+
+    private final Map<List<Object>, Object> table = new ConcurrentHashMap<List<Object>, Object>();
+
+    interface CaseScan<T> {
+
+        T scan() throws CatalogApiException;
+    }
+
+    T lookup(final List<Object> key, final CaseScan<T> caseScan) throws CatalogApiException {
+        final Object cached = table.get(key);
+        if (cached != null) {
+            return cached == NO_MATCH ? null : (T) cached;
+        }
+
+        final T result = caseScan.scan();
+        if (table.size() < MAX_ENTRIES) {
+            table.putIfAbsent(key, result == null ? NO_MATCH : result);
+        }
+        return result;
+    }
+
+    int size() {
+        return table.size();
+    }
+
+    static List<Object> keyOf(final PlanSpecifier spec) {
+        return Arrays.<Object>asList(spec.getPlanName(), spec.getProductName(), spec.getBillingPeriod(), spec.getPriceListName());
+    }
+
+    static List<Object> keyOf(final PlanPhaseSpecifier spec) {
+        return Arrays.<Object>asList(spec.getPlanName(), spec.getProductName(), spec.getBillingPeriod(), spec.getPriceListName(), spec.getPhaseType());
+    }
+
+    static List<Object> keyOf(final PlanPhaseSpecifier from, final PlanSpecifier to) {
+        return Arrays.<Object>asList(from.getPlanName(), from.getProductName(), from.getBillingPeriod(), from.getPriceListName(), from.getPhaseType(),
+                                     to.getPlanName(), to.getProductName(), to.getBillingPeriod(), to.getPriceListName());
+    }
+}
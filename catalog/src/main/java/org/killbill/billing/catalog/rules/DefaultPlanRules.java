@@ -82,6 +82,14 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
     @XmlElement(name = "priceListCase", required = false)
     private DefaultCasePriceList[] priceListCase;
 
+    // Decision tables built from the case arrays above, reset whenever those arrays are (re)assigned
+    private transient CaseLookupTable<BillingActionPolicy> changeCaseTable = new CaseLookupTable<BillingActionPolicy>();
+    private transient CaseLookupTable<PlanAlignmentChange> changeAlignmentCaseTable = new CaseLookupTable<PlanAlignmentChange>();
+    private transient CaseLookupTable<BillingActionPolicy> cancelCaseTable = new CaseLookupTable<BillingActionPolicy>();
+    private transient CaseLookupTable<PlanAlignmentCreate> createAlignmentCaseTable = new CaseLookupTable<PlanAlignmentCreate>();
+    private transient CaseLookupTable<BillingAlignment> billingAlignmentCaseTable = new CaseLookupTable<BillingAlignment>();
+    private transient CaseLookupTable<DefaultPriceList> priceListCaseTable = new CaseLookupTable<DefaultPriceList>();
+
     // Required for deserialization
     public DefaultPlanRules() {
     }
@@ -124,19 +132,22 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
 
     @Override
     public PlanAlignmentCreate getPlanCreateAlignment(final PlanSpecifier specifier) throws CatalogApiException {
-        final PlanAlignmentCreate result = DefaultCase.getResult(createAlignmentCase, specifier, root);
+        final PlanAlignmentCreate result = createAlignmentCaseTable.lookup(CaseLookupTable.keyOf(specifier),
+                                                                          () -> DefaultCase.getResult(createAlignmentCase, specifier, root));
         return (result != null) ? result : PlanAlignmentCreate.START_OF_BUNDLE;
     }
 
     @Override
     public BillingActionPolicy getPlanCancelPolicy(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
-        final BillingActionPolicy result = DefaultCasePhase.getResult(cancelCase, planPhase, root);
+        final BillingActionPolicy result = cancelCaseTable.lookup(CaseLookupTable.keyOf(planPhase),
+                                                                  () -> DefaultCasePhase.getResult(cancelCase, planPhase, root));
         return (result != null) ? result : BillingActionPolicy.END_OF_TERM;
     }
 
     @Override
     public BillingAlignment getBillingAlignment(final PlanPhaseSpecifier planPhase) throws CatalogApiException {
-        final BillingAlignment result = DefaultCasePhase.getResult(billingAlignmentCase, planPhase, root);
+        final BillingAlignment result = billingAlignmentCaseTable.lookup(CaseLookupTable.keyOf(planPhase),
+                                                                         () -> DefaultCasePhase.getResult(billingAlignmentCase, planPhase, root));
         return (result != null) ? result : BillingAlignment.ACCOUNT;
     }
 
@@ -165,18 +176,21 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
 
     private PlanAlignmentChange getPlanChangeAlignment(final PlanPhaseSpecifier from,
                                                        final PlanSpecifier to) throws CatalogApiException {
-        final PlanAlignmentChange result = DefaultCaseChange.getResult(changeAlignmentCase, from, to, root);
+        final PlanAlignmentChange result = changeAlignmentCaseTable.lookup(CaseLookupTable.keyOf(from, to),
+                                                                           () -> DefaultCaseChange.getResult(changeAlignmentCase, from, to, root));
         return (result != null) ? result : PlanAlignmentChange.START_OF_BUNDLE;
     }
 
     private BillingActionPolicy getPlanChangePolicy(final PlanPhaseSpecifier from,
                                                     final PlanSpecifier to) throws CatalogApiException {
-        final BillingActionPolicy result = DefaultCaseChange.getResult(changeCase, from, to, root);
+        final BillingActionPolicy result = changeCaseTable.lookup(CaseLookupTable.keyOf(from, to),
+                                                                  () -> DefaultCaseChange.getResult(changeCase, from, to, root));
         return (result != null) ? result : BillingActionPolicy.END_OF_TERM;
     }
 
     private DefaultPriceList findPriceList(final PlanSpecifier specifier) throws CatalogApiException {
-        DefaultPriceList result = DefaultCasePriceList.getResult(priceListCase, specifier, root);
+        DefaultPriceList result = priceListCaseTable.lookup(CaseLookupTable.keyOf(specifier),
+                                                            () -> DefaultCasePriceList.getResult(priceListCase, specifier, root));
         if (result == null) {
             final String priceListName = specifier.getPlanName() != null ? root.findPlan(specifier.getPlanName()).getPriceList().getName() : specifier.getPriceListName();
             result = (DefaultPriceList) root.findPriceList(priceListName);
@@ -300,6 +314,16 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
         for (final DefaultCasePriceList cur : priceListCase) {
             cur.initialize(catalog);
         }
+        resetLookupTables();
+    }
+
+    private void resetLookupTables() {
+        changeCaseTable = new CaseLookupTable<BillingActionPolicy>();
+        changeAlignmentCaseTable = new CaseLookupTable<PlanAlignmentChange>();
+        cancelCaseTable = new CaseLookupTable<BillingActionPolicy>();
+        createAlignmentCaseTable = new CaseLookupTable<PlanAlignmentCreate>();
+        billingAlignmentCaseTable = new CaseLookupTable<BillingAlignment>();
+        priceListCaseTable = new CaseLookupTable<DefaultPriceList>();
     }
 
     /////////////////////////////////////////////////////////////////////////////////////
@@ -308,33 +332,39 @@ public class DefaultPlanRules extends ValidatingConfig<StandaloneCatalog> implem
 
     public DefaultPlanRules setChangeCase(final DefaultCaseChangePlanPolicy[] changeCase) {
         this.changeCase = changeCase;
+        resetLookupTables();
         return this;
     }
 
     public DefaultPlanRules setChangeAlignmentCase(
             final DefaultCaseChangePlanAlignment[] changeAlignmentCase) {
         this.changeAlignmentCase = changeAlignmentCase;
+        resetLookupTables();
         return this;
     }
 
     public DefaultPlanRules setCancelCase(final DefaultCaseCancelPolicy[] cancelCase) {
         this.cancelCase = cancelCase;
+        resetLookupTables();
         return this;
     }
 
     public DefaultPlanRules setCreateAlignmentCase(final DefaultCaseCreateAlignment[] createAlignmentCase) {
         this.createAlignmentCase = createAlignmentCase;
+        resetLookupTables();
         return this;
     }
 
     public DefaultPlanRules setBillingAlignmentCase(
             final DefaultCaseBillingAlignment[] billingAlignmentCase) {
         this.billingAlignmentCase = billingAlignmentCase;
+        resetLookupTables();
         return this;
     }
 
     public DefaultPlanRules setPriceListCase(final DefaultCasePriceList[] priceListCase) {
         this.priceListCase = priceListCase;
+        resetLookupTables();
         return this;
     }
 
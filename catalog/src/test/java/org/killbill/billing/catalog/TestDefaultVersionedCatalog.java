@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.catalog;
+
+import java.util.Date;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.catalog.api.StaticCatalog;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestDefaultVersionedCatalog extends CatalogTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testVersionForDate() {
+        final DefaultVersionedCatalog versionedCatalog = new DefaultVersionedCatalog();
+        final StandaloneCatalog v3 = newVersion(2013, 3);
+        final StandaloneCatalog v1 = newVersion(2013, 1);
+        final StandaloneCatalog v2 = newVersion(2013, 2);
+        // Out of order on purpose
+        versionedCatalog.add(v3);
+        versionedCatalog.add(v1);
+        versionedCatalog.add(v2);
+
+        Assert.assertEquals(versionedCatalog.getVersions().size(), 3);
+        Assert.assertSame(versionedCatalog.getVersions().get(0), v1);
+        Assert.assertSame(versionedCatalog.getVersions().get(1), v2);
+        Assert.assertSame(versionedCatalog.getVersions().get(2), v3);
+        Assert.assertSame(versionedCatalog.getCurrentVersion(), v3);
+
+        // Prior to the first version, we default to the first version
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2012, 12, 31)), v1);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2013, 1, 1)), v1);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2013, 1, 31)), v1);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2013, 2, 1)), v2);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2013, 2, 15)), v2);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2013, 3, 1)), v3);
+        Assert.assertSame(versionedCatalog.getVersion(dateOf(2020, 1, 1)), v3);
+    }
+
+    @Test(groups = "fast")
+    public void testVersionForDateWithManyVersions() {
+        final DefaultVersionedCatalog versionedCatalog = new DefaultVersionedCatalog();
+        // Add versions in descending order, so that each insertion lands in front of the existing ones
+        for (int month = 250; month >= 1; month--) {
+            versionedCatalog.add(newVersion(2000 + (month - 1) / 12, (month - 1) % 12 + 1));
+        }
+
+        Assert.assertEquals(versionedCatalog.getVersions().size(), 250);
+        for (int i = 0; i < 250; i++) {
+            final StaticCatalog version = versionedCatalog.getVersions().get(i);
+            if (i > 0) {
+                Assert.assertTrue(versionedCatalog.getVersions().get(i - 1).getEffectiveDate().before(version.getEffectiveDate()));
+            }
+            Assert.assertSame(versionedCatalog.getVersion(version.getEffectiveDate()), version);
+            Assert.assertSame(versionedCatalog.getVersion(new Date(version.getEffectiveDate().getTime() + 1000L)), version);
+        }
+    }
+
+    @Test(groups = "fast", expectedExceptions = IllegalStateException.class)
+    public void testVersionForDateWithoutVersions() {
+        new DefaultVersionedCatalog().getVersion(dateOf(2013, 1, 1));
+    }
+
+    private static StandaloneCatalog newVersion(final int year, final int month) {
+        return new StandaloneCatalog().setCatalogName("versioned").setEffectiveDate(dateOf(year, month, 1));
+    }
+
+    private static Date dateOf(final int year, final int month, final int day) {
+        return new DateTime(year, month, day, 0, 0, DateTimeZone.UTC).toDate();
+    }
+}
@@ -100,4 +100,32 @@ public class TestPlanRules extends CatalogTestSuiteNoDB {
         Assert.assertEquals(result.getAlignment(), PlanAlignmentChange.START_OF_SUBSCRIPTION);
         Assert.assertEquals(result.getNewPriceList(), priceList2);
     }
+
+    @Test(groups = "fast")
+    public void testLookupTablesAreResetWhenCasesChange() throws CatalogApiException {
+        final DefaultPlanRules planRules = (DefaultPlanRules) cat.getPlanRules();
+        final DefaultProduct product1 = cat.getCurrentProduct(0);
+        final DefaultProduct product2 = cat.getCurrentProduct(1);
+        final DefaultPriceList priceList1 = (DefaultPriceList) cat.findPriceList(PriceListSet.DEFAULT_PRICELIST_NAME);
+
+        final PlanPhaseSpecifier from = new PlanPhaseSpecifier(product1.getName(), BillingPeriod.MONTHLY, priceList1.getName(), PhaseType.EVERGREEN);
+        final PlanSpecifier to = new PlanSpecifier(product2.getName(), BillingPeriod.MONTHLY, priceList1.getName());
+
+        // Repeated lookups are served from the decision table and must stay consistent
+        for (int i = 0; i < 3; i++) {
+            final PlanChangeResult result = planRules.getPlanChangeResult(from, to);
+            Assert.assertEquals(result.getPolicy(), BillingActionPolicy.END_OF_TERM);
+            Assert.assertEquals(result.getAlignment(), PlanAlignmentChange.START_OF_SUBSCRIPTION);
+        }
+
+        // A more specific case declared first now takes precedence
+        final DefaultCaseChangePlanPolicy specificPolicy = new DefaultCaseChangePlanPolicy().setPolicy(BillingActionPolicy.IMMEDIATE);
+        specificPolicy.setToProduct(product2);
+        final DefaultCaseChangePlanPolicy defaultPolicy = new DefaultCaseChangePlanPolicy().setPolicy(BillingActionPolicy.END_OF_TERM);
+        planRules.setChangeCase(new DefaultCaseChangePlanPolicy[]{specificPolicy, defaultPolicy});
+
+        Assert.assertEquals(planRules.getPlanChangeResult(from, to).getPolicy(), BillingActionPolicy.IMMEDIATE);
+        final PlanSpecifier toSameProduct = new PlanSpecifier(product1.getName(), BillingPeriod.ANNUAL, priceList1.getName());
+        Assert.assertEquals(planRules.getPlanChangeResult(from, toSameProduct).getPolicy(), BillingActionPolicy.END_OF_TERM);
+    }
 }
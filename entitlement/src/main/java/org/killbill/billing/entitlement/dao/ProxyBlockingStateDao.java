@@ -213,6 +213,11 @@ public class ProxyBlockingStateDao implements BlockingStateDao {
         return delegate.get(offset, limit, context);
     }
 
+    @Override
+    public Pagination<BlockingStateModelDao> getFromRecordId(final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        return delegate.getFromRecordId(fromRecordId, limit, context);
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         return delegate.getCount(context);
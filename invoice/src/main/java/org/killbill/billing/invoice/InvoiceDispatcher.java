@@ -158,6 +158,7 @@ public class InvoiceDispatcher {
     private final InvoiceConfig invoiceConfig;
     private final ParkedAccountsManager parkedAccountsManager;
     private final InvoiceOptimizer invoiceOptimizer;
+    private final InvoiceDispatcherMetrics invoiceDispatcherMetrics;
 
     @Inject
     public InvoiceDispatcher(final InvoiceGenerator generator,
@@ -173,7 +174,8 @@ public class InvoiceDispatcher {
                              final InvoiceConfig invoiceConfig,
                              final Clock clock,
                              final InvoiceOptimizer invoiceOptimizer,
-                             final ParkedAccountsManager parkedAccountsManager) {
+                             final ParkedAccountsManager parkedAccountsManager,
+                             final InvoiceDispatcherMetrics invoiceDispatcherMetrics) {
         this.generator = generator;
         this.billingApi = billingApi;
         this.subscriptionApi = SubscriptionApi;
@@ -188,6 +190,7 @@ public class InvoiceDispatcher {
         this.notificationQueueService = notificationQueueService;
         this.invoiceConfig = invoiceConfig;
         this.parkedAccountsManager = parkedAccountsManager;
+        this.invoiceDispatcherMetrics = invoiceDispatcherMetrics;
     }
 
     public void processAccountBCDChange(final UUID accountId, final InternalCallContext internalCallContext) {
@@ -326,7 +329,14 @@ public class InvoiceDispatcher {
         try {
             // Grab lock unless we do a dry-run
             final boolean isDryRun = dryRunArguments != null;
-            lock = !isDryRun ? locker.lockWithNumberOfTries(LockerType.ACCNT_INV_PAY.toString(), accountId.toString(), invoiceConfig.getMaxGlobalLockRetries()) : null;
+            if (!isDryRun) {
+                final long startNano = System.nanoTime();
+                try {
+                    lock = locker.lockWithNumberOfTries(LockerType.ACCNT_INV_PAY.toString(), accountId.toString(), invoiceConfig.getMaxGlobalLockRetries());
+                } finally {
+                    invoiceDispatcherMetrics.recordLockWait(System.nanoTime() - startNano, context);
+                }
+            }
             return processAccountInternal(isApiCall, parkedAccount, accountId, targetDate, dryRunArguments, isRescheduled, allowSplitting, properties, context);
         } catch (final LockFailedException e) {
             if (isApiCall) {
@@ -358,7 +368,7 @@ public class InvoiceDispatcher {
     }
 
 
-    private enum InvoiceTiming {
+    enum InvoiceTiming {
         BILLING_EVENTS,
         FETCH_INVOICES,
         INVOICE_GENERATION,
@@ -458,6 +468,9 @@ public class InvoiceDispatcher {
             }
 
             printInvoiceTiming(invoiceTimings);
+            if (!isDryRun) {
+                invoiceDispatcherMetrics.recordRun(invoiceTimings, context);
+            }
             return result;
         } catch (final CatalogApiException e) {
             log.warn("Failed to retrieve BillingEvents for accountId='{}', dryRunArguments='{}'", accountId, dryRunArguments, e);
@@ -715,6 +728,7 @@ public class InvoiceDispatcher {
             invoiceTimings.put(InvoiceTiming.PLUGINS_COMPLETION_CALL, System.nanoTime() - startNano);
 
             log.info("Generated null invoice for accountId='{}', targetDate='{}'", accountId, originalTargetDate);
+            invoiceDispatcherMetrics.recordItemsGenerated(0, internalCallContext);
 
             final BusInternalEvent event = new DefaultNullInvoiceEvent(accountId, clock.getUTCToday(),
                                                                        internalCallContext.getAccountRecordId(), internalCallContext.getTenantRecordId(), internalCallContext.getUserToken());
@@ -807,6 +821,7 @@ public class InvoiceDispatcher {
             startNano = System.nanoTime();
             commitInvoiceAndSetFutureNotifications(account, invoicesModelDao, billingEvents, trackingIds, futureAccountNotifications, existingInvoiceMetadata, internalCallContext);
             invoiceTimings.put(InvoiceTiming.COMMIT_INVOICE, System.nanoTime() - startNano);
+            invoiceDispatcherMetrics.recordItemsGenerated(invoicesModelDao.stream().mapToInt(i -> i.getInvoiceItems().size()).sum(), internalCallContext);
 
             startNano = System.nanoTime();
             setChargedThroughDatesNoExceptions(invoiceWithMetadata.getChargeThroughDates(), internalCallContext);
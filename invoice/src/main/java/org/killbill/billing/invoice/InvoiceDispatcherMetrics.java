@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.invoice.InvoiceDispatcher.InvoiceTiming;
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
+
+/**
+ * Invoice run metrics, on top of the timings logged by the {@link InvoiceDispatcher}: one histogram per phase, the
+ * account lock wait time and the number of items generated per run, all tagged by tenant
+ * (killbill.invoice.dispatcher.[tenantRecordId].[metric]), and the number of runs completed over the last minute.
+ * The latency of each invoice plugin call is recorded as well (killbill.invoice.dispatcher.[tenantRecordId].plugins.[pluginName].[call]Ms).
+ * <p/>
+ * Dry-runs are not recorded, only the runs which may commit invoices.
+ */
+@Singleton
+public class InvoiceDispatcherMetrics {
+
+    private static final String METRIC_PREFIX = "killbill.invoice.dispatcher";
+    private static final int THROUGHPUT_WINDOW_SEC = 60;
+
+    private final MetricRegistry metricRegistry;
+    private final Map<Long, TenantMetrics> tenantMetrics = new ConcurrentHashMap<>();
+    // Number of completed runs for each second of the window, and the second each bucket was last used for
+    private final AtomicLongArray runsPerSecond = new AtomicLongArray(THROUGHPUT_WINDOW_SEC);
+    private final AtomicLongArray bucketSeconds = new AtomicLongArray(THROUGHPUT_WINDOW_SEC);
+
+    @Inject
+    public InvoiceDispatcherMetrics(final MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        metricRegistry.gauge(METRIC_PREFIX + ".runsPerMinute", this::getNbRunsOverLastMinute);
+    }
+
+    public void recordLockWait(final long lockWaitNanos, final InternalTenantContext context) {
+        getTenantMetrics(context).lockWaitMs.update(TimeUnit.NANOSECONDS.toMillis(lockWaitNanos));
+    }
+
+    public void recordRun(final Map<InvoiceTiming, Long> invoiceTimings, final InternalTenantContext context) {
+        final TenantMetrics metrics = getTenantMetrics(context);
+        for (final Map.Entry<InvoiceTiming, Long> timing : invoiceTimings.entrySet()) {
+            metrics.timingsMs.get(timing.getKey()).update(TimeUnit.NANOSECONDS.toMillis(timing.getValue()));
+        }
+
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        final int bucket = (int) Math.floorMod(second, (long) THROUGHPUT_WINDOW_SEC);
+        final long bucketSecond = bucketSeconds.get(bucket);
+        if (bucketSecond != second && bucketSeconds.compareAndSet(bucket, bucketSecond, second)) {
+            // Stale bucket from a previous window (a concurrent increment may be lost, which is fine for a gauge)
+            runsPerSecond.set(bucket, 0);
+        }
+        runsPerSecond.incrementAndGet(bucket);
+    }
+
+    public void recordPluginCall(final String pluginName, final String call, final long durationNanos, final InternalTenantContext context) {
+        getTenantMetrics(context).getPluginCallMs(pluginName, call).update(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    }
+
+    public void recordItemsGenerated(final int nbItems, final InternalTenantContext context) {
+        getTenantMetrics(context).itemsGenerated.update(nbItems);
+    }
+
+    long getNbRunsOverLastMinute() {
+        final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long nbRuns = 0;
+        for (int bucket = 0; bucket < THROUGHPUT_WINDOW_SEC; bucket++) {
+            if (second - bucketSeconds.get(bucket) < THROUGHPUT_WINDOW_SEC) {
+                nbRuns += runsPerSecond.get(bucket);
+            }
+        }
+        return nbRuns;
+    }
+
+    private TenantMetrics getTenantMetrics(final InternalTenantContext context) {
+        return tenantMetrics.computeIfAbsent(context.getTenantRecordId(), TenantMetrics::new);
+    }
+
+    private final class TenantMetrics {
+
+        private final Map<InvoiceTiming, Histogram> timingsMs = new EnumMap<>(InvoiceTiming.class);
+        private final Histogram lockWaitMs;
+        private final Histogram itemsGenerated;
+        private final Map<String, Histogram> pluginCallsMs = new ConcurrentHashMap<>();
+        private final String prefix;
+
+        private TenantMetrics(final Long tenantRecordId) {
+            this.prefix = String.format("%s.%s", METRIC_PREFIX, tenantRecordId);
+            for (final InvoiceTiming invoiceTiming : InvoiceTiming.values()) {
+                timingsMs.put(invoiceTiming, metricRegistry.histogram(String.format("%s.%sMs", prefix, toMetricName(invoiceTiming))));
+            }
+            this.lockWaitMs = metricRegistry.histogram(prefix + ".lockWaitMs");
+            this.itemsGenerated = metricRegistry.histogram(prefix + ".itemsGenerated");
+        }
+
+        private Histogram getPluginCallMs(final String pluginName, final String call) {
+            return pluginCallsMs.computeIfAbsent(pluginName + "." + call,
+                                                 key -> metricRegistry.histogram(String.format("%s.plugins.%sMs", prefix, key)));
+        }
+    }
+
+    // FETCH_INVOICES -> fetchInvoices
+    private static String toMetricName(final InvoiceTiming invoiceTiming) {
+        final StringBuilder metricName = new StringBuilder();
+        for (final String word : invoiceTiming.name().toLowerCase(Locale.ROOT).split("_")) {
+            if (metricName.length() == 0) {
+                metricName.append(word);
+            } else {
+                metricName.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            }
+        }
+        return metricName.toString();
+    }
+}
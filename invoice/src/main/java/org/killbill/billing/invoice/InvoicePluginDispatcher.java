@@ -41,6 +41,7 @@ import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.invoice.InvoicePluginExecutor.InvoicePluginTimeoutException;
 import org.killbill.billing.invoice.api.DefaultInvoiceContext;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
@@ -83,12 +84,15 @@ public class InvoicePluginDispatcher {
 
     private final OSGIServiceRegistration<InvoicePluginApi> pluginRegistry;
     private final InvoiceConfig invoiceConfig;
+    private final InvoicePluginExecutor invoicePluginExecutor;
 
     @Inject
     public InvoicePluginDispatcher(final OSGIServiceRegistration<InvoicePluginApi> pluginRegistry,
-                                   final InvoiceConfig invoiceConfig) {
+                                   final InvoiceConfig invoiceConfig,
+                                   final InvoicePluginExecutor invoicePluginExecutor) {
         this.pluginRegistry = pluginRegistry;
         this.invoiceConfig = invoiceConfig;
+        this.invoicePluginExecutor = invoicePluginExecutor;
     }
 
     public static final class PriorCallResult {
@@ -127,9 +131,15 @@ public class InvoicePluginDispatcher {
 
         DateTime earliestRescheduleDate = null;
         final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, null, existingInvoices, isDryRun, isRescheduled, callContext);
+        // Always sequential: an abort must prevent the following plugins from being called
         for (final Entry<String, InvoicePluginApi> entry : invoicePlugins.entrySet()) {
             final String invoicePluginName = entry.getKey();
-            final PriorInvoiceResult priorInvoiceResult = entry.getValue().priorCall(invoiceContext, inputPluginProperties);
+            final Iterable<PluginProperty> priorCallPluginProperties = inputPluginProperties;
+            final PriorInvoiceResult priorInvoiceResult = invoicePluginExecutor.invoke(invoicePluginName,
+                                                                                       "priorCall",
+                                                                                       () -> entry.getValue().priorCall(invoiceContext, priorCallPluginProperties),
+                                                                                       !isDryRun,
+                                                                                       internalTenantContext);
             log.debug("Invoice plugin {} returned priorInvoiceResult='{}'", invoicePluginName, priorInvoiceResult);
             if (priorInvoiceResult == null) {
                 // Naughty plugin...
@@ -188,26 +198,42 @@ public class InvoicePluginDispatcher {
                                   final CallContext callContext,
                                   final Iterable<PluginProperty> pluginProperties,
                                   final InternalTenantContext internalTenantContext) {
-        final Collection<InvoicePluginApi> invoicePlugins = getInvoicePlugins(internalTenantContext).values();
+        final Map<String, InvoicePluginApi> invoicePlugins = getInvoicePlugins(internalTenantContext);
         if (invoicePlugins.isEmpty()) {
             return;
         }
 
-        // We clone the original invoice so plugins don't remove/add items
-        final Invoice clonedInvoice = originalInvoice == null ? null : (Invoice) originalInvoice.clone();
-        final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, clonedInvoice, existingInvoices, isDryRun, isRescheduled, callContext);
-
         Iterable<PluginProperty> inputPluginProperties = pluginProperties;
-        for (final InvoicePluginApi invoicePlugin : invoicePlugins) {
-            if (isSuccess) {
-                final OnSuccessInvoiceResult res1 = invoicePlugin.onSuccessCall(invoiceContext, inputPluginProperties);
-                if (res1 != null && res1.getAdjustedPluginProperties() != null) {
-                    inputPluginProperties = res1.getAdjustedPluginProperties();
-                }
-            } else {
-                final OnFailureInvoiceResult res2 = invoicePlugin.onFailureCall(invoiceContext, inputPluginProperties);
-                if (res2 != null && res2.getAdjustedPluginProperties() != null) {
-                    inputPluginProperties = res2.getAdjustedPluginProperties();
+        for (final List<String> stage : invoicePluginExecutor.getStages(invoicePlugins.keySet())) {
+            // Plugins of a stage all see the properties adjusted by the previous stages
+            final Iterable<PluginProperty> stagePluginProperties = inputPluginProperties;
+            final Map<String, Iterable<PluginProperty>> adjustedPluginProperties;
+            try {
+                adjustedPluginProperties = invoicePluginExecutor.invokeAll(stage,
+                                                                           isSuccess ? "onSuccessCall" : "onFailureCall",
+                                                                           invoicePluginName -> {
+                                                                               // We clone the original invoice so plugins don't remove/add items
+                                                                               final Invoice clonedInvoice = originalInvoice == null ? null : (Invoice) originalInvoice.clone();
+                                                                               final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, clonedInvoice, existingInvoices, isDryRun, isRescheduled, callContext);
+                                                                               if (isSuccess) {
+                                                                                   final OnSuccessInvoiceResult res1 = invoicePlugins.get(invoicePluginName).onSuccessCall(invoiceContext, stagePluginProperties);
+                                                                                   return res1 == null ? null : res1.getAdjustedPluginProperties();
+                                                                               } else {
+                                                                                   final OnFailureInvoiceResult res2 = invoicePlugins.get(invoicePluginName).onFailureCall(invoiceContext, stagePluginProperties);
+                                                                                   return res2 == null ? null : res2.getAdjustedPluginProperties();
+                                                                               }
+                                                                           },
+                                                                           !isDryRun,
+                                                                           internalTenantContext);
+            } catch (final InvoicePluginTimeoutException e) {
+                // The invoice run itself is over, don't fail it because of a slow notification
+                log.warn("Ignoring invoice plugins {} completion callbacks: {}", stage, e.getMessage());
+                continue;
+            }
+
+            for (final String invoicePluginName : stage) {
+                if (adjustedPluginProperties.get(invoicePluginName) != null) {
+                    inputPluginProperties = adjustedPluginProperties.get(invoicePluginName);
                 }
             }
         }
@@ -243,11 +269,17 @@ public class InvoicePluginDispatcher {
         log.debug("Invoking invoice plugins for splitInvoices operation: isDryRun='{}', originalInvoice='{}'", isDryRun, originalInvoice);
 
         Iterable<PluginProperty> inputPluginProperties = pluginProperties;
-        final Collection<InvoicePluginApi> invoicePlugins = getInvoicePlugins(tenantContext).values();
+        final Map<String, InvoicePluginApi> invoicePlugins = getInvoicePlugins(tenantContext);
         final Invoice clonedInvoice = (Invoice) originalInvoice.clone();
-        for (final InvoicePluginApi invoicePlugin : invoicePlugins) {
+        // Always sequential: the first plugin returning groups wins
+        for (final Entry<String, InvoicePluginApi> entry : invoicePlugins.entrySet()) {
             final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, clonedInvoice, existingInvoices, isDryRun, isRescheduled, callContext);
-            final InvoiceGroupingResult grpResult = invoicePlugin.getInvoiceGrouping(clonedInvoice, isDryRun, inputPluginProperties, invoiceContext);
+            final Iterable<PluginProperty> groupingPluginProperties = inputPluginProperties;
+            final InvoiceGroupingResult grpResult = invoicePluginExecutor.invoke(entry.getKey(),
+                                                                                 "getInvoiceGrouping",
+                                                                                 () -> entry.getValue().getInvoiceGrouping(clonedInvoice, isDryRun, groupingPluginProperties, invoiceContext),
+                                                                                 !isDryRun,
+                                                                                 tenantContext);
             if (grpResult != null) {
 
                 if (grpResult.getAdjustedPluginProperties() != null) {
@@ -322,7 +354,7 @@ public class InvoicePluginDispatcher {
                                                                						final InternalTenantContext tenantContext) throws InvoiceApiException {
         log.debug("Invoking invoice plugins getAdditionalInvoiceItems: isDryRun='{}', originalInvoice='{}'", isDryRun, originalInvoice);
 
-        final Collection<InvoicePluginApi> invoicePlugins = getInvoicePlugins(tenantContext).values();
+        final Map<String, InvoicePluginApi> invoicePlugins = getInvoicePlugins(tenantContext);
         if (invoicePlugins.isEmpty()) {
             return new AdditionalInvoiceItemsResult(false, pluginProperties);
         }
@@ -335,13 +367,35 @@ public class InvoicePluginDispatcher {
 
         Iterable<PluginProperty> inputPluginProperties = pluginProperties;
         boolean invoiceUpdated = false;
-        for (final InvoicePluginApi invoicePlugin : invoicePlugins) {
-            // We clone the original invoice so plugins don't remove/add items
-            final Invoice clonedInvoice = (Invoice) originalInvoice.clone();
-            final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, clonedInvoice, existingInvoices, isDryRun, isRescheduled, callContext);
-            final AdditionalItemsResult res = invoicePlugin.getAdditionalInvoiceItems(clonedInvoice, isDryRun, inputPluginProperties, invoiceContext);
+        for (final List<String> stage : invoicePluginExecutor.getStages(invoicePlugins.keySet())) {
+            // Plugins of a stage all see the invoice and properties resulting from the previous stages
+            final Iterable<PluginProperty> stagePluginProperties = inputPluginProperties;
+            final Map<String, AdditionalItemsResult> results;
+            try {
+                results = invoicePluginExecutor.invokeAll(stage,
+                                                          "getAdditionalInvoiceItems",
+                                                          invoicePluginName -> {
+                                                              // We clone the original invoice so plugins don't remove/add items
+                                                              final Invoice clonedInvoice = (Invoice) originalInvoice.clone();
+                                                              final InvoiceContext invoiceContext = new DefaultInvoiceContext(targetDate, clonedInvoice, existingInvoices, isDryRun, isRescheduled, callContext);
+                                                              return invoicePlugins.get(invoicePluginName).getAdditionalInvoiceItems(clonedInvoice, isDryRun, stagePluginProperties, invoiceContext);
+                                                          },
+                                                          !isDryRun,
+                                                          tenantContext);
+            } catch (final InvoicePluginTimeoutException e) {
+                // Don't commit an invoice without the items of that plugin (e.g. taxes)
+                log.warn("Aborting invoice generation: {}", e.getMessage());
+                throw new InvoiceApiException(ErrorCode.INVOICE_PLUGIN_API_ABORTED, e.getPluginName());
+            }
+
+            // Results are applied in the configured order, as if the plugins had been called sequentially
+            for (final String invoicePluginName : stage) {
+                final InvoicePluginApi invoicePlugin = invoicePlugins.get(invoicePluginName);
+                final AdditionalItemsResult res = results.get(invoicePluginName);
+                if (res == null) {
+                    continue;
+                }
 
-            if (res != null) {
                 if (res.getAdditionalItems() != null &&
                     !res.getAdditionalItems().isEmpty()) {
                     final Collection<InvoiceItem> additionalInvoiceItems = new LinkedList<InvoiceItem>();
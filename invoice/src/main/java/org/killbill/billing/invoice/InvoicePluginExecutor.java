@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * Calls the invoice plugins on behalf of the {@link InvoicePluginDispatcher}, recording the latency of each call.
+ * <p/>
+ * By default, plugins are called one after the other in the configured order. When {@code org.killbill.invoice.plugin.parallelism}
+ * is set, plugins are grouped into stages using {@code org.killbill.invoice.plugin.dependencies}: the plugins of a stage
+ * don't depend on each other and are called concurrently (each stage bounded by {@code org.killbill.invoice.plugin.timeout}),
+ * and a plugin always comes after the plugins it depends on. Sequential calls aren't bounded, as they run on the caller thread.
+ */
+@Singleton
+public class InvoicePluginExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePluginExecutor.class);
+
+    private static final String DEPENDENCY_SEPARATOR = ":";
+
+    private static final long TIMEOUT_EXECUTOR_SEC = 3L;
+
+    private final InvoiceDispatcherMetrics invoiceDispatcherMetrics;
+    private final ExecutorService pool;
+    private final long timeoutNanos;
+    // Plugin name -> names of the plugins it depends on
+    private final Map<String, Set<String>> dependencies;
+
+    @Inject
+    public InvoicePluginExecutor(final InvoiceConfig invoiceConfig, final InvoiceDispatcherMetrics invoiceDispatcherMetrics) {
+        this.invoiceDispatcherMetrics = invoiceDispatcherMetrics;
+        this.pool = invoiceConfig.getInvoicePluginParallelism() > 1 ? createPool(invoiceConfig.getInvoicePluginParallelism()) : null;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(invoiceConfig.getInvoicePluginTimeout().getMillis());
+        this.dependencies = parseDependencies(invoiceConfig.getInvoicePluginDependencies());
+    }
+
+    public void stop() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * @param pluginNames plugin names, in the configured order
+     * @return the stages to call the plugins in, each stage being in the configured order
+     */
+    public List<List<String>> getStages(final Collection<String> pluginNames) {
+        final List<List<String>> sequentialStages = new ArrayList<>(pluginNames.size());
+        for (final String pluginName : pluginNames) {
+            sequentialStages.add(List.of(pluginName));
+        }
+        if (!isParallel() || pluginNames.size() < 2) {
+            return sequentialStages;
+        }
+
+        final Map<String, Integer> levels = new HashMap<>();
+        for (final String pluginName : pluginNames) {
+            if (computeLevel(pluginName, pluginNames, levels, new HashSet<>()) == null) {
+                log.warn("Cycle detected in the invoice plugin dependencies {}, calling plugins sequentially", dependencies);
+                return sequentialStages;
+            }
+        }
+
+        final Map<Integer, List<String>> stages = new TreeMap<>();
+        for (final String pluginName : pluginNames) {
+            stages.computeIfAbsent(levels.get(pluginName), level -> new ArrayList<>()).add(pluginName);
+        }
+        return new ArrayList<>(stages.values());
+    }
+
+    public <R> R invoke(final String pluginName,
+                        final String call,
+                        final Supplier<R> pluginCall,
+                        final boolean recordMetrics,
+                        final InternalTenantContext context) {
+        final long startNano = System.nanoTime();
+        try {
+            return pluginCall.get();
+        } finally {
+            if (recordMetrics) {
+                invoiceDispatcherMetrics.recordPluginCall(pluginName, call, System.nanoTime() - startNano, context);
+            }
+        }
+    }
+
+    /**
+     * Calls all plugins of a stage, concurrently if enabled.
+     * <p/>
+     * Plugin exceptions are rethrown as-is. If a plugin doesn't return in time, the calls still running are interrupted.
+     *
+     * @return the results (possibly null) by plugin name
+     */
+    public <R> Map<String, R> invokeAll(final List<String> pluginNames,
+                                        final String call,
+                                        final Function<String, R> pluginCall,
+                                        final boolean recordMetrics,
+                                        final InternalTenantContext context) throws InvoicePluginTimeoutException {
+        final Map<String, R> results = new HashMap<>();
+        if (!isParallel() || pluginNames.size() < 2) {
+            for (final String pluginName : pluginNames) {
+                results.put(pluginName, invoke(pluginName, call, () -> pluginCall.apply(pluginName), recordMetrics, context));
+            }
+            return results;
+        }
+
+        final long deadlineNanos = System.nanoTime() + timeoutNanos;
+        // Plugin calls log on behalf of the caller
+        final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        final Map<String, Future<R>> futures = new LinkedHashMap<>();
+        for (final String pluginName : pluginNames) {
+            futures.put(pluginName, pool.submit(() -> {
+                if (mdcContext != null) {
+                    MDC.setContextMap(mdcContext);
+                }
+                try {
+                    return invoke(pluginName, call, () -> pluginCall.apply(pluginName), recordMetrics, context);
+                } finally {
+                    MDC.clear();
+                }
+            }));
+        }
+
+        try {
+            for (final Map.Entry<String, Future<R>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (final TimeoutException e) {
+                    throw new InvoicePluginTimeoutException(entry.getKey(), call);
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        } finally {
+            // No-op for the calls which have completed
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    // Stage index of the plugin (dependencies which aren't active are ignored), or null in case of cycle
+    @Nullable
+    private Integer computeLevel(final String pluginName, final Collection<String> pluginNames, final Map<String, Integer> levels, final Set<String> visiting) {
+        final Integer knownLevel = levels.get(pluginName);
+        if (knownLevel != null) {
+            return knownLevel;
+        }
+        if (!visiting.add(pluginName)) {
+            return null;
+        }
+
+        int level = 0;
+        for (final String dependency : dependencies.getOrDefault(pluginName, Set.of())) {
+            if (!pluginNames.contains(dependency)) {
+                continue;
+            }
+            final Integer dependencyLevel = computeLevel(dependency, pluginNames, levels, visiting);
+            if (dependencyLevel == null) {
+                return null;
+            }
+            level = Math.max(level, dependencyLevel + 1);
+        }
+
+        visiting.remove(pluginName);
+        levels.put(pluginName, level);
+        return level;
+    }
+
+    private static Map<String, Set<String>> parseDependencies(@Nullable final List<String> entries) {
+        final Map<String, Set<String>> dependencies = new HashMap<>();
+        if (entries == null) {
+            return dependencies;
+        }
+
+        for (final String entry : entries) {
+            final String[] parts = entry.split(DEPENDENCY_SEPARATOR);
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                log.warn("Ignoring invalid invoice plugin dependency '{}', expected pluginName{}dependencyName", entry, DEPENDENCY_SEPARATOR);
+                continue;
+            }
+            dependencies.computeIfAbsent(parts[0].trim(), pluginName -> new HashSet<>()).add(parts[1].trim());
+        }
+        return dependencies;
+    }
+
+    private static ExecutorService createPool(final int parallelism) {
+        final AtomicInteger threadNb = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism,
+                                      parallelism,
+                                      0L,
+                                      TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<>(),
+                                      runnable -> {
+                                          final Thread thread = new Thread(runnable, "InvoicePlugin-" + threadNb.incrementAndGet());
+                                          thread.setDaemon(true);
+                                          return thread;
+                                      });
+    }
+
+    public static class InvoicePluginTimeoutException extends Exception {
+
+        private final String pluginName;
+
+        public InvoicePluginTimeoutException(final String pluginName, final String call) {
+            super(String.format("Invoice plugin %s didn't complete its %s call in time", pluginName, call));
+            this.pluginName = pluginName;
+        }
+
+        public String getPluginName() {
+            return pluginName;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.api;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+public class DefaultAccountBalanceVerification implements AccountBalanceVerification {
+
+    private final UUID accountId;
+    private final BigDecimal storedBalance;
+    private final BigDecimal storedCBA;
+    private final BigDecimal balance;
+    private final BigDecimal cba;
+
+    public DefaultAccountBalanceVerification(final UUID accountId,
+                                             @Nullable final BigDecimal storedBalance,
+                                             @Nullable final BigDecimal storedCBA,
+                                             final BigDecimal balance,
+                                             final BigDecimal cba) {
+        this.accountId = accountId;
+        this.storedBalance = storedBalance;
+        this.storedCBA = storedCBA;
+        this.balance = balance;
+        this.cba = cba;
+    }
+
+    @Override
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public BigDecimal getStoredBalance() {
+        return storedBalance;
+    }
+
+    @Override
+    public BigDecimal getStoredCBA() {
+        return storedCBA;
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    @Override
+    public BigDecimal getCBA() {
+        return cba;
+    }
+
+    @Override
+    public boolean isConsistent() {
+        return storedBalance == null ||
+               (storedBalance.compareTo(balance) == 0 && storedCBA != null && storedCBA.compareTo(cba) == 0);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultAccountBalanceVerification{");
+        sb.append("accountId=").append(accountId);
+        sb.append(", storedBalance=").append(storedBalance);
+        sb.append(", storedCBA=").append(storedCBA);
+        sb.append(", balance=").append(balance);
+        sb.append(", cba=").append(cba);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -20,33 +20,44 @@ package org.killbill.billing.invoice.api;
 
 import javax.inject.Inject;
 
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
 import org.killbill.billing.invoice.notification.ParentInvoiceCommitmentNotifier;
 import org.killbill.billing.util.optimizer.BusOptimizer;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.billing.invoice.InvoiceListener;
+import org.killbill.billing.invoice.InvoicePluginExecutor;
 import org.killbill.billing.invoice.InvoiceTagHandler;
 import org.killbill.billing.invoice.notification.NextBillingDateNotifier;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueAlreadyExists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class DefaultInvoiceService implements InvoiceService {
 
+    private static final Logger log = LoggerFactory.getLogger(DefaultInvoiceService.class);
+
     private final NextBillingDateNotifier dateNotifier;
     private final InvoiceListener invoiceListener;
     private final InvoiceTagHandler tagHandler;
     private final BusOptimizer eventBus;
     private final ParentInvoiceCommitmentNotifier parentInvoiceNotifier;
+    private final PerSubscriptionExecutor perSubscriptionExecutor;
+    private final InvoicePluginExecutor invoicePluginExecutor;
 
     @Inject
     public DefaultInvoiceService(final InvoiceListener invoiceListener, final InvoiceTagHandler tagHandler, final BusOptimizer eventBus,
-                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier) {
+                                 final NextBillingDateNotifier dateNotifier, final ParentInvoiceCommitmentNotifier parentInvoiceNotifier,
+                                 final PerSubscriptionExecutor perSubscriptionExecutor, final InvoicePluginExecutor invoicePluginExecutor) {
         this.invoiceListener = invoiceListener;
         this.tagHandler = tagHandler;
         this.eventBus = eventBus;
         this.dateNotifier = dateNotifier;
         this.parentInvoiceNotifier = parentInvoiceNotifier;
+        this.perSubscriptionExecutor = perSubscriptionExecutor;
+        this.invoicePluginExecutor = invoicePluginExecutor;
     }
 
     @Override
@@ -87,5 +98,12 @@ public class DefaultInvoiceService implements InvoiceService {
         }
         dateNotifier.stop();
         parentInvoiceNotifier.stop();
+        try {
+            perSubscriptionExecutor.stop();
+            invoicePluginExecutor.stop();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("InvoiceService got interrupted", e);
+        }
     }
 }
@@ -20,6 +20,7 @@ package org.killbill.billing.invoice.api.svcs;
 
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,7 @@ import org.killbill.billing.invoice.api.InvoicePayment;
 import org.killbill.billing.invoice.api.InvoicePaymentStatus;
 import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.invoice.api.WithAccountLock;
 import org.killbill.billing.invoice.dao.InvoiceDao;
 import org.killbill.billing.invoice.dao.InvoiceModelDao;
@@ -98,6 +100,11 @@ public class DefaultInvoiceInternalApi implements InvoiceInternalApi {
         return invoices;
     }
 
+    @Override
+    public UnpaidInvoicesSummary getUnpaidInvoicesSummaryByAccountId(final UUID accountId, final LocalDate upToDate, final InternalTenantContext context) {
+        return dao.getUnpaidInvoicesSummary(accountId, upToDate, context);
+    }
+
     @Override
     public void recordPaymentAttemptInit(final UUID invoiceId, final BigDecimal amount, final Currency currency, final Currency processedCurrency, final UUID paymentId, final UUID paymentAttemptId, final String transactionExternalKey, final DateTime paymentDate, final InternalCallContext context) throws InvoiceApiException {
         final InvoicePayment invoicePayment = new DefaultInvoicePayment(InvoicePaymentType.ATTEMPT, paymentId, invoiceId, paymentDate, amount, currency, processedCurrency, transactionExternalKey, InvoicePaymentStatus.INIT);
@@ -222,4 +229,22 @@ public class DefaultInvoiceInternalApi implements InvoiceInternalApi {
         final InvoicePaymentModelDao invoicePaymentModelDao = dao.getInvoicePaymentByCookieId(cookieId, internalCallContextFactory.createInternalTenantContext(context.getAccountId(), ObjectType.ACCOUNT, context));
         return invoicePaymentModelDao == null ? null : new DefaultInvoicePayment(invoicePaymentModelDao);
     }
+
+    @Override
+    public Map<UUID, BigDecimal> getAccountBalances(final Collection<UUID> accountIds, final TenantContext context) {
+        return dao.getAccountBalances(createInternalTenantContexts(accountIds, context));
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> getAccountCBAs(final Collection<UUID> accountIds, final TenantContext context) {
+        return dao.getAccountCBAs(createInternalTenantContexts(accountIds, context));
+    }
+
+    private Map<UUID, InternalTenantContext> createInternalTenantContexts(final Collection<UUID> accountIds, final TenantContext context) {
+        final Map<UUID, InternalTenantContext> contextsByAccountId = new LinkedHashMap<>();
+        for (final UUID accountId : accountIds) {
+            contextsByAccountId.put(accountId, internalCallContextFactory.createInternalTenantContext(accountId, ObjectType.ACCOUNT, context));
+        }
+        return contextsByAccountId;
+    }
 }
@@ -43,11 +43,14 @@ import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.callcontext.KeysetPaginationTenantContext;
 import org.killbill.billing.catalog.api.CatalogApiException;
 import org.killbill.billing.catalog.api.CatalogInternalApi;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.catalog.api.VersionedCatalog;
 import org.killbill.billing.invoice.InvoiceDispatcher;
+import org.killbill.billing.invoice.api.AccountBalanceUserApi;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
 import org.killbill.billing.invoice.api.DryRunArguments;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
@@ -92,7 +95,7 @@ import org.slf4j.LoggerFactory;
 
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationNoException;
 
-public class DefaultInvoiceUserApi implements InvoiceUserApi {
+public class DefaultInvoiceUserApi implements InvoiceUserApi, AccountBalanceUserApi {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultInvoiceUserApi.class);
 
@@ -205,7 +208,11 @@ public class DefaultInvoiceUserApi implements InvoiceUserApi {
                                                   @Override
                                                   public Pagination<InvoiceModelDao> build() {
                                                       // Invoices will be shallow, i.e. won't contain items nor payments
-                                                      return dao.get(offset, limit, internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context));
+                                                      final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context);
+                                                      if (KeysetPaginationTenantContext.isKeysetPagination(context)) {
+                                                          return dao.getFromRecordId(offset, limit, internalTenantContext);
+                                                      }
+                                                      return dao.get(offset, limit, internalTenantContext);
                                                   }
                                               },
                                               DefaultInvoice::new
@@ -219,7 +226,11 @@ public class DefaultInvoiceUserApi implements InvoiceUserApi {
                                                   @Override
                                                   public Pagination<InvoiceModelDao> build() {
                                                       // Invoices will be shallow, i.e. won't contain items nor payments
-                                                      return dao.searchInvoices(searchKey, offset, limit, internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context));
+                                                      final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context);
+                                                      if (KeysetPaginationTenantContext.isKeysetPagination(context)) {
+                                                          return dao.searchInvoicesFromRecordId(searchKey, offset, limit, internalTenantContext);
+                                                      }
+                                                      return dao.searchInvoices(searchKey, offset, limit, internalTenantContext);
                                                   }
                                               },
                                               SearchInvoice::new
@@ -238,6 +249,16 @@ public class DefaultInvoiceUserApi implements InvoiceUserApi {
         return result == null ? BigDecimal.ZERO : result;
     }
 
+    @Override
+    public AccountBalanceVerification verifyAccountBalance(final UUID accountId, final TenantContext context) {
+        return dao.verifyAccountBalance(accountId, internalCallContextFactory.createInternalTenantContext(accountId, context));
+    }
+
+    @Override
+    public AccountBalanceVerification rebuildAccountBalance(final UUID accountId, final CallContext context) {
+        return dao.rebuildAccountBalance(accountId, internalCallContextFactory.createInternalCallContext(accountId, context));
+    }
+
     @Override
     public Invoice getInvoice(final UUID invoiceId, final TenantContext context) throws InvoiceApiException {
         return getInvoiceInternal(invoiceId, context);
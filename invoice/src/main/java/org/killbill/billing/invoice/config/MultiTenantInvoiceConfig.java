@@ -90,6 +90,20 @@ public class MultiTenantInvoiceConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.isUsageMissingLenient();
     }
 
+    @Override
+    public boolean isAggregatedUsageForDryRunEnabled() {
+        return staticConfig.isAggregatedUsageForDryRunEnabled();
+    }
+
+    @Override
+    public boolean isAggregatedUsageForDryRunEnabled(final InternalTenantContext tenantContext) {
+        final String result = getStringTenantConfig("isAggregatedUsageForDryRunEnabled", tenantContext);
+        if (result != null) {
+            return Boolean.parseBoolean(result);
+        }
+        return isAggregatedUsageForDryRunEnabled();
+    }
+
     @Override
     public boolean isUsageMissingLenient(final InternalTenantContext tenantContext) {
         final String result = getStringTenantConfig("isUsageMissingLenient", tenantContext);
@@ -180,6 +194,36 @@ public class MultiTenantInvoiceConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.getMaxGlobalLockRetries();
     }
 
+    @Override
+    public int getInvoiceGenerationParallelism() {
+        return staticConfig.getInvoiceGenerationParallelism();
+    }
+
+    @Override
+    public int getInvoiceGenerationParallelismMinSubscriptions() {
+        return staticConfig.getInvoiceGenerationParallelismMinSubscriptions();
+    }
+
+    @Override
+    public boolean isCompactItemTreeEnabled() {
+        return staticConfig.isCompactItemTreeEnabled();
+    }
+
+    @Override
+    public int getInvoicePluginParallelism() {
+        return staticConfig.getInvoicePluginParallelism();
+    }
+
+    @Override
+    public List<String> getInvoicePluginDependencies() {
+        return staticConfig.getInvoicePluginDependencies();
+    }
+
+    @Override
+    public TimeSpan getInvoicePluginTimeout() {
+        return staticConfig.getInvoicePluginTimeout();
+    }
+
     @Override
     public List<String> getInvoicePluginNames() {
         return staticConfig.getInvoicePluginNames();
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.dao.NonEntityDao;
+import org.killbill.billing.util.dao.RecordIdIdMappings;
+import org.killbill.billing.util.entity.dao.DBRouterUntyped;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
+import org.killbill.billing.util.tag.ControlTagType;
+import org.killbill.billing.util.tag.Tag;
+import org.killbill.clock.Clock;
+import org.killbill.commons.jdbi.mapper.LowerToCamelBeanMapperFactory;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+
+import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
+
+/**
+ * Maintains the materialized account balance, CBA and unpaid invoices summary (invoice_account_balances).
+ * <p>
+ * Every write affecting the balance invalidates the row of the account in its own transaction (which also bumps its version). Reads
+ * recompute stale rows (possibly on the RO DBI) and store the result in a separate RW transaction, only if the version didn't change
+ * in the meantime, so a recomputation racing with a write can never overwrite it. The WRITTEN_OFF tags are managed outside of the
+ * invoice tables: instead, the stored balance records the set of written off invoices it was computed with and is discarded when
+ * that set changes.
+ */
+public class AccountBalanceDao {
+
+    private static final String CREATE_SAVEPOINT_NAME = "create_invoice_account_balance";
+    // SQL states of a unique constraint violation: 23000 for MySQL, 23505 for PostgreSQL and H2
+    private static final Set<String> UNIQUE_VIOLATION_SQL_STATES = Set.of("23000", "23505");
+
+    private final Clock clock;
+    private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
+
+    @Inject
+    public AccountBalanceDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
+                             final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory) {
+        this.clock = clock;
+        this.transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
+        // Same as in DefaultCatalogOverrideDao, InvoiceAccountBalanceSqlDao isn't an EntitySqlDao
+        ((DBI) dbi).registerMapper(new LowerToCamelBeanMapperFactory(InvoiceAccountBalanceModelDao.class));
+        if (roDbi != dbi) {
+            ((DBI) roDbi).registerMapper(new LowerToCamelBeanMapperFactory(InvoiceAccountBalanceModelDao.class));
+        }
+    }
+
+    public InvoiceAccountBalanceModelDao getFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
+        return entitySqlDaoWrapperFactory.getHandle().attach(InvoiceAccountBalanceSqlDao.class).getByAccountRecordId(context);
+    }
+
+    // Keyed by account record id (accounts without any row are absent)
+    public Map<Long, InvoiceAccountBalanceModelDao> getByAccountRecordIdsFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final Collection<Long> accountRecordIds, final InternalTenantContext context) {
+        final Map<Long, InvoiceAccountBalanceModelDao> result = new HashMap<>();
+        if (accountRecordIds.isEmpty()) {
+            return result;
+        }
+        for (final InvoiceAccountBalanceModelDao accountBalance : entitySqlDaoWrapperFactory.getHandle().attach(InvoiceAccountBalanceSqlDao.class).getByAccountRecordIds(accountRecordIds, context)) {
+            result.put(accountBalance.getAccountRecordId(), accountBalance);
+        }
+        return result;
+    }
+
+    public Set<UUID> getWrittenOffInvoiceIdsFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalTenantContext context) {
+        return getWrittenOffInvoiceIdsFromTransaction(entitySqlDaoWrapperFactory, List.of(context.getAccountRecordId()), context).getOrDefault(context.getAccountRecordId(), Set.of());
+    }
+
+    // Keyed by account record id (accounts without any written off invoice are absent)
+    public Map<Long, Set<UUID>> getWrittenOffInvoiceIdsFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final Collection<Long> accountRecordIds, final InternalTenantContext context) {
+        final Map<Long, Set<UUID>> result = new HashMap<>();
+        if (accountRecordIds.isEmpty()) {
+            return result;
+        }
+        final Iterable<RecordIdIdMappings> mappings = entitySqlDaoWrapperFactory.getHandle()
+                                                                                .attach(InvoiceAccountBalanceSqlDao.class)
+                                                                                .getWrittenOffInvoiceIdsByAccountRecordIds(accountRecordIds, ControlTagType.WRITTEN_OFF.getId().toString(), context);
+        for (final RecordIdIdMappings mapping : mappings) {
+            result.computeIfAbsent(mapping.getRecordId(), accountRecordId -> new HashSet<>()).add(mapping.getId());
+        }
+        return result;
+    }
+
+    public void invalidateFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory, final InternalCallContext context) {
+        final InvoiceAccountBalanceSqlDao accountBalanceSqlDao = entitySqlDaoWrapperFactory.getHandle().attach(InvoiceAccountBalanceSqlDao.class);
+        if (accountBalanceSqlDao.invalidate(context) == 0 &&
+            // First write for that account
+            !createFromTransaction(entitySqlDaoWrapperFactory.getHandle(), accountBalanceSqlDao, context)) {
+            // Created in the meantime by a write for another account (parent and child invoices aren't serialized by the account lock):
+            // bump its version, in case it was already recomputed without this write
+            accountBalanceSqlDao.invalidate(context);
+        }
+    }
+
+    // Returns false if the row already exists
+    private static boolean createFromTransaction(final Handle handle, final InvoiceAccountBalanceSqlDao accountBalanceSqlDao, final InternalCallContext context) {
+        // A failed statement aborts the whole transaction on PostgreSQL: roll back to a savepoint instead
+        handle.checkpoint(CREATE_SAVEPOINT_NAME);
+        try {
+            accountBalanceSqlDao.create(context);
+        } catch (final UnableToExecuteStatementException e) {
+            if (!isUniqueConstraintViolation(e)) {
+                throw e;
+            }
+            handle.rollback(CREATE_SAVEPOINT_NAME);
+            handle.release(CREATE_SAVEPOINT_NAME);
+            return false;
+        }
+        handle.release(CREATE_SAVEPOINT_NAME);
+        return true;
+    }
+
+    // Unique index on the account record id
+    private static boolean isUniqueConstraintViolation(final UnableToExecuteStatementException e) {
+        Throwable cause = e.getCause();
+        while (cause != null) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION_SQL_STATES.contains(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    // Same as updateFromTransaction, in its own transaction: the recomputation itself can be done on the RO DBI
+    public boolean updateIfVersionMatches(final InvoiceAccountBalanceModelDao accountBalance,
+                                          final String writtenOffDigest,
+                                          final Long version,
+                                          final InternalTenantContext context) {
+        try {
+            // The stored balance is only a cache: storing it shouldn't send the following reads of the thread to the RW DBI
+            return (Boolean) DBRouterUntyped.withRODBIAllowed(false,
+                                                              () -> transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> updateFromTransaction(entitySqlDaoWrapperFactory, accountBalance, writtenOffDigest, version, context)));
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Returns false if the row was invalidated since the version was read
+    public boolean updateFromTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory,
+                                         final InvoiceAccountBalanceModelDao accountBalance,
+                                         final String writtenOffDigest,
+                                         final Long version,
+                                         final InternalTenantContext context) {
+        final InvoiceAccountBalanceSqlDao accountBalanceSqlDao = entitySqlDaoWrapperFactory.getHandle().attach(InvoiceAccountBalanceSqlDao.class);
+        return accountBalanceSqlDao.updateIfVersionMatches(accountBalance.getBalance(),
+                                                           accountBalance.getCba(),
+                                                           accountBalance.getUnpaidInvoiceCount(),
+                                                           accountBalance.getUnpaidInvoiceBalance(),
+                                                           accountBalance.getEarliestUnpaidInvoiceDate(),
+                                                           accountBalance.getEarliestUnpaidInvoiceId() != null ? accountBalance.getEarliestUnpaidInvoiceId().toString() : null,
+                                                           accountBalance.getLatestUnpaidTargetDate(),
+                                                           writtenOffDigest,
+                                                           version,
+                                                           clock.getUTCNow(),
+                                                           context) == 1;
+    }
+
+    public static boolean isUpToDate(final InvoiceAccountBalanceModelDao accountBalance, final String writtenOffDigest) {
+        return accountBalance != null &&
+               accountBalance.getBalance() != null &&
+               accountBalance.getUnpaidInvoiceCount() != null &&
+               writtenOffDigest.equals(accountBalance.getWrittenOffDigest());
+    }
+
+    // The stored summary includes all unpaid invoices, regardless of their target date
+    public static boolean coversUnpaidInvoicesUpTo(final InvoiceAccountBalanceModelDao accountBalance, @Nullable final LocalDate upToDate) {
+        return upToDate == null ||
+               accountBalance.getLatestUnpaidTargetDate() == null ||
+               accountBalance.getLatestUnpaidTargetDate().compareTo(upToDate) <= 0;
+    }
+
+    // Fingerprint of the set of written off invoices of the account
+    public static String computeWrittenOffDigest(final List<Tag> invoicesTags) {
+        return computeWrittenOffDigest(invoicesTags.stream()
+                                                   .filter(input -> input.getTagDefinitionId().equals(ControlTagType.WRITTEN_OFF.getId()))
+                                                   .map(Tag::getObjectId)
+                                                   .collect(Collectors.toUnmodifiableList()));
+    }
+
+    public static String computeWrittenOffDigest(final Collection<UUID> writtenOffInvoiceIds) {
+        final String sortedWrittenOffInvoiceIds = writtenOffInvoiceIds.stream()
+                                                                      .map(UUID::toString)
+                                                                      .sorted()
+                                                                      .collect(Collectors.joining(","));
+        return UUID.nameUUIDFromBytes(sortedWrittenOffInvoiceIds.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
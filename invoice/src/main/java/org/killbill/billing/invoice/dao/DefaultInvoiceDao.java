@@ -55,8 +55,11 @@ import org.killbill.billing.customfield.CustomFieldInternalApi;
 import org.killbill.billing.entity.EntityPersistenceException;
 import org.killbill.billing.invoice.InvoiceDispatcher.FutureAccountNotifications;
 import org.killbill.billing.invoice.InvoicePluginDispatcher;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
+import org.killbill.billing.invoice.api.DefaultAccountBalanceVerification;
 import org.killbill.billing.invoice.api.DefaultInvoicePaymentErrorEvent;
 import org.killbill.billing.invoice.api.DefaultInvoicePaymentInfoEvent;
+import org.killbill.billing.invoice.api.DefaultUnpaidInvoicesSummary;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoiceItem;
@@ -64,6 +67,7 @@ import org.killbill.billing.invoice.api.InvoiceItemType;
 import org.killbill.billing.invoice.api.InvoicePaymentStatus;
 import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.invoice.api.user.DefaultInvoiceAdjustmentEvent;
 import org.killbill.billing.invoice.api.user.DefaultInvoiceCreationEvent;
 import org.killbill.billing.invoice.dao.serialization.BillingEventSerializer;
@@ -87,8 +91,10 @@ import org.killbill.billing.util.customfield.CustomField;
 import org.killbill.billing.util.customfield.IntegerCustomField;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.KeysetPaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.EntityDaoBase;
@@ -138,6 +144,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
     private final InternalCallContextFactory internalCallContextFactory;
     private final InvoiceDaoHelper invoiceDaoHelper;
     private final CBADao cbaDao;
+    private final AccountBalanceDao accountBalanceDao;
     private final InvoiceConfig invoiceConfig;
     private final CacheController<String, UUID> objectIdCacheController;
     private final NonEntityDao nonEntityDao;
@@ -159,6 +166,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                              final InvoiceConfig invoiceConfig,
                              final InvoiceDaoHelper invoiceDaoHelper,
                              final CBADao cbaDao,
+                             final AccountBalanceDao accountBalanceDao,
                              final ParentInvoiceCommitmentPoster parentInvoiceCommitmentPoster,
                              final AuditDao auditDao,
                              final InternalCallContextFactory internalCallContextFactory) {
@@ -171,6 +179,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         this.internalCallContextFactory = internalCallContextFactory;
         this.invoiceDaoHelper = invoiceDaoHelper;
         this.cbaDao = cbaDao;
+        this.accountBalanceDao = accountBalanceDao;
         this.auditDao = auditDao;
         this.objectIdCacheController = cacheControllerDispatcher.getCacheController(CacheType.OBJECT_ID);
         this.nonEntityDao = nonEntityDao;
@@ -275,14 +284,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
                                                   @Override
                                                   public Iterator<InvoiceModelDao> build(final EntitySqlDao<InvoiceModelDao, Invoice> sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context) {
-                                                      final Iterator<InvoiceModelDao> invoiceModelDaoIterator = sqlDao.get(offset, limit, getNaturalOrderingColumns(), ordering.toString(), context);
-                                                      return Iterators.transform(invoiceModelDaoIterator,
-                                                                                 invoiceModelDao -> {
-                                                                                     final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(invoiceModelDao.getId(), context);
-                                                                                     final List<Tag> invoiceTags = getInvoiceTags(invoiceModelDao.getId(), context);
-                                                                                     invoiceDaoHelper.populateInvoiceModelDao(invoiceModelDao, invoiceCustomFields, invoiceTags);
-                                                                                     return invoiceModelDao;
-                                                                                 });
+                                                      return populateInvoiceModelDaos(sqlDao.get(offset, limit, getNaturalOrderingColumns(), ordering.toString(), context), context);
                                                   }
                                               },
                                               offset,
@@ -290,6 +292,23 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
                                               context);
     }
 
+    @Override
+    public Pagination<InvoiceModelDao> getFromRecordId(final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        // The page is read upfront (see DefaultPaginationSqlDaoHelper#getKeysetPagination): only populate the invoices actually returned
+        final Pagination<InvoiceModelDao> invoices = super.getFromRecordId(fromRecordId, limit, context);
+        return new DefaultPagination<InvoiceModelDao>(invoices, Math.abs(limit), populateInvoiceModelDaos(invoices.iterator(), context));
+    }
+
+    private Iterator<InvoiceModelDao> populateInvoiceModelDaos(final Iterator<InvoiceModelDao> invoiceModelDaoIterator, final InternalTenantContext context) {
+        return Iterators.transform(invoiceModelDaoIterator,
+                                   invoiceModelDao -> {
+                                       final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(invoiceModelDao.getId(), context);
+                                       final List<Tag> invoiceTags = getInvoiceTags(invoiceModelDao.getId(), context);
+                                       invoiceDaoHelper.populateInvoiceModelDao(invoiceModelDao, invoiceCustomFields, invoiceTags);
+                                       return invoiceModelDao;
+                                   });
+    }
+
     @Override
     public Pagination<InvoiceModelDao> getByAccountRecordId(final Long offset, final Long limit, final InternalTenantContext context) {
         final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
@@ -375,7 +394,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
-        return transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+        return transactionalSqlDao.execute(true, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
             final InvoiceSqlDao invoiceSqlDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
             final InvoiceModelDao invoice = invoiceSqlDao.getInvoiceByInvoiceItemId(invoiceItemId.toString(), context);
             if (invoice == null) {
@@ -481,6 +500,8 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         return transactionalSqlDao.execute(false, new EntitySqlDaoTransactionWrapper<List<InvoiceItemModelDao>>() {
             @Override
             public List<InvoiceItemModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
+
                 final InvoiceSqlDao invoiceSqlDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
                 final InvoiceItemSqlDao transInvoiceItemSqlDao = entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class);
                 final InvoiceBillingEventSqlDao billingEventSqlDao = entitySqlDaoWrapperFactory.become(InvoiceBillingEventSqlDao.class);
@@ -644,6 +665,15 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
     @Override
     public Pagination<InvoiceModelDao> searchInvoices(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
+        return searchInvoices(searchKey, offset, limit, false, context);
+    }
+
+    @Override
+    public Pagination<InvoiceModelDao> searchInvoicesFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        return searchInvoices(searchKey, fromRecordId, limit, true, context);
+    }
+
+    private Pagination<InvoiceModelDao> searchInvoices(final String searchKey, final Long offsetOrRecordId, final Long limit, final boolean keyset, final InternalTenantContext context) {
         Integer invoiceNumberParsed = null;
         try {
             invoiceNumberParsed = Integer.parseInt(searchKey);
@@ -663,7 +693,9 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
             if (matcher.matches()) {
                 final BigDecimal balance = new BigDecimal(matcher.group("balance"));
                 final SqlOperator comparisonOperator = SqlOperator.valueOf(matcher.group("comparator").toUpperCase(Locale.ROOT));
-                return searchInvoicesByBalance(balance, comparisonOperator, offset, limit, context);
+                // Results are ordered by balance, not by record id
+                Preconditions.checkArgument(!keyset, "Keyset pagination isn't supported for balance searches");
+                return searchInvoicesByBalance(balance, comparisonOperator, offsetOrRecordId, limit, context);
             }
 
             searchQuery = new SearchQuery(searchKey,
@@ -687,6 +719,23 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
             searchQuery.addSearchClause("account_id", SqlOperator.EQ, searchKey);
         }
 
+        if (keyset) {
+            return paginationHelper.getKeysetPagination(InvoiceSqlDao.class,
+                                                        new KeysetPaginationIteratorBuilder<InvoiceModelDao, Invoice, InvoiceSqlDao>() {
+                                                            @Override
+                                                            public Iterator<InvoiceModelDao> buildFromRecordId(final InvoiceSqlDao invoiceSqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                                if (invoiceNumber != null) {
+                                                                    // Single result (hence no next page)
+                                                                    return searchByNumber(invoiceNumber, context);
+                                                                }
+                                                                return invoiceSqlDao.searchFromRecordId(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+                                                            }
+                                                        },
+                                                        offsetOrRecordId,
+                                                        limit,
+                                                        context);
+        }
+
         return paginationHelper.getPagination(InvoiceSqlDao.class,
                                               new PaginationIteratorBuilder<InvoiceModelDao, Invoice, InvoiceSqlDao>() {
                                                   @Override
@@ -700,20 +749,23 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
                                                   @Override
                                                   public Iterator<InvoiceModelDao> build(final InvoiceSqlDao invoiceSqlDao, final Long offset, final Long limit, final DefaultPaginationSqlDaoHelper.Ordering ordering, final InternalTenantContext context) {
-                                                      try {
-                                                          if (invoiceNumber != null) {
-                                                              return List.<InvoiceModelDao>of(getByNumber(invoiceNumber, false, context)).iterator();
-                                                          }
-                                                          return invoiceSqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
-                                                      } catch (final InvoiceApiException ignored) {
-                                                          return Collections.emptyIterator();
+                                                      if (invoiceNumber != null) {
+                                                          return searchByNumber(invoiceNumber, context);
                                                       }
+                                                      return invoiceSqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
                                                   }
                                               },
-                                              offset,
+                                              offsetOrRecordId,
                                               limit,
                                               context);
+    }
 
+    private Iterator<InvoiceModelDao> searchByNumber(final Integer invoiceNumber, final InternalTenantContext context) {
+        try {
+            return List.<InvoiceModelDao>of(getByNumber(invoiceNumber, false, context)).iterator();
+        } catch (final InvoiceApiException ignored) {
+            return Collections.emptyIterator();
+        }
     }
 
     Pagination<InvoiceModelDao> searchInvoicesByBalance(final BigDecimal balance, final SqlOperator comparisonOperator, final Long offset, final Long limit, final InternalTenantContext context) {
@@ -736,40 +788,196 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
     @Override
     public BigDecimal getAccountBalance(final UUID accountId, final InternalTenantContext context) {
+        // PERF: read the materialized balance first (and only the WRITTEN_OFF tags), instead of re-constructing all invoices
+        final Set<UUID> writtenOffInvoiceIds = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getWrittenOffInvoiceIdsFromTransaction(entitySqlDaoWrapperFactory, context));
+        final InvoiceAccountBalanceModelDao storedAccountBalance = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getFromTransaction(entitySqlDaoWrapperFactory, context));
+        if (AccountBalanceDao.isUpToDate(storedAccountBalance, AccountBalanceDao.computeWrittenOffDigest(writtenOffInvoiceIds))) {
+            return storedAccountBalance.getBalance();
+        }
+
         final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
         final List<Tag> invoicesTags = getInvoicesTags(context);
+        final String writtenOffDigest = AccountBalanceDao.computeWrittenOffDigest(invoicesTags);
+        final List<InvoiceModelDao> invoices = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> invoiceDaoHelper.getAllInvoicesByAccountFromTransaction(false, true, invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context));
+        final InvoiceAccountBalanceModelDao accountBalance = computeAccountBalance(invoices);
+        // The version was read before the invoices: the update is a no-op if a write happened since
+        if (storedAccountBalance != null && canMaterializeAccountBalance(invoices)) {
+            accountBalanceDao.updateIfVersionMatches(accountBalance, writtenOffDigest, storedAccountBalance.getVersion(), context);
+        }
+        return accountBalance.getBalance();
+    }
 
-        return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
-            BigDecimal cba = BigDecimal.ZERO;
+    @Override
+    public BigDecimal getAccountCBA(final UUID accountId, final InternalTenantContext context) {
+        return transactionalSqlDao.execute(true, entityWrapperFactory -> {
+            // The CBA doesn't depend on the WRITTEN_OFF tags
+            final InvoiceAccountBalanceModelDao storedAccountBalance = accountBalanceDao.getFromTransaction(entityWrapperFactory, context);
+            if (storedAccountBalance != null && storedAccountBalance.getCba() != null) {
+                return storedAccountBalance.getCba();
+            }
+            return cbaDao.getAccountCBAFromTransaction(entityWrapperFactory, context);
+        });
+    }
 
-            BigDecimal accountBalance = BigDecimal.ZERO;
-            final List<InvoiceModelDao> invoices = invoiceDaoHelper.getAllInvoicesByAccountFromTransaction(false, true, invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context);
-            for (final InvoiceModelDao cur : invoices) {
+    @Override
+    public Map<UUID, BigDecimal> getAccountBalances(final Map<UUID, InternalTenantContext> contextsByAccountId) {
+        final Map<UUID, BigDecimal> result = new HashMap<>();
+        if (contextsByAccountId.isEmpty()) {
+            return result;
+        }
 
-                // Skip DRAFT OR VOID invoices
-                if (cur.getStatus().equals(InvoiceStatus.DRAFT) || cur.getStatus().equals(InvoiceStatus.VOID)) {
-                    continue;
-                }
+        // PERF: read the materialized balances of all accounts at once, only the stale ones are recomputed (one by one)
+        final InternalTenantContext tenantContext = contextsByAccountId.values().iterator().next();
+        final List<Long> accountRecordIds = contextsByAccountId.values().stream().map(InternalTenantContext::getAccountRecordId).collect(Collectors.toUnmodifiableList());
+        // Same ordering as in getAccountBalance: the WRITTEN_OFF tags are read first
+        final Map<Long, Set<UUID>> writtenOffInvoiceIds = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getWrittenOffInvoiceIdsFromTransaction(entitySqlDaoWrapperFactory, accountRecordIds, tenantContext));
+        final Map<Long, InvoiceAccountBalanceModelDao> storedAccountBalances = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getByAccountRecordIdsFromTransaction(entitySqlDaoWrapperFactory, accountRecordIds, tenantContext));
+        for (final Entry<UUID, InternalTenantContext> entry : contextsByAccountId.entrySet()) {
+            final Long accountRecordId = entry.getValue().getAccountRecordId();
+            final InvoiceAccountBalanceModelDao storedAccountBalance = storedAccountBalances.get(accountRecordId);
+            final String writtenOffDigest = AccountBalanceDao.computeWrittenOffDigest(writtenOffInvoiceIds.getOrDefault(accountRecordId, Set.of()));
+            if (AccountBalanceDao.isUpToDate(storedAccountBalance, writtenOffDigest)) {
+                result.put(entry.getKey(), storedAccountBalance.getBalance());
+            } else {
+                result.put(entry.getKey(), getAccountBalance(entry.getKey(), entry.getValue()));
+            }
+        }
+        return result;
+    }
 
-                final boolean hasZeroParentBalance =
-                        cur.getParentInvoice() != null &&
-                        (cur.getParentInvoice().isWrittenOff() ||
-                         cur.getParentInvoice().getStatus() == InvoiceStatus.DRAFT ||
-                         cur.getParentInvoice().getStatus() == InvoiceStatus.VOID ||
-                         InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(cur.getParentInvoice()).compareTo(BigDecimal.ZERO) == 0);
-
-                    // invoices that are WRITTEN_OFF or paid children invoices are excluded from balance computation but the cba summation needs to be included
-                    final BigDecimal invoiceBalance = cur.isWrittenOff() || hasZeroParentBalance ? BigDecimal.ZERO : InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(cur);
-                    accountBalance = accountBalance.add(invoiceBalance);
-                    cba = cba.add(InvoiceModelDaoHelper.getCBAAmount(cur));
-                }
-                return accountBalance.subtract(cba);
+    @Override
+    public Map<UUID, BigDecimal> getAccountCBAs(final Map<UUID, InternalTenantContext> contextsByAccountId) {
+        final Map<UUID, BigDecimal> result = new HashMap<>();
+        if (contextsByAccountId.isEmpty()) {
+            return result;
+        }
+
+        final InternalTenantContext tenantContext = contextsByAccountId.values().iterator().next();
+        final List<Long> accountRecordIds = contextsByAccountId.values().stream().map(InternalTenantContext::getAccountRecordId).collect(Collectors.toUnmodifiableList());
+        final Map<Long, InvoiceAccountBalanceModelDao> storedAccountBalances = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getByAccountRecordIdsFromTransaction(entitySqlDaoWrapperFactory, accountRecordIds, tenantContext));
+        for (final Entry<UUID, InternalTenantContext> entry : contextsByAccountId.entrySet()) {
+            final InvoiceAccountBalanceModelDao storedAccountBalance = storedAccountBalances.get(entry.getValue().getAccountRecordId());
+            if (storedAccountBalance != null && storedAccountBalance.getCba() != null) {
+                result.put(entry.getKey(), storedAccountBalance.getCba());
+            } else {
+                result.put(entry.getKey(), getAccountCBA(entry.getKey(), entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public AccountBalanceVerification verifyAccountBalance(final UUID accountId, final InternalTenantContext context) {
+        final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
+        final List<Tag> invoicesTags = getInvoicesTags(context);
+
+        return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> {
+            final InvoiceAccountBalanceModelDao storedAccountBalance = accountBalanceDao.getFromTransaction(entitySqlDaoWrapperFactory, context);
+            final List<InvoiceModelDao> invoices = invoiceDaoHelper.getAllInvoicesByAccountFromTransaction(false, true, invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context);
+            final InvoiceAccountBalanceModelDao accountBalance = computeAccountBalance(invoices);
+
+            final boolean isUpToDate = AccountBalanceDao.isUpToDate(storedAccountBalance, AccountBalanceDao.computeWrittenOffDigest(invoicesTags));
+            return new DefaultAccountBalanceVerification(accountId,
+                                                         isUpToDate ? storedAccountBalance.getBalance() : null,
+                                                         isUpToDate ? storedAccountBalance.getCba() : null,
+                                                         accountBalance.getBalance(),
+                                                         accountBalance.getCba());
         });
     }
 
     @Override
-    public BigDecimal getAccountCBA(final UUID accountId, final InternalTenantContext context) {
-        return transactionalSqlDao.execute(true, entityWrapperFactory -> cbaDao.getAccountCBAFromTransaction(entityWrapperFactory, context));
+    public AccountBalanceVerification rebuildAccountBalance(final UUID accountId, final InternalCallContext context) {
+        final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
+        final List<Tag> invoicesTags = getInvoicesTags(context);
+        final String writtenOffDigest = AccountBalanceDao.computeWrittenOffDigest(invoicesTags);
+
+        return transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            final InvoiceAccountBalanceModelDao previousAccountBalance = accountBalanceDao.getFromTransaction(entitySqlDaoWrapperFactory, context);
+            // Lock the row (concurrent writes will wait for the rebuild)
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
+            final InvoiceAccountBalanceModelDao lockedAccountBalance = accountBalanceDao.getFromTransaction(entitySqlDaoWrapperFactory, context);
+
+            final List<InvoiceModelDao> invoices = invoiceDaoHelper.getAllInvoicesByAccountFromTransaction(false, true, invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context);
+            final InvoiceAccountBalanceModelDao accountBalance = computeAccountBalance(invoices);
+            if (canMaterializeAccountBalance(invoices)) {
+                accountBalanceDao.updateFromTransaction(entitySqlDaoWrapperFactory, accountBalance, writtenOffDigest, lockedAccountBalance.getVersion(), context);
+            }
+
+            final boolean wasUpToDate = AccountBalanceDao.isUpToDate(previousAccountBalance, writtenOffDigest);
+            return new DefaultAccountBalanceVerification(accountId,
+                                                         wasUpToDate ? previousAccountBalance.getBalance() : null,
+                                                         wasUpToDate ? previousAccountBalance.getCba() : null,
+                                                         accountBalance.getBalance(),
+                                                         accountBalance.getCba());
+        });
+    }
+
+    private InvoiceAccountBalanceModelDao computeAccountBalance(final List<InvoiceModelDao> invoices) {
+        BigDecimal cba = BigDecimal.ZERO;
+
+        BigDecimal accountBalance = BigDecimal.ZERO;
+        for (final InvoiceModelDao cur : invoices) {
+
+            // Skip DRAFT OR VOID invoices
+            if (cur.getStatus().equals(InvoiceStatus.DRAFT) || cur.getStatus().equals(InvoiceStatus.VOID)) {
+                continue;
+            }
+
+            final boolean hasZeroParentBalance =
+                    cur.getParentInvoice() != null &&
+                    (cur.getParentInvoice().isWrittenOff() ||
+                     cur.getParentInvoice().getStatus() == InvoiceStatus.DRAFT ||
+                     cur.getParentInvoice().getStatus() == InvoiceStatus.VOID ||
+                     InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(cur.getParentInvoice()).compareTo(BigDecimal.ZERO) == 0);
+
+            // invoices that are WRITTEN_OFF or paid children invoices are excluded from balance computation but the cba summation needs to be included
+            final BigDecimal invoiceBalance = cur.isWrittenOff() || hasZeroParentBalance ? BigDecimal.ZERO : InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(cur);
+            accountBalance = accountBalance.add(invoiceBalance);
+            cba = cba.add(InvoiceModelDaoHelper.getCBAAmount(cur));
+        }
+
+        final InvoiceAccountBalanceModelDao result = new InvoiceAccountBalanceModelDao();
+        result.setBalance(accountBalance.subtract(cba));
+        result.setCba(cba);
+        setUnpaidInvoicesSummary(result, invoiceDaoHelper.getUnpaidInvoicesByAccountFromTransaction(invoices, null, null));
+        return result;
+    }
+
+    // Unpaid invoices are never written off nor migrated, so their balance is the raw balance
+    private static void setUnpaidInvoicesSummary(final InvoiceAccountBalanceModelDao accountBalance, final Iterable<InvoiceModelDao> unpaidInvoices) {
+        int unpaidInvoiceCount = 0;
+        BigDecimal unpaidInvoiceBalance = BigDecimal.ZERO;
+        InvoiceModelDao earliestUnpaidInvoice = null;
+        LocalDate latestUnpaidTargetDate = null;
+        for (final InvoiceModelDao cur : unpaidInvoices) {
+            unpaidInvoiceCount++;
+            unpaidInvoiceBalance = unpaidInvoiceBalance.add(InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(cur));
+            if (earliestUnpaidInvoice == null || cur.getInvoiceDate().compareTo(earliestUnpaidInvoice.getInvoiceDate()) < 0) {
+                earliestUnpaidInvoice = cur;
+            }
+            if (cur.getTargetDate() != null && (latestUnpaidTargetDate == null || cur.getTargetDate().compareTo(latestUnpaidTargetDate) > 0)) {
+                latestUnpaidTargetDate = cur.getTargetDate();
+            }
+        }
+
+        accountBalance.setUnpaidInvoiceCount(unpaidInvoiceCount);
+        accountBalance.setUnpaidInvoiceBalance(unpaidInvoiceBalance);
+        accountBalance.setEarliestUnpaidInvoiceDate(earliestUnpaidInvoice != null ? earliestUnpaidInvoice.getInvoiceDate() : null);
+        accountBalance.setEarliestUnpaidInvoiceId(earliestUnpaidInvoice != null ? earliestUnpaidInvoice.getId() : null);
+        accountBalance.setLatestUnpaidTargetDate(latestUnpaidTargetDate);
+    }
+
+    private static UnpaidInvoicesSummary toUnpaidInvoicesSummary(final UUID accountId, final InvoiceAccountBalanceModelDao accountBalance) {
+        return new DefaultUnpaidInvoicesSummary(accountId,
+                                                accountBalance.getUnpaidInvoiceCount(),
+                                                accountBalance.getUnpaidInvoiceBalance(),
+                                                accountBalance.getEarliestUnpaidInvoiceDate(),
+                                                accountBalance.getEarliestUnpaidInvoiceId());
+    }
+
+    // The balance of child accounts depends on the parent invoices, which are written in the context of the parent account
+    private static boolean canMaterializeAccountBalance(final Collection<InvoiceModelDao> invoices) {
+        return !invoices.isEmpty() && invoices.stream().noneMatch(invoice -> invoice.getParentInvoice() != null);
     }
 
     @Override
@@ -780,6 +988,30 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         return transactionalSqlDao.execute(true, entityWrapperFactory -> invoiceDaoHelper.getUnpaidInvoicesByAccountFromTransaction(accountId, invoiceCustomFields, invoicesTags, entityWrapperFactory, startDate, upToDate, context));
     }
 
+    @Override
+    public UnpaidInvoicesSummary getUnpaidInvoicesSummary(final UUID accountId, @Nullable final LocalDate upToDate, final InternalTenantContext context) {
+        // PERF: read the materialized summary first (and only the WRITTEN_OFF tags), instead of re-constructing all invoices
+        final Set<UUID> writtenOffInvoiceIds = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getWrittenOffInvoiceIdsFromTransaction(entitySqlDaoWrapperFactory, context));
+        final InvoiceAccountBalanceModelDao storedAccountBalance = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> accountBalanceDao.getFromTransaction(entitySqlDaoWrapperFactory, context));
+        final boolean isUpToDate = AccountBalanceDao.isUpToDate(storedAccountBalance, AccountBalanceDao.computeWrittenOffDigest(writtenOffInvoiceIds));
+        if (isUpToDate && AccountBalanceDao.coversUnpaidInvoicesUpTo(storedAccountBalance, upToDate)) {
+            return toUnpaidInvoicesSummary(accountId, storedAccountBalance);
+        }
+
+        final List<CustomField> invoiceCustomFields = getInvoiceCustomFields(context);
+        final List<Tag> invoicesTags = getInvoicesTags(context);
+        final String writtenOffDigest = AccountBalanceDao.computeWrittenOffDigest(invoicesTags);
+        final List<InvoiceModelDao> invoices = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> invoiceDaoHelper.getAllInvoicesByAccountFromTransaction(false, true, invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context));
+        // Same as in getAccountBalance: the version was read before the invoices, the update is a no-op if a write happened since
+        if (!isUpToDate && storedAccountBalance != null && canMaterializeAccountBalance(invoices)) {
+            accountBalanceDao.updateIfVersionMatches(computeAccountBalance(invoices), writtenOffDigest, storedAccountBalance.getVersion(), context);
+        }
+
+        final InvoiceAccountBalanceModelDao unpaidInvoicesSummary = new InvoiceAccountBalanceModelDao();
+        setUnpaidInvoicesSummary(unpaidInvoicesSummary, invoiceDaoHelper.getUnpaidInvoicesByAccountFromTransaction(invoices, null, upToDate));
+        return toUnpaidInvoicesSummary(accountId, unpaidInvoicesSummary);
+    }
+
     @Override
     public UUID getInvoiceIdByPaymentId(final UUID paymentId, final InternalTenantContext context) {
         return transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class).getInvoiceIdByPaymentId(paymentId.toString(), context));
@@ -824,6 +1056,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         return transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoicePaymentSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoicePaymentSqlDao.class);
 
             final InvoiceSqlDao transInvoiceDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
@@ -930,6 +1163,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         return transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoicePaymentSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoicePaymentSqlDao.class);
 
             final List<InvoicePaymentModelDao> invoicePayments = transactional.getByPaymentId(paymentId.toString(), context);
@@ -980,6 +1214,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         return transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoicePaymentSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoicePaymentSqlDao.class);
 
             final InvoicePaymentModelDao invoicePayment = transactional.getPaymentForCookieId(chargebackTransactionExternalKey, context);
@@ -1094,6 +1329,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
 
     private void notifyOfPaymentCompletionInternal(final InvoicePaymentModelDao invoicePayment, final UUID paymentAttemptId, final boolean completion, final InternalCallContext context) {
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoicePaymentSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoicePaymentSqlDao.class);
             //
             // In case of notifyOfPaymentInit we always want to record the row with status = INIT
@@ -1184,6 +1420,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final Set<UUID> invoiceIds = new HashSet<>();
 
         transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoiceSqlDao invoiceSqlDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
 
             // Retrieve the invoice and make sure it belongs to the right account
@@ -1247,6 +1484,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             cbaDao.doCBAComplexityFromTransaction(invoiceCustomFields, invoicesTags, entitySqlDaoWrapperFactory, context);
             return null;
         });
@@ -1383,6 +1621,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> invoicesTags = getInvoicesTags(context);
 
         transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoiceSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
 
             // Retrieve the invoice and make sure it belongs to the right account
@@ -1457,6 +1696,12 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
     @Override
     public void createParentChildInvoiceRelation(final InvoiceParentChildModelDao invoiceRelation, final InternalCallContext context) throws InvoiceApiException {
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            // The balance of the child account now depends on the parent invoice
+            final InvoiceModelDao childInvoice = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class).getById(invoiceRelation.getChildInvoiceId().toString(), context);
+            if (childInvoice != null) {
+                final InternalCallContext childAccountContext = internalCallContextFactory.createInternalCallContext(childInvoice.getAccountRecordId(), context);
+                accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, childAccountContext);
+            }
             final InvoiceParentChildrenSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoiceParentChildrenSqlDao.class);
             createAndRefresh(transactional, invoiceRelation, context);
             return null;
@@ -1489,6 +1734,7 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
     @Override
     public void updateInvoiceItemAmount(final UUID invoiceItemId, final BigDecimal amount, final InternalCallContext context) throws InvoiceApiException {
         transactionalSqlDao.execute(false, InvoiceApiException.class, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, context);
             final InvoiceItemSqlDao transactional = entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class);
 
             // Retrieve the invoice and make sure it belongs to the right account
@@ -1516,6 +1762,9 @@ public class DefaultInvoiceDao extends EntityDaoBase<InvoiceModelDao, Invoice, I
         final List<Tag> childInvoicesTags = getInvoicesTags(childAccountContext);
 
         transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, childAccountContext);
+            accountBalanceDao.invalidateFromTransaction(entitySqlDaoWrapperFactory, parentAccountContext);
+
             final InvoiceSqlDao invoiceSqlDao = entitySqlDaoWrapperFactory.become(InvoiceSqlDao.class);
             final InvoiceItemSqlDao transInvoiceItemSqlDao = entitySqlDaoWrapperFactory.become(InvoiceItemSqlDao.class);
 
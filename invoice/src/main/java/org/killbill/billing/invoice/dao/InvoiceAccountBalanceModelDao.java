@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Materialized balance, CBA and unpaid invoices summary of an account. All are null when the row has been invalidated by a write and not recomputed yet.
+ * <p>
+ * The unpaid invoices summary doesn't filter on the invoice target date: it is only valid for an upToDate on or after {@code latestUnpaidTargetDate}.
+ */
+public class InvoiceAccountBalanceModelDao {
+
+    // Only populated by the bulk lookups
+    private Long accountRecordId;
+    private BigDecimal balance;
+    private BigDecimal cba;
+    private Integer unpaidInvoiceCount;
+    private BigDecimal unpaidInvoiceBalance;
+    private LocalDate earliestUnpaidInvoiceDate;
+    private UUID earliestUnpaidInvoiceId;
+    private LocalDate latestUnpaidTargetDate;
+    private String writtenOffDigest;
+    private Long version;
+
+    public InvoiceAccountBalanceModelDao() { /* For the DAO mapper */ }
+
+    public Long getAccountRecordId() {
+        return accountRecordId;
+    }
+
+    public void setAccountRecordId(final Long accountRecordId) {
+        this.accountRecordId = accountRecordId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(final BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public BigDecimal getCba() {
+        return cba;
+    }
+
+    public void setCba(final BigDecimal cba) {
+        this.cba = cba;
+    }
+
+    public Integer getUnpaidInvoiceCount() {
+        return unpaidInvoiceCount;
+    }
+
+    public void setUnpaidInvoiceCount(final Integer unpaidInvoiceCount) {
+        this.unpaidInvoiceCount = unpaidInvoiceCount;
+    }
+
+    public BigDecimal getUnpaidInvoiceBalance() {
+        return unpaidInvoiceBalance;
+    }
+
+    public void setUnpaidInvoiceBalance(final BigDecimal unpaidInvoiceBalance) {
+        this.unpaidInvoiceBalance = unpaidInvoiceBalance;
+    }
+
+    public LocalDate getEarliestUnpaidInvoiceDate() {
+        return earliestUnpaidInvoiceDate;
+    }
+
+    public void setEarliestUnpaidInvoiceDate(final LocalDate earliestUnpaidInvoiceDate) {
+        this.earliestUnpaidInvoiceDate = earliestUnpaidInvoiceDate;
+    }
+
+    public UUID getEarliestUnpaidInvoiceId() {
+        return earliestUnpaidInvoiceId;
+    }
+
+    public void setEarliestUnpaidInvoiceId(final UUID earliestUnpaidInvoiceId) {
+        this.earliestUnpaidInvoiceId = earliestUnpaidInvoiceId;
+    }
+
+    public LocalDate getLatestUnpaidTargetDate() {
+        return latestUnpaidTargetDate;
+    }
+
+    public void setLatestUnpaidTargetDate(final LocalDate latestUnpaidTargetDate) {
+        this.latestUnpaidTargetDate = latestUnpaidTargetDate;
+    }
+
+    public String getWrittenOffDigest() {
+        return writtenOffDigest;
+    }
+
+    public void setWrittenOffDigest(final String writtenOffDigest) {
+        this.writtenOffDigest = writtenOffDigest;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("InvoiceAccountBalanceModelDao{");
+        sb.append("balance=").append(balance);
+        sb.append(", cba=").append(cba);
+        sb.append(", unpaidInvoiceCount=").append(unpaidInvoiceCount);
+        sb.append(", unpaidInvoiceBalance=").append(unpaidInvoiceBalance);
+        sb.append(", earliestUnpaidInvoiceDate=").append(earliestUnpaidInvoiceDate);
+        sb.append(", earliestUnpaidInvoiceId=").append(earliestUnpaidInvoiceId);
+        sb.append(", latestUnpaidTargetDate=").append(latestUnpaidTargetDate);
+        sb.append(", writtenOffDigest='").append(writtenOffDigest).append('\'');
+        sb.append(", version=").append(version);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.dao;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.dao.RecordIdIdMappings;
+import org.killbill.commons.jdbi.binder.SmartBindBean;
+import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.sqlobject.mixins.CloseMe;
+import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+import org.skife.jdbi.v2.unstable.BindIn;
+
+@KillBillSqlDaoStringTemplate
+public interface InvoiceAccountBalanceSqlDao extends Transactional<InvoiceAccountBalanceSqlDao>, CloseMe {
+
+    @SqlQuery
+    InvoiceAccountBalanceModelDao getByAccountRecordId(@SmartBindBean final InternalTenantContext context);
+
+    @SqlQuery
+    List<InvoiceAccountBalanceModelDao> getByAccountRecordIds(@BindIn("accountRecordIds") final Collection<Long> accountRecordIds,
+                                                              @SmartBindBean final InternalTenantContext context);
+
+    // Written off invoice ids (id) per account record id (record_id)
+    @SqlQuery
+    Iterable<RecordIdIdMappings> getWrittenOffInvoiceIdsByAccountRecordIds(@BindIn("accountRecordIds") final Collection<Long> accountRecordIds,
+                                                                         @Bind("writtenOffTagDefinitionId") final String writtenOffTagDefinitionId,
+                                                                         @SmartBindBean final InternalTenantContext context);
+
+    @SqlUpdate
+    void create(@SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    int invalidate(@SmartBindBean final InternalCallContext context);
+
+    @SqlUpdate
+    int updateIfVersionMatches(@Bind("balance") final BigDecimal balance,
+                               @Bind("cba") final BigDecimal cba,
+                               @Bind("unpaidInvoiceCount") final Integer unpaidInvoiceCount,
+                               @Bind("unpaidInvoiceBalance") final BigDecimal unpaidInvoiceBalance,
+                               @Bind("earliestUnpaidInvoiceDate") final LocalDate earliestUnpaidInvoiceDate,
+                               @Bind("earliestUnpaidInvoiceId") final String earliestUnpaidInvoiceId,
+                               @Bind("latestUnpaidTargetDate") final LocalDate latestUnpaidTargetDate,
+                               @Bind("writtenOffDigest") final String writtenOffDigest,
+                               @Bind("version") final Long version,
+                               @Bind("updatedDate") final DateTime updatedDate,
+                               @SmartBindBean final InternalTenantContext context);
+}
@@ -33,10 +33,12 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.invoice.InvoiceDispatcher.FutureAccountNotifications;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoicePaymentStatus;
 import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.junction.BillingEventSet;
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
@@ -75,6 +77,9 @@ public interface InvoiceDao extends EntityDao<InvoiceModelDao, Invoice, InvoiceA
 
     Pagination<InvoiceModelDao> searchInvoices(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset pagination (not supported for balance searches)
+    Pagination<InvoiceModelDao> searchInvoicesFromRecordId(String searchKey, Long fromRecordId, Long limit, InternalTenantContext context);
+
     UUID getInvoiceIdByPaymentId(UUID paymentId, InternalTenantContext context);
 
     List<InvoicePaymentModelDao> getInvoicePaymentsByPaymentId(UUID paymentId, InternalTenantContext context);
@@ -91,8 +96,19 @@ public interface InvoiceDao extends EntityDao<InvoiceModelDao, Invoice, InvoiceA
 
     BigDecimal getAccountCBA(UUID accountId, InternalTenantContext context);
 
+    // Bulk versions of getAccountBalance and getAccountCBA (contexts are keyed by account id and must share the same tenant)
+    Map<UUID, BigDecimal> getAccountBalances(Map<UUID, InternalTenantContext> contextsByAccountId);
+
+    Map<UUID, BigDecimal> getAccountCBAs(Map<UUID, InternalTenantContext> contextsByAccountId);
+
+    AccountBalanceVerification verifyAccountBalance(UUID accountId, InternalTenantContext context);
+
+    AccountBalanceVerification rebuildAccountBalance(UUID accountId, InternalCallContext context);
+
     List<InvoiceModelDao> getUnpaidInvoicesByAccountId(UUID accountId, @Nullable LocalDate startDate, @Nullable LocalDate upToDate, InternalTenantContext context);
 
+    UnpaidInvoicesSummary getUnpaidInvoicesSummary(UUID accountId, @Nullable LocalDate upToDate, InternalTenantContext context);
+
     // Include migrated invoices
     List<InvoiceModelDao> getAllInvoicesByAccount(final Boolean includeVoidedInvoices, final Boolean includeInvoiceComponents, InternalTenantContext context);
 
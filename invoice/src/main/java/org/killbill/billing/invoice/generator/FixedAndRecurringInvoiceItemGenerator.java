@@ -28,6 +28,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -82,10 +84,12 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
     private static final Logger log = LoggerFactory.getLogger(FixedAndRecurringInvoiceItemGenerator.class);
 
     private final InvoiceConfig config;
+    private final PerSubscriptionExecutor perSubscriptionExecutor;
 
     @Inject
-    public FixedAndRecurringInvoiceItemGenerator(final InvoiceConfig config, final Clock clock) {
+    public FixedAndRecurringInvoiceItemGenerator(final InvoiceConfig config, final PerSubscriptionExecutor perSubscriptionExecutor, final Clock clock) {
         this.config = config;
+        this.perSubscriptionExecutor = perSubscriptionExecutor;
     }
 
     public InvoiceGeneratorResult generateItems(final ImmutableAccountData account, final UUID invoiceId, final BillingEventSet eventSet,
@@ -98,7 +102,7 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
 
         final InvoicePruner invoicePruner = new InvoicePruner(existingInvoices);
         final Set<UUID> toBeIgnored = invoicePruner.getFullyRepairedItemsClosure();
-        final AccountItemTree accountItemTree = new AccountItemTree(account.getId(), invoiceId, config.getProrationFixedDays(internalCallContext));
+        final AccountItemTree accountItemTree = new AccountItemTree(account.getId(), invoiceId, config.getProrationFixedDays(internalCallContext), perSubscriptionExecutor, config.isCompactItemTreeEnabled());
         for (final Invoice invoice : existingInvoices.getInvoices()) {
             for (final InvoiceItem item : invoice.getInvoiceItems()) {
                 if (toBeIgnored.contains(item.getId())) {
@@ -147,6 +151,13 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
         // Pretty-print the generated invoice items from the junction events
         final InvoiceItemGeneratorLogger invoiceItemGeneratorLogger = new InvoiceItemGeneratorLogger(invoiceId, accountId, "recurring", log);
 
+        final List<List<BillingEvent>> eventsPerSubscription = getEventsPerSubscription(events);
+        if (perSubscriptionExecutor.isParallel(eventsPerSubscription.size())) {
+            processRecurringBillingEventsInParallel(invoiceId, accountId, events, eventsPerSubscription, targetDate, currency, proposedItems, perSubscriptionFutureNotificationDate, invoiceItemGeneratorLogger, internalCallContext);
+            invoiceItemGeneratorLogger.logItems();
+            return;
+        }
+
         final Iterator<BillingEvent> eventIt = events.iterator();
         BillingEvent nextEvent = eventIt.next();
         while (eventIt.hasNext()) {
@@ -166,6 +177,61 @@ public class FixedAndRecurringInvoiceItemGenerator extends InvoiceItemGenerator
         invoiceItemGeneratorLogger.logItems();
     }
 
+    // Same logic as the sequential loop above, the events of each subscription being processed in their own task
+    private void processRecurringBillingEventsInParallel(final UUID invoiceId, final UUID accountId, final BillingEventSet events, final List<List<BillingEvent>> eventsPerSubscription,
+                                                         final LocalDate targetDate, final Currency currency, final List<InvoiceItem> proposedItems,
+                                                         final Map<UUID, SubscriptionFutureNotificationDates> perSubscriptionFutureNotificationDate,
+                                                         final InvoiceItemGeneratorLogger invoiceItemGeneratorLogger,
+                                                         final InternalCallContext internalCallContext) throws InvoiceApiException {
+        // Each task gets its own view of the future notification dates, merged back once all tasks are done
+        final List<Map<UUID, SubscriptionFutureNotificationDates>> futureNotificationDatesPerSubscription = new ArrayList<>(eventsPerSubscription.size());
+        for (final List<BillingEvent> subscriptionEvents : eventsPerSubscription) {
+            final UUID subscriptionId = subscriptionEvents.get(0).getSubscriptionId();
+            final Map<UUID, SubscriptionFutureNotificationDates> futureNotificationDates = new HashMap<>();
+            if (perSubscriptionFutureNotificationDate.containsKey(subscriptionId)) {
+                futureNotificationDates.put(subscriptionId, perSubscriptionFutureNotificationDate.get(subscriptionId));
+            }
+            futureNotificationDatesPerSubscription.add(futureNotificationDates);
+        }
+
+        final BillingEvent lastEvent = events.last();
+        final List<Integer> subscriptionIndexes = IntStream.range(0, eventsPerSubscription.size()).boxed().collect(Collectors.toUnmodifiableList());
+        final List<List<InvoiceItem>> itemsPerSubscription = perSubscriptionExecutor.map(subscriptionIndexes, index -> {
+            final List<BillingEvent> subscriptionEvents = eventsPerSubscription.get(index);
+            final List<InvoiceItem> subscriptionItems = new ArrayList<>();
+            for (int i = 0; i < subscriptionEvents.size(); i++) {
+                final BillingEvent thisEvent = subscriptionEvents.get(i);
+                // Like the sequential loop, the very last event is always processed
+                if (thisEvent != lastEvent &&
+                    events.getSubscriptionIdsWithAutoInvoiceOff().contains(thisEvent.getSubscriptionId())) {
+                    continue;
+                }
+                final BillingEvent nextEvent = i + 1 < subscriptionEvents.size() ? subscriptionEvents.get(i + 1) : null;
+                subscriptionItems.addAll(processRecurringEvent(invoiceId, accountId, thisEvent, nextEvent, targetDate, currency, invoiceItemGeneratorLogger, futureNotificationDatesPerSubscription.get(index), internalCallContext));
+            }
+            return subscriptionItems;
+        });
+
+        for (int i = 0; i < eventsPerSubscription.size(); i++) {
+            proposedItems.addAll(itemsPerSubscription.get(i));
+            perSubscriptionFutureNotificationDate.putAll(futureNotificationDatesPerSubscription.get(i));
+        }
+    }
+
+    // Billing events are sorted by subscription first
+    private List<List<BillingEvent>> getEventsPerSubscription(final BillingEventSet events) {
+        final List<List<BillingEvent>> eventsPerSubscription = new ArrayList<>();
+        List<BillingEvent> subscriptionEvents = null;
+        for (final BillingEvent event : events) {
+            if (subscriptionEvents == null || !subscriptionEvents.get(0).getSubscriptionId().equals(event.getSubscriptionId())) {
+                subscriptionEvents = new ArrayList<>();
+                eventsPerSubscription.add(subscriptionEvents);
+            }
+            subscriptionEvents.add(event);
+        }
+        return eventsPerSubscription;
+    }
+
     @VisibleForTesting
     void processFixedBillingEvents(final UUID invoiceId, final UUID accountId, final BillingEventSet events, final LocalDate targetDate,
                                    final Currency currency, final List<InvoiceItem> proposedItems, final InternalCallContext internalCallContext) throws InvoiceApiException {
@@ -88,7 +88,8 @@ public abstract class InvoiceItemGenerator {
             append(event, items.toArray(new InvoiceItem[items.size()]));
         }
 
-        public void append(final Object event, final InvoiceItem... items) {
+        // Synchronized, as items of different subscriptions can be generated in parallel (see PerSubscriptionExecutor)
+        public synchronized void append(final Object event, final InvoiceItem... items) {
             if (!enabled || items.length == 0) {
                 return;
             }
@@ -102,7 +103,7 @@ public abstract class InvoiceItemGenerator {
             }
         }
 
-        public void logItems() {
+        public synchronized void logItems() {
             if (enabled && logStringBuilder != null) {
                 delegate.debug(getLogStringBuilder().toString());
             }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+
+/**
+ * Runs a task for each subscription of an account, either sequentially in the caller thread or, when
+ * {@code org.killbill.invoice.generation.parallelism} is set and the account has enough subscriptions, on a bounded
+ * {@link ForkJoinPool} shared by all invoice generations of the node.
+ * <p/>
+ * Results are always returned in the order of the inputs, so that the generated invoice is the same in both modes.
+ * Tasks must only touch state owned by their subscription.
+ */
+@Singleton
+public class PerSubscriptionExecutor {
+
+    public static final PerSubscriptionExecutor SEQUENTIAL = new PerSubscriptionExecutor(null, Integer.MAX_VALUE);
+
+    private static final long TIMEOUT_EXECUTOR_SEC = 3L;
+
+    private final ForkJoinPool pool;
+    private final int minSubscriptions;
+
+    @Inject
+    public PerSubscriptionExecutor(final InvoiceConfig invoiceConfig) {
+        this(invoiceConfig.getInvoiceGenerationParallelism() > 1 ? createPool(invoiceConfig.getInvoiceGenerationParallelism()) : null,
+             invoiceConfig.getInvoiceGenerationParallelismMinSubscriptions());
+    }
+
+    private PerSubscriptionExecutor(@Nullable final ForkJoinPool pool, final int minSubscriptions) {
+        this.pool = pool;
+        this.minSubscriptions = minSubscriptions;
+    }
+
+    // Called when the invoice service stops
+    public void stop() throws InterruptedException {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+        }
+    }
+
+    public boolean isParallel(final int nbSubscriptions) {
+        return pool != null && nbSubscriptions >= minSubscriptions;
+    }
+
+    public <T, R> List<R> map(final Collection<T> inputs, final PerSubscriptionTask<T, R> task) throws InvoiceApiException {
+        final List<R> results = new ArrayList<>(inputs.size());
+        if (!isParallel(inputs.size())) {
+            for (final T input : inputs) {
+                results.add(task.apply(input));
+            }
+            return results;
+        }
+
+        final List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+        for (final T input : inputs) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.apply(input);
+                } catch (final InvoiceApiException e) {
+                    throw new CompletionException(e);
+                }
+            }, pool));
+        }
+
+        try {
+            for (final CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (final CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof InvoiceApiException) {
+                throw (InvoiceApiException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    public <T> void forEach(final Collection<T> inputs, final PerSubscriptionAction<T> action) {
+        try {
+            map(inputs, input -> {
+                action.accept(input);
+                return null;
+            });
+        } catch (final InvoiceApiException e) {
+            // Not reachable, actions don't throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ForkJoinPool createPool(final int parallelism) {
+        return new ForkJoinPool(parallelism,
+                                pool -> {
+                                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                                    thread.setName("InvoiceGenerator-" + thread.getPoolIndex());
+                                    return thread;
+                                },
+                                null,
+                                false);
+    }
+
+    public interface PerSubscriptionTask<T, R> {
+
+        R apply(T input) throws InvoiceApiException;
+    }
+
+    public interface PerSubscriptionAction<T> {
+
+        void accept(T input);
+    }
+}
@@ -79,11 +79,13 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
 
     private final RawUsageOptimizer rawUsageOptimizer;
     private final InvoiceConfig invoiceConfig;
+    private final PerSubscriptionExecutor perSubscriptionExecutor;
 
     @Inject
-    public UsageInvoiceItemGenerator(final RawUsageOptimizer rawUsageOptimizer, final InvoiceConfig invoiceConfig) {
+    public UsageInvoiceItemGenerator(final RawUsageOptimizer rawUsageOptimizer, final InvoiceConfig invoiceConfig, final PerSubscriptionExecutor perSubscriptionExecutor) {
         this.rawUsageOptimizer = rawUsageOptimizer;
         this.invoiceConfig = invoiceConfig;
+        this.perSubscriptionExecutor = perSubscriptionExecutor;
     }
 
 
@@ -188,7 +190,14 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
             pluginPropertiesWithUsage.add(new PluginProperty(USAGE_TRANSITIONS, transitionTimesMap, false));
 
             Preconditions.checkNotNull(optimizedUsageStartDate, "start should not be null");
-            final RawUsageResult rawUsgRes = rawUsageOptimizer.getInArrearUsage(optimizedUsageStartDate, targetDate, dryRunInfo, pluginPropertiesWithUsage, internalCallContext);
+            // Tracking ids aren't recorded for dry-runs, the usage can be read aggregated per day
+            final Set<LocalDate> rawUsageDays = isDryRun && invoiceConfig.isAggregatedUsageForDryRunEnabled(internalCallContext) ?
+                                                subsUsageInArrear.stream()
+                                                                 .flatMap(sub -> sub.getUsageIntervals().stream())
+                                                                 .flatMap(interval -> interval.getRawUsageDays().stream())
+                                                                 .collect(Collectors.toSet()) :
+                                                null;
+            final RawUsageResult rawUsgRes = rawUsageOptimizer.getInArrearUsage(optimizedUsageStartDate, targetDate, rawUsageDays, dryRunInfo, pluginPropertiesWithUsage, internalCallContext);
 
             // Check existingInvoices#cutoffDate <= rawUsgRes#rawUsageStartDate + 1 P, where P = max{all Periods available} (e.g MONTHLY)
             // To make it simpler we check existingInvoices#cutoffDate <= rawUsgRes#rawUsageStartDate, and warn if this is not the case
@@ -201,11 +210,21 @@ public class UsageInvoiceItemGenerator extends InvoiceItemGenerator {
             }
 
 
-            for (SubscriptionUsageInArrear sub : subsUsageInArrear) {
+            final List<SubscriptionUsageInArrearItemsAndNextNotificationDate> subscriptionResults = perSubscriptionExecutor.map(subsUsageInArrear, sub -> {
                 final List<InvoiceItem> usageInArrearItems = perSubscriptionInArrearUsageItems.get(sub.getSubscriptionId());
-                final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = sub.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(),
-                                                                                                                                                           rawUsgRes.getRawUsage(),
-                                                                                                                                                           rawUsgRes.getExistingTrackingIds(),                                                                                                                                      invoiceItemGeneratorLogger, isDryRun);
+                try {
+                    return sub.computeMissingUsageInvoiceItems(usageInArrearItems != null ? usageInArrearItems : Collections.emptyList(),
+                                                               rawUsgRes.getRawUsage(),
+                                                               rawUsgRes.getExistingTrackingIds(),
+                                                               invoiceItemGeneratorLogger, isDryRun);
+                } catch (final CatalogApiException e) {
+                    throw new InvoiceApiException(e);
+                }
+            });
+
+            for (int i = 0; i < subsUsageInArrear.size(); i++) {
+                final SubscriptionUsageInArrear sub = subsUsageInArrear.get(i);
+                final SubscriptionUsageInArrearItemsAndNextNotificationDate subscriptionResult = subscriptionResults.get(i);
                 final List<InvoiceItem> newInArrearUsageItems = subscriptionResult.getInvoiceItems();
                 items.addAll(newInArrearUsageItems);
                 trackingIds.addAll(subscriptionResult.getTrackingIds());
@@ -21,8 +21,10 @@ package org.killbill.billing.invoice.glue;
 import org.killbill.billing.glue.InvoiceModule;
 import org.killbill.billing.invoice.InvoiceDispatcher;
 import org.killbill.billing.invoice.InvoiceListener;
+import org.killbill.billing.invoice.InvoicePluginExecutor;
 import org.killbill.billing.invoice.InvoiceTagHandler;
 import org.killbill.billing.invoice.ParkedAccountsManager;
+import org.killbill.billing.invoice.api.AccountBalanceUserApi;
 import org.killbill.billing.invoice.api.DefaultInvoiceService;
 import org.killbill.billing.invoice.api.InvoiceApiHelper;
 import org.killbill.billing.invoice.api.InvoiceInternalApi;
@@ -33,6 +35,7 @@ import org.killbill.billing.invoice.api.formatters.ResourceBundleFactory;
 import org.killbill.billing.invoice.api.svcs.DefaultInvoiceInternalApi;
 import org.killbill.billing.invoice.api.user.DefaultInvoiceUserApi;
 import org.killbill.billing.invoice.config.MultiTenantInvoiceConfig;
+import org.killbill.billing.invoice.dao.AccountBalanceDao;
 import org.killbill.billing.invoice.dao.CBADao;
 import org.killbill.billing.invoice.dao.DefaultInvoiceDao;
 import org.killbill.billing.invoice.dao.InvoiceDao;
@@ -40,6 +43,7 @@ import org.killbill.billing.invoice.dao.InvoiceDaoHelper;
 import org.killbill.billing.invoice.generator.DefaultInvoiceGenerator;
 import org.killbill.billing.invoice.generator.FixedAndRecurringInvoiceItemGenerator;
 import org.killbill.billing.invoice.generator.InvoiceGenerator;
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
 import org.killbill.billing.invoice.generator.UsageInvoiceItemGenerator;
 import org.killbill.billing.invoice.notification.DefaultNextBillingDateNotifier;
 import org.killbill.billing.invoice.notification.DefaultNextBillingDatePoster;
@@ -74,6 +78,7 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
         bind(InvoiceDao.class).to(DefaultInvoiceDao.class).asEagerSingleton();
         bind(InvoiceDaoHelper.class).asEagerSingleton();
         bind(CBADao.class).asEagerSingleton();
+        bind(AccountBalanceDao.class).asEagerSingleton();
     }
 
     @Override
@@ -81,6 +86,10 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
         bind(InvoiceUserApi.class).to(DefaultInvoiceUserApi.class).asEagerSingleton();
     }
 
+    protected void installAccountBalanceUserApi() {
+        bind(AccountBalanceUserApi.class).to(DefaultInvoiceUserApi.class).asEagerSingleton();
+    }
+
     @Override
     public void installInvoiceInternalApi() {
         bind(InvoiceInternalApi.class).to(DefaultInvoiceInternalApi.class).asEagerSingleton();
@@ -127,12 +136,14 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
 
     protected void installInvoiceGenerator() {
         bind(InvoiceGenerator.class).to(DefaultInvoiceGenerator.class).asEagerSingleton();
+        bind(PerSubscriptionExecutor.class).asEagerSingleton();
         bind(FixedAndRecurringInvoiceItemGenerator.class).asEagerSingleton();
         bind(UsageInvoiceItemGenerator.class).asEagerSingleton();
     }
 
     protected void installInvoicePluginApi() {
         bind(new TypeLiteral<OSGIServiceRegistration<InvoicePluginApi>>() {}).toProvider(DefaultInvoiceProviderPluginRegistryProvider.class).asEagerSingleton();
+        bind(InvoicePluginExecutor.class).asEagerSingleton();
     }
 
     protected void installInvoiceFormatterFactory() {
@@ -160,6 +171,7 @@ public class DefaultInvoiceModule extends KillBillModule implements InvoiceModul
         installInvoiceGenerator();
         installInvoiceDao();
         installInvoiceUserApi();
+        installAccountBalanceUserApi();
         installInvoiceInternalApi();
         installResourceBundleFactory();
         installInvoiceOptimizer();
@@ -27,6 +27,8 @@ import org.joda.time.DateTime;
 import org.killbill.billing.invoice.InvoiceListener;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
 import org.killbill.clock.Clock;
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
@@ -38,26 +40,43 @@ import org.killbill.queue.retry.RetryableService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Processes the next billing date notifications in the notification queue threads: a notification is only marked as processed
+ * (or retried) once its invoice run is over. The number of concurrent invoice runs is therefore bounded by
+ * {@code org.killbill.notificationq.main.notification.nbThreads} (shared with the other queues of the main notification table),
+ * which needs to be raised for large bill runs. Notifications for the same account are serialized by the account lock.
+ */
 public class DefaultNextBillingDateNotifier extends RetryableService implements NextBillingDateNotifier {
 
     public static final String NEXT_BILLING_DATE_NOTIFIER_QUEUE = "next-billing-date-queue";
 
+    private static final String READY_NOTIFICATIONS_METRIC_NAME = "killbill.invoice.nextBillingDate.ready";
+    private static final String LAG_METRIC_NAME = "killbill.invoice.nextBillingDate.lagMs";
+    // The count is a query against the notifications table: don't run it on every scrape
+    private static final long READY_NOTIFICATIONS_REFRESH_MS = 30000L;
+
     private static final Logger log = LoggerFactory.getLogger(DefaultNextBillingDateNotifier.class);
 
     private final Clock clock;
     private final NotificationQueueService notificationQueueService;
     private final InvoiceListener listener;
+    private final MetricRegistry metricRegistry;
 
     private NotificationQueue nextBillingQueue;
+    private Histogram lag;
+    private long nbReadyNotifications;
+    private long nbReadyNotificationsRefreshMs;
 
     @Inject
     public DefaultNextBillingDateNotifier(final Clock clock,
                                           final NotificationQueueService notificationQueueService,
-                                          final InvoiceListener listener) {
+                                          final InvoiceListener listener,
+                                          final MetricRegistry metricRegistry) {
         super(notificationQueueService);
         this.clock = clock;
         this.notificationQueueService = notificationQueueService;
         this.listener = listener;
+        this.metricRegistry = metricRegistry;
     }
 
     @Override
@@ -72,6 +91,8 @@ public class DefaultNextBillingDateNotifier extends RetryableService implements
 
                 final NextBillingDateNotificationKey key = (NextBillingDateNotificationKey) notificationKey;
 
+                lag.update(Math.max(0L, clock.getUTCNow().getMillis() - eventDate.getMillis()));
+
                 final DateTime targetDate = key.getTargetDate();
                 if (key.isDryRunForInvoiceNotification() != null && key.isDryRunForInvoiceNotification()) {
                     processEventForInvoiceNotification(targetDate, userToken, accountRecordId, tenantRecordId);
@@ -88,6 +109,11 @@ public class DefaultNextBillingDateNotifier extends RetryableService implements
                                                                             retryableHandler);
 
         super.initialize(nextBillingQueue, notificationQueueHandler);
+
+        // Notifications ready to be processed, across all nodes
+        metricRegistry.gauge(READY_NOTIFICATIONS_METRIC_NAME, this::getNbReadyNotifications);
+        // Delay between the effective date of the notifications and the start of their processing
+        lag = metricRegistry.histogram(LAG_METRIC_NAME);
     }
 
     @Override
@@ -104,10 +130,21 @@ public class DefaultNextBillingDateNotifier extends RetryableService implements
             }
             notificationQueueService.deleteNotificationQueue(nextBillingQueue.getServiceName(), nextBillingQueue.getQueueName());
         }
+        metricRegistry.remove(READY_NOTIFICATIONS_METRIC_NAME);
+        metricRegistry.remove(LAG_METRIC_NAME);
 
         super.stop();
     }
 
+    private synchronized long getNbReadyNotifications() {
+        final DateTime now = clock.getUTCNow();
+        if (nextBillingQueue != null && (nbReadyNotificationsRefreshMs == 0L || now.getMillis() - nbReadyNotificationsRefreshMs >= READY_NOTIFICATIONS_REFRESH_MS)) {
+            nbReadyNotifications = nextBillingQueue.getNbReadyEntries(now);
+            nbReadyNotificationsRefreshMs = now.getMillis();
+        }
+        return nbReadyNotifications;
+    }
+
     private void processEventForInvoiceGeneration(final DateTime eventDateTime, final boolean isRescheduled, final UUID userToken, final Long accountRecordId, final Long tenantRecordId) {
         listener.handleNextBillingDateEvent(eventDateTime, isRescheduled, userToken, accountRecordId, tenantRecordId);
     }
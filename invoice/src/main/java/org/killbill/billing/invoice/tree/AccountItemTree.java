@@ -21,6 +21,7 @@ package org.killbill.billing.invoice.tree;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -29,17 +30,19 @@ import java.util.UUID;
 
 import org.killbill.billing.invoice.api.InvoiceItem;
 import org.killbill.billing.invoice.api.InvoiceItemType;
+import org.killbill.billing.invoice.generator.PerSubscriptionExecutor;
 import org.killbill.commons.utils.Preconditions;
 import org.killbill.commons.utils.collect.Iterables;
 
 /**
  * Tree of invoice items for a given account.
  * <p/>
- * <p>It contains a map of <tt>SubscriptionItemTree</tt> and the logic is executed independently for all items
- * associated to a given subscription. That also means that invoice item adjustment which cross subscriptions
+ * <p>It contains a map of <tt>ItemTree</tt> (<tt>SubscriptionItemTree</tt>, or <tt>CompactSubscriptionItemTree</tt>
+ * when configured) and the logic is executed independently for all items associated to a given subscription. That also means that invoice item adjustment which cross subscriptions
  * can't be correctly handled when they compete with other forms of adjustments.
  * <p/>
- * <p>The class is not thread safe, there is no such use case today, and there is a lifecyle to respect:
+ * <p>The class is not thread safe (the <tt>ItemTree</tt> can however be processed in parallel, see
+ * <tt>PerSubscriptionExecutor</tt>), and there is a lifecyle to respect:
  * <ul>
  * <li>Add existing invoice items
  * <li>Build the tree,
@@ -51,18 +54,30 @@ public class AccountItemTree {
 
     private final UUID accountId;
     private final UUID targetInvoiceId;
-    private final Map<UUID, SubscriptionItemTree> subscriptionItemTree;
+    private final Map<UUID, ItemTree> subscriptionItemTree;
     private final List<InvoiceItem> allExistingItems;
     private final List<InvoiceItem> pendingItemAdj;
+    private final PerSubscriptionExecutor perSubscriptionExecutor;
+    private final boolean compactItemTree;
 
     private boolean isBuilt;
 
     private int prorationFixedDays;
 
     public AccountItemTree(final UUID accountId, final UUID targetInvoiceId, final int prorationFixedDays) {
+        this(accountId, targetInvoiceId, prorationFixedDays, PerSubscriptionExecutor.SEQUENTIAL);
+    }
+
+    public AccountItemTree(final UUID accountId, final UUID targetInvoiceId, final int prorationFixedDays, final PerSubscriptionExecutor perSubscriptionExecutor) {
+        this(accountId, targetInvoiceId, prorationFixedDays, perSubscriptionExecutor, false);
+    }
+
+    public AccountItemTree(final UUID accountId, final UUID targetInvoiceId, final int prorationFixedDays, final PerSubscriptionExecutor perSubscriptionExecutor, final boolean compactItemTree) {
+        this.perSubscriptionExecutor = perSubscriptionExecutor;
+        this.compactItemTree = compactItemTree;
         this.accountId = accountId;
         this.targetInvoiceId = targetInvoiceId;
-        this.subscriptionItemTree = new HashMap<UUID, SubscriptionItemTree>();
+        this.subscriptionItemTree = new HashMap<UUID, ItemTree>();
         this.isBuilt = false;
         this.allExistingItems = new LinkedList<InvoiceItem>();
         this.pendingItemAdj = new LinkedList<InvoiceItem>();
@@ -81,9 +96,7 @@ public class AccountItemTree {
             }
             pendingItemAdj.clear();
         }
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
-            tree.build();
-        }
+        perSubscriptionExecutor.forEach(subscriptionItemTree.values(), ItemTree::build);
         isBuilt = true;
     }
 
@@ -122,9 +135,9 @@ public class AccountItemTree {
         }
 
         if (!subscriptionItemTree.containsKey(subscriptionId)) {
-            subscriptionItemTree.put(subscriptionId, new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays));
+            subscriptionItemTree.put(subscriptionId, createSubscriptionItemTree(subscriptionId));
         }
-        final SubscriptionItemTree tree = subscriptionItemTree.get(subscriptionId);
+        final ItemTree tree = subscriptionItemTree.get(subscriptionId);
         tree.addItem(existingItem);
     }
 
@@ -136,23 +149,25 @@ public class AccountItemTree {
     public void mergeWithProposedItems(final List<InvoiceItem> proposedItems) {
 
         build();
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
-            tree.flatten(true);
-        }
+        perSubscriptionExecutor.forEach(subscriptionItemTree.values(), tree -> tree.flatten(true));
 
+        // Each tree needs to see its proposed items in the original order
+        final Map<UUID, List<InvoiceItem>> proposedItemsPerSubscription = new LinkedHashMap<UUID, List<InvoiceItem>>();
         for (final InvoiceItem item : proposedItems) {
             final UUID subscriptionId = getSubscriptionId(item, null);
-            SubscriptionItemTree tree = subscriptionItemTree.get(subscriptionId);
-            if (tree == null) {
-                tree = new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays);
-                subscriptionItemTree.put(subscriptionId, tree);
+            if (!subscriptionItemTree.containsKey(subscriptionId)) {
+                subscriptionItemTree.put(subscriptionId, createSubscriptionItemTree(subscriptionId));
             }
-            tree.mergeProposedItem(item);
+            proposedItemsPerSubscription.computeIfAbsent(subscriptionId, k -> new ArrayList<InvoiceItem>()).add(item);
         }
+        perSubscriptionExecutor.forEach(proposedItemsPerSubscription.entrySet(), entry -> {
+            final ItemTree tree = subscriptionItemTree.get(entry.getKey());
+            for (final InvoiceItem item : entry.getValue()) {
+                tree.mergeProposedItem(item);
+            }
+        });
 
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
-            tree.buildForMerge();
-        }
+        perSubscriptionExecutor.forEach(subscriptionItemTree.values(), ItemTree::buildForMerge);
     }
 
     /**
@@ -160,7 +175,7 @@ public class AccountItemTree {
      */
     public List<InvoiceItem> getResultingItemList() {
         final List<InvoiceItem> result = new ArrayList<InvoiceItem>();
-        for (final SubscriptionItemTree tree : subscriptionItemTree.values()) {
+        for (final ItemTree tree : subscriptionItemTree.values()) {
             final List<InvoiceItem> simplifiedView = tree.getView();
             if (simplifiedView.size() > 0) {
                 result.addAll(simplifiedView);
@@ -173,6 +188,12 @@ public class AccountItemTree {
         return accountId;
     }
 
+    private ItemTree createSubscriptionItemTree(final UUID subscriptionId) {
+        return compactItemTree ?
+               new CompactSubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays) :
+               new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays);
+    }
+
     private UUID getSubscriptionId(final InvoiceItem item, final List<InvoiceItem> allItems) {
         if (item.getInvoiceItemType() == InvoiceItemType.RECURRING ||
             item.getInvoiceItemType() == InvoiceItemType.FIXED) {
@@ -199,11 +220,12 @@ public class AccountItemTree {
 
     public String prettyPrint() {
         final StringBuilder stringBuilder = new StringBuilder("AccountItemTree (accountId=").append(accountId).append(")\n");
-        for (final Entry<UUID, SubscriptionItemTree> subscriptionItemTreeEntry : subscriptionItemTree.entrySet()) {
+        for (final Entry<UUID, ItemTree> subscriptionItemTreeEntry : subscriptionItemTree.entrySet()) {
+            final ItemTree tree = subscriptionItemTreeEntry.getValue();
             stringBuilder.append("Subscription: ")
                          .append(subscriptionItemTreeEntry.getKey())
                          .append("\n")
-                         .append(TreePrinter.print(subscriptionItemTreeEntry.getValue().getRoot()))
+                         .append(tree instanceof SubscriptionItemTree ? TreePrinter.print(((SubscriptionItemTree) tree).getRoot()) : tree.toString())
                          .append("\n");
         }
         return stringBuilder.toString();
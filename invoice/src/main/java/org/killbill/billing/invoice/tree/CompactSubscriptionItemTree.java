@@ -0,0 +1,832 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.tree.Item.ItemAction;
+import org.killbill.commons.utils.Preconditions;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+
+/**
+ * Array-based alternative to the {@link SubscriptionItemTree}, producing the same items.
+ * <p/>
+ * Instead of a tree of linked <tt>ItemsNodeInterval</tt>, the existing items are sorted once by (start, -end) on their
+ * epoch day, which lays out the (laminar) intervals in depth-first order: each node is then described by primitive arrays
+ * (bounds, parent, end of its subtree, offset of its items) and the tree is validated and built in a single sweep.
+ * Once flattened, the existing items are kept as sorted arrays of disjoint intervals, in which each proposed item
+ * is located through a binary search.
+ * <p/>
+ * The node tree splits an item when its interval overlaps, or encloses, the interval of an item added before it: these
+ * (rare) layouts, as well as the ones relying on split items being joined back, are detected upfront and handed over to a
+ * {@link SubscriptionItemTree} replaying the same calls.
+ */
+public class CompactSubscriptionItemTree implements ItemTree {
+
+    // Bounds of the supported epoch days, to pack (start, end, index) in a long sort key
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private final UUID subscriptionId;
+    private final UUID targetInvoiceId;
+    private final int prorationFixedDays;
+
+    // All the items received, replayed if we need to fall back on the node tree
+    private final List<InvoiceItem> existingInvoiceItems = new ArrayList<>();
+    private final List<InvoiceItem> proposedInvoiceItems = new ArrayList<>();
+
+    private final List<Item> existingItems = new ArrayList<>();
+    private final List<InvoiceItem> existingIgnoredItems = new LinkedList<>();
+    private final List<InvoiceItem> remainingIgnoredItems = new LinkedList<>();
+    private final List<InvoiceItem> pendingItemAdj = new LinkedList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    // Flattened (reversed) existing items: sorted and disjoint intervals
+    private int nbFlattened;
+    private int[] flattenedStart;
+    private int[] flattenedEnd;
+    private LocalDate[] flattenedStartDates;
+    private LocalDate[] flattenedEndDates;
+    // Null once matched by a proposed item
+    private Item[] flattenedItems;
+    // Proposed items of the same kind, falling within the existing interval (i.e. the rest should be repaired)
+    private List<Item>[] flattenedChildren;
+
+    private SubscriptionItemTree nodeTree;
+    private boolean isBuilt = false;
+    private boolean isFlattened = false;
+    private boolean isMerged = false;
+
+    // targetInvoiceId is the new invoice id being generated
+    public CompactSubscriptionItemTree(final UUID subscriptionId, final UUID targetInvoiceId, final int prorationFixedDays) {
+        this.subscriptionId = subscriptionId;
+        this.targetInvoiceId = targetInvoiceId;
+        this.prorationFixedDays = prorationFixedDays;
+    }
+
+    @Override
+    public void addItem(final InvoiceItem invoiceItem) {
+        if (nodeTree == null && isFlattened) {
+            // Existing items added to the flattened tree
+            fallBackOnNodeTree();
+        }
+        if (nodeTree != null) {
+            nodeTree.addItem(invoiceItem);
+            return;
+        }
+        Preconditions.checkState(!isBuilt, "Tree already built, unable to add new invoiceItem=%s", invoiceItem);
+
+        existingInvoiceItems.add(invoiceItem);
+        switch (invoiceItem.getInvoiceItemType()) {
+            case RECURRING:
+                if (invoiceItem.getAmount().compareTo(BigDecimal.ZERO) == 0) {
+                    // Nothing to repair -- https://github.com/killbill/killbill/issues/783
+                    existingIgnoredItems.add(invoiceItem);
+                } else {
+                    existingItems.add(new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays));
+                }
+                break;
+
+            case REPAIR_ADJ:
+                existingItems.add(new Item(invoiceItem, targetInvoiceId, ItemAction.CANCEL, prorationFixedDays));
+                break;
+
+            case FIXED:
+                existingIgnoredItems.add(invoiceItem);
+                break;
+
+            case ITEM_ADJ:
+                pendingItemAdj.add(invoiceItem);
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void build() {
+        if (nodeTree == null && isFlattened) {
+            fallBackOnNodeTree();
+        }
+        if (nodeTree != null) {
+            nodeTree.build();
+            return;
+        }
+        Preconditions.checkState(!isBuilt);
+
+        final Layout layout = Layout.create(existingItems);
+        if (layout == null) {
+            fallBackOnNodeTree();
+            nodeTree.build();
+            return;
+        }
+
+        for (final InvoiceItem item : pendingItemAdj) {
+            // If the linked item was ignored, ignore this adjustment too
+            final boolean isLinkedItemExist = existingIgnoredItems
+                    .stream()
+                    .anyMatch(input -> input.getId().equals(item.getLinkedItemId()));
+            if (!isLinkedItemExist) {
+                layout.addAdjustment(item);
+            }
+        }
+
+        layout.validate();
+
+        final List<Item> output = layout.build(targetInvoiceId, prorationFixedDays);
+        if (output == null) {
+            fallBackOnNodeTree();
+            nodeTree.build();
+            return;
+        }
+        pendingItemAdj.clear();
+        items.addAll(output);
+
+        isBuilt = true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void flatten(final boolean reverse) {
+        if (nodeTree == null && (isFlattened || !reverse)) {
+            fallBackOnNodeTree();
+        }
+        if (nodeTree != null) {
+            nodeTree.flatten(reverse);
+            return;
+        }
+
+        if (!isBuilt) {
+            build();
+            if (nodeTree != null) {
+                nodeTree.flatten(reverse);
+                return;
+            }
+        }
+
+        // The built items are disjoint and sorted
+        nbFlattened = items.size();
+        flattenedStart = new int[nbFlattened];
+        flattenedEnd = new int[nbFlattened];
+        flattenedStartDates = new LocalDate[nbFlattened];
+        flattenedEndDates = new LocalDate[nbFlattened];
+        flattenedItems = new Item[nbFlattened];
+        flattenedChildren = new List[nbFlattened];
+        for (int i = 0; i < nbFlattened; i++) {
+            final Item item = items.get(i);
+            Preconditions.checkState(item.getAction() == ItemAction.ADD);
+            flattenedStart[i] = toEpochDay(item.getStartDate());
+            flattenedEnd[i] = toEpochDay(item.getEndDate());
+            flattenedStartDates[i] = item.getStartDate();
+            flattenedEndDates[i] = item.getEndDate();
+            Preconditions.checkState(i == 0 || flattenedEnd[i - 1] <= flattenedStart[i], "Overlapping items %s and %s", i > 0 ? items.get(i - 1) : null, item);
+            flattenedItems[i] = new Item(item, ItemAction.CANCEL);
+        }
+        items.clear();
+        isBuilt = false;
+        isFlattened = true;
+    }
+
+    @Override
+    public void mergeProposedItem(final InvoiceItem invoiceItem) {
+        if (nodeTree != null) {
+            nodeTree.mergeProposedItem(invoiceItem);
+            return;
+        }
+        Preconditions.checkState(!isBuilt, "Tree already built, unable to add new invoiceItem=%s", invoiceItem);
+
+        proposedInvoiceItems.add(invoiceItem);
+        if (!isFlattened && !existingItems.isEmpty()) {
+            // Merging in the unflattened tree
+            fallBackOnNodeTree();
+            return;
+        }
+
+        // Check if it was an existing item ignored for tree purposes (e.g. FIXED or $0 RECURRING, both of which aren't repaired)
+        final boolean isItemExist = existingIgnoredItems.stream().anyMatch(input -> input.matches(invoiceItem));
+        if (isItemExist) {
+            return;
+        }
+
+        switch (invoiceItem.getInvoiceItemType()) {
+            case RECURRING:
+                if (!mergeProposedRecurringItem(new Item(invoiceItem, targetInvoiceId, ItemAction.ADD, prorationFixedDays))) {
+                    fallBackOnNodeTree();
+                }
+                break;
+
+            case FIXED:
+                remainingIgnoredItems.add(invoiceItem);
+                break;
+
+            default:
+                Preconditions.checkState(false, "Unexpected proposed item " + invoiceItem);
+        }
+    }
+
+    // Same outcome as ItemsNodeInterval#addProposedItem: the proposed item is split on the boundaries of the existing intervals
+    // it overlaps, the pieces outside of them are kept as-is and the other ones either match or are inserted below the existing item
+    private boolean mergeProposedRecurringItem(final Item proposedItem) {
+        final int proposedStart = toEpochDay(proposedItem.getStartDate());
+        final int proposedEnd = toEpochDay(proposedItem.getEndDate());
+        if (proposedStart >= proposedEnd) {
+            return false;
+        }
+
+        // First existing interval ending after the proposed item start
+        int lo = 0;
+        int hi = nbFlattened;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (flattenedEnd[mid] <= proposedStart) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        Item piece = proposedItem;
+        int pieceStart = proposedStart;
+        int i = lo;
+        while (true) {
+            if (i == nbFlattened) {
+                items.add(piece);
+                return true;
+            }
+
+            if (pieceStart < flattenedStart[i]) {
+                if (proposedEnd <= flattenedStart[i]) {
+                    items.add(piece);
+                    return true;
+                }
+                final Item[] splitItems = piece.split(flattenedStartDates[i]);
+                items.add(splitItems[0]);
+                piece = splitItems[1];
+                pieceStart = flattenedStart[i];
+            } else if (proposedEnd <= flattenedEnd[i]) {
+                return mergeWithinExistingInterval(i, piece, pieceStart, proposedEnd);
+            } else {
+                final Item[] splitItems = piece.split(flattenedEndDates[i]);
+                if (!mergeWithinExistingInterval(i, splitItems[0], pieceStart, flattenedEnd[i])) {
+                    return false;
+                }
+                piece = splitItems[1];
+                pieceStart = flattenedEnd[i];
+                i++;
+            }
+        }
+    }
+
+    private boolean mergeWithinExistingInterval(final int i, final Item piece, final int pieceStart, final int pieceEnd) {
+        final Item existingItem = flattenedItems[i];
+        if (pieceStart == flattenedStart[i] && pieceEnd == flattenedEnd[i]) {
+            Preconditions.checkState(existingItem != null, "Expected existing node to have only one item");
+            if (existingItem.isSameKind(piece)) {
+                // Proposed and existing match
+                flattenedItems[i] = null;
+            } else {
+                items.add(piece);
+            }
+            return true;
+        }
+
+        final List<Item> children = flattenedChildren[i];
+        if (children != null) {
+            for (final Item child : children) {
+                if (child.getStartDate().compareTo(piece.getEndDate()) < 0 && piece.getStartDate().compareTo(child.getEndDate()) < 0) {
+                    // Overlapping proposed items
+                    return false;
+                }
+            }
+        }
+
+        Preconditions.checkState(existingItem != null, "Expected existing node to have only one item");
+        if (existingItem.isSameKind(piece)) {
+            if (children == null) {
+                flattenedChildren[i] = new ArrayList<>(2);
+            }
+            int position = 0;
+            while (position < flattenedChildren[i].size() && flattenedChildren[i].get(position).getStartDate().compareTo(piece.getStartDate()) < 0) {
+                position++;
+            }
+            flattenedChildren[i].add(position, piece);
+        } else {
+            items.add(piece);
+        }
+        return true;
+    }
+
+    @Override
+    public void buildForMerge() {
+        if (nodeTree == null && !isFlattened && !existingItems.isEmpty()) {
+            fallBackOnNodeTree();
+        }
+        if (nodeTree != null) {
+            nodeTree.buildForMerge();
+            return;
+        }
+        Preconditions.checkState(!isBuilt, "Tree already built");
+
+        // Kept proposed items first, then the repair items
+        final List<Item> tmpOutput = new LinkedList<>(items);
+        items.clear();
+        for (int i = 0; i < nbFlattened; i++) {
+            final Item existingItem = flattenedItems[i];
+            final List<Item> children = flattenedChildren[i];
+            if (children == null) {
+                if (existingItem != null) {
+                    tmpOutput.add(existingItem);
+                }
+                continue;
+            }
+
+            LocalDate curDate = flattenedStartDates[i];
+            for (final Item child : children) {
+                if (child.getStartDate().compareTo(curDate) > 0) {
+                    addRepairItem(existingItem, curDate, child.getStartDate(), tmpOutput);
+                }
+                curDate = child.getEndDate();
+            }
+            if (curDate.compareTo(flattenedEndDates[i]) < 0) {
+                addRepairItem(existingItem, curDate, flattenedEndDates[i], tmpOutput);
+            }
+        }
+        ItemsNodeInterval.joinSplitItems(tmpOutput, items);
+
+        isBuilt = true;
+        isMerged = true;
+    }
+
+    private void addRepairItem(final Item existingItem, final LocalDate startDate, final LocalDate endDate, final List<Item> output) {
+        if (existingItem == null) {
+            return;
+        }
+        final InvoiceItem repairInvoiceItem = existingItem.toProratedInvoiceItem(startDate, endDate);
+        existingItem.incrementCurrentRepairedAmount(repairInvoiceItem.getAmount().abs());
+        output.add(new Item(repairInvoiceItem, targetInvoiceId, ItemAction.CANCEL, prorationFixedDays));
+    }
+
+    @Override
+    public List<InvoiceItem> getView() {
+        if (nodeTree != null) {
+            return nodeTree.getView();
+        }
+        return SubscriptionItemTree.buildView(remainingIgnoredItems, items);
+    }
+
+    @VisibleForTesting
+    boolean isUsingNodeTree() {
+        return nodeTree != null;
+    }
+
+    private void fallBackOnNodeTree() {
+        final SubscriptionItemTree tree = new SubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays);
+        for (final InvoiceItem invoiceItem : existingInvoiceItems) {
+            tree.addItem(invoiceItem);
+        }
+        if (isFlattened) {
+            tree.flatten(true);
+        } else if (isBuilt) {
+            tree.build();
+        }
+        for (final InvoiceItem invoiceItem : proposedInvoiceItems) {
+            tree.mergeProposedItem(invoiceItem);
+        }
+        nodeTree = tree;
+    }
+
+    // Same as java.time.LocalDate#toEpochDay, without going through the Joda chronology for each comparison
+    @VisibleForTesting
+    static int toEpochDay(final LocalDate date) {
+        final long year = date.getYear();
+        final long month = date.getMonthOfYear();
+        long total = 365 * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += date.getDayOfMonth() - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        // Days from year 0 to 1970
+        return (int) (total - 719528);
+    }
+
+    private static boolean isLeapYear(final long year) {
+        return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CompactSubscriptionItemTree{");
+        sb.append("targetInvoiceId=").append(targetInvoiceId);
+        sb.append(", subscriptionId=").append(subscriptionId);
+        sb.append(", nodeTree=").append(nodeTree);
+        sb.append(", isBuilt=").append(isBuilt);
+        sb.append(", isFlattened=").append(isFlattened);
+        sb.append(", isMerged=").append(isMerged);
+        sb.append(", items=").append(items);
+        sb.append(", existingIgnoredItems=").append(existingIgnoredItems);
+        sb.append(", remainingIgnoredItems=").append(remainingIgnoredItems);
+        sb.append(", pendingItemAdj=").append(pendingItemAdj);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Existing items laid out in depth-first order, see ItemsNodeInterval for the semantics of the tree.
+     */
+    private static final class Layout {
+
+        private final int nbNodes;
+        private final int[] start;
+        private final int[] end;
+        private final LocalDate[] startDate;
+        private final LocalDate[] endDate;
+        private final int[] parent;
+        // Exclusive index of the last node of the subtree
+        private final int[] subtreeEnd;
+        // Items of node k are items[firstItem[k]] to items[firstItem[k + 1] - 1], null once removed
+        private final int[] firstItem;
+        private final Item[] items;
+
+        private final Item[] resultingAddItems;
+        private final boolean[] isResultingAddItemComputed;
+
+        private Layout(final int nbNodes, final int[] start, final int[] end, final LocalDate[] startDate, final LocalDate[] endDate,
+                       final int[] parent, final int[] subtreeEnd, final int[] firstItem, final Item[] items) {
+            this.nbNodes = nbNodes;
+            this.start = start;
+            this.end = end;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.parent = parent;
+            this.subtreeEnd = subtreeEnd;
+            this.firstItem = firstItem;
+            this.items = items;
+            this.resultingAddItems = new Item[nbNodes];
+            this.isResultingAddItemComputed = new boolean[nbNodes];
+        }
+
+        /**
+         * @return the layout, or null if the node tree would split some of the items
+         */
+        static Layout create(final List<Item> existingItems) {
+            final int nbItems = existingItems.size();
+            if (nbItems > KEY_MASK) {
+                return null;
+            }
+
+            final int[] itemStart = new int[nbItems];
+            final int[] itemEnd = new int[nbItems];
+            final long[] keys = new long[nbItems];
+            for (int i = 0; i < nbItems; i++) {
+                final Item item = existingItems.get(i);
+                itemStart[i] = toEpochDay(item.getStartDate());
+                itemEnd[i] = toEpochDay(item.getEndDate());
+                if (itemStart[i] < 0 || itemStart[i] >= itemEnd[i] || itemEnd[i] > KEY_MASK) {
+                    return null;
+                }
+                // Sort by start, then largest interval first, then insertion order
+                keys[i] = ((long) itemStart[i] << (2 * KEY_BITS)) | ((KEY_MASK - itemEnd[i]) << KEY_BITS) | i;
+            }
+            Arrays.sort(keys);
+
+            final int[] start = new int[nbItems];
+            final int[] end = new int[nbItems];
+            final LocalDate[] startDate = new LocalDate[nbItems];
+            final LocalDate[] endDate = new LocalDate[nbItems];
+            final int[] parent = new int[nbItems];
+            final int[] subtreeEnd = new int[nbItems];
+            final int[] firstItem = new int[nbItems + 1];
+            final int[] firstInsertion = new int[nbItems];
+            final Item[] items = new Item[nbItems];
+
+            final int[] stack = new int[nbItems];
+            int depth = 0;
+            int nbNodes = 0;
+            for (int j = 0; j < nbItems; j++) {
+                final int i = (int) (keys[j] & KEY_MASK);
+                items[j] = existingItems.get(i);
+                if (nbNodes > 0 && start[nbNodes - 1] == itemStart[i] && end[nbNodes - 1] == itemEnd[i]) {
+                    // Same interval, same node
+                    continue;
+                }
+
+                while (depth > 0 && end[stack[depth - 1]] <= itemStart[i]) {
+                    subtreeEnd[stack[--depth]] = nbNodes;
+                }
+                final int parentNode = depth > 0 ? stack[depth - 1] : -1;
+                // The node tree would split an item overlapping its parent, or a parent added after its child
+                if (parentNode >= 0 && (itemEnd[i] > end[parentNode] || firstInsertion[parentNode] > i)) {
+                    return null;
+                }
+
+                start[nbNodes] = itemStart[i];
+                end[nbNodes] = itemEnd[i];
+                startDate[nbNodes] = items[j].getStartDate();
+                endDate[nbNodes] = items[j].getEndDate();
+                parent[nbNodes] = parentNode;
+                firstItem[nbNodes] = j;
+                firstInsertion[nbNodes] = i;
+                stack[depth++] = nbNodes;
+                nbNodes++;
+            }
+            while (depth > 0) {
+                subtreeEnd[stack[--depth]] = nbNodes;
+            }
+            firstItem[nbNodes] = nbItems;
+
+            return new Layout(nbNodes, start, end, startDate, endDate, parent, subtreeEnd, firstItem, items);
+        }
+
+        // See ItemsNodeInterval#addAdjustment
+        void addAdjustment(final InvoiceItem item) {
+            final UUID targetId = item.getLinkedItemId();
+
+            Item targetItem = null;
+            for (int k = 0; k < nbNodes && targetItem == null; k++) {
+                for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                    if (items[j].getId().equals(targetId)) {
+                        Preconditions.checkState(targetItem == null, "Too many items matching id='%s' among items='%s'", targetId, getItems(k));
+                        targetItem = items[j];
+                    }
+                }
+            }
+            Preconditions.checkNotNull(targetItem, "Unable to find item interval for id='%s'", targetId);
+
+            final BigDecimal adjustmentAmount = item.getAmount().negate();
+            targetItem.incrementAdjustedAmount(adjustmentAmount);
+        }
+
+        // See ItemsNodeInterval#validateTree
+        void validate() {
+            for (int k = 0; k < nbNodes; k++) {
+                final boolean hasChildren = subtreeEnd[k] > k + 1;
+                // As NodeInterval#walkTree from the left child, the checks only cover the subtree of the first child
+                final int lastLeftChildSubtreeNode = hasChildren ? subtreeEnd[k + 1] : k + 1;
+                final int firstDescendantItem = firstItem[k + 1];
+                final int lastDescendantItem = firstItem[lastLeftChildSubtreeNode];
+
+                for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                    final Item curCancelItem = items[j];
+                    if (curCancelItem == null || curCancelItem.getAction() != ItemAction.CANCEL) {
+                        continue;
+                    }
+
+                    // Sanity: cancelled items should only be in the same node or parents
+                    if (hasChildren) {
+                        for (int d = firstDescendantItem; d < lastDescendantItem; d++) {
+                            final Item cancelledItem = items[d];
+                            Preconditions.checkState(cancelledItem == null ||
+                                                     cancelledItem.getAction() != ItemAction.ADD ||
+                                                     !cancelledItem.getId().equals(curCancelItem.getLinkedId()),
+                                                     "Invalid cancelledItem=%s for cancelItem=%s", cancelledItem, curCancelItem);
+                        }
+                    }
+
+                    // Sanity: make sure the CANCEL item points to an ADD item
+                    Preconditions.checkState(hasAddItem(k, curCancelItem.getLinkedId()), "Missing cancelledItem for cancelItem=%s", curCancelItem);
+                }
+
+                for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                    final Item curAddItem = items[j];
+                    if (curAddItem == null || curAddItem.getAction() != ItemAction.ADD) {
+                        continue;
+                    }
+
+                    if (!hasChildren) {
+                        continue;
+                    }
+
+                    // Sanity: verify the item hasn't been repaired too much
+                    BigDecimal totalRepaired = BigDecimal.ZERO;
+                    for (int m = k + 1; m < lastLeftChildSubtreeNode; m++) {
+                        for (int d = firstItem[m]; d < firstItem[m + 1]; d++) {
+                            final Item cancellingItem = items[d];
+                            if (cancellingItem != null && cancellingItem.getAction() == ItemAction.CANCEL && cancellingItem.getLinkedId().equals(curAddItem.getId())) {
+                                totalRepaired = totalRepaired.add(cancellingItem.getAmount());
+                                break;
+                            }
+                        }
+                    }
+                    Preconditions.checkState(curAddItem.getNetAmount().compareTo(totalRepaired) >= 0, "Item %s overly repaired", curAddItem);
+
+                    // Old behavior compatibility for full item adjustment (Temp code should go away as move in time)
+                    // If we see a fully adjusted item and an existing child (one ADD item), we discard the fully adjusted item
+                    // in such a way that we are left with the child that will look like the proposed and nothing will be generated.
+                    if (curAddItem.isFullyAdjusted()) {
+                        final List<Item> leftChildItems = getItems(k + 1);
+                        if (leftChildItems.size() == 1 && leftChildItems.get(0).getAction() == ItemAction.ADD) {
+                            items[j] = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        private boolean hasAddItem(final int k, final UUID id) {
+            // The cancelled item is most likely in the same node or a parent
+            for (int p = k; p >= 0; p = parent[p]) {
+                if (findAddItem(p, id) != null) {
+                    return true;
+                }
+            }
+            for (int p = 0; p < nbNodes; p++) {
+                if (findAddItem(p, id) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Item findAddItem(final int k, final UUID id) {
+            for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                if (items[j] != null && items[j].getAction() == ItemAction.ADD && items[j].getId().equals(id)) {
+                    return items[j];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Depth-first build, see NodeInterval#build: the ADD item of a node is prorated on the periods not covered by its children.
+         *
+         * @return the built items, in chronological order, or null if some of them would need to be joined
+         */
+        List<Item> build(final UUID targetInvoiceId, final int prorationFixedDays) {
+            final List<Item> output = new ArrayList<>(nbNodes);
+
+            final int[] stack = new int[nbNodes];
+            // Start of the period of each open node not yet covered by its children
+            final int[] curDate = new int[nbNodes];
+            final LocalDate[] curLocalDate = new LocalDate[nbNodes];
+            int depth = 0;
+            for (int k = 0; k < nbNodes; k++) {
+                while (depth > 0 && subtreeEnd[stack[depth - 1]] <= k) {
+                    closeNode(stack[--depth], curDate, curLocalDate, targetInvoiceId, prorationFixedDays, output);
+                }
+                final int p = parent[k];
+                if (p >= 0) {
+                    if (start[k] > curDate[p]) {
+                        addProratedItem(p, curLocalDate[p], startDate[k], targetInvoiceId, prorationFixedDays, output);
+                    }
+                    curDate[p] = end[k];
+                    curLocalDate[p] = endDate[k];
+                }
+                curDate[k] = start[k];
+                curLocalDate[k] = startDate[k];
+                stack[depth++] = k;
+            }
+            while (depth > 0) {
+                closeNode(stack[--depth], curDate, curLocalDate, targetInvoiceId, prorationFixedDays, output);
+            }
+
+            // Without any split, only items sharing the same id would need to be joined
+            for (int i = 1; i < output.size(); i++) {
+                if (output.get(i).getId().equals(output.get(i - 1).getId()) &&
+                    output.get(i).getStartDate().compareTo(output.get(i - 1).getEndDate()) == 0) {
+                    return null;
+                }
+            }
+            return output;
+        }
+
+        private void closeNode(final int k, final int[] curDate, final LocalDate[] curLocalDate, final UUID targetInvoiceId, final int prorationFixedDays, final List<Item> output) {
+            if (subtreeEnd[k] == k + 1) {
+                // Last node
+                final Item item = getResultingAddItem(k);
+                if (item != null) {
+                    output.add(item);
+                }
+            } else if (curDate[k] < end[k]) {
+                // Hole at the end
+                addProratedItem(k, curLocalDate[k], endDate[k], targetInvoiceId, prorationFixedDays, output);
+            }
+        }
+
+        private void addProratedItem(final int k, final LocalDate missingStartDate, final LocalDate missingEndDate, final UUID targetInvoiceId, final int prorationFixedDays, final List<Item> output) {
+            final Item item = getResultingAddItem(k);
+            if (item == null) {
+                return;
+            }
+
+            final InvoiceItem proratedInvoiceItem = item.toProratedInvoiceItem(missingStartDate, missingEndDate);
+            // Keep track of the repaired amount for this item
+            item.incrementCurrentRepairedAmount(proratedInvoiceItem.getAmount().abs());
+            output.add(new Item(proratedInvoiceItem, targetInvoiceId, item.getAction(), prorationFixedDays));
+        }
+
+        // See ItemsInterval#getResulting_ADD_Item
+        private Item getResultingAddItem(final int k) {
+            if (isResultingAddItemComputed[k]) {
+                return resultingAddItems[k];
+            }
+
+            final List<Item> nodeItems = getItems(k);
+            Preconditions.checkState(nodeItems.size() <= 2, "Double billing detected: %s", nodeItems);
+
+            Item addItem = null;
+            Item cancelItem = null;
+            for (final Item item : nodeItems) {
+                if (item.getAction() == ItemAction.ADD) {
+                    Preconditions.checkState(addItem == null, "Double billing detected: %s", nodeItems);
+                    addItem = item;
+                } else if (cancelItem == null) {
+                    cancelItem = item;
+                }
+            }
+
+            Item result = addItem;
+            // Double billing sanity check across nodes
+            if (addItem != null) {
+                final Set<UUID> addItemsCancelled = new HashSet<>();
+                if (cancelItem != null) {
+                    Preconditions.checkState(cancelItem.getLinkedId() != null, "Invalid CANCEL item=%s", cancelItem);
+                    if (cancelItem.getLinkedId().equals(addItem.getId())) {
+                        // Cancelling pair, we don't return anything
+                        result = null;
+                    } else {
+                        addItemsCancelled.add(cancelItem.getLinkedId());
+                    }
+                }
+
+                final Set<UUID> addItemsToBeCancelled = new HashSet<>();
+                for (int p = parent[k]; p >= 0; p = parent[p]) {
+                    final Item parentAddItem = getResultingAddItem(p);
+                    if (parentAddItem != null) {
+                        Preconditions.checkState(parentAddItem.getId() != null, "Invalid ADD item=%s", parentAddItem);
+                        addItemsToBeCancelled.add(parentAddItem.getId());
+
+                        // Old behavior compatibility for full item adjustment (Temp code should go away as move in time)
+                        // discard as double billing potential old full item adj data that looks like REPAIR
+                        if (parentAddItem.isFullyAdjusted()) {
+                            addItemsCancelled.add(parentAddItem.getId());
+                        }
+                    }
+
+                    final Item parentCancelItem = findCancelItem(p);
+                    if (parentCancelItem != null) {
+                        Preconditions.checkState(parentCancelItem.getLinkedId() != null, "Invalid CANCEL item=%s", parentCancelItem);
+                        addItemsCancelled.add(parentCancelItem.getLinkedId());
+                    }
+                }
+                Preconditions.checkState(addItemsCancelled.equals(addItemsToBeCancelled), "Double billing detected: addItemsCancelled=%s, addItemsToBeCancelled=%s", addItemsCancelled, addItemsToBeCancelled);
+            }
+
+            resultingAddItems[k] = result;
+            isResultingAddItemComputed[k] = true;
+            return result;
+        }
+
+        private Item findCancelItem(final int k) {
+            for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                if (items[j] != null && items[j].getAction() == ItemAction.CANCEL) {
+                    return items[j];
+                }
+            }
+            return null;
+        }
+
+        private List<Item> getItems(final int k) {
+            final List<Item> result = new ArrayList<>(firstItem[k + 1] - firstItem[k]);
+            for (int j = firstItem[k]; j < firstItem[k + 1]; j++) {
+                if (items[j] != null) {
+                    result.add(items[j]);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.util.List;
+
+import org.killbill.billing.invoice.api.InvoiceItem;
+
+/**
+ * Reconciliation of the existing and proposed invoice items for a given subscription.
+ * <p/>
+ * The lifecycle is the one driven by <tt>AccountItemTree</tt>: add the existing items, build (or directly flatten)
+ * the tree, merge the proposed items and finally build the merged tree to retrieve the items to write to disk.
+ *
+ * @see SubscriptionItemTree
+ * @see CompactSubscriptionItemTree
+ */
+public interface ItemTree {
+
+    /**
+     * Add an existing item in the tree.
+     *
+     * @param invoiceItem new existing invoice item on disk.
+     */
+    void addItem(InvoiceItem invoiceItem);
+
+    /**
+     * Build the tree and process adjustments
+     */
+    void build();
+
+    /**
+     * Flattens the tree, built first if needed, so that it only contains the resulting existing items.
+     *
+     * @param reverse whether to reverse the existing items (recurring items now show up as CANCEL instead of ADD)
+     */
+    void flatten(boolean reverse);
+
+    /**
+     * Merge a new proposed item in the tree.
+     *
+     * @param invoiceItem new proposed item that should be merged in the existing tree
+     */
+    void mergeProposedItem(InvoiceItem invoiceItem);
+
+    /**
+     * Build tree post merge
+     */
+    void buildForMerge();
+
+    /**
+     * Can be called prior or after merge with proposed items.
+     *
+     * @return a flat view of the items in the tree.
+     */
+    List<InvoiceItem> getView();
+}
@@ -20,6 +20,7 @@
 package org.killbill.billing.invoice.tree;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
@@ -36,7 +37,7 @@ import org.killbill.commons.utils.annotation.VisibleForTesting;
 /**
  * Tree of invoice items for a given subscription
  */
-public class SubscriptionItemTree {
+public class SubscriptionItemTree implements ItemTree {
 
     private final List<Item> items = new LinkedList<>();
     private final List<InvoiceItem> existingIgnoredItems = new LinkedList<>();
@@ -85,6 +86,7 @@ public class SubscriptionItemTree {
      *
      * @param invoiceItem new existing invoice item on disk.
      */
+    @Override
     public void addItem(final InvoiceItem invoiceItem) {
         Preconditions.checkState(!isBuilt, "Tree already built, unable to add new invoiceItem=%s", invoiceItem);
 
@@ -118,6 +120,7 @@ public class SubscriptionItemTree {
     /**
      * Build the tree and process adjustments
      */
+    @Override
     public void build() {
         Preconditions.checkState(!isBuilt);
 
@@ -144,6 +147,7 @@ public class SubscriptionItemTree {
      *
      * @param reverse whether to reverse the existing items (recurring items now show up as CANCEL instead of ADD)
      */
+    @Override
     public void flatten(final boolean reverse) {
         if (!isBuilt) {
             build();
@@ -163,6 +167,7 @@ public class SubscriptionItemTree {
      *
      * @param invoiceItem new proposed item that should be merged in the existing tree
      */
+    @Override
     public void mergeProposedItem(final InvoiceItem invoiceItem) {
         Preconditions.checkState(!isBuilt, "Tree already built, unable to add new invoiceItem=%s", invoiceItem);
 
@@ -191,6 +196,7 @@ public class SubscriptionItemTree {
     }
 
     // Build tree post merge
+    @Override
     public void buildForMerge() {
         Preconditions.checkState(!isBuilt, "Tree already built");
         root.mergeExistingAndProposed(items, targetInvoiceId);
@@ -207,7 +213,13 @@ public class SubscriptionItemTree {
      *
      * @return a flat view of the items in the tree.
      */
+    @Override
     public List<InvoiceItem> getView() {
+        return buildView(remainingIgnoredItems, items);
+    }
+
+    // Shared with CompactSubscriptionItemTree
+    static List<InvoiceItem> buildView(final Collection<InvoiceItem> remainingIgnoredItems, final Collection<Item> items) {
         final List<InvoiceItem> tmp = new LinkedList<>(remainingIgnoredItems);
         items.stream().filter(Objects::nonNull).forEach(item -> tmp.add(item.toInvoiceItem()));
 
@@ -217,7 +229,7 @@ public class SubscriptionItemTree {
     }
 
     // Verify there is no double billing, and no double repair (credits)
-    private void checkItemsListState(final List<InvoiceItem> orderedList) {
+    private static void checkItemsListState(final List<InvoiceItem> orderedList) {
 
         LocalDate prevRecurringEndDate = null;
         LocalDate prevRepairEndDate = null;
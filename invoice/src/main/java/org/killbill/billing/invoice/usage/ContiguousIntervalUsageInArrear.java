@@ -56,6 +56,7 @@ import org.killbill.billing.invoice.model.UsageInvoiceItem;
 import org.killbill.billing.invoice.usage.details.UsageInArrearAggregate;
 import org.killbill.billing.junction.BillingEvent;
 import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.usage.AggregatedUsageRecord;
 import org.killbill.billing.usage.api.RawUsageRecord;
 import org.killbill.billing.usage.api.RolledUpUnit;
 import org.killbill.clock.ClockUtil;
@@ -444,7 +445,7 @@ public abstract class ContiguousIntervalUsageInArrear {
                     if (prevRawUsage.getDate().compareTo(prevDate) >= 0 &&
                         (prevRawUsage.getDate().compareTo(curDate) < 0 || isUsageForCancellationDay)) {
                         final BigDecimal currentAmount = perRangeUnitToAmount.get(prevRawUsage.getUnitType());
-                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, prevRawUsage.getAmount());
+                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, prevRawUsage);
                         perRangeUnitToAmount.put(prevRawUsage.getUnitType(), updatedAmount);
                         trackingIds.add(new TrackingRecordId(prevRawUsage.getTrackingId(), invoiceId, prevRawUsage.getSubscriptionId(), prevRawUsage.getUnitType(), usageClockUtil.toLocalDate(prevRawUsage.getDate(), internalTenantContext)));
                         prevRawUsage = null;
@@ -471,7 +472,7 @@ public abstract class ContiguousIntervalUsageInArrear {
                         }
 
                         final BigDecimal currentAmount = perRangeUnitToAmount.get(curRawUsage.getUnitType());
-                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, curRawUsage.getAmount());
+                        final BigDecimal updatedAmount = computeUpdatedAmount(currentAmount, curRawUsage);
                         perRangeUnitToAmount.put(curRawUsage.getUnitType(), updatedAmount);
                         trackingIds.add(new TrackingRecordId(curRawUsage.getTrackingId(), invoiceId, curRawUsage.getSubscriptionId(), curRawUsage.getUnitType(), usageClockUtil.toLocalDate(curRawUsage.getDate(), internalTenantContext)));
                     }
@@ -529,6 +530,14 @@ public abstract class ContiguousIntervalUsageInArrear {
         return result;
     }
 
+    private BigDecimal computeUpdatedAmount(@Nullable final BigDecimal currentAmount, final RawUsageRecord rawUsage) {
+        // Aggregated usage records carry both the sum and the max of their points
+        final BigDecimal newAmount = usage.getUsageType() == UsageType.CAPACITY && rawUsage instanceof AggregatedUsageRecord ?
+                                     ((AggregatedUsageRecord) rawUsage).getMaxAmount() :
+                                     rawUsage.getAmount();
+        return computeUpdatedAmount(currentAmount, newAmount);
+    }
+
     /**
      * Based on usage type compute new amount
      *
@@ -603,6 +612,22 @@ public abstract class ContiguousIntervalUsageInArrear {
                               .collect(Collectors.toList());
     }
 
+    /**
+     * @return the UTC days for which usage aggregated per day can't be used, because a transition splits them, or because the usage
+     * recorded at the exact time of the final cancellation has to be billed
+     */
+    public Set<LocalDate> getRawUsageDays() {
+        final Set<LocalDate> result = new HashSet<>();
+        for (final TransitionTime transitionTime : transitionTimes) {
+            final DateTime utcDate = transitionTime.getDate().toDateTime(DateTimeZone.UTC);
+            if (utcDate.getMillisOfDay() != 0 ||
+                transitionTime.getTargetBillingEvent().getTransitionType() == SubscriptionBaseTransitionType.CANCEL) {
+                result.add(utcDate.toLocalDate());
+            }
+        }
+        return result;
+    }
+
     public void addBillingEvent(final BillingEvent event) {
         Preconditions.checkState(!isBuilt.get(), "#addBillingEvent(): !isBuilt");
         billingEvents.add(event);
@@ -83,11 +83,21 @@ public class RawUsageOptimizer {
     }
 
     public RawUsageResult getInArrearUsage(final DateTime optimizedStartDate, final LocalDate targetDate, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> inputProperties, final InternalCallContext internalCallContext) {
+        return getInArrearUsage(optimizedStartDate, targetDate, null, dryRunInfo, inputProperties, internalCallContext);
+    }
+
+    /**
+     * @param rawUsageDays when specified, the usage is read aggregated per day except for these (UTC) days: the tracking ids of
+     *                     the aggregated records are meaningless, so this is only suitable when they aren't persisted (dry-runs)
+     */
+    public RawUsageResult getInArrearUsage(final DateTime optimizedStartDate, final LocalDate targetDate, @Nullable final Set<LocalDate> rawUsageDays, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> inputProperties, final InternalCallContext internalCallContext) {
 
         // The idea is that if we need to come up with a DateTime we use the largest possible based on the provided LocalDate to return enough points and have the usage invoice code filter what is not relevant.
         // Since target date is within account#timezone, we compute a datetime at the end of the day in account#timezone and then convert to UTC
         final DateTime targetDateMax = usageClockUtil.toDateTimeAtEndOfDay(targetDate, internalCallContext);
-        final List<RawUsageRecord> rawUsageData = usageApi.getRawUsageForAccount(optimizedStartDate, targetDateMax, dryRunInfo, inputProperties, internalCallContext);
+        final List<RawUsageRecord> rawUsageData = rawUsageDays != null ?
+                                                  usageApi.getAggregatedUsageForAccount(optimizedStartDate, targetDateMax, rawUsageDays, dryRunInfo, inputProperties, internalCallContext) :
+                                                  usageApi.getRawUsageForAccount(optimizedStartDate, targetDateMax, dryRunInfo, inputProperties, internalCallContext);
 
         final List<InvoiceTrackingModelDao> trackingIds = invoiceDao.getTrackingsByDateRange(optimizedStartDate.toLocalDate(), targetDate, internalCallContext);
         final Set<TrackingRecordId> existingTrackingIds = new HashSet<>();
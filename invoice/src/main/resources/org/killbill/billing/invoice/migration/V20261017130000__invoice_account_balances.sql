@@ -0,0 +1,17 @@
+DROP TABLE IF EXISTS invoice_account_balances;
+CREATE TABLE invoice_account_balances (
+    record_id serial unique,
+    balance numeric(15,9) NULL,
+    cba numeric(15,9) NULL,
+    written_off_digest varchar(36) NULL,
+    version bigint /*! unsigned */ not null default 0,
+    updated_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE UNIQUE INDEX invoice_account_balances_tenant_account_record_id ON invoice_account_balances(tenant_record_id, account_record_id);
+
+insert into invoice_account_balances (version, updated_date, account_record_id, tenant_record_id)
+select 0, now(), account_record_id, tenant_record_id from invoices
+group by tenant_record_id, account_record_id;
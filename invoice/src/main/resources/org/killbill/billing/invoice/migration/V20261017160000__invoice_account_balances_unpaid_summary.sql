@@ -0,0 +1,8 @@
+alter table invoice_account_balances add column unpaid_invoice_count int NULL after cba;
+alter table invoice_account_balances add column unpaid_invoice_balance numeric(15,9) NULL after unpaid_invoice_count;
+alter table invoice_account_balances add column earliest_unpaid_invoice_date date NULL after unpaid_invoice_balance;
+alter table invoice_account_balances add column earliest_unpaid_invoice_id varchar(36) NULL after earliest_unpaid_invoice_date;
+alter table invoice_account_balances add column latest_unpaid_target_date date NULL after earliest_unpaid_invoice_id;
+
+-- Force a recomputation of the existing rows, so that the unpaid invoices summary gets populated
+update invoice_account_balances set balance = null, cba = null, written_off_digest = null, version = version + 1;
@@ -107,6 +107,8 @@ public abstract class InvoiceTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
     protected ParkedAccountsManager parkedAccountsManager;
     @Inject
     protected InvoiceOptimizer invoiceOptimizer;
+    @Inject
+    protected InvoiceDispatcherMetrics invoiceDispatcherMetrics;
 
     @BeforeClass(groups = "slow")
     protected void beforeClass() throws Exception {
@@ -21,6 +21,7 @@ package org.killbill.billing.invoice;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -56,6 +57,8 @@ import org.killbill.billing.subscription.api.user.SubscriptionBaseApiException;
 import org.killbill.billing.util.api.TagDefinitionApiException;
 import org.killbill.billing.util.tag.Tag;
 import org.killbill.billing.util.tag.dao.SystemTags;
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.mockito.Mockito;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.tweak.HandleCallback;
@@ -84,7 +87,7 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
 
         dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
                                            internalCallContextFactory,  invoicePluginDispatcher, locker, bus,
-                                           notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager);
+                                           notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, invoiceDispatcherMetrics);
 
     }
 
@@ -108,7 +111,7 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
 
         final InvoiceDispatcher dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
                                                                    internalCallContextFactory, invoicePluginDispatcher, locker, bus,
-                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager);
+                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, invoiceDispatcherMetrics);
 
         Invoice invoice = processAccountFromNotificationOrBusEventAndAssertResult(accountId, target, new DryRunFutureDateArguments(), false, context);
 
@@ -148,7 +151,7 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
 
         final InvoiceDispatcher dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
                                                                    internalCallContextFactory, invoicePluginDispatcher, locker, bus,
-                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager);
+                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, invoiceDispatcherMetrics);
 
         // Verify initial tags state for account
         Assert.assertTrue(tagUserApi.getTagsForAccount(accountId, true, callContext).isEmpty());
@@ -299,7 +302,7 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
         Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any())).thenReturn(events);
         final InvoiceDispatcher dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
                                                                    internalCallContextFactory, invoicePluginDispatcher, locker, bus,
-                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager);
+                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, invoiceDispatcherMetrics);
         final Invoice invoice = processAccountFromNotificationOrBusEventAndAssertResult(account.getId(), new LocalDate("2012-07-30"), null, false, context);
         Assert.assertNotNull(invoice);
 
@@ -340,6 +343,41 @@ public class TestInvoiceDispatcher extends InvoiceTestSuiteWithEmbeddedDB {
         }
     }
 
+    @Test(groups = "slow")
+    public void testInvoiceRunMetrics() throws Exception {
+        final BillingEventSet events = new MockBillingEventSet();
+        final Plan plan = MockPlan.createBicycleNoTrialEvergreen1USD();
+        final PlanPhase planPhase = MockPlanPhase.create1USDMonthlyEvergreen();
+        final DateTime effectiveDate = clock.getUTCNow().minusDays(1);
+        events.add(invoiceUtil.createMockBillingEvent(account, subscription, effectiveDate, plan, planPhase,
+                                                      null, BigDecimal.ONE, Currency.USD, BillingPeriod.MONTHLY, 1,
+                                                      BillingMode.IN_ADVANCE, "", 1L, SubscriptionBaseTransitionType.CREATE));
+        Mockito.when(billingApi.getBillingEventsForAccountAndUpdateAccountBCD(Mockito.<UUID>any(), Mockito.<DryRunArguments>any(), Mockito.<LocalDate>any(), Mockito.<InternalCallContext>any())).thenReturn(events);
+
+        final NoOpMetricRegistry metricRegistry = new NoOpMetricRegistry();
+        dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi, invoiceDao,
+                                           internalCallContextFactory, invoicePluginDispatcher, locker, bus,
+                                           notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, new InvoiceDispatcherMetrics(metricRegistry));
+
+        final LocalDate target = internalCallContext.toLocalDate(effectiveDate);
+        // Dry-runs aren't recorded
+        processAccountFromNotificationOrBusEventAndAssertResult(account.getId(), target, new DryRunFutureDateArguments(), false, context);
+        Assert.assertTrue(metricRegistry.getHistograms().isEmpty());
+
+        final Invoice invoice = processAccountFromNotificationOrBusEventAndAssertResult(account.getId(), target, null, false, context);
+
+        final String prefix = "killbill.invoice.dispatcher." + context.getTenantRecordId();
+        final Map<String, Histogram> histograms = metricRegistry.getHistograms();
+        Assert.assertEquals(histograms.get(prefix + ".lockWaitMs").getCount(), 1);
+        Assert.assertEquals(histograms.get(prefix + ".itemsGenerated").getCount(), 1);
+        Assert.assertEquals(histograms.get(prefix + ".fetchInvoicesMs").getCount(), 1);
+        Assert.assertEquals(histograms.get(prefix + ".billingEventsMs").getCount(), 1);
+        Assert.assertEquals(histograms.get(prefix + ".invoiceGenerationMs").getCount(), 1);
+        Assert.assertEquals(histograms.get(prefix + ".commitInvoiceMs").getCount(), 1);
+        Assert.assertEquals(metricRegistry.getGauges().get("killbill.invoice.dispatcher.runsPerMinute").getValue(), 1L);
+        Assert.assertFalse(invoice.getInvoiceItems().isEmpty());
+    }
+
     private Invoice processAccountFromNotificationOrBusEventAndAssertResult(final UUID accountId,
                                                                             @Nullable final LocalDate targetDate,
                                                                             @Nullable final DryRunArguments dryRunArguments,
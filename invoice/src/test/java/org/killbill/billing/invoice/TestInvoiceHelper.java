@@ -166,12 +166,14 @@ public class TestInvoiceHelper {
     private final InvoiceItemSqlDao invoiceItemSqlDao;
     private final InvoiceSqlDao invoiceSqlDao;
     private final InvoiceOptimizer invoiceOptimizer;
+    private final InvoiceDispatcherMetrics invoiceDispatcherMetrics;
 
     @Inject
     public TestInvoiceHelper(final InvoiceGenerator generator, final IDBI dbi,
                              final BillingInternalApi billingApi, final AccountInternalApi accountApi, final ImmutableAccountInternalApi immutableAccountApi, final InvoicePluginDispatcher invoicePluginDispatcher, final AccountUserApi accountUserApi, final SubscriptionBaseInternalApi subscriptionApi, final BusOptimizer eventBus,
                              final InvoiceDao invoiceDao, final GlobalLocker locker, final Clock clock, final NonEntityDao nonEntityDao, final NotificationQueueService notificationQueueService, final MutableInternalCallContext internalCallContext, final InvoiceConfig invoiceConfig,
-                             final ParkedAccountsManager parkedAccountsManager, final InvoiceOptimizer invoiceOptimizer, final InternalCallContextFactory internalCallContextFactory) {
+                             final ParkedAccountsManager parkedAccountsManager, final InvoiceOptimizer invoiceOptimizer, final InternalCallContextFactory internalCallContextFactory,
+                             final InvoiceDispatcherMetrics invoiceDispatcherMetrics) {
         this.generator = generator;
         this.billingApi = billingApi;
         this.accountApi = accountApi;
@@ -187,6 +189,7 @@ public class TestInvoiceHelper {
         this.notificationQueueService = notificationQueueService;
         this.parkedAccountsManager = parkedAccountsManager;
         this.invoiceOptimizer = invoiceOptimizer;
+        this.invoiceDispatcherMetrics = invoiceDispatcherMetrics;
         this.internalCallContext = internalCallContext;
         this.internalCallContextFactory = internalCallContextFactory;
         this.invoiceSqlDao = dbi.onDemand(InvoiceSqlDao.class);
@@ -236,7 +239,7 @@ public class TestInvoiceHelper {
     public Invoice generateInvoice(final UUID accountId, @Nullable final LocalDate targetDate, @Nullable final DryRunArguments dryRunArguments, final InternalCallContext internalCallContext) throws InvoiceApiException {
         final InvoiceDispatcher dispatcher = new InvoiceDispatcher(generator, accountApi, billingApi, subscriptionApi,
                                                                    invoiceDao, internalCallContextFactory, invoicePluginDispatcher, locker, eventBus,
-                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager);
+                                                                   notificationQueueService, invoiceConfig, clock, invoiceOptimizer, parkedAccountsManager, invoiceDispatcherMetrics);
 
         final List<Invoice> result = dispatcher.processAccountFromNotificationOrBusEvent(accountId, targetDate, dryRunArguments, false, internalCallContext);
         Assert.assertEquals(result.size(), 1);
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.billing.invoice.InvoicePluginExecutor.InvoicePluginTimeoutException;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.slf4j.MDC;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestInvoicePluginExecutor extends InvoiceTestSuiteNoDB {
+
+    private static final List<String> PLUGINS = List.of("discount", "tax", "notification", "audit");
+
+    @Test(groups = "fast")
+    public void testSequentialByDefault() {
+        final InvoicePluginExecutor executor = createExecutor(new Properties());
+        Assert.assertFalse(executor.isParallel());
+        Assert.assertEquals(executor.getStages(PLUGINS), List.of(List.of("discount"), List.of("tax"), List.of("notification"), List.of("audit")));
+    }
+
+    @Test(groups = "fast")
+    public void testStages() {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.plugin.parallelism", "4");
+        properties.setProperty("org.killbill.invoice.plugin.dependencies", "tax:discount,audit:tax,audit:unknown");
+        final InvoicePluginExecutor executor = createExecutor(properties);
+
+        Assert.assertTrue(executor.isParallel());
+        Assert.assertEquals(executor.getStages(PLUGINS), List.of(List.of("discount", "notification"), List.of("tax"), List.of("audit")));
+        // Dependencies on plugins which aren't active are ignored
+        Assert.assertEquals(executor.getStages(List.of("notification", "audit", "tax")), List.of(List.of("notification", "tax"), List.of("audit")));
+    }
+
+    @Test(groups = "fast")
+    public void testCycleFallsBackToSequential() {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.plugin.parallelism", "4");
+        properties.setProperty("org.killbill.invoice.plugin.dependencies", "tax:discount,discount:tax");
+        final InvoicePluginExecutor executor = createExecutor(properties);
+
+        Assert.assertEquals(executor.getStages(PLUGINS), List.of(List.of("discount"), List.of("tax"), List.of("notification"), List.of("audit")));
+    }
+
+    @Test(groups = "fast")
+    public void testConcurrentCalls() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.plugin.parallelism", "4");
+        final InvoicePluginExecutor executor = createExecutor(properties);
+
+        // Each plugin waits for all the others: this can only complete if they are called concurrently
+        final CountDownLatch latch = new CountDownLatch(PLUGINS.size());
+        final Map<String, String> results = executor.invokeAll(PLUGINS, "test", pluginName -> {
+            latch.countDown();
+            try {
+                Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return pluginName.toUpperCase();
+        }, true, internalCallContext);
+        Assert.assertEquals(results, Map.of("discount", "DISCOUNT", "tax", "TAX", "notification", "NOTIFICATION", "audit", "AUDIT"));
+    }
+
+    @Test(groups = "fast")
+    public void testTimeout() {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.plugin.parallelism", "4");
+        properties.setProperty("org.killbill.invoice.plugin.timeout", "100ms");
+        final InvoicePluginExecutor executor = createExecutor(properties);
+
+        try {
+            executor.invokeAll(List.of("discount", "tax"), "test", pluginName -> {
+                if ("tax".equals(pluginName)) {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return pluginName;
+            }, true, internalCallContext);
+            Assert.fail();
+        } catch (final InvoicePluginTimeoutException e) {
+            Assert.assertEquals(e.getPluginName(), "tax");
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testCallerContextAndStop() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.plugin.parallelism", "4");
+        final InvoicePluginExecutor executor = createExecutor(properties);
+
+        MDC.put("req.requestId", "12345");
+        try {
+            final Map<String, String> results = executor.invokeAll(List.of("discount", "tax"), "test", pluginName -> MDC.get("req.requestId"), true, internalCallContext);
+            Assert.assertEquals(results, Map.of("discount", "12345", "tax", "12345"));
+        } finally {
+            MDC.remove("req.requestId");
+        }
+
+        executor.stop();
+        try {
+            executor.invokeAll(List.of("discount", "tax"), "test", pluginName -> pluginName, true, internalCallContext);
+            Assert.fail();
+        } catch (final RejectedExecutionException e) {
+            // Expected, the pool is shut down
+        }
+    }
+
+    private InvoicePluginExecutor createExecutor(final Properties properties) {
+        return new InvoicePluginExecutor(new AugmentedConfigurationObjectFactory(properties).build(InvoiceConfig.class),
+                                         new InvoiceDispatcherMetrics(new NoOpMetricRegistry()));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.api.user;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.invoice.InvoiceTestSuiteWithEmbeddedDB;
+import org.killbill.billing.invoice.api.AccountBalanceUserApi;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
+import org.killbill.billing.invoice.model.ExternalChargeInvoiceItem;
+import org.killbill.billing.util.entity.dao.DBRouterUntyped;
+import org.killbill.billing.util.entity.dao.DBRouterUntyped.THREAD_STATE;
+import org.killbill.billing.util.tag.ControlTagType;
+import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestAccountBalanceUserApi extends InvoiceTestSuiteWithEmbeddedDB {
+
+    @Inject
+    private AccountBalanceUserApi accountBalanceUserApi;
+
+    private UUID accountId;
+
+    @Override
+    @BeforeMethod(groups = "slow")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+
+        super.beforeMethod();
+        final Account account = invoiceUtil.createAccount(callContext);
+        accountId = account.getId();
+    }
+
+    @Test(groups = "slow", description = "Verify the materialized balance is invalidated by writes and recomputed on read")
+    public void testMaterializedBalance() throws Exception {
+        // No invoice yet, nothing is materialized
+        verify(null, null, BigDecimal.ZERO, BigDecimal.ZERO);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(BigDecimal.ZERO), 0);
+
+        final UUID invoiceId = insertExternalCharge(BigDecimal.TEN);
+        verify(null, null, BigDecimal.TEN, BigDecimal.ZERO);
+
+        // Reading the balance materializes it
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(BigDecimal.TEN), 0);
+        verify(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ZERO);
+
+        // Any write invalidates it
+        insertExternalCharge(new BigDecimal("5"));
+        verify(null, null, new BigDecimal("15"), BigDecimal.ZERO);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("15")), 0);
+        verify(new BigDecimal("15"), BigDecimal.ZERO, new BigDecimal("15"), BigDecimal.ZERO);
+
+        // Tags aren't written by the invoice module: the WRITTEN_OFF digest detects the change
+        tagUserApi.addTag(invoiceId, ObjectType.INVOICE, ControlTagType.WRITTEN_OFF.getId(), callContext);
+        verify(null, null, new BigDecimal("5"), BigDecimal.ZERO);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("5")), 0);
+        verify(new BigDecimal("5"), BigDecimal.ZERO, new BigDecimal("5"), BigDecimal.ZERO);
+
+        tagUserApi.removeTag(invoiceId, ObjectType.INVOICE, ControlTagType.WRITTEN_OFF.getId(), callContext);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("15")), 0);
+        verify(new BigDecimal("15"), BigDecimal.ZERO, new BigDecimal("15"), BigDecimal.ZERO);
+    }
+
+    @Test(groups = "slow", description = "Verify reads allowed to use the RO DBI store the recomputed balance without switching to the RW DBI")
+    public void testMaterializationFromROReads() throws Throwable {
+        insertExternalCharge(BigDecimal.TEN);
+        verify(null, null, BigDecimal.TEN, BigDecimal.ZERO);
+
+        DBRouterUntyped.withRODBIAllowed(true,
+                                         new WithProfilingCallback<Object, Throwable>() {
+                                             @Override
+                                             public Object execute() throws Throwable {
+                                                 assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(BigDecimal.TEN), 0);
+                                                 assertEquals(invoiceDao.getUnpaidInvoicesSummary(accountId, null, internalCallContextFactory.createInternalTenantContext(accountId, callContext)).getNumberOfUnpaidInvoices(), 1);
+                                                 // Still allowed to read from the RO DBI
+                                                 assertEquals(DBRouterUntyped.getCurrentState(), THREAD_STATE.RO_ALLOWED);
+                                                 return null;
+                                             }
+                                         });
+        verify(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ZERO);
+    }
+
+    @Test(groups = "slow", description = "Verify the materialized CBA follows account credits")
+    public void testMaterializedCBA() throws Exception {
+        final InvoiceItem inputCredit = new CreditAdjInvoiceItem(null, accountId, clock.getUTCToday(), "some description", BigDecimal.TEN, accountCurrency, null);
+        invoiceUserApi.insertCredits(accountId, clock.getUTCToday(), List.of(inputCredit), true, null, callContext);
+
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("-10")), 0);
+        assertEquals(invoiceUserApi.getAccountCBA(accountId, callContext).compareTo(BigDecimal.TEN), 0);
+        verify(new BigDecimal("-10"), BigDecimal.TEN, new BigDecimal("-10"), BigDecimal.TEN);
+
+        // The credit is consumed by the new invoice
+        insertExternalCharge(new BigDecimal("4"));
+        assertEquals(invoiceUserApi.getAccountCBA(accountId, callContext).compareTo(new BigDecimal("6")), 0);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("-6")), 0);
+        verify(new BigDecimal("-6"), new BigDecimal("6"), new BigDecimal("-6"), new BigDecimal("6"));
+    }
+
+    @Test(groups = "slow", description = "Verify a drifted materialized balance is reported and rebuilt")
+    public void testRebuild() throws Exception {
+        insertExternalCharge(BigDecimal.TEN);
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(BigDecimal.TEN), 0);
+
+        final Long accountRecordId = internalCallContextFactory.createInternalTenantContext(accountId, callContext).getAccountRecordId();
+        dbi.withHandle(handle -> handle.update("update invoice_account_balances set balance = 7 where account_record_id = ?", accountRecordId));
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(new BigDecimal("7")), 0);
+
+        final AccountBalanceVerification drifted = accountBalanceUserApi.verifyAccountBalance(accountId, callContext);
+        assertFalse(drifted.isConsistent());
+        assertEquals(drifted.getStoredBalance().compareTo(new BigDecimal("7")), 0);
+        assertEquals(drifted.getBalance().compareTo(BigDecimal.TEN), 0);
+
+        final AccountBalanceVerification rebuilt = accountBalanceUserApi.rebuildAccountBalance(accountId, callContext);
+        assertFalse(rebuilt.isConsistent());
+        assertEquals(rebuilt.getStoredBalance().compareTo(new BigDecimal("7")), 0);
+        assertEquals(rebuilt.getBalance().compareTo(BigDecimal.TEN), 0);
+
+        assertEquals(invoiceUserApi.getAccountBalance(accountId, callContext).compareTo(BigDecimal.TEN), 0);
+        verify(BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, BigDecimal.ZERO);
+    }
+
+    private UUID insertExternalCharge(final BigDecimal amount) throws Exception {
+        final List<InvoiceItem> items = invoiceUserApi.insertExternalCharges(accountId, clock.getUTCToday(), List.of(new ExternalChargeInvoiceItem(UUID.randomUUID(), clock.getUTCNow(), null, accountId, null, null, null, null, amount, accountCurrency, null)), true, null, callContext);
+        assertEquals(items.size(), 1);
+        return items.get(0).getInvoiceId();
+    }
+
+    private void verify(final BigDecimal storedBalance, final BigDecimal storedCBA, final BigDecimal balance, final BigDecimal cba) {
+        final AccountBalanceVerification verification = accountBalanceUserApi.verifyAccountBalance(accountId, callContext);
+        assertEquals(verification.getAccountId(), accountId);
+        if (storedBalance == null) {
+            assertNull(verification.getStoredBalance());
+            assertNull(verification.getStoredCBA());
+        } else {
+            assertEquals(verification.getStoredBalance().compareTo(storedBalance), 0);
+            assertEquals(verification.getStoredCBA().compareTo(storedCBA), 0);
+        }
+        assertEquals(verification.getBalance().compareTo(balance), 0);
+        assertEquals(verification.getCBA().compareTo(cba), 0);
+        assertTrue(verification.isConsistent());
+    }
+}
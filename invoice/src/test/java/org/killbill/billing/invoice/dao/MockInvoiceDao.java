@@ -41,10 +41,13 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.invoice.InvoiceDispatcher.FutureAccountNotifications;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
+import org.killbill.billing.invoice.api.DefaultUnpaidInvoicesSummary;
 import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoicePaymentStatus;
 import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.junction.BillingEventSet;
 import org.killbill.billing.util.api.AuditLevel;
 import org.killbill.billing.util.audit.AuditLogWithHistory;
@@ -243,6 +246,11 @@ public class MockInvoiceDao extends MockEntityDaoBase<InvoiceModelDao, Invoice,
         return DefaultPagination.build(offset, limit, maxNbRecords, results);
     }
 
+    @Override
+    public Pagination<InvoiceModelDao> searchInvoicesFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void test(final InternalTenantContext context) {
     }
@@ -349,6 +357,26 @@ public class MockInvoiceDao extends MockEntityDaoBase<InvoiceModelDao, Invoice,
         return unpaidInvoices;
     }
 
+    @Override
+    public UnpaidInvoicesSummary getUnpaidInvoicesSummary(final UUID accountId, final LocalDate upToDate, final InternalTenantContext context) {
+        int numberOfUnpaidInvoices = 0;
+        BigDecimal unpaidInvoiceBalance = BigDecimal.ZERO;
+        InvoiceModelDao earliestUnpaidInvoice = null;
+        for (final InvoiceModelDao invoice : getUnpaidInvoicesByAccountId(accountId, null, upToDate, context)) {
+            numberOfUnpaidInvoices++;
+            unpaidInvoiceBalance = unpaidInvoiceBalance.add(InvoiceModelDaoHelper.getRawBalanceForRegularInvoice(invoice));
+            if (earliestUnpaidInvoice == null || invoice.getInvoiceDate().compareTo(earliestUnpaidInvoice.getInvoiceDate()) < 0) {
+                earliestUnpaidInvoice = invoice;
+            }
+        }
+
+        return new DefaultUnpaidInvoicesSummary(accountId,
+                                                numberOfUnpaidInvoices,
+                                                unpaidInvoiceBalance,
+                                                earliestUnpaidInvoice != null ? earliestUnpaidInvoice.getInvoiceDate() : null,
+                                                earliestUnpaidInvoice != null ? earliestUnpaidInvoice.getId() : null);
+    }
+
     @Override
     public List<InvoiceModelDao> getAllInvoicesByAccount(final Boolean includeVoidedInvoices, final Boolean includeInvoiceComponents, final InternalTenantContext context) {
         final List<InvoiceModelDao> result = new ArrayList<>();
@@ -428,6 +456,30 @@ public class MockInvoiceDao extends MockEntityDaoBase<InvoiceModelDao, Invoice,
         return null;
     }
 
+    @Override
+    public Map<UUID, BigDecimal> getAccountBalances(final Map<UUID, InternalTenantContext> contextsByAccountId) {
+        final Map<UUID, BigDecimal> result = new HashMap<>();
+        contextsByAccountId.forEach((accountId, context) -> result.put(accountId, getAccountBalance(accountId, context)));
+        return result;
+    }
+
+    @Override
+    public Map<UUID, BigDecimal> getAccountCBAs(final Map<UUID, InternalTenantContext> contextsByAccountId) {
+        final Map<UUID, BigDecimal> result = new HashMap<>();
+        contextsByAccountId.forEach((accountId, context) -> result.put(accountId, getAccountCBA(accountId, context)));
+        return result;
+    }
+
+    @Override
+    public AccountBalanceVerification verifyAccountBalance(final UUID accountId, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AccountBalanceVerification rebuildAccountBalance(final UUID accountId, final InternalCallContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public InvoicePaymentModelDao createRefund(final UUID paymentId, final UUID paymentAttemptId, final BigDecimal amount, final boolean isInvoiceAdjusted,
                                                final Map<UUID, BigDecimal> invoiceItemIdsWithAmounts, final String transactionExternalKey,
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -34,8 +35,10 @@ import javax.annotation.Nullable;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.killbill.billing.ErrorCode;
+import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.catalog.DefaultPrice;
 import org.killbill.billing.catalog.MockInternationalPrice;
 import org.killbill.billing.catalog.MockPlan;
@@ -60,6 +63,7 @@ import org.killbill.billing.invoice.api.InvoicePayment;
 import org.killbill.billing.invoice.api.InvoicePaymentStatus;
 import org.killbill.billing.invoice.api.InvoicePaymentType;
 import org.killbill.billing.invoice.api.InvoiceStatus;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.invoice.generator.InvoiceWithMetadata;
 import org.killbill.billing.invoice.model.CreditAdjInvoiceItem;
 import org.killbill.billing.invoice.model.CreditBalanceAdjInvoiceItem;
@@ -80,6 +84,7 @@ import org.killbill.billing.util.UUIDs;
 import org.killbill.billing.util.currency.KillBillMoney;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.SqlOperator;
+import org.killbill.billing.util.tag.ControlTagType;
 import org.killbill.clock.ClockMock;
 import org.killbill.commons.utils.collect.Iterables;
 import org.mockito.Mockito;
@@ -1371,6 +1376,51 @@ public class TestInvoiceDao extends InvoiceTestSuiteWithEmbeddedDB {
         assertEquals(invoices.size(), 2);
     }
 
+    @Test(groups = "slow")
+    public void testGetUnpaidInvoicesSummary() throws EntityPersistenceException {
+        final UUID accountId = account.getId();
+        final UUID bundleId = UUID.randomUUID();
+
+        UnpaidInvoicesSummary unpaidInvoicesSummary = invoiceDao.getUnpaidInvoicesSummary(accountId, new LocalDate(2012, 1, 1), context);
+        assertEquals(unpaidInvoicesSummary.getNumberOfUnpaidInvoices(), 0);
+        assertEquals(unpaidInvoicesSummary.getUnpaidInvoiceBalance().compareTo(BigDecimal.ZERO), 0);
+        assertNull(unpaidInvoicesSummary.getDateOfEarliestUnpaidInvoice());
+        assertNull(unpaidInvoicesSummary.getIdOfEarliestUnpaidInvoice());
+
+        final Invoice invoice1 = new DefaultInvoice(accountId, clock.getUTCToday(), new LocalDate(2011, 10, 6), Currency.USD);
+        invoiceUtil.createInvoice(invoice1, context);
+        final BigDecimal rate1 = new BigDecimal("17.0");
+        final RecurringInvoiceItem item1 = new RecurringInvoiceItem(invoice1.getId(), accountId, bundleId, UUID.randomUUID(), "test product", "test plan", "test phase A", null, new LocalDate(2011, 3, 1), new LocalDate(2011, 4, 1),
+                                                                    rate1, rate1, Currency.USD);
+        invoiceUtil.createInvoiceItem(item1, context);
+
+        final Invoice invoice2 = new DefaultInvoice(accountId, clock.getUTCToday(), new LocalDate(2011, 7, 1), Currency.USD);
+        invoiceUtil.createInvoice(invoice2, context);
+        final BigDecimal rate2 = new BigDecimal("21.0");
+        final RecurringInvoiceItem item2 = new RecurringInvoiceItem(invoice2.getId(), accountId, bundleId, UUID.randomUUID(), "test product", "test plan", "test phase B", null, new LocalDate(2011, 6, 1), new LocalDate(2011, 9, 1),
+                                                                    rate2, rate2, Currency.USD);
+        invoiceUtil.createInvoiceItem(item2, context);
+
+        // Second call reads the materialized summary
+        for (int i = 0; i < 2; i++) {
+            unpaidInvoicesSummary = invoiceDao.getUnpaidInvoicesSummary(accountId, new LocalDate(2012, 1, 1), context);
+            assertEquals(unpaidInvoicesSummary.getNumberOfUnpaidInvoices(), invoiceDao.getUnpaidInvoicesByAccountId(accountId, null, new LocalDate(2012, 1, 1), context).size());
+            assertEquals(unpaidInvoicesSummary.getNumberOfUnpaidInvoices(), 2);
+            assertEquals(unpaidInvoicesSummary.getUnpaidInvoiceBalance().compareTo(new BigDecimal("38.0")), 0);
+            assertEquals(unpaidInvoicesSummary.getDateOfEarliestUnpaidInvoice(), clock.getUTCToday());
+            assertNotNull(unpaidInvoicesSummary.getIdOfEarliestUnpaidInvoice());
+        }
+
+        // The materialized summary doesn't cover that date
+        unpaidInvoicesSummary = invoiceDao.getUnpaidInvoicesSummary(accountId, new LocalDate(2011, 8, 1), context);
+        assertEquals(unpaidInvoicesSummary.getNumberOfUnpaidInvoices(), 1);
+        assertEquals(unpaidInvoicesSummary.getUnpaidInvoiceBalance().compareTo(rate2), 0);
+        assertEquals(unpaidInvoicesSummary.getIdOfEarliestUnpaidInvoice(), invoice2.getId());
+
+        unpaidInvoicesSummary = invoiceDao.getUnpaidInvoicesSummary(accountId, new LocalDate(2011, 1, 1), context);
+        assertEquals(unpaidInvoicesSummary.getNumberOfUnpaidInvoices(), 0);
+    }
+
     @Test(groups = "slow")
     public void testGetUnpaidInvoicesByAccountIdWithDraftInvoice() throws EntityPersistenceException, InvoiceApiException {
         final UUID accountId = account.getId();
@@ -2248,5 +2298,73 @@ public class TestInvoiceDao extends InvoiceTestSuiteWithEmbeddedDB {
         Assert.assertEquals(all.size(), 1);
         Assert.assertNotNull(all.get(0).getBalance()); //balance is returned as search is based on balance
         Assert.assertEquals(all.get(0).getBalance().stripTrailingZeros().compareTo(amount), 0);
+
+        // Results are ordered by balance, so keyset pagination is rejected
+        try {
+            invoiceDao.searchInvoicesFromRecordId("_q=1&balance[gt]=0", 0L, 5L, internalCallContext);
+            Assert.fail("Keyset pagination shouldn't be supported for balance searches");
+        } catch (final IllegalArgumentException expected) {
+        }
+    }
+
+    @Test(groups = "slow", description = "Verify the bulk balance and CBA lookups handle fresh rows, stale rows and written-off invoices")
+    public void testGetAccountBalancesAndCBAs() throws Exception {
+        // Fresh row
+        final UUID freshAccountId = invoiceUtil.createAccount(callContext).getId();
+        insertExternalCharge(freshAccountId, TEN);
+        assertEquals(invoiceDao.getAccountBalance(freshAccountId, createInternalTenantContext(freshAccountId)).compareTo(TEN), 0);
+
+        // Stale row: the credit is partially consumed after the balance was materialized
+        final UUID staleAccountId = invoiceUtil.createAccount(callContext).getId();
+        invoiceUserApi.insertCredits(staleAccountId, clock.getUTCToday(), List.of(new CreditAdjInvoiceItem(null, staleAccountId, clock.getUTCToday(), "credit", TEN, accountCurrency, null)), true, null, callContext);
+        assertEquals(invoiceDao.getAccountBalance(staleAccountId, createInternalTenantContext(staleAccountId)).compareTo(TEN.negate()), 0);
+        insertExternalCharge(staleAccountId, FIVE);
+
+        // Row materialized before an invoice was written off
+        final UUID writtenOffAccountId = invoiceUtil.createAccount(callContext).getId();
+        final UUID writtenOffInvoiceId = insertExternalCharge(writtenOffAccountId, TWENTY);
+        insertExternalCharge(writtenOffAccountId, FIVE);
+        assertEquals(invoiceDao.getAccountBalance(writtenOffAccountId, createInternalTenantContext(writtenOffAccountId)).compareTo(TWENTY.add(FIVE)), 0);
+        tagUserApi.addTag(writtenOffInvoiceId, ObjectType.INVOICE, ControlTagType.WRITTEN_OFF.getId(), callContext);
+
+        assertNotNull(invoiceDao.verifyAccountBalance(freshAccountId, createInternalTenantContext(freshAccountId)).getStoredBalance());
+        assertNull(invoiceDao.verifyAccountBalance(staleAccountId, createInternalTenantContext(staleAccountId)).getStoredBalance());
+        assertNull(invoiceDao.verifyAccountBalance(writtenOffAccountId, createInternalTenantContext(writtenOffAccountId)).getStoredBalance());
+
+        final Map<UUID, InternalTenantContext> contextsByAccountId = new LinkedHashMap<UUID, InternalTenantContext>();
+        for (final UUID accountId : List.of(freshAccountId, staleAccountId, writtenOffAccountId)) {
+            contextsByAccountId.put(accountId, createInternalTenantContext(accountId));
+        }
+
+        final Map<UUID, BigDecimal> accountBalances = invoiceDao.getAccountBalances(contextsByAccountId);
+        assertEquals(accountBalances.size(), 3);
+        assertEquals(accountBalances.get(freshAccountId).compareTo(TEN), 0);
+        assertEquals(accountBalances.get(staleAccountId).compareTo(FIVE.negate()), 0);
+        assertEquals(accountBalances.get(writtenOffAccountId).compareTo(FIVE), 0);
+
+        final Map<UUID, BigDecimal> accountCBAs = invoiceDao.getAccountCBAs(contextsByAccountId);
+        assertEquals(accountCBAs.size(), 3);
+        assertEquals(accountCBAs.get(freshAccountId).compareTo(ZERO), 0);
+        assertEquals(accountCBAs.get(staleAccountId).compareTo(FIVE), 0);
+        assertEquals(accountCBAs.get(writtenOffAccountId).compareTo(ZERO), 0);
+
+        // The bulk lookups agree with the per-account ones
+        for (final Map.Entry<UUID, InternalTenantContext> entry : contextsByAccountId.entrySet()) {
+            assertEquals(invoiceDao.getAccountBalance(entry.getKey(), entry.getValue()).compareTo(accountBalances.get(entry.getKey())), 0);
+            assertEquals(invoiceDao.getAccountCBA(entry.getKey(), entry.getValue()).compareTo(accountCBAs.get(entry.getKey())), 0);
+        }
+
+        assertTrue(invoiceDao.getAccountBalances(Map.of()).isEmpty());
+        assertTrue(invoiceDao.getAccountCBAs(Map.of()).isEmpty());
+    }
+
+    private InternalTenantContext createInternalTenantContext(final UUID accountId) {
+        return internalCallContextFactory.createInternalTenantContext(accountId, callContext);
+    }
+
+    private UUID insertExternalCharge(final UUID accountId, final BigDecimal amount) throws InvoiceApiException {
+        final List<InvoiceItem> items = invoiceUserApi.insertExternalCharges(accountId, clock.getUTCToday(), List.of(new ExternalChargeInvoiceItem(UUID.randomUUID(), clock.getUTCNow(), null, accountId, null, null, null, null, amount, accountCurrency, null)), true, null, callContext);
+        assertEquals(items.size(), 1);
+        return items.get(0).getInvoiceId();
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.invoice.generator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.joda.time.LocalDate;
+import org.killbill.billing.ErrorCode;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.catalog.DefaultPrice;
+import org.killbill.billing.catalog.MockInternationalPrice;
+import org.killbill.billing.catalog.MockPlan;
+import org.killbill.billing.catalog.MockPlanPhase;
+import org.killbill.billing.catalog.api.BillingMode;
+import org.killbill.billing.catalog.api.BillingPeriod;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.catalog.api.PhaseType;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PlanPhase;
+import org.killbill.billing.invoice.InvoiceTestSuiteNoDB;
+import org.killbill.billing.invoice.MockBillingEventSet;
+import org.killbill.billing.invoice.api.InvoiceApiException;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.generator.InvoiceWithMetadata.SubscriptionFutureNotificationDates;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.optimizer.InvoiceOptimizerBase.AccountInvoices;
+import org.killbill.billing.invoice.tree.AccountItemTree;
+import org.killbill.billing.junction.BillingEventSet;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.SubscriptionBaseTransitionType;
+import org.killbill.billing.util.config.definition.InvoiceConfig;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class TestPerSubscriptionExecutor extends InvoiceTestSuiteNoDB {
+
+    private static final int NB_SUBSCRIPTIONS = 50;
+
+    private final List<PerSubscriptionExecutor> parallelExecutors = new ArrayList<>();
+
+    @AfterMethod(groups = "fast")
+    public void stopParallelExecutors() throws InterruptedException {
+        for (final PerSubscriptionExecutor executor : parallelExecutors) {
+            executor.stop();
+        }
+        parallelExecutors.clear();
+    }
+
+    @Test(groups = "fast")
+    public void testSequentialByDefault() {
+        Assert.assertFalse(new PerSubscriptionExecutor(new AugmentedConfigurationObjectFactory(new Properties()).build(InvoiceConfig.class)).isParallel(Integer.MAX_VALUE));
+        Assert.assertFalse(PerSubscriptionExecutor.SEQUENTIAL.isParallel(Integer.MAX_VALUE));
+
+        final PerSubscriptionExecutor executor = createParallelExecutor(10);
+        Assert.assertFalse(executor.isParallel(9));
+        Assert.assertTrue(executor.isParallel(10));
+    }
+
+    @Test(groups = "fast")
+    public void testResultsAreInInputOrder() throws InvoiceApiException {
+        final List<Integer> inputs = IntStream.range(0, 1000).boxed().collect(Collectors.toUnmodifiableList());
+        final List<String> results = createParallelExecutor(1).map(inputs, input -> {
+            if (input % 7 == 0) {
+                Thread.yield();
+            }
+            return String.valueOf(input);
+        });
+        Assert.assertEquals(results, inputs.stream().map(String::valueOf).collect(Collectors.toUnmodifiableList()));
+    }
+
+    @Test(groups = "fast")
+    public void testExceptionIsPropagated() {
+        final List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toUnmodifiableList());
+        try {
+            createParallelExecutor(1).map(inputs, input -> {
+                if (input == 42) {
+                    throw new InvoiceApiException(ErrorCode.INVOICE_NOTHING_TO_DO, UUID.randomUUID(), new LocalDate(2024, 1, 1));
+                }
+                return input;
+            });
+            Assert.fail();
+        } catch (final InvoiceApiException e) {
+            Assert.assertEquals(e.getCode(), ErrorCode.INVOICE_NOTHING_TO_DO.getCode());
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testAccountItemTreeMergeIsDeterministic() {
+        final UUID accountId = UUID.randomUUID();
+        final UUID invoiceId = UUID.randomUUID();
+        final List<InvoiceItem> existingItems = new ArrayList<>();
+        final List<InvoiceItem> proposedItems = new ArrayList<>();
+        final BigDecimal rate = new BigDecimal("10.00");
+        final LocalDate startDate = new LocalDate(2024, 1, 1);
+        for (int i = 0; i < NB_SUBSCRIPTIONS; i++) {
+            final UUID bundleId = UUID.randomUUID();
+            final UUID subscriptionId = UUID.randomUUID();
+            for (int month = 0; month < 6; month++) {
+                final LocalDate periodStart = startDate.plusMonths(month);
+                final InvoiceItem item = new RecurringInvoiceItem(UUID.randomUUID(), accountId, bundleId, subscriptionId, "product", "plan", "phase", null,
+                                                                  periodStart, periodStart.plusMonths(1), rate, rate, Currency.USD);
+                existingItems.add(item);
+                proposedItems.add(new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", "plan", "phase", null,
+                                                           periodStart, periodStart.plusMonths(1), rate, rate, Currency.USD));
+            }
+            // Half of the subscriptions get a new period, the other half were cancelled mid-way through the last one
+            if (i % 2 == 0) {
+                final LocalDate nextPeriodStart = startDate.plusMonths(6);
+                proposedItems.add(new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", "plan", "phase", null,
+                                                           nextPeriodStart, nextPeriodStart.plusMonths(1), rate, rate, Currency.USD));
+            } else {
+                final LocalDate lastPeriodStart = startDate.plusMonths(5);
+                proposedItems.remove(proposedItems.size() - 1);
+                proposedItems.add(new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "product", "plan", "phase", null,
+                                                           lastPeriodStart, lastPeriodStart.plusDays(15), new BigDecimal("5.00"), rate, Currency.USD));
+            }
+        }
+
+        final List<InvoiceItem> sequentialResult = mergeWithProposedItems(PerSubscriptionExecutor.SEQUENTIAL, accountId, invoiceId, existingItems, proposedItems);
+        final List<InvoiceItem> parallelResult = mergeWithProposedItems(createParallelExecutor(1), accountId, invoiceId, existingItems, proposedItems);
+
+        Assert.assertFalse(sequentialResult.isEmpty());
+        Assert.assertEquals(parallelResult.size(), sequentialResult.size());
+        for (int i = 0; i < sequentialResult.size(); i++) {
+            Assert.assertTrue(parallelResult.get(i).matches(sequentialResult.get(i)));
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testParallelGenerationMatchesSequentialGeneration() throws Exception {
+        final Account account = invoiceUtil.createAccount(callContext);
+        final LocalDate startDate = new LocalDate(2024, 1, 1);
+        final Plan plan = new MockPlan("my-plan");
+        final PlanPhase planPhase = new MockPlanPhase(new MockInternationalPrice(new DefaultPrice(BigDecimal.TEN, account.getCurrency())), null, BillingPeriod.MONTHLY, PhaseType.EVERGREEN);
+        final PlanPhase upgradedPlanPhase = new MockPlanPhase(new MockInternationalPrice(new DefaultPrice(new BigDecimal("20"), account.getCurrency())), null, BillingPeriod.MONTHLY, PhaseType.EVERGREEN);
+
+        final BillingEventSet events = new MockBillingEventSet();
+        long totalOrdering = 0;
+        for (int i = 0; i < NB_SUBSCRIPTIONS; i++) {
+            final SubscriptionBase subscription = invoiceUtil.createSubscription();
+            events.add(invoiceUtil.createMockBillingEvent(account, subscription, startDate.toDateTimeAtStartOfDay(), plan, planPhase, null, BigDecimal.TEN,
+                                                          account.getCurrency(), BillingPeriod.MONTHLY, 1, BillingMode.IN_ADVANCE, "Billing Event Desc",
+                                                          totalOrdering++, SubscriptionBaseTransitionType.CREATE));
+            // Half of the subscriptions are upgraded mid-period, so that they have several events to process
+            if (i % 2 == 0) {
+                events.add(invoiceUtil.createMockBillingEvent(account, subscription, startDate.plusMonths(2).plusDays(14).toDateTimeAtStartOfDay(), plan, upgradedPlanPhase, null, new BigDecimal("20"),
+                                                              account.getCurrency(), BillingPeriod.MONTHLY, 1, BillingMode.IN_ADVANCE, "Billing Event Desc",
+                                                              totalOrdering++, SubscriptionBaseTransitionType.CHANGE));
+            }
+        }
+
+        final PerSubscriptionExecutor parallelExecutor = createParallelExecutor(1);
+        Assert.assertTrue(parallelExecutor.isParallel(NB_SUBSCRIPTIONS));
+
+        final UUID invoiceId = UUID.randomUUID();
+        final Map<UUID, SubscriptionFutureNotificationDates> sequentialNotificationDates = new HashMap<>();
+        final List<InvoiceItem> sequentialItems = new FixedAndRecurringInvoiceItemGenerator(invoiceConfig, PerSubscriptionExecutor.SEQUENTIAL, clock)
+                .generateItems(account, invoiceId, events, new AccountInvoices(null, null, Collections.emptyList()), startDate.plusMonths(6), account.getCurrency(),
+                               sequentialNotificationDates, null, Collections.emptyList(), internalCallContext).getItems();
+        final Map<UUID, SubscriptionFutureNotificationDates> parallelNotificationDates = new HashMap<>();
+        final List<InvoiceItem> parallelItems = new FixedAndRecurringInvoiceItemGenerator(invoiceConfig, parallelExecutor, clock)
+                .generateItems(account, invoiceId, events, new AccountInvoices(null, null, Collections.emptyList()), startDate.plusMonths(6), account.getCurrency(),
+                               parallelNotificationDates, null, Collections.emptyList(), internalCallContext).getItems();
+
+        Assert.assertFalse(sequentialItems.isEmpty());
+        Assert.assertEquals(parallelItems.size(), sequentialItems.size());
+        for (int i = 0; i < sequentialItems.size(); i++) {
+            Assert.assertTrue(parallelItems.get(i).matches(sequentialItems.get(i)));
+        }
+
+        Assert.assertEquals(parallelNotificationDates.size(), NB_SUBSCRIPTIONS);
+        Assert.assertEquals(parallelNotificationDates.keySet(), sequentialNotificationDates.keySet());
+        for (final Map.Entry<UUID, SubscriptionFutureNotificationDates> entry : sequentialNotificationDates.entrySet()) {
+            Assert.assertEquals(parallelNotificationDates.get(entry.getKey()).getNextRecurringDate(), entry.getValue().getNextRecurringDate());
+        }
+    }
+
+    private List<InvoiceItem> mergeWithProposedItems(final PerSubscriptionExecutor executor, final UUID accountId, final UUID invoiceId,
+                                                     final List<InvoiceItem> existingItems, final List<InvoiceItem> proposedItems) {
+        final AccountItemTree tree = new AccountItemTree(accountId, invoiceId, invoiceConfig.getProrationFixedDays(), executor);
+        for (final InvoiceItem item : existingItems) {
+            tree.addExistingItem(item);
+        }
+        tree.mergeWithProposedItems(proposedItems);
+        return tree.getResultingItemList();
+    }
+
+    private PerSubscriptionExecutor createParallelExecutor(final int minSubscriptions) {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.invoice.generation.parallelism", "4");
+        properties.setProperty("org.killbill.invoice.generation.parallelism.minSubscriptions", String.valueOf(minSubscriptions));
+        final PerSubscriptionExecutor executor = new PerSubscriptionExecutor(new AugmentedConfigurationObjectFactory(properties).build(InvoiceConfig.class));
+        parallelExecutors.add(executor);
+        return executor;
+    }
+}
@@ -66,7 +66,7 @@ public class TestUsageInvoiceItemGeneratorUnit extends InvoiceTestSuiteNoDB {
     private static UsageInvoiceItemGenerator createGenerator() {
         final RawUsageOptimizer optimizer = mock(RawUsageOptimizer.class);
         final InvoiceConfig invoiceConfig = mock(InvoiceConfig.class);
-        final UsageInvoiceItemGenerator generator = new UsageInvoiceItemGenerator(optimizer, invoiceConfig);
+        final UsageInvoiceItemGenerator generator = new UsageInvoiceItemGenerator(optimizer, invoiceConfig, PerSubscriptionExecutor.SEQUENTIAL);
 
         return Mockito.spy(generator);
     }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.invoice.tree;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.invoice.api.InvoiceItemType;
+import org.killbill.billing.invoice.model.ItemAdjInvoiceItem;
+import org.killbill.billing.invoice.model.RecurringInvoiceItem;
+import org.killbill.billing.invoice.model.RepairAdjInvoiceItem;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Runs all the tree scenarios against the compact tree, and compares both implementations on generated histories.
+ */
+public class TestCompactSubscriptionItemTree extends TestSubscriptionItemTree {
+
+    private final UUID invoiceId = UUID.randomUUID();
+    private final UUID accountId = UUID.randomUUID();
+    private final UUID subscriptionId = UUID.randomUUID();
+    private final UUID bundleId = UUID.randomUUID();
+    private final Currency currency = Currency.USD;
+
+    @Override
+    protected ItemTree createTree(final UUID subscriptionId, final UUID targetInvoiceId, final int prorationFixedDays) {
+        return new CompactSubscriptionItemTree(subscriptionId, targetInvoiceId, prorationFixedDays);
+    }
+
+    @Test(groups = "fast")
+    public void testToEpochDay() {
+        for (LocalDate date = new LocalDate(1999, 12, 25); date.isBefore(new LocalDate(2101, 1, 5)); date = date.plusDays(1)) {
+            Assert.assertEquals(CompactSubscriptionItemTree.toEpochDay(date), java.time.LocalDate.of(date.getYear(), date.getMonthOfYear(), date.getDayOfMonth()).toEpochDay());
+        }
+    }
+
+    @Test(groups = "fast", description = "Long history with plan changes: the node tree is never needed")
+    public void testLongHistoryWithRepairs() {
+        final List<InvoiceItem> existingItems = new ArrayList<>();
+        final List<InvoiceItem> proposedItems = new ArrayList<>();
+        LocalDate startDate = new LocalDate(2015, 1, 1);
+        String planName = "plan-0";
+        for (int month = 0; month < 120; month++) {
+            final LocalDate endDate = startDate.plusMonths(1);
+            final RecurringInvoiceItem item = createRecurringItem(planName, startDate, endDate, BigDecimal.TEN);
+            existingItems.add(item);
+            if (month % 12 == 6) {
+                // Mid-period plan change
+                final LocalDate changeDate = startDate.plusDays(10);
+                planName = "plan-" + month;
+                existingItems.add(new RepairAdjInvoiceItem(invoiceId, accountId, changeDate, endDate, prorate(BigDecimal.TEN, startDate, changeDate, endDate).negate(), currency, item.getId()));
+                existingItems.add(createRecurringItem(planName, changeDate, endDate, new BigDecimal("20.00")));
+                proposedItems.add(createRecurringItem(item.getPlanName(), startDate, changeDate, BigDecimal.TEN.subtract(prorate(BigDecimal.TEN, startDate, changeDate, endDate))));
+                proposedItems.add(createRecurringItem(planName, changeDate, endDate, new BigDecimal("20.00")));
+            } else {
+                proposedItems.add(createRecurringItem(planName, startDate, endDate, BigDecimal.TEN));
+            }
+            startDate = endDate;
+        }
+        // Cancellation in the middle of the last period
+        final InvoiceItem lastItem = proposedItems.remove(proposedItems.size() - 1);
+        proposedItems.add(createRecurringItem(lastItem.getPlanName(), lastItem.getStartDate(), lastItem.getStartDate().plusDays(5), new BigDecimal("1.61")));
+
+        final CompactSubscriptionItemTree compactTree = new CompactSubscriptionItemTree(subscriptionId, invoiceId, 0);
+        final SubscriptionItemTree nodeTree = new SubscriptionItemTree(subscriptionId, invoiceId, 0);
+        runMerge(compactTree, existingItems, proposedItems);
+        runMerge(nodeTree, existingItems, proposedItems);
+
+        Assert.assertFalse(compactTree.isUsingNodeTree());
+        final List<InvoiceItem> result = compactTree.getView();
+        Assert.assertEquals(result.size(), 1);
+        Assert.assertEquals(result.get(0).getInvoiceItemType(), InvoiceItemType.REPAIR_ADJ);
+        assertSameView(result, nodeTree.getView());
+    }
+
+    @Test(groups = "fast", description = "Items enclosing an item added before them are split by the node tree")
+    public void testFallBackOnNodeTree() {
+        final LocalDate startDate = new LocalDate(2016, 3, 1);
+        final LocalDate cancelDate = new LocalDate(2016, 3, 12);
+        final LocalDate endDate = new LocalDate(2016, 4, 1);
+        final RecurringInvoiceItem initialItem = createRecurringItem("plan-0", startDate, endDate, BigDecimal.TEN);
+        final RepairAdjInvoiceItem repair = new RepairAdjInvoiceItem(invoiceId, accountId, cancelDate, endDate, new BigDecimal("-6.45"), currency, initialItem.getId());
+        final List<InvoiceItem> existingItems = List.of(repair, initialItem);
+        final List<InvoiceItem> proposedItems = List.of(createRecurringItem("plan-0", startDate, cancelDate.minusDays(2), new BigDecimal("2.90")));
+
+        final CompactSubscriptionItemTree compactTree = new CompactSubscriptionItemTree(subscriptionId, invoiceId, 0);
+        final SubscriptionItemTree nodeTree = new SubscriptionItemTree(subscriptionId, invoiceId, 0);
+        runMerge(compactTree, existingItems, proposedItems);
+        runMerge(nodeTree, existingItems, proposedItems);
+
+        Assert.assertTrue(compactTree.isUsingNodeTree());
+        final List<InvoiceItem> result = compactTree.getView();
+        Assert.assertEquals(result.size(), 1);
+        Assert.assertEquals(result.get(0).getInvoiceItemType(), InvoiceItemType.REPAIR_ADJ);
+        assertSameView(result, nodeTree.getView());
+    }
+
+    @Test(groups = "fast", description = "Generated histories (plan changes, cancellations, adjustments, overlapping items) give the same result in both trees")
+    public void testSameResultAsNodeTree() {
+        final Random random = new Random(1656L);
+        for (int run = 0; run < 500; run++) {
+            final List<InvoiceItem> existingItems = new ArrayList<>();
+            final List<InvoiceItem> proposedItems = new ArrayList<>();
+            generateHistory(random, existingItems, proposedItems);
+
+            final int prorationFixedDays = random.nextInt(4) == 0 ? 30 : 0;
+            final CompactSubscriptionItemTree compactTree = new CompactSubscriptionItemTree(subscriptionId, invoiceId, prorationFixedDays);
+            final SubscriptionItemTree nodeTree = new SubscriptionItemTree(subscriptionId, invoiceId, prorationFixedDays);
+
+            final List<InvoiceItem> expected;
+            try {
+                runMerge(nodeTree, existingItems, proposedItems);
+                expected = nodeTree.getView();
+            } catch (final IllegalStateException | NullPointerException e) {
+                try {
+                    runMerge(compactTree, existingItems, proposedItems);
+                    compactTree.getView();
+                    Assert.fail("Run " + run + ": expected " + e + " for existing=" + existingItems + ", proposed=" + proposedItems);
+                } catch (final IllegalStateException | NullPointerException expectedException) {
+                    Assert.assertEquals(expectedException.getClass(), e.getClass());
+                }
+                continue;
+            }
+
+            runMerge(compactTree, existingItems, proposedItems);
+            assertSameView(compactTree.getView(), expected);
+        }
+    }
+
+    private void generateHistory(final Random random, final List<InvoiceItem> existingItems, final List<InvoiceItem> proposedItems) {
+        final int nbMonths = 1 + random.nextInt(18);
+        // Overlapping items mostly end up in double billing
+        final boolean withOverlappingItems = random.nextInt(5) == 0;
+        LocalDate startDate = new LocalDate(2018, 1, 1).plusDays(random.nextInt(28));
+        String planName = "plan-0";
+        BigDecimal amount = BigDecimal.TEN;
+        final List<RecurringInvoiceItem> recurringItems = new ArrayList<>();
+        for (int month = 0; month < nbMonths; month++) {
+            final LocalDate endDate = startDate.plusMonths(1);
+            final RecurringInvoiceItem item = createRecurringItem(planName, startDate, endDate, amount);
+            existingItems.add(item);
+            recurringItems.add(item);
+
+            final int scenario = random.nextInt(10);
+            if (scenario == 0) {
+                // Plan change, with the repair either before or after the new item
+                final LocalDate changeDate = startDate.plusDays(1 + random.nextInt(27));
+                final BigDecimal repairedAmount = prorate(amount, changeDate, endDate, endDate, startDate);
+                planName = "plan-" + month;
+                amount = amount.add(BigDecimal.ONE);
+                final RecurringInvoiceItem newItem = createRecurringItem(planName, changeDate, endDate, prorate(amount, changeDate, endDate, endDate, startDate));
+                final RepairAdjInvoiceItem repair = new RepairAdjInvoiceItem(invoiceId, accountId, changeDate, endDate, repairedAmount.negate(), currency, item.getId());
+                if (random.nextBoolean()) {
+                    existingItems.add(repair);
+                    existingItems.add(newItem);
+                } else {
+                    existingItems.add(newItem);
+                    existingItems.add(repair);
+                }
+                recurringItems.add(newItem);
+            } else if (scenario == 1) {
+                // Partial repair (e.g. block/unblock)
+                final LocalDate blockDate = startDate.plusDays(1 + random.nextInt(20));
+                final LocalDate unblockDate = random.nextBoolean() ? endDate : blockDate.plusDays(1 + random.nextInt(5));
+                existingItems.add(new RepairAdjInvoiceItem(invoiceId, accountId, blockDate, unblockDate, prorate(amount, blockDate, unblockDate, endDate, startDate).negate(), currency, item.getId()));
+            } else if (scenario == 2) {
+                existingItems.add(new ItemAdjInvoiceItem(item, startDate, random.nextBoolean() ? amount.negate() : BigDecimal.ONE.negate(), currency));
+            } else if (scenario == 3 && withOverlappingItems) {
+                // Item enclosing the previous ones, added after them
+                existingItems.add(createRecurringItem(planName, startDate.minusDays(random.nextInt(3)), endDate.plusDays(random.nextInt(3)), amount));
+            } else if (scenario == 4) {
+                existingItems.add(createRecurringItem(planName, startDate, endDate, BigDecimal.ZERO));
+            }
+            startDate = endDate;
+        }
+
+        // Proposed items: the existing ones, with a few of them changed
+        for (final RecurringInvoiceItem item : recurringItems) {
+            final int scenario = random.nextInt(12);
+            if (scenario == 0) {
+                continue;
+            } else if (scenario == 1 && Days.daysBetween(item.getStartDate(), item.getEndDate()).getDays() > 2) {
+                final LocalDate changeDate = item.getStartDate().plusDays(1 + random.nextInt(Days.daysBetween(item.getStartDate(), item.getEndDate()).getDays() - 1));
+                proposedItems.add(createRecurringItem(item.getPlanName(), item.getStartDate(), changeDate, prorate(item.getAmount(), item.getStartDate(), changeDate, item.getEndDate(), item.getStartDate())));
+                if (random.nextBoolean()) {
+                    proposedItems.add(createRecurringItem("other-plan", changeDate, item.getEndDate(), BigDecimal.ONE));
+                }
+            } else if (scenario == 2 && withOverlappingItems) {
+                proposedItems.add(createRecurringItem(item.getPlanName(), item.getStartDate().plusDays(random.nextInt(3)), item.getEndDate().plusDays(random.nextInt(20)), item.getAmount()));
+            } else if (scenario == 3) {
+                proposedItems.add(createRecurringItem("other-plan", item.getStartDate(), item.getEndDate(), item.getAmount()));
+            } else {
+                proposedItems.add(createRecurringItem(item.getPlanName(), item.getStartDate(), item.getEndDate(), item.getAmount()));
+            }
+        }
+        if (random.nextBoolean()) {
+            final LocalDate nextStartDate = startDate;
+            proposedItems.add(createRecurringItem(planName, nextStartDate, nextStartDate.plusMonths(1), amount));
+        }
+    }
+
+    private static void runMerge(final ItemTree tree, final Iterable<InvoiceItem> existingItems, final Iterable<InvoiceItem> proposedItems) {
+        for (final InvoiceItem item : existingItems) {
+            tree.addItem(item);
+        }
+        tree.flatten(true);
+        for (final InvoiceItem item : proposedItems) {
+            tree.mergeProposedItem(item);
+        }
+        tree.buildForMerge();
+    }
+
+    private static void assertSameView(final List<InvoiceItem> actual, final List<InvoiceItem> expected) {
+        Assert.assertEquals(actual.size(), expected.size(), "actual=" + actual + ", expected=" + expected);
+        for (int i = 0; i < expected.size(); i++) {
+            final InvoiceItem actualItem = actual.get(i);
+            final InvoiceItem expectedItem = expected.get(i);
+            Assert.assertEquals(actualItem.getInvoiceItemType(), expectedItem.getInvoiceItemType());
+            // Repair items get a random id
+            if (expectedItem.getInvoiceItemType() != InvoiceItemType.REPAIR_ADJ) {
+                Assert.assertEquals(actualItem.getId(), expectedItem.getId());
+            }
+            Assert.assertEquals(actualItem.getStartDate(), expectedItem.getStartDate());
+            Assert.assertEquals(actualItem.getEndDate(), expectedItem.getEndDate());
+            Assert.assertEquals(actualItem.getAmount().compareTo(expectedItem.getAmount()), 0, actualItem + " != " + expectedItem);
+            Assert.assertEquals(actualItem.getLinkedItemId(), expectedItem.getLinkedItemId());
+            Assert.assertEquals(actualItem.getPlanName(), expectedItem.getPlanName());
+        }
+    }
+
+    private RecurringInvoiceItem createRecurringItem(final String planName, final LocalDate startDate, final LocalDate endDate, final BigDecimal amount) {
+        return new RecurringInvoiceItem(invoiceId, accountId, bundleId, subscriptionId, "my-product", planName, "my-phase", null, startDate, endDate, amount, BigDecimal.TEN, currency);
+    }
+
+    private static BigDecimal prorate(final BigDecimal amount, final LocalDate startDate, final LocalDate changeDate, final LocalDate endDate) {
+        return prorate(amount, changeDate, endDate, endDate, startDate);
+    }
+
+    // Amount for [fromDate, toDate) out of the [periodStart, periodEnd) period
+    private static BigDecimal prorate(final BigDecimal amount, final LocalDate fromDate, final LocalDate toDate, final LocalDate periodEnd, final LocalDate periodStart) {
+        final int nbDays = Days.daysBetween(fromDate, toDate).getDays();
+        final int nbTotalDays = Days.daysBetween(periodStart, periodEnd).getDays();
+        return amount.multiply(BigDecimal.valueOf(nbDays)).divide(BigDecimal.valueOf(nbTotalDays), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -21,6 +21,7 @@ import javax.inject.Inject;
 
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
+import org.killbill.billing.util.export.dao.DatabaseExportDao;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueAlreadyExists;
 import org.slf4j.Logger;
@@ -32,10 +33,12 @@ public class DefaultJaxrsService implements JaxrsService {
 
 
     private final JaxrsExecutors jaxrsExecutors;
+    private final DatabaseExportDao databaseExportDao;
 
     @Inject
-    public DefaultJaxrsService(final JaxrsExecutors jaxrsExecutors) {
+    public DefaultJaxrsService(final JaxrsExecutors jaxrsExecutors, final DatabaseExportDao databaseExportDao) {
         this.jaxrsExecutors = jaxrsExecutors;
+        this.databaseExportDao = databaseExportDao;
     }
 
     @Override
@@ -51,12 +54,15 @@ public class DefaultJaxrsService implements JaxrsService {
     @LifecycleHandlerType(LifecycleLevel.INIT_SERVICE)
     public void initialize() throws NotificationQueueAlreadyExists {
         jaxrsExecutors.initialize();
+        // Threads of the archive export (see ExportResource)
+        databaseExportDao.initialize();
     }
 
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
     public void stop() throws NoSuchNotificationQueue {
         try {
             jaxrsExecutors.stop();
+            databaseExportDao.stop();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("JaxrsService got interrupted", e);
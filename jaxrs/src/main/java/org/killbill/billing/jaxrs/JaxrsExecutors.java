@@ -24,11 +24,15 @@ import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import org.killbill.billing.util.concurrent.VirtualThreadExecutors;
 import org.killbill.billing.util.config.definition.JaxrsConfig;
 import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class JaxrsExecutors {
 
+    private static final Logger logger = LoggerFactory.getLogger(JaxrsExecutors.class);
 
     private static final long TIMEOUT_EXECUTOR_SEC = 3L;
 
@@ -63,6 +67,15 @@ public class JaxrsExecutors {
     }
 
     private ExecutorService createJaxrsExecutorService() {
+        if (JaxrsConfig.isJaxrsVirtualThreadsEnabled()) {
+            // One virtual thread per callable
+            final ExecutorService virtualThreadExecutorService = VirtualThreadExecutors.newVirtualThreadPerTaskExecutor(JAXRS_THREAD_PREFIX);
+            if (virtualThreadExecutorService != null) {
+                return virtualThreadExecutorService;
+            }
+            logger.info("Virtual threads aren't supported by this JVM, falling back to a pool of {} jaxrs threads", JaxrsConfig.getJaxrsThreadNb());
+        }
+
         return new WithProfilingThreadPoolExecutor(JaxrsConfig.getJaxrsThreadNb(),
                                                    JaxrsConfig.getJaxrsThreadNb(),
                                                    0L,
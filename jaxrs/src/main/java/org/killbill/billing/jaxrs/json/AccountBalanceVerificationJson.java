@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModel;
+
+@ApiModel(value="AccountBalanceVerification")
+public class AccountBalanceVerificationJson {
+
+    private final UUID accountId;
+    private final BigDecimal storedBalance;
+    private final BigDecimal storedCBA;
+    private final BigDecimal balance;
+    private final BigDecimal cba;
+    private final Boolean isConsistent;
+
+    @JsonCreator
+    public AccountBalanceVerificationJson(@JsonProperty("accountId") final UUID accountId,
+                                          @JsonProperty("storedBalance") final BigDecimal storedBalance,
+                                          @JsonProperty("storedCBA") final BigDecimal storedCBA,
+                                          @JsonProperty("balance") final BigDecimal balance,
+                                          @JsonProperty("cba") final BigDecimal cba,
+                                          @JsonProperty("isConsistent") final Boolean isConsistent) {
+        this.accountId = accountId;
+        this.storedBalance = storedBalance;
+        this.storedCBA = storedCBA;
+        this.balance = balance;
+        this.cba = cba;
+        this.isConsistent = isConsistent;
+    }
+
+    public AccountBalanceVerificationJson(final AccountBalanceVerification verification) {
+        this(verification.getAccountId(),
+             verification.getStoredBalance(),
+             verification.getStoredCBA(),
+             verification.getBalance(),
+             verification.getCBA(),
+             verification.isConsistent());
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getStoredBalance() {
+        return storedBalance;
+    }
+
+    public BigDecimal getStoredCBA() {
+        return storedCBA;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public BigDecimal getCba() {
+        return cba;
+    }
+
+    @JsonProperty("isConsistent")
+    public Boolean isConsistent() {
+        return isConsistent;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountBalanceVerificationJson{" +
+               "accountId=" + accountId +
+               ", storedBalance=" + storedBalance +
+               ", storedCBA=" + storedCBA +
+               ", balance=" + balance +
+               ", cba=" + cba +
+               ", isConsistent=" + isConsistent +
+               '}';
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final AccountBalanceVerificationJson that = (AccountBalanceVerificationJson) o;
+        return Objects.equals(accountId, that.accountId) &&
+               (storedBalance == null ? that.storedBalance == null : that.storedBalance != null && storedBalance.compareTo(that.storedBalance) == 0) &&
+               (storedCBA == null ? that.storedCBA == null : that.storedCBA != null && storedCBA.compareTo(that.storedCBA) == 0) &&
+               (balance == null ? that.balance == null : that.balance != null && balance.compareTo(that.balance) == 0) &&
+               (cba == null ? that.cba == null : that.cba != null && cba.compareTo(that.cba) == 0) &&
+               Objects.equals(isConsistent, that.isConsistent);
+    }
+
+    @Override
+    public int hashCode() {
+        // BigDecimal fields are compared ignoring their scale
+        return Objects.hash(accountId, isConsistent);
+    }
+}
@@ -69,13 +69,28 @@ public class AccountTimelineJson {
                                final List<SubscriptionBundle> bundles,
                                final AccountAuditLogs accountAuditLogs) throws CatalogApiException {
         this.account = new AccountJson(account, null, null, accountAuditLogs);
-        this.bundles = new LinkedList<BundleJson>();
+        this.bundles = toBundlesJson(account, bundles, accountAuditLogs);
+        this.invoices = toInvoicesJson(invoices, bundles, accountAuditLogs);
+        this.payments = toPaymentsJson(payments, invoicePayments, accountAuditLogs);
+    }
+
+    // The sections are also rendered one by one when the timeline is streamed (see AccountResource)
+
+    public static List<BundleJson> toBundlesJson(final Account account,
+                                                 final List<SubscriptionBundle> bundles,
+                                                 final AccountAuditLogs accountAuditLogs) throws CatalogApiException {
+        final List<BundleJson> bundlesJson = new LinkedList<BundleJson>();
         for (final SubscriptionBundle bundle : bundles) {
             final BundleJson jsonWithSubscriptions = new BundleJson(bundle, account.getCurrency(), accountAuditLogs);
-            this.bundles.add(jsonWithSubscriptions);
+            bundlesJson.add(jsonWithSubscriptions);
         }
+        return bundlesJson;
+    }
 
-        this.invoices = new LinkedList<InvoiceJson>();
+    public static List<InvoiceJson> toInvoicesJson(final List<Invoice> invoices,
+                                                   final List<SubscriptionBundle> bundles,
+                                                   final AccountAuditLogs accountAuditLogs) {
+        final List<InvoiceJson> invoicesJson = new LinkedList<InvoiceJson>();
         // Extract the credits from the invoices first
         final List<InvoiceItemJson> credits = new ArrayList<InvoiceItemJson>();
         for (final Invoice invoice : invoices) {
@@ -89,17 +104,23 @@ public class AccountTimelineJson {
         // Create now the invoice json objects
         for (final Invoice invoice : invoices) {
             final List<AuditLog> auditLogs = accountAuditLogs.getAuditLogsForInvoice(invoice.getId());
-            this.invoices.add(new InvoiceJson(invoice,
-                                              getBundleExternalKey(invoice, bundles),
-                                              credits,
-                                              auditLogs));
+            invoicesJson.add(new InvoiceJson(invoice,
+                                             getBundleExternalKey(invoice, bundles),
+                                             credits,
+                                             auditLogs));
         }
+        return invoicesJson;
+    }
 
-        this.payments = new LinkedList<InvoicePaymentJson>();
+    public static List<InvoicePaymentJson> toPaymentsJson(final List<Payment> payments,
+                                                          final List<InvoicePayment> invoicePayments,
+                                                          final AccountAuditLogs accountAuditLogs) {
+        final List<InvoicePaymentJson> paymentsJson = new LinkedList<InvoicePaymentJson>();
         for (final Payment payment : payments) {
             final UUID invoiceId = JaxRsResourceBase.getInvoiceId(invoicePayments, payment);
-            this.payments.add(new InvoicePaymentJson(payment, invoiceId, accountAuditLogs));
+            paymentsJson.add(new InvoicePaymentJson(payment, invoiceId, accountAuditLogs));
         }
+        return paymentsJson;
     }
 
     public AccountJson getAccount() {
@@ -166,7 +187,7 @@ public class AccountTimelineJson {
         return result;
     }
 
-    private String getBundleExternalKey(final Invoice invoice, final List<SubscriptionBundle> bundles) {
+    private static String getBundleExternalKey(final Invoice invoice, final List<SubscriptionBundle> bundles) {
         final Set<UUID> b = new HashSet<UUID>();
         for (final InvoiceItem cur : invoice.getInvoiceItems()) {
             b.add(cur.getBundleId());
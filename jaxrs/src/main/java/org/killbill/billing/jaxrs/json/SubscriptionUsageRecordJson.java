@@ -53,6 +53,14 @@ public class SubscriptionUsageRecordJson {
         this.unitUsageRecords = unitUsageRecords;
     }
 
+    public SubscriptionUsageRecordJson(final SubscriptionUsageRecord record) {
+        this(record.getSubscriptionId(),
+             record.getTrackingId(),
+             record.getUnitUsageRecord().stream()
+                   .map(UnitUsageRecordJson::new)
+                   .collect(Collectors.toUnmodifiableList()));
+    }
+
     public UUID getSubscriptionId() {
         return subscriptionId;
     }
@@ -78,6 +86,13 @@ public class SubscriptionUsageRecordJson {
             this.usageRecords = usageRecords;
         }
 
+        public UnitUsageRecordJson(final UnitUsageRecord unitUsageRecord) {
+            this(unitUsageRecord.getUnitType(),
+                 unitUsageRecord.getDailyAmount().stream()
+                                .map(UsageRecordJson::new)
+                                .collect(Collectors.toUnmodifiableList()));
+        }
+
         public String getUnitType() {
             return unitType;
         }
@@ -107,6 +122,10 @@ public class SubscriptionUsageRecordJson {
             this.amount = amount;
         }
 
+        public UsageRecordJson(final UsageRecord usageRecord) {
+            this(usageRecord.getDate(), usageRecord.getAmount());
+        }
+
         public DateTime getRecordDate() {
             return recordDate;
         }
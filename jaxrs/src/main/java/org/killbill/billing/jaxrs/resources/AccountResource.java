@@ -18,6 +18,8 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.util.ArrayList;
@@ -32,9 +34,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
@@ -52,8 +53,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.joda.time.DateTime;
@@ -89,6 +92,7 @@ import org.killbill.billing.jaxrs.json.AccountEmailJson;
 import org.killbill.billing.jaxrs.json.AccountJson;
 import org.killbill.billing.jaxrs.json.AccountTimelineJson;
 import org.killbill.billing.jaxrs.json.AuditLogJson;
+import org.killbill.billing.jaxrs.json.BillingExceptionJson;
 import org.killbill.billing.jaxrs.json.BlockingStateJson;
 import org.killbill.billing.jaxrs.json.BundleJson;
 import org.killbill.billing.jaxrs.json.CustomFieldJson;
@@ -100,7 +104,9 @@ import org.killbill.billing.jaxrs.json.PaymentMethodJson;
 import org.killbill.billing.jaxrs.json.PaymentTransactionJson;
 import org.killbill.billing.jaxrs.json.TagJson;
 import org.killbill.billing.jaxrs.util.Context;
+import org.killbill.billing.jaxrs.util.FanOut;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
+import org.killbill.billing.jaxrs.util.PaginationBatchLoader;
 import org.killbill.billing.overdue.api.OverdueApi;
 import org.killbill.billing.overdue.api.OverdueApiException;
 import org.killbill.billing.overdue.api.OverdueState;
@@ -141,6 +147,8 @@ import org.killbill.commons.metrics.api.annotation.TimedResource;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -158,6 +166,7 @@ public class AccountResource extends JaxRsResourceBase {
 
     private final SubscriptionApi subscriptionApi;
     private final InvoiceUserApi invoiceApi;
+    private final PaginationBatchLoader paginationBatchLoader;
     private final InvoicePaymentApi invoicePaymentApi;
     private final OverdueApi overdueApi;
     private final JaxrsExecutors jaxrsExecutors;
@@ -181,10 +190,12 @@ public class AccountResource extends JaxRsResourceBase {
                            final JaxrsConfig jaxrsConfig,
                            final Context context,
                            final RecordIdApi recordIdApi,
-                           final NotificationQueueService notificationQueueService) {
+                           final NotificationQueueService notificationQueueService,
+                           final PaginationBatchLoader paginationBatchLoader) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountApi, paymentApi, invoicePaymentApi, subscriptionApi, clock, context);
         this.subscriptionApi = subscriptionApi;
         this.invoiceApi = invoiceApi;
+        this.paginationBatchLoader = paginationBatchLoader;
         this.invoicePaymentApi = invoicePaymentApi;
         this.overdueApi = overdueApi;
         this.jaxrsExecutors = jaxrsExecutors;
@@ -220,27 +231,25 @@ public class AccountResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getAccounts(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                 @QueryParam(QUERY_ACCOUNT_WITH_BALANCE) @DefaultValue("false") final Boolean accountWithBalance,
                                 @QueryParam(QUERY_ACCOUNT_WITH_BALANCE_AND_CBA) @DefaultValue("false") final Boolean accountWithBalanceAndCBA,
                                 @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                 @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Account> accounts = accountUserApi.getAccounts(offset, limit, tenantContext);
+        final Pagination<Account> accounts = accountUserApi.getAccounts(offset, limit, getPaginationTenantContext(keyset, tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(AccountResource.class,
                                                     "getAccounts",
                                                     accounts.getNextOffset(),
                                                     limit,
-                                                    Map.of(QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
+                                                    Map.of(QUERY_SEARCH_KEYSET, keyset.toString(),
+                                                           QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
                                                            QUERY_ACCOUNT_WITH_BALANCE_AND_CBA, accountWithBalanceAndCBA.toString(),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Collections.emptyMap());
-        return buildStreamingPaginationResponse(accounts,
-                                                account -> {
-                                                    final AccountAuditLogs accountAuditLogs = auditUserApi.getAccountAuditLogs(account.getId(), auditMode.getLevel(), tenantContext);
-                                                    return getAccount(account, accountWithBalance, accountWithBalanceAndCBA, accountAuditLogs, tenantContext);
-                                                },
-                                                nextPageUri
-                                               );
+        return buildBatchedStreamingPaginationResponse(accounts,
+                                                       batch -> getAccounts(batch, accountWithBalance, accountWithBalanceAndCBA, auditMode, tenantContext),
+                                                       nextPageUri);
     }
 
     @TimedResource
@@ -252,27 +261,25 @@ public class AccountResource extends JaxRsResourceBase {
     public Response searchAccounts(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                    @QueryParam(QUERY_ACCOUNT_WITH_BALANCE) @DefaultValue("false") final Boolean accountWithBalance,
                                    @QueryParam(QUERY_ACCOUNT_WITH_BALANCE_AND_CBA) @DefaultValue("false") final Boolean accountWithBalanceAndCBA,
                                    @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                    @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Account> accounts = accountUserApi.searchAccounts(searchKey, offset, limit, tenantContext);
+        final Pagination<Account> accounts = accountUserApi.searchAccounts(searchKey, offset, limit, getPaginationTenantContext(keyset, tenantContext));
         final URI nextPageUri = uriBuilder.nextPage(AccountResource.class,
                                                     "searchAccounts",
                                                     accounts.getNextOffset(),
                                                     limit,
-                                                    Map.of(QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
+                                                    Map.of(QUERY_SEARCH_KEYSET, keyset.toString(),
+                                                           QUERY_ACCOUNT_WITH_BALANCE, accountWithBalance.toString(),
                                                            QUERY_ACCOUNT_WITH_BALANCE_AND_CBA, accountWithBalanceAndCBA.toString(),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Map.of("searchKey", searchKey));
-        return buildStreamingPaginationResponse(accounts,
-                                                account -> {
-                                                    final AccountAuditLogs accountAuditLogs = auditUserApi.getAccountAuditLogs(account.getId(), auditMode.getLevel(), tenantContext);
-                                                    return getAccount(account, accountWithBalance, accountWithBalanceAndCBA, accountAuditLogs, tenantContext);
-                                                },
-                                                nextPageUri
-                                               );
+        return buildBatchedStreamingPaginationResponse(accounts,
+                                                       batch -> getAccounts(batch, accountWithBalance, accountWithBalanceAndCBA, auditMode, tenantContext),
+                                                       nextPageUri);
     }
 
     @TimedResource
@@ -376,6 +383,21 @@ public class AccountResource extends JaxRsResourceBase {
         return Response.status(Status.OK).entity(accountJson).build();
     }
 
+    // PERF: the audit logs, balances and CBAs of the whole batch are fetched at once
+    private List<AccountJson> getAccounts(final List<Account> accounts, final Boolean accountWithBalance, final Boolean accountWithBalanceAndCBA,
+                                          final AuditMode auditMode, final TenantContext tenantContext) {
+        final List<UUID> accountIds = accounts.stream().map(Account::getId).collect(Collectors.toUnmodifiableList());
+        final Map<UUID, AccountAuditLogs> accountsAuditLogs = paginationBatchLoader.getAccountsAuditLogs(accounts, auditMode.getLevel(), tenantContext);
+        final Map<UUID, BigDecimal> accountBalances = (accountWithBalance || accountWithBalanceAndCBA) ? paginationBatchLoader.getAccountBalances(accountIds, tenantContext) : Map.of();
+        final Map<UUID, BigDecimal> accountCBAs = accountWithBalanceAndCBA ? paginationBatchLoader.getAccountCBAs(accountIds, tenantContext) : Map.of();
+
+        final List<AccountJson> result = new ArrayList<AccountJson>(accounts.size());
+        for (final Account account : accounts) {
+            result.add(new AccountJson(account, accountBalances.get(account.getId()), accountCBAs.get(account.getId()), accountsAuditLogs.get(account.getId())));
+        }
+        return result;
+    }
+
     private AccountJson getAccount(final Account account, final Boolean accountWithBalance, final Boolean accountWithBalanceAndCBA,
                                    final AccountAuditLogs auditLogs, final TenantContext tenantContext) {
         if (accountWithBalanceAndCBA) {
@@ -511,12 +533,13 @@ public class AccountResource extends JaxRsResourceBase {
     @GET
     @Path("/{accountId:" + UUID_PATTERN + "}/" + TIMELINE)
     @Produces(APPLICATION_JSON)
-    @ApiOperation(value = "Retrieve account timeline", response = AccountTimelineJson.class)
+    @ApiOperation(value = "Retrieve account timeline", response = AccountTimelineJson.class, notes = "With stream=true, each section is written as soon as it is retrieved: failures happening after that are reported by a last error field")
     @ApiResponses(value = {@ApiResponse(code = 400, message = "Invalid account id supplied"),
                            @ApiResponse(code = 404, message = "Account not found")})
     public Response getAccountTimeline(@PathParam("accountId") final UUID accountId,
                                        @QueryParam(QUERY_PARALLEL) @DefaultValue("false") final Boolean parallel,
                                        @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
+                                       @QueryParam(QUERY_STREAM) @DefaultValue("false") final Boolean stream,
                                        @javax.ws.rs.core.Context final HttpServletRequest request) throws AccountApiException, PaymentApiException, SubscriptionApiException, InvoiceApiException, CatalogApiException {
 
         final TenantContext tenantContext = context.createTenantContextWithAccountId(accountId, request);
@@ -554,89 +577,116 @@ public class AccountResource extends JaxRsResourceBase {
             }
         };
 
-        final AccountTimelineJson json;
-
-        List<Invoice> invoices = null;
-        List<SubscriptionBundle> bundles = null;
-        List<InvoicePayment> invoicePayments = null;
-        List<Payment> payments = null;
-        AccountAuditLogs accountAuditLogs = null;
-
-        if (parallel) {
-            final ExecutorService executor = jaxrsExecutors.getJaxrsExecutorService();
-            final Future<List<SubscriptionBundle>> futureBundlesCallable = executor.submit(bundlesCallable);
-            final Future<List<Invoice>> futureInvoicesCallable = executor.submit(invoicesCallable);
-            final Future<List<InvoicePayment>> futureInvoicePaymentsCallable = executor.submit(invoicePaymentsCallable);
-            final Future<List<Payment>> futurePaymentsCallable = executor.submit(paymentsCallable);
-            final Future<AccountAuditLogs> futureAuditsCallable = executor.submit(auditsCallable);
-            final List<Future> toBeCancelled = List.of(futureBundlesCallable, futureInvoicesCallable, futureInvoicePaymentsCallable, futurePaymentsCallable, futureAuditsCallable);
-            final int timeoutMsec = 100;
-
-            final long ini = System.currentTimeMillis();
-            do {
-                bundles = (bundles == null) ? waitOnFutureAndHandleTimeout("bundles", futureBundlesCallable, timeoutMsec, toBeCancelled) : bundles;
-                invoices = (invoices == null) ? waitOnFutureAndHandleTimeout("invoices", futureInvoicesCallable, timeoutMsec, toBeCancelled) : invoices;
-                invoicePayments = (invoicePayments == null) ? waitOnFutureAndHandleTimeout("invoicePayments", futureInvoicePaymentsCallable, timeoutMsec, toBeCancelled) : invoicePayments;
-                payments = (payments == null) ? waitOnFutureAndHandleTimeout("payments", futurePaymentsCallable, timeoutMsec, toBeCancelled) : payments;
-                accountAuditLogs = (accountAuditLogs == null) ? waitOnFutureAndHandleTimeout("accountAuditLogs", futureAuditsCallable, timeoutMsec, toBeCancelled) : accountAuditLogs;
-            } while ((System.currentTimeMillis() - ini < jaxrsConfig.getJaxrsTimeout().getMillis()) &&
-                     (bundles == null || invoices == null || invoicePayments == null || payments == null || accountAuditLogs == null));
-
-            if (bundles == null || invoices == null || invoicePayments == null || payments == null || accountAuditLogs == null) {
-                Response.status(Status.SERVICE_UNAVAILABLE).build();
-            }
-        } else {
-            invoices = runCallable("invoices", invoicesCallable);
-            payments = runCallable("payments", paymentsCallable);
-            bundles = runCallable("bundles", bundlesCallable);
-            accountAuditLogs = runCallable("accountAuditLogs", auditsCallable);
-            invoicePayments = runCallable("invoicePayments", invoicePaymentsCallable);
-        }
-
-        json = new AccountTimelineJson(account, invoices, payments, invoicePayments, bundles, accountAuditLogs);
-        return Response.status(Status.OK).entity(json).build();
-    }
+        final Executor executor = parallel ? jaxrsExecutors.getJaxrsExecutorService() : Runnable::run;
+        final long timeoutMillis = jaxrsConfig.getJaxrsTimeout().getMillis();
+
+        if (stream) {
+            final StreamingOutput json = new StreamingOutput() {
+                @Override
+                public void write(final OutputStream output) throws IOException, WebApplicationException {
+                    final JsonGenerator generator = mapper.getFactory().createGenerator(output);
+                    generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                    generator.writeStartObject();
+
+                    // The status has already been sent at this point: failures are reported as a last "error" field, so that the body stays valid
+                    final FanOut fanOut = new FanOut(executor, timeoutMillis);
+                    try {
+                        streamAccountTimeline(account, fanOut, bundlesCallable, invoicesCallable, invoicePaymentsCallable, paymentsCallable, auditsCallable, generator);
+                    } catch (final TimeoutException e) {
+                        log.warn("Timeout while streaming timeline for accountId='{}'", accountId);
+                        generator.writeObjectField("error", new BillingExceptionJson(new TimeoutException(String.format("Timeout while retrieving timeline for accountId='%s'", accountId)), false));
+                    } catch (final ExecutionException e) {
+                        log.warn("ExecutionException while streaming timeline for accountId='{}'", accountId, e.getCause());
+                        generator.writeObjectField("error", new BillingExceptionJson(e.getCause() instanceof Exception ? (Exception) e.getCause() : e, false));
+                    } catch (final CatalogApiException e) {
+                        log.warn("CatalogApiException while streaming timeline for accountId='{}'", accountId, e);
+                        generator.writeObjectField("error", new BillingExceptionJson(e, false));
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        generator.writeObjectField("error", new BillingExceptionJson(e, false));
+                    } finally {
+                        fanOut.cancelAll();
+                    }
 
-    private <T> T waitOnFutureAndHandleTimeout(final String logSuffix, final Future<T> future, final long timeoutMsec, final Iterable<Future> toBeCancelled) throws PaymentApiException, AccountApiException, InvoiceApiException, SubscriptionApiException {
-        try {
-            return waitOnFutureAndHandleTimeout(future, timeoutMsec);
-        } catch (final InterruptedException e) {
-            log.warn("InterruptedException while retrieving {}", logSuffix, e);
-            handleCallableException(e, toBeCancelled);
-        } catch (final ExecutionException e) {
-            log.warn("ExecutionException while retrieving {}", logSuffix, e);
-            handleCallableException(e.getCause(), toBeCancelled);
+                    generator.writeEndObject();
+                    generator.close();
+                }
+            };
+            return Response.status(Status.OK).entity(json).build();
         }
 
-        // Never reached
-        return null;
-    }
-
-    private <T> T waitOnFutureAndHandleTimeout(final Future<T> future, final long timeoutMsec) throws ExecutionException, InterruptedException {
+        final FanOut fanOut = new FanOut(executor, timeoutMillis);
         try {
-            return future.get(timeoutMsec, TimeUnit.MILLISECONDS);
+            final Future<List<SubscriptionBundle>> bundles = fanOut.submit(bundlesCallable);
+            final Future<List<Invoice>> invoices = fanOut.submit(invoicesCallable);
+            final Future<List<InvoicePayment>> invoicePayments = fanOut.submit(invoicePaymentsCallable);
+            final Future<List<Payment>> payments = fanOut.submit(paymentsCallable);
+            final Future<AccountAuditLogs> accountAuditLogs = fanOut.submit(auditsCallable);
+            fanOut.awaitAll();
+
+            final AccountTimelineJson json = new AccountTimelineJson(account, invoices.get(), payments.get(), invoicePayments.get(), bundles.get(), accountAuditLogs.get());
+            return Response.status(Status.OK).entity(json).build();
         } catch (final TimeoutException e) {
-            return null;
-        }
-    }
-
-    private <T> T runCallable(final String logSuffix, final Callable<T> callable) throws PaymentApiException, AccountApiException, InvoiceApiException, SubscriptionApiException {
-        try {
-            return callable.call();
-        } catch (final Exception e) {
-            log.warn("InterruptedException while retrieving {}", logSuffix, e);
+            log.warn("Timeout while retrieving timeline for accountId='{}'", accountId);
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
+        } catch (final ExecutionException e) {
+            log.warn("ExecutionException while retrieving timeline for accountId='{}'", accountId, e.getCause());
+            handleCallableException(e.getCause());
+        } catch (final InterruptedException e) {
+            log.warn("InterruptedException while retrieving timeline for accountId='{}'", accountId, e);
             handleCallableException(e);
+        } finally {
+            fanOut.cancelAll();
         }
 
         // Never reached
         return null;
     }
 
-    private void handleCallableException(final Throwable causeOrException, final Iterable<Future> toBeCancelled) throws AccountApiException, SubscriptionApiException, PaymentApiException, InvoiceApiException {
-        for (final Future f : toBeCancelled) {
-            f.cancel(true);
+    // Each section is written as soon as everything it needs has been retrieved (the audit logs are needed by all of them)
+    private void streamAccountTimeline(final Account account,
+                                       final FanOut fanOut,
+                                       final Callable<List<SubscriptionBundle>> bundlesCallable,
+                                       final Callable<List<Invoice>> invoicesCallable,
+                                       final Callable<List<InvoicePayment>> invoicePaymentsCallable,
+                                       final Callable<List<Payment>> paymentsCallable,
+                                       final Callable<AccountAuditLogs> auditsCallable,
+                                       final JsonGenerator generator) throws IOException, CatalogApiException, ExecutionException, TimeoutException, InterruptedException {
+        // Submitted first, so that they run first when not in parallel mode
+        final Future<AccountAuditLogs> accountAuditLogs = fanOut.submit(auditsCallable);
+        final Future<List<SubscriptionBundle>> bundles = fanOut.submit(bundlesCallable);
+        final Future<List<Invoice>> invoices = fanOut.submit(invoicesCallable);
+        final Future<List<InvoicePayment>> invoicePayments = fanOut.submit(invoicePaymentsCallable);
+        final Future<List<Payment>> payments = fanOut.submit(paymentsCallable);
+
+        // Results are only retrieved before a field is started: a failure never leaves a partially written field behind
+        boolean accountWritten = false;
+        boolean bundlesWritten = false;
+        boolean invoicesWritten = false;
+        boolean paymentsWritten = false;
+        while (fanOut.awaitNext() != null) {
+            if (!accountAuditLogs.isDone()) {
+                continue;
+            }
+
+            if (!accountWritten) {
+                generator.writeObjectField("account", new AccountJson(account, null, null, accountAuditLogs.get()));
+                accountWritten = true;
+            }
+            if (!bundlesWritten && bundles.isDone()) {
+                generator.writeObjectField("bundles", AccountTimelineJson.toBundlesJson(account, bundles.get(), accountAuditLogs.get()));
+                bundlesWritten = true;
+            }
+            if (!invoicesWritten && invoices.isDone() && bundles.isDone()) {
+                generator.writeObjectField("invoices", AccountTimelineJson.toInvoicesJson(invoices.get(), bundles.get(), accountAuditLogs.get()));
+                invoicesWritten = true;
+            }
+            if (!paymentsWritten && payments.isDone() && invoicePayments.isDone()) {
+                generator.writeObjectField("payments", AccountTimelineJson.toPaymentsJson(payments.get(), invoicePayments.get(), accountAuditLogs.get()));
+                paymentsWritten = true;
+            }
+            generator.flush();
         }
-        handleCallableException(causeOrException);
     }
 
     private void handleCallableException(final Throwable causeOrException) throws AccountApiException, SubscriptionApiException, PaymentApiException, InvoiceApiException {
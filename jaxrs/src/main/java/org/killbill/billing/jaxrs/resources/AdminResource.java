@@ -53,8 +53,11 @@ import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.AccountUserApi;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.invoice.api.AccountBalanceUserApi;
+import org.killbill.billing.invoice.api.AccountBalanceVerification;
 import org.killbill.billing.invoice.api.InvoiceApiException;
 import org.killbill.billing.invoice.api.InvoiceUserApi;
+import org.killbill.billing.jaxrs.json.AccountBalanceVerificationJson;
 import org.killbill.billing.jaxrs.json.AdminPaymentJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
@@ -113,6 +116,7 @@ public class AdminResource extends JaxRsResourceBase {
 
     private final AdminPaymentApi adminPaymentApi;
     private final InvoiceUserApi invoiceUserApi;
+    private final AccountBalanceUserApi accountBalanceUserApi;
     private final TenantUserApi tenantApi;
     private final CacheControllerDispatcher cacheControllerDispatcher;
     private final RecordIdApi recordIdApi;
@@ -130,6 +134,7 @@ public class AdminResource extends JaxRsResourceBase {
                          final InvoicePaymentApi invoicePaymentApi,
                          final AdminPaymentApi adminPaymentApi,
                          final InvoiceUserApi invoiceUserApi,
+                         final AccountBalanceUserApi accountBalanceUserApi,
                          final CacheControllerDispatcher cacheControllerDispatcher,
                          final TenantUserApi tenantApi,
                          final RecordIdApi recordIdApi,
@@ -141,6 +146,7 @@ public class AdminResource extends JaxRsResourceBase {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.adminPaymentApi = adminPaymentApi;
         this.invoiceUserApi = invoiceUserApi;
+        this.accountBalanceUserApi = accountBalanceUserApi;
         this.tenantApi = tenantApi;
         this.recordIdApi = recordIdApi;
         this.cacheControllerDispatcher = cacheControllerDispatcher;
@@ -324,6 +330,37 @@ public class AdminResource extends JaxRsResourceBase {
                        .build();
     }
 
+    @GET
+    @Path("/" + INVOICES + "/" + ACCOUNTS + "/{accountId:" + UUID_PATTERN + "}/" + ACCOUNT_BALANCE)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Compare the materialized account balance and CBA with the values computed from the invoices", response = AccountBalanceVerificationJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied"),
+                           @ApiResponse(code = 404, message = "Account not found")})
+    public Response verifyAccountBalance(@PathParam("accountId") final UUID accountId,
+                                         @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final TenantContext tenantContext = context.createTenantContextWithAccountId(accountId, request);
+        final AccountBalanceVerification verification = accountBalanceUserApi.verifyAccountBalance(accountId, tenantContext);
+        return Response.status(Status.OK).entity(new AccountBalanceVerificationJson(verification)).build();
+    }
+
+    @PUT
+    @Path("/" + INVOICES + "/" + ACCOUNTS + "/{accountId:" + UUID_PATTERN + "}/" + ACCOUNT_BALANCE)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Rebuild the materialized account balance and CBA from the invoices", response = AccountBalanceVerificationJson.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Successful operation"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied"),
+                           @ApiResponse(code = 404, message = "Account not found")})
+    public Response rebuildAccountBalance(@PathParam("accountId") final UUID accountId,
+                                          @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                          @HeaderParam(HDR_REASON) final String reason,
+                                          @HeaderParam(HDR_COMMENT) final String comment,
+                                          @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final CallContext callContext = context.createCallContextWithAccountId(accountId, createdBy, reason, comment, request);
+        final AccountBalanceVerification verification = accountBalanceUserApi.rebuildAccountBalance(accountId, callContext);
+        return Response.status(Status.OK).entity(new AccountBalanceVerificationJson(verification)).build();
+    }
+
     @DELETE
     @Path("/" + CACHE)
     @Produces(APPLICATION_JSON)
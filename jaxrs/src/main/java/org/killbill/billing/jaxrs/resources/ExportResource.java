@@ -20,6 +20,7 @@ package org.killbill.billing.jaxrs.resources;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 import java.util.UUID;
 
 import javax.inject.Inject;
@@ -30,6 +31,7 @@ import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
@@ -44,6 +46,7 @@ import org.killbill.billing.util.api.CustomFieldUserApi;
 import org.killbill.billing.util.api.ExportUserApi;
 import org.killbill.billing.util.api.TagUserApi;
 import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.export.api.StreamingExportUserApi;
 import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.api.annotation.TimedResource;
 
@@ -59,10 +62,14 @@ import static javax.ws.rs.core.MediaType.APPLICATION_OCTET_STREAM;
 @Api(value = JaxrsResource.EXPORT_PATH, description = "Export endpoints", tags="Export")
 public class ExportResource extends JaxRsResourceBase {
 
+    private static final String APPLICATION_ZIP = "application/zip";
+
     private final ExportUserApi exportUserApi;
+    private final StreamingExportUserApi streamingExportUserApi;
 
     @Inject
     public ExportResource(final ExportUserApi exportUserApi,
+                          final StreamingExportUserApi streamingExportUserApi,
                           final JaxrsUriBuilder uriBuilder,
                           final TagUserApi tagUserApi,
                           final CustomFieldUserApi customFieldUserApi,
@@ -74,6 +81,7 @@ public class ExportResource extends JaxRsResourceBase {
                           final Context context) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.exportUserApi = exportUserApi;
+        this.streamingExportUserApi = streamingExportUserApi;
     }
 
     @TimedResource
@@ -98,4 +106,37 @@ public class ExportResource extends JaxRsResourceBase {
             }
         };
     }
+
+    @TimedResource
+    @GET
+    @Path("/{accountId:" + UUID_PATTERN + "}/" + ARCHIVE)
+    @Produces(APPLICATION_ZIP)
+    @ApiOperation(value = "Export account data as a zip archive (one CSV entry per table)", response = Response.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied"),
+                           @ApiResponse(code = 404, message = "Account not found")})
+    public StreamingOutput exportDataArchiveForAccount(@PathParam("accountId") final UUID accountId,
+                                                       @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                                       @HeaderParam(HDR_REASON) final String reason,
+                                                       @HeaderParam(HDR_COMMENT) final String comment,
+                                                       @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final CallContext callContext = context.createCallContextWithAccountId(accountId, createdBy, reason, comment, request);
+        return output -> streamingExportUserApi.exportDataAsArchiveForAccount(accountId, output, callContext);
+    }
+
+    @TimedResource
+    @GET
+    @Path("/" + ARCHIVE)
+    @Produces(APPLICATION_ZIP)
+    @ApiOperation(value = "Export the data of several accounts (all the accounts of the tenant by default) as a zip archive (one CSV entry per table)", response = Response.class)
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"),
+                           @ApiResponse(code = 400, message = "Invalid account id supplied")})
+    public StreamingOutput exportDataArchiveForTenant(@QueryParam(QUERY_ACCOUNT_ID) final List<UUID> accountIds,
+                                                      @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                                      @HeaderParam(HDR_REASON) final String reason,
+                                                      @HeaderParam(HDR_COMMENT) final String comment,
+                                                      @javax.ws.rs.core.Context final HttpServletRequest request) {
+        final CallContext callContext = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+        return output -> streamingExportUserApi.exportDataAsArchiveForTenant(accountIds == null || accountIds.isEmpty() ? null : accountIds, output, callContext);
+    }
 }
@@ -26,7 +26,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -36,7 +35,6 @@ import java.util.Objects;
 import java.util.PropertyResourceBundle;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -87,6 +85,7 @@ import org.killbill.billing.jaxrs.json.InvoicePaymentJson;
 import org.killbill.billing.jaxrs.json.TagJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
+import org.killbill.billing.jaxrs.util.PaginationBatchLoader;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.payment.api.PaymentApi;
@@ -136,6 +135,7 @@ public class InvoiceResource extends JaxRsResourceBase {
     private static final String ID_PARAM_NAME = "invoiceId";
 
     private final InvoiceUserApi invoiceApi;
+    private final PaginationBatchLoader paginationBatchLoader;
     private final TenantUserApi tenantApi;
     private final Locale defaultLocale;
 
@@ -150,9 +150,11 @@ public class InvoiceResource extends JaxRsResourceBase {
                            final CustomFieldUserApi customFieldUserApi,
                            final AuditUserApi auditUserApi,
                            final TenantUserApi tenantApi,
-                           final Context context) {
+                           final Context context,
+                           final PaginationBatchLoader paginationBatchLoader) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.invoiceApi = invoiceApi;
+        this.paginationBatchLoader = paginationBatchLoader;
         this.tenantApi = tenantApi;
         this.defaultLocale = Locale.getDefault();
     }
@@ -285,24 +287,27 @@ public class InvoiceResource extends JaxRsResourceBase {
 
     /**
      * Replace the same logic that occurs in:
-     * - {@link #getInvoices(Long, Long, AuditMode, HttpServletRequest)}
-     * - {@link #searchInvoices(String, Long, Long, AuditMode, HttpServletRequest)}
+     * - {@link #getInvoices(Long, Long, Boolean, AuditMode, HttpServletRequest)}
+     * - {@link #searchInvoices(String, Long, Long, Boolean, AuditMode, HttpServletRequest)}
      */
     private Response buildInvoicesStreamingPaginationResponse(final Pagination<Invoice> invoices,
                                                               final URI nextPageUri,
                                                               final AuditMode auditMode,
                                                               final TenantContext tenantContext) {
-        final AtomicReference<Map<UUID, AccountAuditLogs>> accountsAuditLogs = new AtomicReference<>(new HashMap<>());
-        return buildStreamingPaginationResponse(invoices,
-                                                invoice -> {
-                                                    // Cache audit logs per account
-                                                    if (accountsAuditLogs.get().get(invoice.getAccountId()) == null) {
-                                                        accountsAuditLogs.get().put(invoice.getAccountId(), auditUserApi.getAccountAuditLogs(invoice.getAccountId(), auditMode.getLevel(), tenantContext));
-                                                    }
-                                                    return new InvoiceJson(invoice, null, accountsAuditLogs.get().get(invoice.getAccountId()));
-                                                },
-                                                nextPageUri
-                                               );
+        return buildBatchedStreamingPaginationResponse(invoices,
+                                                       batch -> getInvoices(batch, auditMode, tenantContext),
+                                                       nextPageUri);
+    }
+
+    // PERF: the audit logs of the whole batch (invoices and invoice items) are fetched at once, instead of all audit logs of each account
+    private List<InvoiceJson> getInvoices(final List<Invoice> invoices, final AuditMode auditMode, final TenantContext tenantContext) {
+        final Map<UUID, AccountAuditLogs> accountsAuditLogs = paginationBatchLoader.getInvoicesAuditLogs(invoices, auditMode.getLevel(), tenantContext);
+
+        final List<InvoiceJson> result = new ArrayList<InvoiceJson>(invoices.size());
+        for (final Invoice invoice : invoices) {
+            result.add(new InvoiceJson(invoice, null, accountsAuditLogs.get(invoice.getAccountId())));
+        }
+        return result;
     }
 
     @TimedResource
@@ -313,11 +318,12 @@ public class InvoiceResource extends JaxRsResourceBase {
     @ApiResponses(value = {})
     public Response getInvoices(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                 @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                 @javax.ws.rs.core.Context final HttpServletRequest request) throws InvoiceApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Invoice> invoices = invoiceApi.getInvoices(offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "getInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Collections.emptyMap());
+        final Pagination<Invoice> invoices = invoiceApi.getInvoices(offset, limit, getPaginationTenantContext(keyset, tenantContext));
+        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "getInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_SEARCH_KEYSET, keyset.toString(), QUERY_AUDIT, auditMode.getLevel().toString()), Collections.emptyMap());
 
         return buildInvoicesStreamingPaginationResponse(invoices, nextPageUri, auditMode, tenantContext);
     }
@@ -331,11 +337,12 @@ public class InvoiceResource extends JaxRsResourceBase {
     public Response searchInvoices(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                    @QueryParam(QUERY_AUDIT) @DefaultValue("NONE") final AuditMode auditMode,
                                    @javax.ws.rs.core.Context final HttpServletRequest request) throws SubscriptionApiException {
         final TenantContext tenantContext = context.createTenantContextNoAccountId(request);
-        final Pagination<Invoice> invoices = invoiceApi.searchInvoices(searchKey, offset, limit, tenantContext);
-        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "searchInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_AUDIT, auditMode.getLevel().toString()), Map.of("searchKey", searchKey));
+        final Pagination<Invoice> invoices = invoiceApi.searchInvoices(searchKey, offset, limit, getPaginationTenantContext(keyset, tenantContext));
+        final URI nextPageUri = uriBuilder.nextPage(InvoiceResource.class, "searchInvoices", invoices.getNextOffset(), limit, Map.of(QUERY_SEARCH_KEYSET, keyset.toString(), QUERY_AUDIT, auditMode.getLevel().toString()), Map.of("searchKey", searchKey));
 
         return buildInvoicesStreamingPaginationResponse(invoices, nextPageUri, auditMode, tenantContext);
     }
@@ -56,6 +56,7 @@ import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.account.api.AccountApiException;
 import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.callcontext.KeysetPaginationTenantContext;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.entitlement.api.BlockingState;
 import org.killbill.billing.entitlement.api.BlockingStateType;
@@ -128,6 +129,9 @@ public abstract class JaxRsResourceBase implements JaxrsResource {
 
     protected static final ObjectMapper mapper = new ObjectMapper();
 
+    // Number of entities rendered together by buildBatchedStreamingPaginationResponse
+    protected static final int STREAMING_PAGINATION_BATCH_SIZE = 100;
+
     protected final JaxrsUriBuilder uriBuilder;
     protected final TagUserApi tagUserApi;
     protected final CustomFieldUserApi customFieldUserApi;
@@ -319,9 +323,33 @@ public abstract class JaxRsResourceBase implements JaxrsResource {
         return Response.status(Status.NO_CONTENT).build();
     }
 
+    // With keyset pagination, the offset is the last record id returned (X-Killbill-Pagination-NextOffset header), 0 for the first page
+    protected TenantContext getPaginationTenantContext(final boolean keyset, final TenantContext tenantContext) {
+        return keyset ? new KeysetPaginationTenantContext(tenantContext) : tenantContext;
+    }
+
     protected <E extends Entity, J extends JsonBase> Response buildStreamingPaginationResponse(final Pagination<E> entities,
                                                                                                final Function<E, J> toJson,
                                                                                                final URI nextPageUri) {
+        return buildBatchedStreamingPaginationResponse(entities,
+                                                       batch -> {
+                                                           final List<J> asJson = new ArrayList<J>(batch.size());
+                                                           for (final E entity : batch) {
+                                                               asJson.add(toJson.apply(entity));
+                                                           }
+                                                           return asJson;
+                                                       },
+                                                       nextPageUri);
+    }
+
+    /**
+     * Same as buildStreamingPaginationResponse, but entities are converted by batches of STREAMING_PAGINATION_BATCH_SIZE, so that the data
+     * needed to render them (audit logs, balances, ...) can be fetched once per batch instead of once per entity.
+     * The returned list must be aligned with the batch (null entries are skipped).
+     */
+    protected <E extends Entity, J extends JsonBase> Response buildBatchedStreamingPaginationResponse(final Pagination<E> entities,
+                                                                                                      final Function<List<E>, List<J>> toJsonBatch,
+                                                                                                      final URI nextPageUri) {
         final StreamingOutput json = new StreamingOutput() {
             @Override
             public void write(final OutputStream output) throws IOException, WebApplicationException {
@@ -332,11 +360,16 @@ public abstract class JaxRsResourceBase implements JaxrsResource {
                     generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 
                     generator.writeStartArray();
+                    final List<E> batch = new ArrayList<E>(STREAMING_PAGINATION_BATCH_SIZE);
                     while (iterator.hasNext()) {
-                        final E entity = iterator.next();
-                        final J asJson = toJson.apply(entity);
-                        if (asJson != null) {
-                            generator.writeObject(asJson);
+                        batch.add(iterator.next());
+                        if (batch.size() == STREAMING_PAGINATION_BATCH_SIZE || !iterator.hasNext()) {
+                            for (final J asJson : toJsonBatch.apply(batch)) {
+                                if (asJson != null) {
+                                    generator.writeObject(asJson);
+                                }
+                            }
+                            batch.clear();
                         }
                     }
                     generator.writeEndArray();
@@ -85,6 +85,7 @@ public interface JaxrsResource {
     String QUERY_ENTITLEMENT_POLICY = "entitlementPolicy";
     String QUERY_SEARCH_OFFSET = "offset";
     String QUERY_SEARCH_LIMIT = "limit";
+    String QUERY_SEARCH_KEYSET = "keyset";
     String QUERY_ENTITLEMENT_EFFECTIVE_FROM_DT = "effectiveFromDate";
     String QUERY_FORCE_NEW_BCD_WITH_PAST_EFFECTIVE_DATE = "forceNewBcdWithPastEffectiveDate";
 
@@ -153,6 +154,8 @@ public interface JaxrsResource {
 
     String QUERY_PARALLEL = "parallel";
 
+    String QUERY_STREAM = "stream";
+
     String QUERY_AUTO_COMMIT = "autoCommit";
 
     String QUERY_NOTIFICATION_CALLBACK = "cb";
@@ -249,9 +252,11 @@ public interface JaxrsResource {
 
     String USAGES = "usages";
     String USAGES_PATH = PREFIX + "/" + USAGES;
+    String BULK = "bulk";
 
     String EXPORT = "export";
     String EXPORT_PATH = PREFIX + "/" + EXPORT;
+    String ARCHIVE = "archive";
 
     String PLUGINS_INFO = "pluginsInfo";
     String PLUGINS_INFO_PATH = PREFIX + "/" + PLUGINS_INFO;
@@ -303,6 +308,7 @@ public interface JaxrsResource {
 
     String CACHE = "cache";
     String HEALTHCHECK = "healthcheck";
+    String ACCOUNT_BALANCE = "balance";
 
     String QUERY_INCLUDED_DELETED = "includedDeleted";
     String AUDIT_LOG = "auditLogs";
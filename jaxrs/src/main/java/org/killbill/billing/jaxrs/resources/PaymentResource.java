@@ -18,12 +18,11 @@
 package org.killbill.billing.jaxrs.resources;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -57,6 +56,7 @@ import org.killbill.billing.jaxrs.json.PaymentTransactionJson;
 import org.killbill.billing.jaxrs.json.TagJson;
 import org.killbill.billing.jaxrs.util.Context;
 import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
+import org.killbill.billing.jaxrs.util.PaginationBatchLoader;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.payment.api.PaymentApi;
@@ -80,6 +80,7 @@ import org.killbill.billing.util.entity.Pagination;
 import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.api.annotation.MetricTag;
 import org.killbill.commons.metrics.api.annotation.TimedResource;
+import org.killbill.commons.utils.Preconditions;
 import org.killbill.commons.utils.Strings;
 import org.killbill.commons.utils.collect.Iterables;
 
@@ -98,6 +99,8 @@ public class PaymentResource extends ComboPaymentResource {
 
     private static final String ID_PARAM_NAME = "paymentId";
 
+    private final PaginationBatchLoader paginationBatchLoader;
+
     @Inject
     public PaymentResource(final JaxrsUriBuilder uriBuilder,
                            final TagUserApi tagUserApi,
@@ -107,8 +110,10 @@ public class PaymentResource extends ComboPaymentResource {
                            final PaymentApi paymentApi,
                            final InvoicePaymentApi invoicePaymentApi,
                            final Clock clock,
-                           final Context context) {
+                           final Context context,
+                           final PaginationBatchLoader paginationBatchLoader) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, clock, context);
+        this.paginationBatchLoader = paginationBatchLoader;
     }
 
     @TimedResource(name = "getPayment")
@@ -160,6 +165,7 @@ public class PaymentResource extends ComboPaymentResource {
     @ApiResponses(value = {})
     public Response getPayments(@QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                 @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                 @QueryParam(QUERY_PAYMENT_PLUGIN_NAME) final String pluginName,
                                 @QueryParam(QUERY_WITH_PLUGIN_INFO) @DefaultValue("false") final Boolean withPluginInfo,
                                 @QueryParam(QUERY_WITH_ATTEMPTS) @DefaultValue("false") final Boolean withAttempts,
@@ -171,8 +177,9 @@ public class PaymentResource extends ComboPaymentResource {
 
         final Pagination<Payment> payments;
         if (Strings.isNullOrEmpty(pluginName)) {
-            payments = paymentApi.getPayments(offset, limit, withPluginInfo, withAttempts, pluginProperties, tenantContext);
+            payments = paymentApi.getPayments(offset, limit, withPluginInfo, withAttempts, pluginProperties, getPaginationTenantContext(keyset, tenantContext));
         } else {
+            Preconditions.checkArgument(!keyset, "Keyset pagination isn't supported when filtering by plugin name");
             payments = paymentApi.getPayments(offset, limit, pluginName, withPluginInfo, withAttempts, pluginProperties, tenantContext);
         }
 
@@ -180,22 +187,14 @@ public class PaymentResource extends ComboPaymentResource {
                                                     "getPayments",
                                                     payments.getNextOffset(),
                                                     limit,
-                                                    Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
+                                                    Map.of(QUERY_SEARCH_KEYSET, keyset.toString(),
+                                                           QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Collections.emptyMap());
-        final AtomicReference<Map<UUID, AccountAuditLogs>> accountsAuditLogs = new AtomicReference<>(new HashMap<UUID, AccountAuditLogs>());
 
-        return buildStreamingPaginationResponse(payments,
-                                                payment -> {
-                                                    // Cache audit logs per account
-                                                    if (accountsAuditLogs.get().get(payment.getAccountId()) == null) {
-                                                        accountsAuditLogs.get().put(payment.getAccountId(), auditUserApi.getAccountAuditLogs(payment.getAccountId(), auditMode.getLevel(), tenantContext));
-                                                    }
-                                                    final AccountAuditLogs accountAuditLogs = accountsAuditLogs.get().get(payment.getAccountId());
-                                                    return new PaymentJson(payment, accountAuditLogs);
-                                                },
-                                                nextPageUri
-                                               );
+        return buildBatchedStreamingPaginationResponse(payments,
+                                                       batch -> getPayments(batch, auditMode, tenantContext),
+                                                       nextPageUri);
     }
 
     @TimedResource
@@ -207,6 +206,7 @@ public class PaymentResource extends ComboPaymentResource {
     public Response searchPayments(@PathParam("searchKey") final String searchKey,
                                    @QueryParam(QUERY_SEARCH_OFFSET) @DefaultValue("0") final Long offset,
                                    @QueryParam(QUERY_SEARCH_LIMIT) @DefaultValue("100") final Long limit,
+                                   @QueryParam(QUERY_SEARCH_KEYSET) @DefaultValue("false") final Boolean keyset,
                                    @QueryParam(QUERY_WITH_PLUGIN_INFO) @DefaultValue("false") final Boolean withPluginInfo,
                                    @QueryParam(QUERY_WITH_ATTEMPTS) @DefaultValue("false") final Boolean withAttempts,
                                    @QueryParam(QUERY_PAYMENT_PLUGIN_NAME) final String pluginName,
@@ -219,8 +219,11 @@ public class PaymentResource extends ComboPaymentResource {
         // Search the plugin(s)
         final Pagination<Payment> payments;
         if (Strings.isNullOrEmpty(pluginName)) {
-            payments = paymentApi.searchPayments(searchKey, offset, limit, withPluginInfo, withAttempts, pluginProperties, tenantContext);
+            // Offsets are forwarded as-is to the plugins when searching with plugin info
+            Preconditions.checkArgument(!keyset || !withPluginInfo, "Keyset pagination isn't supported when searching with plugin info");
+            payments = paymentApi.searchPayments(searchKey, offset, limit, withPluginInfo, withAttempts, pluginProperties, getPaginationTenantContext(keyset, tenantContext));
         } else {
+            Preconditions.checkArgument(!keyset, "Keyset pagination isn't supported when searching a specific plugin");
             payments = paymentApi.searchPayments(searchKey, offset, limit, pluginName, withPluginInfo, withAttempts, pluginProperties, tenantContext);
         }
 
@@ -228,22 +231,25 @@ public class PaymentResource extends ComboPaymentResource {
                                                     "searchPayments",
                                                     payments.getNextOffset(),
                                                     limit,
-                                                    Map.of(QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
+                                                    Map.of(QUERY_SEARCH_KEYSET, keyset.toString(),
+                                                           QUERY_PAYMENT_METHOD_PLUGIN_NAME, Strings.nullToEmpty(pluginName),
                                                            QUERY_AUDIT, auditMode.getLevel().toString()),
                                                     Map.of("searchKey", searchKey));
-        final AtomicReference<Map<UUID, AccountAuditLogs>> accountsAuditLogs = new AtomicReference<>(new HashMap<UUID, AccountAuditLogs>());
-
-        return buildStreamingPaginationResponse(payments,
-                                                payment -> {
-                                                    // Cache audit logs per account
-                                                    if (accountsAuditLogs.get().get(payment.getAccountId()) == null) {
-                                                        accountsAuditLogs.get().put(payment.getAccountId(), auditUserApi.getAccountAuditLogs(payment.getAccountId(), auditMode.getLevel(), tenantContext));
-                                                    }
-                                                    final AccountAuditLogs accountAuditLogs = accountsAuditLogs.get().get(payment.getAccountId());
-                                                    return new PaymentJson(payment, accountAuditLogs);
-                                                },
-                                                nextPageUri
-                                               );
+
+        return buildBatchedStreamingPaginationResponse(payments,
+                                                       batch -> getPayments(batch, auditMode, tenantContext),
+                                                       nextPageUri);
+    }
+
+    // PERF: the audit logs of the whole batch (payments, transactions and attempts) are fetched at once, instead of all audit logs of each account
+    private List<PaymentJson> getPayments(final List<Payment> payments, final AuditMode auditMode, final TenantContext tenantContext) {
+        final Map<UUID, AccountAuditLogs> accountsAuditLogs = paginationBatchLoader.getPaymentsAuditLogs(payments, auditMode.getLevel(), tenantContext);
+
+        final List<PaymentJson> result = new ArrayList<PaymentJson>(payments.size());
+        for (final Payment payment : payments) {
+            result.add(new PaymentJson(payment, accountsAuditLogs.get(payment.getAccountId())));
+        }
+        return result;
     }
 
     @TimedResource(name = "completeTransaction")
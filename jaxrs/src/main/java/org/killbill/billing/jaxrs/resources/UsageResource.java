@@ -17,11 +17,18 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
@@ -52,6 +59,7 @@ import org.killbill.billing.jaxrs.util.JaxrsUriBuilder;
 import org.killbill.billing.payment.api.InvoicePaymentApi;
 import org.killbill.billing.payment.api.PaymentApi;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.usage.BulkUsageUserApi;
 import org.killbill.billing.usage.api.RolledUpUsage;
 import org.killbill.billing.usage.api.SubscriptionUsageRecord;
 import org.killbill.billing.usage.api.UsageApiException;
@@ -67,8 +75,13 @@ import org.killbill.commons.utils.Preconditions;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.commons.utils.collect.Iterables;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 
@@ -79,7 +92,11 @@ import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 @Api(value = JaxrsResource.USAGES_PATH, description = "Operations on usage", tags="Usage")
 public class UsageResource extends JaxRsResourceBase {
 
+    // Number of SubscriptionUsageRecord recorded per transaction by the bulk endpoint
+    private static final int BULK_USAGE_BATCH_SIZE = 1000;
+
     private final UsageUserApi usageUserApi;
+    private final BulkUsageUserApi bulkUsageUserApi;
     private final EntitlementApi entitlementApi;
 
     @Inject
@@ -89,6 +106,7 @@ public class UsageResource extends JaxRsResourceBase {
                          final AuditUserApi auditUserApi,
                          final AccountUserApi accountUserApi,
                          final UsageUserApi usageUserApi,
+                         final BulkUsageUserApi bulkUsageUserApi,
                          final PaymentApi paymentApi,
                          final InvoicePaymentApi invoicePaymentApi,
                          final EntitlementApi entitlementApi,
@@ -96,6 +114,7 @@ public class UsageResource extends JaxRsResourceBase {
                          final Context context) {
         super(uriBuilder, tagUserApi, customFieldUserApi, auditUserApi, accountUserApi, paymentApi, invoicePaymentApi, null, clock, context);
         this.usageUserApi = usageUserApi;
+        this.bulkUsageUserApi = bulkUsageUserApi;
         this.entitlementApi = entitlementApi;
     }
 
@@ -114,20 +133,7 @@ public class UsageResource extends JaxRsResourceBase {
                                 @javax.ws.rs.core.Context final UriInfo uriInfo) throws EntitlementApiException,
                                                                                         AccountApiException,
                                                                                         UsageApiException {
-        verifyNonNullOrEmpty(json, "SubscriptionUsageRecordJson body should be specified");
-        verifyNonNullOrEmpty(json.getSubscriptionId(), "SubscriptionUsageRecordJson subscriptionId needs to be set",
-                             json.getUnitUsageRecords(), "SubscriptionUsageRecordJson unitUsageRecords needs to be set");
-        Preconditions.checkArgument(!json.getUnitUsageRecords().isEmpty(), "json.getUnitUsageRecords() is empty");
-
-        for (final UnitUsageRecordJson unitUsageRecordJson : json.getUnitUsageRecords()) {
-            verifyNonNullOrEmpty(unitUsageRecordJson.getUnitType(), "UnitUsageRecordJson unitType need to be set");
-            Preconditions.checkArgument(Iterables.size(unitUsageRecordJson.getUsageRecords()) > 0,
-                                        "UnitUsageRecordJson usageRecords must have at least one element.");
-            for (final UsageRecordJson usageRecordJson : unitUsageRecordJson.getUsageRecords()) {
-                verifyNonNull(usageRecordJson.getAmount(), "UsageRecordJson amount needs to be set");
-                verifyNonNull(usageRecordJson.getRecordDate(), "UsageRecordJson recordDate needs to be set");
-            }
-        }
+        verifyUsageRecord(json);
         final CallContext callContextNoAccount = context.createCallContextNoAccountId(createdBy, reason, comment, request);
         // Verify subscription exists..
         final Entitlement entitlement = entitlementApi.getEntitlementForId(json.getSubscriptionId(), false, callContextNoAccount);
@@ -145,6 +151,120 @@ public class UsageResource extends JaxRsResourceBase {
         return Response.status(Status.CREATED).build();
     }
 
+    @TimedResource
+    @POST
+    @Path("/" + BULK)
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    @ApiOperation(value = "Record usage for multiple subscriptions", response = SubscriptionUsageRecordJson.class, responseContainer = "List",
+                  notes = "The body is a list of SubscriptionUsageRecord, which is read and recorded in batches: records whose trackingId already exists " +
+                          "for their subscription are skipped (and returned), so that a partially recorded request can be retried. If a record is rejected, " +
+                          "the error states how many records (in the order of the body) were recorded before it: none of the following ones are")
+    @ApiResponses(value = {@ApiResponse(code = 201, message = "Successfully recorded usage data change"),
+                           @ApiResponse(code = 400, message = "Invalid body, usage record or subscription (e.g. inactive)")})
+    public Response recordBulkUsage(@ApiParam(value = "List of SubscriptionUsageRecord", required = true) final InputStream body,
+                                    @HeaderParam(HDR_CREATED_BY) final String createdBy,
+                                    @HeaderParam(HDR_REASON) final String reason,
+                                    @HeaderParam(HDR_COMMENT) final String comment,
+                                    @javax.ws.rs.core.Context final HttpServletRequest request,
+                                    @javax.ws.rs.core.Context final UriInfo uriInfo) throws IOException {
+        final CallContext callContextNoAccount = context.createCallContextNoAccountId(createdBy, reason, comment, request);
+
+        // Effective end date (if any) of the subscriptions seen so far
+        final Map<UUID, DateTime> effectiveEndDates = new HashMap<>();
+        final List<SubscriptionUsageRecord> records = new ArrayList<>(BULK_USAGE_BATCH_SIZE);
+        final List<SubscriptionUsageRecordJson> skippedRecords = new LinkedList<>();
+        // Records of the batches already committed: batches are recorded in the order of the body
+        int nbRecordedRecords = 0;
+        // Don't materialize the whole body, it can contain a lot of usage points
+        try (final JsonParser parser = mapper.getFactory().createParser(body)) {
+            JsonToken token = nextToken(parser, nbRecordedRecords);
+            if (token != JsonToken.START_ARRAY) {
+                throw rejectBulkUsage("body should be a list of SubscriptionUsageRecordJson", nbRecordedRecords, null);
+            }
+            while ((token = nextToken(parser, nbRecordedRecords)) == JsonToken.START_OBJECT) {
+                final SubscriptionUsageRecordJson json;
+                try {
+                    json = mapper.readValue(parser, SubscriptionUsageRecordJson.class);
+                    verifyUsageRecord(json);
+                } catch (final JsonProcessingException | IllegalArgumentException e) {
+                    throw rejectBulkUsage("invalid record #" + (nbRecordedRecords + records.size() + 1), nbRecordedRecords, e);
+                }
+
+                if (!effectiveEndDates.containsKey(json.getSubscriptionId())) {
+                    try {
+                        final Entitlement entitlement = entitlementApi.getEntitlementForId(json.getSubscriptionId(), false, callContextNoAccount);
+                        effectiveEndDates.put(json.getSubscriptionId(), entitlement.getEffectiveEndDate());
+                    } catch (final EntitlementApiException e) {
+                        throw rejectBulkUsage("invalid subscription " + json.getSubscriptionId(), nbRecordedRecords, e);
+                    }
+                }
+                final DateTime effectiveEndDate = effectiveEndDates.get(json.getSubscriptionId());
+                if (effectiveEndDate != null && effectiveEndDate.compareTo(getHighestRecordDate(json.getUnitUsageRecords())) < 0) {
+                    throw rejectBulkUsage("subscription " + json.getSubscriptionId() + " is inactive after " + effectiveEndDate, nbRecordedRecords, null);
+                }
+
+                records.add(json.toSubscriptionUsageRecord());
+                if (records.size() == BULK_USAGE_BATCH_SIZE) {
+                    nbRecordedRecords += recordBulkUsage(records, skippedRecords, callContextNoAccount);
+                }
+            }
+
+            // Don't record the last batch of a truncated body or of a body followed by something else
+            if (token != JsonToken.END_ARRAY || nextToken(parser, nbRecordedRecords) != null) {
+                throw rejectBulkUsage("body should only contain a list of SubscriptionUsageRecordJson", nbRecordedRecords, null);
+            }
+        }
+        recordBulkUsage(records, skippedRecords, callContextNoAccount);
+
+        return Response.status(Status.CREATED).entity(skippedRecords).build();
+    }
+
+    private JsonToken nextToken(final JsonParser parser, final int nbRecordedRecords) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (final JsonProcessingException e) {
+            throw rejectBulkUsage("malformed body", nbRecordedRecords, e);
+        }
+    }
+
+    // Mapped to a 400 by IllegalArgumentExceptionMapper
+    private IllegalArgumentException rejectBulkUsage(final String reason, final int nbRecordedRecords, @Nullable final Exception cause) {
+        final String message = String.format("Usage rejected (%s%s): the first %s record(s) were recorded, none of the following ones",
+                                             reason, cause == null ? "" : ": " + cause.getMessage(), nbRecordedRecords);
+        return new IllegalArgumentException(message, cause);
+    }
+
+    private int recordBulkUsage(final List<SubscriptionUsageRecord> records, final Collection<SubscriptionUsageRecordJson> skippedRecords, final CallContext callContext) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        for (final SubscriptionUsageRecord skippedRecord : bulkUsageUserApi.recordRolledUpUsage(records, callContext)) {
+            skippedRecords.add(new SubscriptionUsageRecordJson(skippedRecord));
+        }
+        final int nbRecords = records.size();
+        records.clear();
+        return nbRecords;
+    }
+
+    private void verifyUsageRecord(final SubscriptionUsageRecordJson json) {
+        verifyNonNullOrEmpty(json, "SubscriptionUsageRecordJson body should be specified");
+        verifyNonNullOrEmpty(json.getSubscriptionId(), "SubscriptionUsageRecordJson subscriptionId needs to be set",
+                             json.getUnitUsageRecords(), "SubscriptionUsageRecordJson unitUsageRecords needs to be set");
+        Preconditions.checkArgument(!json.getUnitUsageRecords().isEmpty(), "json.getUnitUsageRecords() is empty");
+
+        for (final UnitUsageRecordJson unitUsageRecordJson : json.getUnitUsageRecords()) {
+            verifyNonNullOrEmpty(unitUsageRecordJson.getUnitType(), "UnitUsageRecordJson unitType need to be set");
+            Preconditions.checkArgument(Iterables.size(unitUsageRecordJson.getUsageRecords()) > 0,
+                                        "UnitUsageRecordJson usageRecords must have at least one element.");
+            for (final UsageRecordJson usageRecordJson : unitUsageRecordJson.getUsageRecords()) {
+                verifyNonNull(usageRecordJson.getAmount(), "UsageRecordJson amount needs to be set");
+                verifyNonNull(usageRecordJson.getRecordDate(), "UsageRecordJson recordDate needs to be set");
+            }
+        }
+    }
+
     @VisibleForTesting
     DateTime getHighestRecordDate(final List<UnitUsageRecordJson> records) {
         return records.stream()
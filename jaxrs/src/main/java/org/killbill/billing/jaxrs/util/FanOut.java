@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a group of callables on an executor and hands them back as they complete, under a single deadline for the whole group.
+ * <p>
+ * The first failure is surfaced immediately (callables submitted afterwards aren't run) and cancelAll interrupts whatever is left:
+ * callers are expected to invoke it in a finally block. With a same-thread executor, callables simply run one after the other on submit.
+ */
+public class FanOut {
+
+    private final Executor executor;
+    private final long deadlineNanos;
+    private final List<FutureTask<?>> tasks = new ArrayList<FutureTask<?>>();
+    private final BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<Future<?>>();
+
+    private volatile boolean failed = false;
+    private int nbAwaited = 0;
+
+    public FanOut(final Executor executor, final long timeoutMillis) {
+        this.executor = executor;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    public <T> Future<T> submit(final Callable<T> callable) {
+        final FutureTask<T> task = new FutureTask<T>(callable) {
+            @Override
+            protected void done() {
+                // Enqueue first, so that the failure is always awaited before the callables skipped because of it
+                completed.add(this);
+                if (!isCancelled()) {
+                    try {
+                        get();
+                    } catch (final ExecutionException e) {
+                        failed = true;
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        tasks.add(task);
+
+        if (failed) {
+            // No point in running it, the group already failed
+            task.cancel(false);
+        } else {
+            executor.execute(task);
+        }
+        return task;
+    }
+
+    /**
+     * Waits for the next callable to complete.
+     *
+     * @return the completed future (its result is immediately available), or null if all callables have been awaited
+     * @throws ExecutionException if that callable failed
+     * @throws TimeoutException   if the deadline expired first
+     */
+    public Future<?> awaitNext() throws ExecutionException, TimeoutException, InterruptedException {
+        if (nbAwaited == tasks.size()) {
+            return null;
+        }
+
+        final long remainingNanos = deadlineNanos - System.nanoTime();
+        final Future<?> next = remainingNanos > 0 ? completed.poll(remainingNanos, TimeUnit.NANOSECONDS) : completed.poll();
+        if (next == null) {
+            throw new TimeoutException();
+        }
+        nbAwaited++;
+
+        if (!next.isCancelled()) {
+            // Surface the failure, if any
+            next.get();
+        }
+        return next;
+    }
+
+    public void awaitAll() throws ExecutionException, TimeoutException, InterruptedException {
+        while (awaitNext() != null) {
+            // Keep waiting
+        }
+    }
+
+    public void cancelAll() {
+        for (final FutureTask<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+}
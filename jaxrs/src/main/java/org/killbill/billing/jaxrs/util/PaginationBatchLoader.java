@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.audit.AuditInternalApi;
+import org.killbill.billing.invoice.api.Invoice;
+import org.killbill.billing.invoice.api.InvoiceInternalApi;
+import org.killbill.billing.invoice.api.InvoiceItem;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.payment.api.PaymentAttempt;
+import org.killbill.billing.payment.api.PaymentTransaction;
+import org.killbill.billing.util.api.AuditLevel;
+import org.killbill.billing.util.audit.AccountAuditLogs;
+import org.killbill.billing.util.audit.AuditLog;
+import org.killbill.billing.util.audit.DefaultAccountAuditLogs;
+import org.killbill.billing.util.callcontext.TenantContext;
+
+/**
+ * Fetches in bulk what the paginated listings render, for each batch of
+ * {@link org.killbill.billing.jaxrs.resources.JaxRsResourceBase#buildBatchedStreamingPaginationResponse}: one IN-list query per kind
+ * of data instead of one query per row.
+ * <p>
+ * The user APIs only have per-object lookups, hence the bulk internal APIs are wrapped here rather than injected in the resources.
+ */
+@Singleton
+public class PaginationBatchLoader {
+
+    private final InvoiceInternalApi invoiceInternalApi;
+    private final AuditInternalApi auditInternalApi;
+
+    @Inject
+    public PaginationBatchLoader(final InvoiceInternalApi invoiceInternalApi, final AuditInternalApi auditInternalApi) {
+        this.invoiceInternalApi = invoiceInternalApi;
+        this.auditInternalApi = auditInternalApi;
+    }
+
+    public Map<UUID, AccountAuditLogs> getAccountsAuditLogs(final Collection<Account> accounts, final AuditLevel auditLevel, final TenantContext context) {
+        final Map<UUID, UUID> accountIdsByObjectId = new HashMap<UUID, UUID>();
+        for (final Account account : accounts) {
+            accountIdsByObjectId.put(account.getId(), account.getId());
+        }
+        return toAccountAuditLogs(accountIdsByObjectId,
+                                  auditLevel,
+                                  List.of(auditInternalApi.getAuditLogsForIds(accountIdsByObjectId.keySet(), ObjectType.ACCOUNT, auditLevel, context)));
+    }
+
+    // Audit logs of the invoices and their items, keyed by account id
+    public Map<UUID, AccountAuditLogs> getInvoicesAuditLogs(final Collection<Invoice> invoices, final AuditLevel auditLevel, final TenantContext context) {
+        final Map<UUID, UUID> accountIdsByObjectId = new HashMap<UUID, UUID>();
+        final List<UUID> invoiceIds = new ArrayList<UUID>(invoices.size());
+        final List<UUID> invoiceItemIds = new ArrayList<UUID>();
+        for (final Invoice invoice : invoices) {
+            invoiceIds.add(invoice.getId());
+            accountIdsByObjectId.put(invoice.getId(), invoice.getAccountId());
+            for (final InvoiceItem invoiceItem : invoice.getInvoiceItems()) {
+                invoiceItemIds.add(invoiceItem.getId());
+                accountIdsByObjectId.put(invoiceItem.getId(), invoice.getAccountId());
+            }
+        }
+        return toAccountAuditLogs(accountIdsByObjectId,
+                                  auditLevel,
+                                  List.of(auditInternalApi.getAuditLogsForIds(invoiceIds, ObjectType.INVOICE, auditLevel, context),
+                                          auditInternalApi.getAuditLogsForIds(invoiceItemIds, ObjectType.INVOICE_ITEM, auditLevel, context)));
+    }
+
+    // Audit logs of the payments, their transactions and attempts, keyed by account id
+    public Map<UUID, AccountAuditLogs> getPaymentsAuditLogs(final Collection<Payment> payments, final AuditLevel auditLevel, final TenantContext context) {
+        final Map<UUID, UUID> accountIdsByObjectId = new HashMap<UUID, UUID>();
+        final List<UUID> paymentIds = new ArrayList<UUID>(payments.size());
+        final List<UUID> paymentTransactionIds = new ArrayList<UUID>();
+        final List<UUID> paymentAttemptIds = new ArrayList<UUID>();
+        for (final Payment payment : payments) {
+            paymentIds.add(payment.getId());
+            accountIdsByObjectId.put(payment.getId(), payment.getAccountId());
+            for (final PaymentTransaction paymentTransaction : payment.getTransactions()) {
+                paymentTransactionIds.add(paymentTransaction.getId());
+                accountIdsByObjectId.put(paymentTransaction.getId(), payment.getAccountId());
+            }
+            if (payment.getPaymentAttempts() != null) {
+                for (final PaymentAttempt paymentAttempt : payment.getPaymentAttempts()) {
+                    paymentAttemptIds.add(paymentAttempt.getId());
+                    accountIdsByObjectId.put(paymentAttempt.getId(), payment.getAccountId());
+                }
+            }
+        }
+        return toAccountAuditLogs(accountIdsByObjectId,
+                                  auditLevel,
+                                  List.of(auditInternalApi.getAuditLogsForIds(paymentIds, ObjectType.PAYMENT, auditLevel, context),
+                                          auditInternalApi.getAuditLogsForIds(paymentTransactionIds, ObjectType.TRANSACTION, auditLevel, context),
+                                          auditInternalApi.getAuditLogsForIds(paymentAttemptIds, ObjectType.PAYMENT_ATTEMPT, auditLevel, context)));
+    }
+
+    public Map<UUID, BigDecimal> getAccountBalances(final Collection<UUID> accountIds, final TenantContext context) {
+        return invoiceInternalApi.getAccountBalances(accountIds, context);
+    }
+
+    public Map<UUID, BigDecimal> getAccountCBAs(final Collection<UUID> accountIds, final TenantContext context) {
+        return invoiceInternalApi.getAccountCBAs(accountIds, context);
+    }
+
+    // Wraps the audit logs fetched in bulk (one map per object type) as AccountAuditLogs, so that they can be passed to the Json constructors
+    private static Map<UUID, AccountAuditLogs> toAccountAuditLogs(final Map<UUID, UUID> accountIdsByObjectId,
+                                                                 final AuditLevel auditLevel,
+                                                                 final Collection<Map<UUID, List<AuditLog>>> auditLogsByObjectIds) {
+        final Map<UUID, List<AuditLog>> auditLogsByAccountId = new HashMap<UUID, List<AuditLog>>();
+        for (final UUID accountId : accountIdsByObjectId.values()) {
+            auditLogsByAccountId.put(accountId, new ArrayList<AuditLog>());
+        }
+        for (final Map<UUID, List<AuditLog>> auditLogsByObjectId : auditLogsByObjectIds) {
+            for (final Map.Entry<UUID, List<AuditLog>> entry : auditLogsByObjectId.entrySet()) {
+                auditLogsByAccountId.get(accountIdsByObjectId.get(entry.getKey())).addAll(entry.getValue());
+            }
+        }
+
+        final Map<UUID, AccountAuditLogs> result = new HashMap<UUID, AccountAuditLogs>();
+        for (final Map.Entry<UUID, List<AuditLog>> entry : auditLogsByAccountId.entrySet()) {
+            result.put(entry.getKey(), new DefaultAccountAuditLogs(entry.getKey(), auditLevel, entry.getValue().iterator()));
+        }
+        return result;
+    }
+}
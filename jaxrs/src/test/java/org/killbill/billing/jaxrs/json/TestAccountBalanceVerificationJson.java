@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.json;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestAccountBalanceVerificationJson extends JaxrsTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testJson() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final AccountBalanceVerificationJson verificationJson = new AccountBalanceVerificationJson(accountId,
+                                                                                                   new BigDecimal("12.5"),
+                                                                                                   BigDecimal.ZERO,
+                                                                                                   new BigDecimal("10"),
+                                                                                                   BigDecimal.ZERO,
+                                                                                                   false);
+        Assert.assertEquals(verificationJson.getAccountId(), accountId);
+        Assert.assertEquals(verificationJson.getStoredBalance().compareTo(new BigDecimal("12.5")), 0);
+        Assert.assertEquals(verificationJson.getBalance().compareTo(BigDecimal.TEN), 0);
+        Assert.assertFalse(verificationJson.isConsistent());
+
+        final String asJson = mapper.writeValueAsString(verificationJson);
+        Assert.assertTrue(asJson.contains("\"isConsistent\":false"));
+        final AccountBalanceVerificationJson fromJson = mapper.readValue(asJson, AccountBalanceVerificationJson.class);
+        Assert.assertEquals(fromJson, verificationJson);
+    }
+
+    @Test(groups = "fast")
+    public void testJsonWithInvalidatedBalance() throws Exception {
+        final AccountBalanceVerificationJson verificationJson = new AccountBalanceVerificationJson(UUID.randomUUID(), null, null, BigDecimal.ONE, BigDecimal.ZERO, true);
+
+        final String asJson = mapper.writeValueAsString(verificationJson);
+        final AccountBalanceVerificationJson fromJson = mapper.readValue(asJson, AccountBalanceVerificationJson.class);
+        Assert.assertNull(fromJson.getStoredBalance());
+        Assert.assertNull(fromJson.getStoredCBA());
+        Assert.assertEquals(fromJson, verificationJson);
+    }
+}
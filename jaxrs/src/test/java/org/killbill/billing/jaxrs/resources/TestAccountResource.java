@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.account.api.AccountUserApi;
+import org.killbill.billing.entitlement.api.SubscriptionApi;
+import org.killbill.billing.invoice.api.InvoiceUserApi;
+import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.killbill.billing.jaxrs.util.Context;
+import org.killbill.billing.payment.api.InvoicePaymentApi;
+import org.killbill.billing.payment.api.PaymentApi;
+import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.api.AuditUserApi;
+import org.killbill.billing.util.audit.AccountAuditLogs;
+import org.killbill.billing.util.config.definition.JaxrsConfig;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestAccountResource extends JaxrsTestSuiteNoDB {
+
+    private HttpServletRequest servletRequest;
+    private AccountUserApi accountUserApi;
+    private InvoiceUserApi invoiceUserApi;
+    private InvoicePaymentApi invoicePaymentApi;
+    private PaymentApi paymentApi;
+    private AuditUserApi auditUserApi;
+    private SubscriptionApi subscriptionApi;
+    private JaxrsConfig jaxrsConfig;
+    private Context context;
+    private UUID accountId;
+
+    @BeforeMethod(groups = "fast")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        servletRequest = mock(HttpServletRequest.class);
+        accountUserApi = mock(AccountUserApi.class);
+        invoiceUserApi = mock(InvoiceUserApi.class);
+        invoicePaymentApi = mock(InvoicePaymentApi.class);
+        paymentApi = mock(PaymentApi.class);
+        auditUserApi = mock(AuditUserApi.class);
+        subscriptionApi = mock(SubscriptionApi.class);
+        jaxrsConfig = mock(JaxrsConfig.class);
+        context = mock(Context.class);
+
+        accountId = UUIDs.randomUUID();
+        final Account account = mock(Account.class);
+        when(account.getId()).thenReturn(accountId);
+        when(accountUserApi.getAccountById(any(), any())).thenReturn(account);
+        when(auditUserApi.getAccountAuditLogs(any(), any(), any())).thenReturn(mock(AccountAuditLogs.class));
+        when(subscriptionApi.getSubscriptionBundlesForAccountId(any(), any())).thenReturn(Collections.emptyList());
+        when(invoiceUserApi.getInvoicesByAccount(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenReturn(Collections.emptyList());
+        when(invoicePaymentApi.getInvoicePaymentsByAccount(any(), any())).thenReturn(Collections.emptyList());
+        when(paymentApi.getAccountPayments(any(), anyBoolean(), anyBoolean(), any(), any())).thenReturn(Collections.emptyList());
+        when(jaxrsConfig.getJaxrsTimeout()).thenReturn(new TimeSpan("30s"));
+    }
+
+    private AccountResource createAccountResource() {
+        return new AccountResource(null, // uriBuilder
+                                   accountUserApi,
+                                   invoiceUserApi,
+                                   invoicePaymentApi,
+                                   paymentApi,
+                                   null, // tagUserApi
+                                   auditUserApi,
+                                   null, // customFieldUserApi
+                                   subscriptionApi,
+                                   null, // overdueApi
+                                   null, // clock
+                                   null, // jaxrsExecutors
+                                   jaxrsConfig,
+                                   context,
+                                   null, // recordIdApi
+                                   null, // notificationQueueService
+                                   null); // paginationBatchLoader
+    }
+
+    @Test(groups = "fast")
+    public void testStreamAccountTimeline() throws Exception {
+        final JsonNode timeline = streamAccountTimeline();
+
+        Assert.assertEquals(timeline.get("account").get("accountId").asText(), accountId.toString());
+        Assert.assertEquals(timeline.get("bundles").size(), 0);
+        Assert.assertEquals(timeline.get("invoices").size(), 0);
+        Assert.assertEquals(timeline.get("payments").size(), 0);
+        Assert.assertFalse(timeline.has("error"));
+    }
+
+    @Test(groups = "fast")
+    public void testStreamAccountTimelineWithFailure() throws Exception {
+        when(invoiceUserApi.getInvoicesByAccount(any(), anyBoolean(), anyBoolean(), anyBoolean(), any())).thenThrow(new IllegalStateException("Invoices are unavailable"));
+
+        // The sections retrieved before the failure are kept and the body is still a valid document
+        final JsonNode timeline = streamAccountTimeline();
+
+        Assert.assertEquals(timeline.get("account").get("accountId").asText(), accountId.toString());
+        Assert.assertEquals(timeline.get("bundles").size(), 0);
+        Assert.assertFalse(timeline.has("invoices"));
+        Assert.assertFalse(timeline.has("payments"));
+        Assert.assertEquals(timeline.get("error").get("className").asText(), IllegalStateException.class.getName());
+        Assert.assertEquals(timeline.get("error").get("message").asText(), "Invoices are unavailable");
+    }
+
+    private JsonNode streamAccountTimeline() throws Exception {
+        final Response response = createAccountResource().getAccountTimeline(accountId, false, new AuditMode("NONE"), true, servletRequest);
+        Assert.assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return mapper.readTree(output.toByteArray());
+    }
+}
@@ -68,7 +68,8 @@ public class TestInvoiceResource extends JaxrsTestSuiteNoDB {
                 null,
                 auditUserApi,
                 null,
-                context
+                context,
+                null
         );
         return Mockito.spy(toSpy);
     }
@@ -17,24 +17,33 @@
 
 package org.killbill.billing.jaxrs.resources;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
 import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.killbill.billing.jaxrs.json.CustomFieldJson;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.util.UUIDs;
 import org.killbill.billing.util.api.CustomFieldApiException;
 import org.killbill.billing.util.api.CustomFieldUserApi;
 import org.killbill.commons.utils.collect.Iterables;
 import org.killbill.billing.util.customfield.CustomField;
+import org.killbill.billing.util.entity.Pagination;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
 public class TestJaxRsResourceBase extends JaxrsTestSuiteNoDB {
 
     private CustomFieldUserApi customFieldUserApi;
@@ -167,4 +176,44 @@ public class TestJaxRsResourceBase extends JaxrsTestSuiteNoDB {
 
         Mockito.verify(customFieldUserApi, Mockito.times(1)).removeCustomFields(Mockito.anyList(), Mockito.any());
     }
+
+    @Test(groups = "fast")
+    public void testBuildBatchedStreamingPaginationResponse() throws Exception {
+        // Two full batches and a partial one
+        final List<CustomField> customFields = new ArrayList<>();
+        for (int i = 0; i < 2 * JaxRsResourceBase.STREAMING_PAGINATION_BATCH_SIZE + 10; i++) {
+            final CustomField customField = Mockito.mock(CustomField.class);
+            Mockito.when(customField.getId()).thenReturn(UUIDs.randomUUID());
+            Mockito.when(customField.getFieldName()).thenReturn(String.valueOf(i));
+            customFields.add(customField);
+        }
+        final Pagination<CustomField> pagination = Mockito.mock(Pagination.class);
+        Mockito.when(pagination.iterator()).thenReturn(customFields.iterator());
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        final JaxRsResourceBase base = createJaxRsResourceBase();
+        final Response response = base.buildBatchedStreamingPaginationResponse(pagination,
+                                                                               batch -> {
+                                                                                   batchSizes.add(batch.size());
+                                                                                   final List<CustomFieldJson> result = new ArrayList<>();
+                                                                                   for (final CustomField customField : batch) {
+                                                                                       // Null entries are skipped
+                                                                                       result.add(customField.getFieldName().endsWith("5") ? null : new CustomFieldJson(customField, null));
+                                                                                   }
+                                                                                   return result;
+                                                                               },
+                                                                               null);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+
+        Assert.assertEquals(batchSizes, List.of(JaxRsResourceBase.STREAMING_PAGINATION_BATCH_SIZE, JaxRsResourceBase.STREAMING_PAGINATION_BATCH_SIZE, 10));
+        final List<Map<String, Object>> rendered = JaxRsResourceBase.mapper.readValue(output.toByteArray(), new TypeReference<List<Map<String, Object>>>() {});
+        final List<String> expectedNames = customFields.stream()
+                                                       .map(CustomField::getFieldName)
+                                                       .filter(name -> !name.endsWith("5"))
+                                                       .collect(Collectors.toUnmodifiableList());
+        Assert.assertEquals(rendered.stream().map(json -> (String) json.get("name")).collect(Collectors.toUnmodifiableList()), expectedNames);
+        Mockito.verify(pagination, Mockito.times(1)).close();
+    }
 }
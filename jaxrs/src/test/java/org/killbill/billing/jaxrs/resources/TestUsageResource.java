@@ -39,6 +39,7 @@ public class TestUsageResource extends JaxrsTestSuiteNoDB {
                 null, // auditUserApi
                 null, // accountUserApi
                 null, // usageUserApi
+                null, // bulkUsageUserApi
                 null, // paymentApi
                 null, // invoicePaymentApi
                 null, // entitlementApi
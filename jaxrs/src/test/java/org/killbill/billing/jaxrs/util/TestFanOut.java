@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.jaxrs.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.killbill.billing.jaxrs.JaxrsTestSuiteNoDB;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestFanOut extends JaxrsTestSuiteNoDB {
+
+    private ExecutorService executor;
+
+    @BeforeClass(groups = "fast")
+    public void setUpExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass(groups = "fast")
+    public void tearDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test(groups = "fast")
+    public void testAwaitAll() throws Exception {
+        final FanOut fanOut = new FanOut(executor, 10000);
+        final Future<Integer> first = fanOut.submit(() -> 1);
+        final Future<String> second = fanOut.submit(() -> "two");
+        fanOut.awaitAll();
+
+        Assert.assertEquals((int) first.get(), 1);
+        Assert.assertEquals(second.get(), "two");
+        Assert.assertNull(fanOut.awaitNext());
+    }
+
+    @Test(groups = "fast")
+    public void testTimeoutAndCancellation() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FanOut fanOut = new FanOut(executor, 50);
+        final Future<Boolean> slow = fanOut.submit(() -> latch.await() && false);
+        try {
+            fanOut.awaitAll();
+            Assert.fail();
+        } catch (final TimeoutException e) {
+            fanOut.cancelAll();
+        }
+        Assert.assertTrue(slow.isCancelled());
+    }
+
+    @Test(groups = "fast")
+    public void testFailureStopsSequentialRun() throws Exception {
+        final AtomicBoolean secondRan = new AtomicBoolean(false);
+        final FanOut fanOut = new FanOut(Runnable::run, 10000);
+        fanOut.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        final Future<Boolean> second = fanOut.submit(() -> secondRan.getAndSet(true));
+        try {
+            fanOut.awaitAll();
+            Assert.fail();
+        } catch (final ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertFalse(secondRan.get());
+        Assert.assertTrue(second.isCancelled());
+    }
+}
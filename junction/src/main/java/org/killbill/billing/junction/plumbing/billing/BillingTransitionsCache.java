@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.junction.plumbing.billing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PriceOverrideSvcStatus;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseApiException;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseTransition;
+import org.killbill.billing.subscription.api.user.SubscriptionBillingEvent;
+import org.killbill.billing.util.config.definition.JunctionConfig;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+
+/**
+ * Per-node cache of the billing transitions computed for each subscription of an account (the expensive, catalog-driven, part of
+ * the billing events computation).
+ * <p/>
+ * Entries are validated against the subscription freshly loaded by the caller rather than invalidated through bus events, which
+ * are only delivered to one node of the cluster: a subscription whose set of events changed (new event, deactivated event, different
+ * effective date, plan now or no longer overridden) is recomputed, while the other subscriptions of the account are served from the cache.
+ * All entries for an account are dropped when the catalog (new tenant catalog version) or the account BCD changes, and entries for
+ * subscriptions no longer returned for the account (e.g. cancelled before the cutoff date) are dropped after each computation.
+ */
+public class BillingTransitionsCache {
+
+    private final boolean enabled;
+    private final Map<UUID, AccountBillingTransitions> billingTransitionsPerAccount;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Inject
+    public BillingTransitionsCache(final JunctionConfig junctionConfig, final MetricRegistry metricRegistry) {
+        this.enabled = junctionConfig.isBillingEventsCacheEnabled();
+        final int maxAccounts = junctionConfig.getBillingEventsCacheMaxAccounts();
+        this.billingTransitionsPerAccount = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<UUID, AccountBillingTransitions> eldest) {
+                return size() > maxAccounts;
+            }
+        };
+        this.hits = metricRegistry.counter("killbill.junction.billingTransitionsCache.hits");
+        this.misses = metricRegistry.counter("killbill.junction.billingTransitionsCache.misses");
+    }
+
+    public List<SubscriptionBillingEvent> getSubscriptionBillingEvents(final UUID accountId,
+                                                                       final int accountBCD,
+                                                                       final VersionedCatalog catalog,
+                                                                       final PriceOverrideSvcStatus priceOverrideSvcStatus,
+                                                                       final SubscriptionBase subscription,
+                                                                       final BillingTransitionsLoader loader) throws SubscriptionBaseApiException {
+        if (!enabled) {
+            return loader.load();
+        }
+
+        final AccountBillingTransitions accountBillingTransitions = getAccountBillingTransitions(accountId, accountBCD, catalog);
+        final List<Object> fingerprint = computeFingerprint(subscription, priceOverrideSvcStatus);
+        final CachedBillingTransitions cached = accountBillingTransitions.perSubscription.get(subscription.getId());
+        if (cached != null && cached.fingerprint.equals(fingerprint)) {
+            hits.inc(1);
+            return cached.billingTransitions;
+        }
+
+        misses.inc(1);
+        final List<SubscriptionBillingEvent> billingTransitions = List.copyOf(loader.load());
+        accountBillingTransitions.perSubscription.put(subscription.getId(), new CachedBillingTransitions(fingerprint, billingTransitions));
+        return billingTransitions;
+    }
+
+    public void retainSubscriptions(final UUID accountId, final Set<UUID> subscriptionIds) {
+        if (!enabled) {
+            return;
+        }
+
+        final AccountBillingTransitions accountBillingTransitions;
+        synchronized (billingTransitionsPerAccount) {
+            accountBillingTransitions = billingTransitionsPerAccount.get(accountId);
+        }
+        if (accountBillingTransitions != null) {
+            accountBillingTransitions.perSubscription.keySet().retainAll(subscriptionIds);
+        }
+    }
+
+    private AccountBillingTransitions getAccountBillingTransitions(final UUID accountId, final int accountBCD, final VersionedCatalog catalog) {
+        synchronized (billingTransitionsPerAccount) {
+            AccountBillingTransitions accountBillingTransitions = billingTransitionsPerAccount.get(accountId);
+            // Catalog instances are cached per tenant, a different instance means a new catalog version was uploaded
+            if (accountBillingTransitions == null ||
+                accountBillingTransitions.catalog != catalog ||
+                accountBillingTransitions.accountBCD != accountBCD) {
+                accountBillingTransitions = new AccountBillingTransitions(catalog, accountBCD);
+                billingTransitionsPerAccount.put(accountId, accountBillingTransitions);
+            }
+            return accountBillingTransitions;
+        }
+    }
+
+    private static List<Object> computeFingerprint(final SubscriptionBase subscription, final PriceOverrideSvcStatus priceOverrideSvcStatus) {
+        final List<SubscriptionBaseTransition> transitions = subscription.getAllTransitions(false);
+        final List<Object> fingerprint = new ArrayList<>(3 * transitions.size());
+        for (final SubscriptionBaseTransition transition : transitions) {
+            fingerprint.add(transition.getNextEventId());
+            fingerprint.add(transition.getEffectiveTransitionTime());
+            // The catalog effective date of the billing events depends on it (see DefaultSubscriptionBase#getSubscriptionBillingEvents)
+            final Plan nextPlan = transition.getNextPlan();
+            fingerprint.add(nextPlan != null && priceOverrideSvcStatus.isOverriddenPlan(nextPlan.getName()));
+        }
+        return fingerprint;
+    }
+
+    public interface BillingTransitionsLoader {
+
+        List<SubscriptionBillingEvent> load() throws SubscriptionBaseApiException;
+    }
+
+    private static final class AccountBillingTransitions {
+
+        private final VersionedCatalog catalog;
+        private final int accountBCD;
+        private final Map<UUID, CachedBillingTransitions> perSubscription;
+
+        private AccountBillingTransitions(final VersionedCatalog catalog, final int accountBCD) {
+            this.catalog = catalog;
+            this.accountBCD = accountBCD;
+            this.perSubscription = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static final class CachedBillingTransitions {
+
+        private final List<Object> fingerprint;
+        private final List<SubscriptionBillingEvent> billingTransitions;
+
+        private CachedBillingTransitions(final List<Object> fingerprint, final List<SubscriptionBillingEvent> billingTransitions) {
+            this.fingerprint = fingerprint;
+            this.billingTransitions = billingTransitions;
+        }
+    }
+}
@@ -75,18 +75,21 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
     private final CatalogInternalApi catalogInternalApi;
     private final BlockingCalculator blockCalculator;
     private final TagInternalApi tagApi;
+    private final BillingTransitionsCache billingTransitionsCache;
 
     @Inject
     public DefaultInternalBillingApi(final AccountInternalApi accountApi,
                                      final SubscriptionBaseInternalApi subscriptionApi,
                                      final BlockingCalculator blockCalculator,
                                      final CatalogInternalApi catalogInternalApi,
-                                     final TagInternalApi tagApi) {
+                                     final TagInternalApi tagApi,
+                                     final BillingTransitionsCache billingTransitionsCache) {
         this.accountApi = accountApi;
         this.subscriptionApi = subscriptionApi;
         this.catalogInternalApi = catalogInternalApi;
         this.blockCalculator = blockCalculator;
         this.tagApi = tagApi;
+        this.billingTransitionsCache = billingTransitionsCache;
     }
 
     @Override
@@ -113,6 +116,9 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
         final ImmutableAccountData account = accountApi.getImmutableAccountDataById(accountId, context);
         result = new DefaultBillingEventSet(found_AUTO_INVOICING_OFF, found_INVOICING_DRAFT, found_INVOICING_REUSE_DRAFT);
         addBillingEventsForBundles(account, dryRunArguments, context, result, skippedSubscriptions, subscriptionsForAccount, fullCatalog, tagsForAccount);
+        if (dryRunArguments == null) {
+            billingTransitionsCache.retainSubscriptions(accountId, getSubscriptionIds(subscriptionsForAccount));
+        }
         if (result.isEmpty()) {
             log.info("No billing event for accountId='{}'", accountId);
             return result;
@@ -189,7 +195,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
             dryRunArguments.getBundleId() == null) {
             final UUID fakeBundleId = UUIDs.randomUUID();
             final List<SubscriptionBase> subscriptions = subscriptionApi.getSubscriptionsForBundle(fakeBundleId, dryRunArguments, context);
-            addBillingEventsForSubscription(account, subscriptions, null, currentAccountBCD, context, result, skipSubscriptionsSet, catalog);
+            addBillingEventsForSubscription(account, subscriptions, null, currentAccountBCD, false, context, result, skipSubscriptionsSet, catalog);
         }
 
         for (final UUID bundleId : subscriptionsForAccount.keySet()) {
@@ -199,7 +205,8 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                                              dryRunArguments : null;
             final List<SubscriptionBase> subscriptions;
             // In dryRun mode, optimization is intentionally left as is, since is not a common path.
-            if (dryRunArgumentsForBundle == null || dryRunArgumentsForBundle.getAction() == null) {
+            final boolean isDryRunBundle = dryRunArgumentsForBundle != null && dryRunArgumentsForBundle.getAction() != null;
+            if (!isDryRunBundle) {
                 subscriptions = getSubscriptionsForAccountByBundleId(subscriptionsForAccount, bundleId);
             } else {
                 subscriptions = subscriptionApi.getSubscriptionsForBundle(bundleId, dryRunArgumentsForBundle, context);
@@ -214,7 +221,8 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                 }
             } else { // billing is not off
                 final SubscriptionBase baseSubscription = subscriptions != null && !subscriptions.isEmpty() ? subscriptions.get(0) : null;
-                addBillingEventsForSubscription(account, subscriptions, baseSubscription, currentAccountBCD, context, result, skipSubscriptionsSet, catalog);
+                // Dry-run subscriptions contain made up events, which should never end up in the cache
+                addBillingEventsForSubscription(account, subscriptions, baseSubscription, currentAccountBCD, !isDryRunBundle, context, result, skipSubscriptionsSet, catalog);
             }
         }
 
@@ -277,6 +285,7 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
                                                  @Nullable final List<SubscriptionBase> subscriptions,
                                                  final SubscriptionBase baseSubscription,
                                                  final int currentAccountBCD,
+                                                 final boolean useBillingTransitionsCache,
                                                  final InternalCallContext context,
                                                  final DefaultBillingEventSet result,
                                                  final Set<UUID> skipSubscriptionsSet,
@@ -289,7 +298,13 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
 
         for (final SubscriptionBase subscription : subscriptions) {
             // TODO Can we batch those ?
-            final List<SubscriptionBillingEvent> billingTransitions = subscriptionApi.getSubscriptionBillingEvents(catalog, subscription, context);
+            final List<SubscriptionBillingEvent> billingTransitions;
+            if (useBillingTransitionsCache) {
+                billingTransitions = billingTransitionsCache.getSubscriptionBillingEvents(account.getId(), currentAccountBCD, catalog, catalogInternalApi.getPriceOverrideSvcStatus(), subscription,
+                                                                                          () -> subscriptionApi.getSubscriptionBillingEvents(catalog, subscription, context));
+            } else {
+                billingTransitions = subscriptionApi.getSubscriptionBillingEvents(catalog, subscription, context);
+            }
             if (billingTransitions.isEmpty() ||
                 (billingTransitions.get(0).getType() != SubscriptionBaseTransitionType.CREATE &&
                  billingTransitions.get(0).getType() != SubscriptionBaseTransitionType.TRANSFER)) {
@@ -366,4 +381,12 @@ public class DefaultInternalBillingApi implements BillingInternalApi {
         return subscriptionsForAccount.containsKey(bundleId) ? subscriptionsForAccount.get(bundleId) : Collections.emptyList();
     }
 
+    private Set<UUID> getSubscriptionIds(final Map<UUID, List<SubscriptionBase>> subscriptionsForAccount) {
+        return subscriptionsForAccount.values()
+                                      .stream()
+                                      .flatMap(List::stream)
+                                      .map(SubscriptionBase::getId)
+                                      .collect(Collectors.toUnmodifiableSet());
+    }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.junction.plumbing.billing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.catalog.api.Plan;
+import org.killbill.billing.catalog.api.PriceOverrideSvcStatus;
+import org.killbill.billing.catalog.api.VersionedCatalog;
+import org.killbill.billing.junction.JunctionTestSuiteNoDB;
+import org.killbill.billing.subscription.api.SubscriptionBase;
+import org.killbill.billing.subscription.api.user.SubscriptionBaseTransition;
+import org.killbill.billing.subscription.api.user.SubscriptionBillingEvent;
+import org.killbill.billing.util.config.definition.JunctionConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.mockito.Mockito;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestBillingTransitionsCache extends JunctionTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testRecomputeOnlyModifiedSubscriptions() throws Exception {
+        final BillingTransitionsCache cache = createCache(true);
+        final UUID accountId = UUID.randomUUID();
+        final VersionedCatalog catalog = Mockito.mock(VersionedCatalog.class);
+        final PriceOverrideSvcStatus priceOverrideSvcStatus = Mockito.mock(PriceOverrideSvcStatus.class);
+        final DateTime now = clock.getUTCNow();
+
+        final List<SubscriptionBaseTransition> transitions1 = new ArrayList<>(List.of(createTransition(now)));
+        final SubscriptionBase subscription1 = createSubscription(transitions1);
+        final SubscriptionBase subscription2 = createSubscription(List.of(createTransition(now)));
+        final AtomicInteger nbLoads1 = new AtomicInteger();
+        final AtomicInteger nbLoads2 = new AtomicInteger();
+
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        Assert.assertEquals(nbLoads1.get(), 1);
+        Assert.assertEquals(nbLoads2.get(), 1);
+
+        // New event for the first subscription only
+        transitions1.add(createTransition(now.plusMonths(1)));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        Assert.assertEquals(nbLoads1.get(), 2);
+        Assert.assertEquals(nbLoads2.get(), 1);
+
+        // Account BCD set: everything is recomputed
+        cache.getSubscriptionBillingEvents(accountId, 15, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 15, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        Assert.assertEquals(nbLoads1.get(), 3);
+        Assert.assertEquals(nbLoads2.get(), 2);
+
+        // New catalog version: everything is recomputed
+        final VersionedCatalog newCatalog = Mockito.mock(VersionedCatalog.class);
+        cache.getSubscriptionBillingEvents(accountId, 15, newCatalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 15, newCatalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        Assert.assertEquals(nbLoads1.get(), 4);
+        Assert.assertEquals(nbLoads2.get(), 3);
+    }
+
+    @Test(groups = "fast")
+    public void testRecomputeOnPriceOverrideChange() throws Exception {
+        final BillingTransitionsCache cache = createCache(true);
+        final UUID accountId = UUID.randomUUID();
+        final VersionedCatalog catalog = Mockito.mock(VersionedCatalog.class);
+        final PriceOverrideSvcStatus priceOverrideSvcStatus = Mockito.mock(PriceOverrideSvcStatus.class);
+        final Plan plan = Mockito.mock(Plan.class);
+        Mockito.when(plan.getName()).thenReturn("shotgun-monthly-1");
+        final SubscriptionBaseTransition transition = createTransition(clock.getUTCNow());
+        Mockito.when(transition.getNextPlan()).thenReturn(plan);
+        final SubscriptionBase subscription = createSubscription(List.of(transition));
+        final AtomicInteger nbLoads = new AtomicInteger();
+
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        Assert.assertEquals(nbLoads.get(), 1);
+
+        Mockito.when(priceOverrideSvcStatus.isOverriddenPlan("shotgun-monthly-1")).thenReturn(true);
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        Assert.assertEquals(nbLoads.get(), 2);
+    }
+
+    @Test(groups = "fast")
+    public void testEvictSubscriptionsNoLongerReturned() throws Exception {
+        final BillingTransitionsCache cache = createCache(true);
+        final UUID accountId = UUID.randomUUID();
+        final VersionedCatalog catalog = Mockito.mock(VersionedCatalog.class);
+        final PriceOverrideSvcStatus priceOverrideSvcStatus = Mockito.mock(PriceOverrideSvcStatus.class);
+        final DateTime now = clock.getUTCNow();
+        final SubscriptionBase subscription1 = createSubscription(List.of(createTransition(now)));
+        final SubscriptionBase subscription2 = createSubscription(List.of(createTransition(now)));
+        final AtomicInteger nbLoads1 = new AtomicInteger();
+        final AtomicInteger nbLoads2 = new AtomicInteger();
+
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+
+        // The first subscription isn't returned anymore (e.g. cancelled before the cutoff date)
+        cache.retainSubscriptions(accountId, Set.of(subscription2.getId()));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription1, () -> load(nbLoads1));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription2, () -> load(nbLoads2));
+        Assert.assertEquals(nbLoads1.get(), 2);
+        Assert.assertEquals(nbLoads2.get(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testDisabledByDefault() throws Exception {
+        final BillingTransitionsCache cache = createCache(false);
+        final UUID accountId = UUID.randomUUID();
+        final VersionedCatalog catalog = Mockito.mock(VersionedCatalog.class);
+        final PriceOverrideSvcStatus priceOverrideSvcStatus = Mockito.mock(PriceOverrideSvcStatus.class);
+        final SubscriptionBase subscription = createSubscription(List.of(createTransition(clock.getUTCNow())));
+        final AtomicInteger nbLoads = new AtomicInteger();
+
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        cache.getSubscriptionBillingEvents(accountId, 1, catalog, priceOverrideSvcStatus, subscription, () -> load(nbLoads));
+        Assert.assertEquals(nbLoads.get(), 2);
+    }
+
+    private BillingTransitionsCache createCache(final boolean enabled) {
+        final Properties properties = new Properties();
+        if (enabled) {
+            properties.setProperty("org.killbill.billing.junction.billingEventsCache.enabled", "true");
+        }
+        final JunctionConfig junctionConfig = new AugmentedConfigurationObjectFactory(properties).build(JunctionConfig.class);
+        return new BillingTransitionsCache(junctionConfig, new NoOpMetricRegistry());
+    }
+
+    private List<SubscriptionBillingEvent> load(final AtomicInteger nbLoads) {
+        nbLoads.incrementAndGet();
+        return List.of(Mockito.mock(SubscriptionBillingEvent.class));
+    }
+
+    private SubscriptionBase createSubscription(final List<SubscriptionBaseTransition> transitions) {
+        final SubscriptionBase subscription = Mockito.mock(SubscriptionBase.class);
+        Mockito.when(subscription.getId()).thenReturn(UUID.randomUUID());
+        Mockito.when(subscription.getAllTransitions(false)).thenAnswer(invocation -> new ArrayList<>(transitions));
+        return subscription;
+    }
+
+    private SubscriptionBaseTransition createTransition(final DateTime effectiveDate) {
+        final SubscriptionBaseTransition transition = Mockito.mock(SubscriptionBaseTransition.class);
+        Mockito.when(transition.getNextEventId()).thenReturn(UUID.randomUUID());
+        Mockito.when(transition.getEffectiveTransitionTime()).thenReturn(effectiveDate);
+        return transition;
+    }
+}
@@ -19,6 +19,7 @@ package org.killbill.billing.overdue;
 import org.skife.config.Config;
 import org.skife.config.Default;
 import org.skife.config.Description;
+import org.skife.config.TimeSpan;
 
 import org.killbill.billing.util.config.definition.KillbillConfig;
 
@@ -28,4 +29,9 @@ public interface OverdueProperties extends KillbillConfig {
     @Default("NoOverdueConfig.xml")
     @Description("Overdue configuration location. Either in the classpath or in the filesystem")
     public String getConfigURI();
+
+    @Config("org.killbill.overdue.refreshCoalescingDelay")
+    @Default("0s")
+    @Description("Delay before refreshing the overdue state of an account after a bus event (e.g. payment failure): events for the same account received in that window trigger a single refresh")
+    public TimeSpan getRefreshCoalescingDelay();
 }
@@ -18,23 +18,15 @@
 
 package org.killbill.billing.overdue.calculator;
 
-import java.math.BigDecimal;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.UUID;
 
 import javax.inject.Inject;
 
-import org.joda.time.LocalDate;
 import org.killbill.billing.ObjectType;
 import org.killbill.billing.account.api.ImmutableAccountData;
 import org.killbill.billing.callcontext.InternalCallContext;
-import org.killbill.billing.invoice.api.Invoice;
 import org.killbill.billing.invoice.api.InvoiceInternalApi;
+import org.killbill.billing.invoice.api.UnpaidInvoicesSummary;
 import org.killbill.billing.overdue.config.api.BillingState;
 import org.killbill.billing.overdue.config.api.OverdueException;
 import org.killbill.billing.payment.api.PaymentResponse;
@@ -44,15 +36,6 @@ import org.killbill.clock.Clock;
 
 public class BillingStateCalculator {
 
-    private static final Comparator<Invoice> UNPAID_INVOICES_FOR_ACCOUNT_COMPARATOR = (i1, i2) -> {
-        final LocalDate d1 = i1.getInvoiceDate();
-        final LocalDate d2 = i2.getInvoiceDate();
-        if (d1.compareTo(d2) == 0) {
-            return i1.hashCode() - i2.hashCode(); // consistent (arbitrary) resolution for tied dates
-        }
-        return d1.compareTo(d2);
-    };
-
     private final InvoiceInternalApi invoiceApi;
     private final TagInternalApi tagApi;
     private final Clock clock;
@@ -65,45 +48,19 @@ public class BillingStateCalculator {
     }
 
     public BillingState calculateBillingState(final ImmutableAccountData account, final InternalCallContext context) throws OverdueException {
-        final SortedSet<Invoice> unpaidInvoices = unpaidInvoicesForAccount(account.getId(), context);
+        // PERF: only the aggregates are needed, which avoids materializing all unpaid invoices (and their items) on each overdue refresh
+        final UnpaidInvoicesSummary unpaidInvoicesSummary = invoiceApi.getUnpaidInvoicesSummaryByAccountId(account.getId(), context.toLocalDate(context.getCreatedDate()), context);
 
-        final int numberOfUnpaidInvoices = unpaidInvoices.size();
-        final BigDecimal unpaidInvoiceBalance = sumBalance(unpaidInvoices);
-        LocalDate dateOfEarliestUnpaidInvoice = null;
-        UUID idOfEarliestUnpaidInvoice = null;
-        final Invoice invoice = earliest(unpaidInvoices);
-        if (invoice != null) {
-            dateOfEarliestUnpaidInvoice = invoice.getInvoiceDate();
-            idOfEarliestUnpaidInvoice = invoice.getId();
-        }
         final PaymentResponse responseForLastFailedPayment = PaymentResponse.INSUFFICIENT_FUNDS; //TODO MDW
         final List<Tag> accountTags = tagApi.getTags(account.getId(), ObjectType.ACCOUNT, context);
         final Tag[] tags = accountTags.toArray(new Tag[accountTags.size()]);
 
-        return new BillingState(account.getId(), numberOfUnpaidInvoices, unpaidInvoiceBalance, dateOfEarliestUnpaidInvoice, idOfEarliestUnpaidInvoice, responseForLastFailedPayment, tags);
-    }
-
-    // Package scope for testing
-    Invoice earliest(final SortedSet<Invoice> unpaidInvoices) {
-        try {
-            return unpaidInvoices.first();
-        } catch (final NoSuchElementException e) {
-            return null;
-        }
-    }
-
-    BigDecimal sumBalance(final SortedSet<Invoice> unpaidInvoices) {
-        BigDecimal sum = BigDecimal.ZERO;
-        for (final Invoice unpaidInvoice : unpaidInvoices) {
-            sum = sum.add(unpaidInvoice.getBalance());
-        }
-        return sum;
-    }
-
-    SortedSet<Invoice> unpaidInvoicesForAccount(final UUID accountId, final InternalCallContext context) {
-        final Collection<Invoice> invoices = invoiceApi.getUnpaidInvoicesByAccountId(accountId, context.toLocalDate(context.getCreatedDate()), context);
-        final SortedSet<Invoice> sortedInvoices = new TreeSet<Invoice>(UNPAID_INVOICES_FOR_ACCOUNT_COMPARATOR);
-        sortedInvoices.addAll(invoices);
-        return sortedInvoices;
+        return new BillingState(account.getId(),
+                                unpaidInvoicesSummary.getNumberOfUnpaidInvoices(),
+                                unpaidInvoicesSummary.getUnpaidInvoiceBalance(),
+                                unpaidInvoicesSummary.getDateOfEarliestUnpaidInvoice(),
+                                unpaidInvoicesSummary.getIdOfEarliestUnpaidInvoice(),
+                                responseForLastFailedPayment,
+                                tags);
     }
 }
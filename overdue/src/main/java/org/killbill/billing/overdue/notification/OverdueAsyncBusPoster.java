@@ -24,7 +24,6 @@ import javax.inject.Named;
 import org.joda.time.DateTime;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
-import org.killbill.commons.utils.collect.Iterables;
 import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.entity.dao.EntitySqlDaoWrapperFactory;
 import org.killbill.clock.Clock;
@@ -49,10 +48,17 @@ public class OverdueAsyncBusPoster extends DefaultOverduePosterBase {
                                                                                                         final Iterable<NotificationEventWithMetadata<T>> futureNotifications,
                                                                                                         final DateTime futureNotificationTime,
                                                                                                         final NotificationQueue overdueQueue) {
-        // If we already have notification for that account we don't insert the new one
-        // Note that this is slightly incorrect because we could for instance already have a REFRESH and insert a CLEAR, but if that were the case,
-        // if means overdue state would change very rapidly and the behavior would anyway be non deterministic
-        // Note: don't use isEmpty() to go through all results to close the connection
-        return Iterables.size(futureNotifications) == 0;
+        // If we already have a notification for that account, due no later than the new one, we don't insert the new one (the refresh
+        // will see the latest state). With a refresh coalescing delay, this collapses the events received during that window.
+        // Note that this is slightly incorrect because we could for instance already have a REFRESH due before a new CLEAR and skip the CLEAR,
+        // but if that were the case, it means overdue state would change very rapidly and the behavior would anyway be non deterministic
+        boolean shouldInsertNewNotification = true;
+        // Note: go through all results to close the connection
+        for (final NotificationEventWithMetadata<T> cur : futureNotifications) {
+            if (!cur.getEffectiveDate().isAfter(futureNotificationTime)) {
+                shouldInsertNewNotification = false;
+            }
+        }
+        return shouldInsertNewNotification;
     }
 }
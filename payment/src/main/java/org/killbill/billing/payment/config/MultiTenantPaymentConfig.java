@@ -140,6 +140,11 @@ public class MultiTenantPaymentConfig extends MultiTenantLockAwareConfigBase imp
         return getPaymentControlPluginNames();
     }
 
+    @Override
+    public List<String> getAsyncPaymentControlPluginNames() {
+        return staticConfig.getAsyncPaymentControlPluginNames();
+    }
+
 
     @Override
     public TimeSpan getJanitorRunningRate() {
@@ -151,6 +156,36 @@ public class MultiTenantPaymentConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.getIncompleteAttemptsTimeSpanDelay();
     }
 
+    @Override
+    public boolean isParallelJanitorEnabled() {
+        return staticConfig.isParallelJanitorEnabled();
+    }
+
+    @Override
+    public TimeSpan getParallelJanitorRunningRate() {
+        return staticConfig.getParallelJanitorRunningRate();
+    }
+
+    @Override
+    public TimeSpan getParallelJanitorTransactionsTimeSpanDelay() {
+        return staticConfig.getParallelJanitorTransactionsTimeSpanDelay();
+    }
+
+    @Override
+    public int getParallelJanitorThreadNb() {
+        return staticConfig.getParallelJanitorThreadNb();
+    }
+
+    @Override
+    public int getParallelJanitorNbNodes() {
+        return staticConfig.getParallelJanitorNbNodes();
+    }
+
+    @Override
+    public int getParallelJanitorNodeIndex() {
+        return staticConfig.getParallelJanitorNodeIndex();
+    }
+
     @Override
     public String getDefaultPaymentProvider() {
         return staticConfig.getDefaultPaymentProvider();
@@ -166,6 +201,16 @@ public class MultiTenantPaymentConfig extends MultiTenantLockAwareConfigBase imp
         return staticConfig.getPaymentPluginThreadNb();
     }
 
+    @Override
+    public boolean isPaymentPluginVirtualThreadsEnabled() {
+        return staticConfig.isPaymentPluginVirtualThreadsEnabled();
+    }
+
+    @Override
+    public int getPaymentPluginMaxConcurrentCalls() {
+        return staticConfig.getPaymentPluginMaxConcurrentCalls();
+    }
+
     @Override
     public int getMaxGlobalLockRetries() {
         return staticConfig.getMaxGlobalLockRetries();
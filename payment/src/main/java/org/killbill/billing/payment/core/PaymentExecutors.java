@@ -17,6 +17,8 @@
 
 package org.killbill.billing.payment.core;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,12 +28,19 @@ import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
+import org.killbill.billing.payment.dispatcher.PluginBulkhead;
+import org.killbill.billing.util.concurrent.VirtualThreadExecutors;
 import org.killbill.billing.util.config.definition.PaymentConfig;
 import org.killbill.commons.concurrent.Executors;
 import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PaymentExecutors {
 
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExecutors.class);
+
     private static final long TIMEOUT_EXECUTOR_SEC = 3L;
 
     private static final int DEFAULT_MIN_PLUGIN_THREADS = 5;
@@ -43,20 +52,25 @@ public class PaymentExecutors {
     public static final String PLUGIN_EXECUTOR_NAMED = "PluginExecutor";
 
     private final PaymentConfig paymentConfig;
+    private final MetricRegistry metricRegistry;
+    private final Map<String, PluginBulkhead> pluginBulkheads = new ConcurrentHashMap<String, PluginBulkhead>();
 
-    private volatile ThreadPoolExecutor pluginExecutorService;
+    private volatile ExecutorService pluginExecutorService;
     private volatile ScheduledExecutorService janitorExecutorService;
+    private volatile ExecutorService parallelJanitorExecutorService;
 
     @Inject
-    public PaymentExecutors(PaymentConfig paymentConfig) {
+    public PaymentExecutors(final PaymentConfig paymentConfig, final MetricRegistry metricRegistry) {
         this.paymentConfig = paymentConfig;
-
+        this.metricRegistry = metricRegistry;
     }
 
     public void initialize() {
         this.pluginExecutorService = createPluginExecutorService();
-        this.pluginExecutorService.prestartAllCoreThreads();
         this.janitorExecutorService = createJanitorExecutorService();
+        if (paymentConfig.isParallelJanitorEnabled()) {
+            this.parallelJanitorExecutorService = Executors.newFixedThreadPool(paymentConfig.getParallelJanitorThreadNb(), "PaymentParallelJanitor");
+        }
     }
 
 
@@ -69,6 +83,12 @@ public class PaymentExecutors {
 
         janitorExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
         janitorExecutorService = null;
+
+        if (parallelJanitorExecutorService != null) {
+            parallelJanitorExecutorService.shutdownNow();
+            parallelJanitorExecutorService.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
+            parallelJanitorExecutorService = null;
+        }
     }
 
     public ExecutorService getPluginExecutorService() {
@@ -79,7 +99,32 @@ public class PaymentExecutors {
         return janitorExecutorService;
     }
 
-    private ThreadPoolExecutor createPluginExecutorService() {
+    // Null unless the parallel janitor is enabled
+    public ExecutorService getParallelJanitorExecutorService() {
+        return parallelJanitorExecutorService;
+    }
+
+    // Bulkheads are keyed by the name of the payment plugin the call is dispatched to, and are shared across dispatchers
+    public PluginBulkhead getPluginBulkhead(final String pluginName) {
+        return pluginBulkheads.computeIfAbsent(pluginName, name -> new PluginBulkhead(name, paymentConfig.getPaymentPluginMaxConcurrentCalls(), metricRegistry));
+    }
+
+    private ExecutorService createPluginExecutorService() {
+        if (paymentConfig.isPaymentPluginVirtualThreadsEnabled()) {
+            // One virtual thread per plugin call: the number of concurrent calls is then only bounded by the per-plugin bulkheads
+            final ExecutorService virtualThreadExecutorService = VirtualThreadExecutors.newVirtualThreadPerTaskExecutor(PLUGIN_THREAD_PREFIX);
+            if (virtualThreadExecutorService != null) {
+                return virtualThreadExecutorService;
+            }
+            logger.warn("Virtual threads aren't supported by this JVM, falling back to a pool of {} plugin threads", paymentConfig.getPaymentPluginThreadNb());
+        }
+
+        final ThreadPoolExecutor threadPoolExecutor = createPluginThreadPoolExecutor();
+        threadPoolExecutor.prestartAllCoreThreads();
+        return threadPoolExecutor;
+    }
+
+    private ThreadPoolExecutor createPluginThreadPoolExecutor() {
         final int minThreadNb = DEFAULT_MIN_PLUGIN_THREADS < paymentConfig.getPaymentPluginThreadNb() ? DEFAULT_MIN_PLUGIN_THREADS : paymentConfig.getPaymentPluginThreadNb();
         return new WithProfilingThreadPoolExecutor(minThreadNb,
                                                    paymentConfig.getPaymentPluginThreadNb(),
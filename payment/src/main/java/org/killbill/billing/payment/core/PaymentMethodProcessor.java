@@ -75,6 +75,7 @@ import org.killbill.commons.locker.GlobalLocker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.killbill.billing.payment.dispatcher.PaymentPluginDispatcher.dispatchToPaymentPluginWithExceptionHandling;
 import static org.killbill.billing.payment.dispatcher.PaymentPluginDispatcher.dispatchWithExceptionHandling;
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPagination;
 import static org.killbill.billing.util.entity.dao.DefaultPaginationHelper.getEntityPaginationFromPlugins;
@@ -113,55 +114,55 @@ public class PaymentMethodProcessor extends ProcessorBase {
                                  final boolean setDefault, final PaymentMethodPlugin paymentMethodProps,
                                  final Iterable<PluginProperty> properties, final CallContext callContext, final InternalCallContext context)
             throws PaymentApiException {
-        return dispatchWithExceptionHandling(account,
-                                             paymentPluginServiceName,
-                                             new CallableWithAccountLock<UUID, PaymentApiException>(locker,
-                                                                                                    account.getId(),
-                                                                                                    paymentConfig,
-                                                                                                    new DispatcherCallback<PluginDispatcherReturnType<UUID>, PaymentApiException>() {
-
-                                                                                                        @Override
-                                                                                                        public PluginDispatcherReturnType<UUID> doOperation() throws PaymentApiException {
-                                                                                                            PaymentMethod pm = null;
-                                                                                                            try {
-
-                                                                                                                validateUniqueExternalPaymentMethod(account.getId(), paymentPluginServiceName);
-
-                                                                                                                pm = new DefaultPaymentMethod(paymentMethodExternalKey, account.getId(), paymentPluginServiceName, paymentMethodProps);
-                                                                                                                final PaymentPluginApi pluginApi = getPaymentPluginApi(paymentPluginServiceName);
-                                                                                                                pluginApi.addPaymentMethod(account.getId(), pm.getId(), paymentMethodProps, setDefault, properties, callContext);
-
-                                                                                                                final String actualPaymentMethodExternalKey = retrieveActualPaymentMethodExternalKey(account, pm, pluginApi, properties, callContext, context);
-                                                                                                                final PaymentMethodModelDao pmModel = new PaymentMethodModelDao(pm.getId(),
-                                                                                                                                                                                actualPaymentMethodExternalKey,
-                                                                                                                                                                                pm.getCreatedDate(),
-                                                                                                                                                                                pm.getUpdatedDate(),
-                                                                                                                                                                                pm.getAccountId(),
-                                                                                                                                                                                pm.getPluginName(),
-                                                                                                                                                                                pm.isActive());
-                                                                                                                paymentDao.insertPaymentMethod(pmModel, context);
-
-                                                                                                                if (setDefault) {
-                                                                                                                    accountInternalApi.updatePaymentMethod(account.getId(), pm.getId(), context);
-                                                                                                                }
-                                                                                                            } catch (final PaymentPluginApiException e) {
-                                                                                                                throw new PaymentApiException(e, ErrorCode.PAYMENT_ADD_PAYMENT_METHOD, account.getId(), e.getErrorMessage());
-                                                                                                            } catch (final AccountApiException e) {
-                                                                                                                throw new PaymentApiException(e);
-                                                                                                            }
-                                                                                                            return PluginDispatcher.createPluginDispatcherReturnType(pm.getId());
-                                                                                                        }
-
-                                                                                                        private void validateUniqueExternalPaymentMethod(final UUID accountId, final String pluginName) throws PaymentApiException {
-                                                                                                            if (ExternalPaymentProviderPlugin.PLUGIN_NAME.equals(pluginName)) {
-                                                                                                                final List<PaymentMethodModelDao> accountPaymentMethods = paymentDao.getPaymentMethods(context);
-                                                                                                                if (accountPaymentMethods.stream().anyMatch(input -> ExternalPaymentProviderPlugin.PLUGIN_NAME.equals(input.getPluginName()))) {
-                                                                                                                    throw new PaymentApiException(ErrorCode.PAYMENT_EXTERNAL_PAYMENT_METHOD_ALREADY_EXISTS, accountId);
-                                                                                                                }
-                                                                                                            }
-                                                                                                        }
-                                                                                                    }),
-                                             uuidPluginNotificationDispatcher);
+        return dispatchToPaymentPluginWithExceptionHandling(account,
+                                                            paymentPluginServiceName,
+                                                            new CallableWithAccountLock<UUID, PaymentApiException>(locker,
+                                                                                                                   account.getId(),
+                                                                                                                   paymentConfig,
+                                                                                                                   new DispatcherCallback<PluginDispatcherReturnType<UUID>, PaymentApiException>() {
+
+                                                                                                                       @Override
+                                                                                                                       public PluginDispatcherReturnType<UUID> doOperation() throws PaymentApiException {
+                                                                                                                           PaymentMethod pm = null;
+                                                                                                                           try {
+
+                                                                                                                               validateUniqueExternalPaymentMethod(account.getId(), paymentPluginServiceName);
+
+                                                                                                                               pm = new DefaultPaymentMethod(paymentMethodExternalKey, account.getId(), paymentPluginServiceName, paymentMethodProps);
+                                                                                                                               final PaymentPluginApi pluginApi = getPaymentPluginApi(paymentPluginServiceName);
+                                                                                                                               pluginApi.addPaymentMethod(account.getId(), pm.getId(), paymentMethodProps, setDefault, properties, callContext);
+
+                                                                                                                               final String actualPaymentMethodExternalKey = retrieveActualPaymentMethodExternalKey(account, pm, pluginApi, properties, callContext, context);
+                                                                                                                               final PaymentMethodModelDao pmModel = new PaymentMethodModelDao(pm.getId(),
+                                                                                                                                                                                               actualPaymentMethodExternalKey,
+                                                                                                                                                                                               pm.getCreatedDate(),
+                                                                                                                                                                                               pm.getUpdatedDate(),
+                                                                                                                                                                                               pm.getAccountId(),
+                                                                                                                                                                                               pm.getPluginName(),
+                                                                                                                                                                                               pm.isActive());
+                                                                                                                               paymentDao.insertPaymentMethod(pmModel, context);
+
+                                                                                                                               if (setDefault) {
+                                                                                                                                   accountInternalApi.updatePaymentMethod(account.getId(), pm.getId(), context);
+                                                                                                                               }
+                                                                                                                           } catch (final PaymentPluginApiException e) {
+                                                                                                                               throw new PaymentApiException(e, ErrorCode.PAYMENT_ADD_PAYMENT_METHOD, account.getId(), e.getErrorMessage());
+                                                                                                                           } catch (final AccountApiException e) {
+                                                                                                                               throw new PaymentApiException(e);
+                                                                                                                           }
+                                                                                                                           return PluginDispatcher.createPluginDispatcherReturnType(pm.getId());
+                                                                                                                       }
+
+                                                                                                                       private void validateUniqueExternalPaymentMethod(final UUID accountId, final String pluginName) throws PaymentApiException {
+                                                                                                                           if (ExternalPaymentProviderPlugin.PLUGIN_NAME.equals(pluginName)) {
+                                                                                                                               final List<PaymentMethodModelDao> accountPaymentMethods = paymentDao.getPaymentMethods(context);
+                                                                                                                               if (accountPaymentMethods.stream().anyMatch(input -> ExternalPaymentProviderPlugin.PLUGIN_NAME.equals(input.getPluginName()))) {
+                                                                                                                                   throw new PaymentApiException(ErrorCode.PAYMENT_EXTERNAL_PAYMENT_METHOD_ALREADY_EXISTS, accountId);
+                                                                                                                               }
+                                                                                                                           }
+                                                                                                                       }
+                                                                                                                   }),
+                                                            uuidPluginNotificationDispatcher);
     }
 
     public UUID addPaymentMethodWithControl(final String paymentMethodExternalKey, final String paymentPluginServiceName, final Account account,
@@ -37,6 +37,7 @@ import javax.inject.Inject;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.account.api.AccountInternalApi;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.callcontext.KeysetPaginationTenantContext;
 import org.killbill.billing.invoice.api.InvoiceInternalApi;
 import org.killbill.billing.payment.api.DefaultPayment;
 import org.killbill.billing.payment.api.DefaultPaymentAttempt;
@@ -292,6 +293,9 @@ public class PaymentRefresher extends ProcessorBase {
                                            @Override
                                            public Pagination<PaymentModelDao> build() {
                                                // Find all payments for all accounts
+                                               if (KeysetPaginationTenantContext.isKeysetPagination(tenantContext)) {
+                                                   return paymentDao.getFromRecordId(offset, limit, internalTenantContext);
+                                               }
                                                return paymentDao.get(offset, limit, internalTenantContext);
                                            }
                                        },
@@ -375,6 +379,9 @@ public class PaymentRefresher extends ProcessorBase {
                                            new SourcePaginationBuilder<PaymentModelDao, PaymentApiException>() {
                                                @Override
                                                public Pagination<PaymentModelDao> build() {
+                                                   if (KeysetPaginationTenantContext.isKeysetPagination(tenantContext)) {
+                                                       return paymentDao.searchPaymentsFromRecordId(searchKey, offset, limit, internalTenantContext);
+                                                   }
                                                    return paymentDao.searchPayments(searchKey, offset, limit, internalTenantContext);
                                                }
                                            },
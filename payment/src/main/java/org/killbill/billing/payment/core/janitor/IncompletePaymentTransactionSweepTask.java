@@ -0,0 +1,226 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.payment.core.janitor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.payment.core.PaymentExecutors;
+import org.killbill.billing.payment.dao.PaymentDao;
+import org.killbill.billing.payment.dao.PaymentModelDao;
+import org.killbill.billing.payment.dao.PaymentTransactionModelDao;
+import org.killbill.billing.payment.plugin.api.PaymentTransactionInfoPlugin;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.PaymentConfig;
+import org.killbill.clock.Clock;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.killbill.billing.payment.core.janitor.IncompletePaymentTransactionTask.TRANSACTION_STATUSES_TO_CONSIDER;
+
+// Parallel Janitor: periodically sweeps the incomplete (PENDING or UNKNOWN) transactions owned by this node, on top of the
+// per-transaction Janitor notifications. Transactions are sharded by account record id across nodes, accounts are processed
+// concurrently (each one under its own account lock) and the plugin is queried once per payment, not once per transaction.
+public class IncompletePaymentTransactionSweepTask implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(IncompletePaymentTransactionSweepTask.class);
+
+    private static final String METRIC_PREFIX = "killbill.payment.janitor.parallel";
+
+    private static final int MAX_TRANSACTIONS_PER_PAGE = 1000;
+
+    private final PaymentConfig paymentConfig;
+    private final PaymentDao paymentDao;
+    private final Clock clock;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final IncompletePaymentTransactionTask incompletePaymentTransactionTask;
+    private final IncompletePaymentAttemptTask incompletePaymentAttemptTask;
+    private final PaymentExecutors paymentExecutors;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter repairedTransactions;
+    private final Counter pluginCalls;
+    private final Histogram sweepDurationMs;
+
+    private volatile boolean isStopped;
+
+    @Inject
+    public IncompletePaymentTransactionSweepTask(final PaymentConfig paymentConfig,
+                                                 final PaymentDao paymentDao,
+                                                 final Clock clock,
+                                                 final InternalCallContextFactory internalCallContextFactory,
+                                                 final IncompletePaymentTransactionTask incompletePaymentTransactionTask,
+                                                 final IncompletePaymentAttemptTask incompletePaymentAttemptTask,
+                                                 final PaymentExecutors paymentExecutors,
+                                                 final MetricRegistry metricRegistry) {
+        this.paymentConfig = paymentConfig;
+        this.paymentDao = paymentDao;
+        this.clock = clock;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.incompletePaymentTransactionTask = incompletePaymentTransactionTask;
+        this.incompletePaymentAttemptTask = incompletePaymentAttemptTask;
+        this.paymentExecutors = paymentExecutors;
+        this.repairedTransactions = metricRegistry.counter(METRIC_PREFIX + ".repaired");
+        this.pluginCalls = metricRegistry.counter(METRIC_PREFIX + ".pluginCalls");
+        this.sweepDurationMs = metricRegistry.histogram(METRIC_PREFIX + ".sweepDurationMs");
+        metricRegistry.gauge(METRIC_PREFIX + ".backlog", backlog::get);
+        this.isStopped = false;
+    }
+
+    synchronized void start() {
+        this.isStopped = false;
+    }
+
+    synchronized void stop() {
+        this.isStopped = true;
+    }
+
+    @Override
+    public void run() {
+        if (isStopped) {
+            log.info("Janitor was requested to stop");
+            return;
+        }
+
+        final long startNanos = System.nanoTime();
+        final int nbShards = paymentConfig.getParallelJanitorNbNodes();
+        final int shardIndex = paymentConfig.getParallelJanitorNodeIndex();
+        final DateTime createdBeforeDate = clock.getUTCNow().minusMillis((int) paymentConfig.getParallelJanitorTransactionsTimeSpanDelay().getMillis());
+
+        try {
+            backlog.set(paymentDao.getCountByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, nbShards, shardIndex));
+            if (backlog.get() == 0) {
+                return;
+            }
+            log.info("Janitor parallel sweep start run: found {} incomplete transactions for shard {}/{}", backlog.get(), shardIndex, nbShards);
+
+            // Keyset pagination: transactions we cannot repair stay in the result set, so offsets would make us skip or loop over entries
+            Long fromRecordId = 0L;
+            while (!isStopped) {
+                final List<PaymentTransactionModelDao> transactions = paymentDao.getByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER,
+                                                                                                                             createdBeforeDate,
+                                                                                                                             fromRecordId,
+                                                                                                                             nbShards,
+                                                                                                                             shardIndex,
+                                                                                                                             MAX_TRANSACTIONS_PER_PAGE);
+                if (transactions.isEmpty()) {
+                    break;
+                }
+                sweep(transactions);
+                if (transactions.size() < MAX_TRANSACTIONS_PER_PAGE) {
+                    break;
+                }
+                fromRecordId = transactions.get(transactions.size() - 1).getRecordId();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Janitor parallel sweep got interrupted");
+        } catch (final RuntimeException e) {
+            log.warn("Exception during Janitor parallel sweep", e);
+        } finally {
+            sweepDurationMs.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    @VisibleForTesting
+    void sweep(final Iterable<PaymentTransactionModelDao> transactions) throws InterruptedException {
+        final Map<Long, List<PaymentTransactionModelDao>> transactionsPerAccount = new LinkedHashMap<Long, List<PaymentTransactionModelDao>>();
+        for (final PaymentTransactionModelDao transaction : transactions) {
+            transactionsPerAccount.computeIfAbsent(transaction.getAccountRecordId(), k -> new ArrayList<PaymentTransactionModelDao>()).add(transaction);
+        }
+
+        final ExecutorService executorService = paymentExecutors.getParallelJanitorExecutorService();
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>(transactionsPerAccount.size());
+        for (final List<PaymentTransactionModelDao> accountTransactions : transactionsPerAccount.values()) {
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    sweepAccount(accountTransactions);
+                    return null;
+                }
+            }));
+        }
+
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                log.warn("Exception during Janitor parallel sweep", e.getCause());
+            }
+        }
+    }
+
+    private void sweepAccount(final List<PaymentTransactionModelDao> accountTransactions) {
+        final PaymentTransactionModelDao firstTransaction = accountTransactions.get(0);
+        final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContext(firstTransaction.getTenantRecordId(), firstTransaction.getAccountRecordId());
+
+        final Map<UUID, List<PaymentTransactionModelDao>> transactionsPerPayment = new LinkedHashMap<UUID, List<PaymentTransactionModelDao>>();
+        for (final PaymentTransactionModelDao transaction : accountTransactions) {
+            transactionsPerPayment.computeIfAbsent(transaction.getPaymentId(), k -> new ArrayList<PaymentTransactionModelDao>()).add(transaction);
+        }
+
+        for (final List<PaymentTransactionModelDao> paymentTransactions : transactionsPerPayment.values()) {
+            if (isStopped) {
+                return;
+            }
+
+            final PaymentModelDao payment = paymentDao.getPayment(paymentTransactions.get(0).getPaymentId(), internalTenantContext);
+            final List<PaymentTransactionInfoPlugin> paymentInfo = incompletePaymentTransactionTask.getPaymentInfoFromPlugin(payment, internalTenantContext);
+            pluginCalls.inc(1);
+
+            for (final PaymentTransactionModelDao paymentTransaction : paymentTransactions) {
+                final PaymentTransactionInfoPlugin paymentTransactionInfoPlugin = incompletePaymentTransactionTask.findPaymentTransactionInfoPlugin(paymentInfo, payment, paymentTransaction);
+                // Same as the on-the-fly Janitor: the account lock is taken and the state re-read before updating anything.
+                // isApiPayment isn't known at this stage (see IncompletePaymentAttemptTask#run)
+                final boolean repaired = incompletePaymentAttemptTask.updatePaymentAndTransactionIfNeeded(payment.getAccountId(),
+                                                                                                          paymentTransaction.getId(),
+                                                                                                          paymentTransaction.getTransactionStatus(),
+                                                                                                          paymentTransactionInfoPlugin,
+                                                                                                          false,
+                                                                                                          internalTenantContext);
+                if (repaired) {
+                    repairedTransactions.inc(1);
+                    backlog.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    long getBacklog() {
+        return backlog.get();
+    }
+}
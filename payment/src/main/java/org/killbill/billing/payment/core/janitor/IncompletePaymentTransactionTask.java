@@ -230,31 +230,39 @@ public class IncompletePaymentTransactionTask {
 
     private PaymentTransactionInfoPlugin getLatestPaymentTransactionInfoPlugin(final PaymentTransactionModelDao paymentTransaction,
                                                                                final InternalTenantContext internalTenantContext) {
-        final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
         final PaymentModelDao payment = paymentDao.getPayment(paymentTransaction.getPaymentId(), internalTenantContext);
+        final List<PaymentTransactionInfoPlugin> paymentInfo = getPaymentInfoFromPlugin(payment, internalTenantContext);
+        return findPaymentTransactionInfoPlugin(paymentInfo, payment, paymentTransaction);
+    }
 
-        final PaymentTransactionInfoPlugin undefinedPaymentTransaction = new DefaultNoOpPaymentInfoPlugin(payment.getId(),
-                                                                                                          paymentTransaction.getId(),
-                                                                                                          paymentTransaction.getTransactionType(),
-                                                                                                          paymentTransaction.getAmount(),
-                                                                                                          paymentTransaction.getCurrency(),
-                                                                                                          paymentTransaction.getCreatedDate(),
-                                                                                                          paymentTransaction.getCreatedDate(),
-                                                                                                          PaymentPluginStatus.UNDEFINED,
-                                                                                                          null,
-                                                                                                          null);
-        PaymentTransactionInfoPlugin paymentTransactionInfoPlugin;
+    // A single plugin round-trip returns the state of all transactions for that payment (empty if the plugin couldn't be queried)
+    List<PaymentTransactionInfoPlugin> getPaymentInfoFromPlugin(final PaymentModelDao payment, final InternalTenantContext internalTenantContext) {
+        final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
         try {
             final PaymentPluginApi paymentPluginApi = paymentPluginServiceRegistration.getPaymentPluginApi(payment.getPaymentMethodId(), false, internalTenantContext);
             final List<PaymentTransactionInfoPlugin> result = paymentPluginApi.getPaymentInfo(payment.getAccountId(), payment.getId(), Collections.emptyList(), tenantContext);
-            paymentTransactionInfoPlugin = result.stream()
-                    .filter(input -> input.getKbTransactionPaymentId().equals(paymentTransaction.getId()))
-                    .findFirst()
-                    .orElse(undefinedPaymentTransaction);
+            return result != null ? result : Collections.emptyList();
         } catch (final Exception e) {
-            paymentTransactionInfoPlugin = undefinedPaymentTransaction;
+            return Collections.emptyList();
         }
-        return paymentTransactionInfoPlugin;
+    }
+
+    PaymentTransactionInfoPlugin findPaymentTransactionInfoPlugin(final List<PaymentTransactionInfoPlugin> paymentInfo,
+                                                                  final PaymentModelDao payment,
+                                                                  final PaymentTransactionModelDao paymentTransaction) {
+        return paymentInfo.stream()
+                          .filter(input -> paymentTransaction.getId().equals(input.getKbTransactionPaymentId()))
+                          .findFirst()
+                          .orElseGet(() -> new DefaultNoOpPaymentInfoPlugin(payment.getId(),
+                                                                            paymentTransaction.getId(),
+                                                                            paymentTransaction.getTransactionType(),
+                                                                            paymentTransaction.getAmount(),
+                                                                            paymentTransaction.getCurrency(),
+                                                                            paymentTransaction.getCreatedDate(),
+                                                                            paymentTransaction.getCreatedDate(),
+                                                                            PaymentPluginStatus.UNDEFINED,
+                                                                            null,
+                                                                            null));
     }
 
     private interface JanitorIterationCallback {
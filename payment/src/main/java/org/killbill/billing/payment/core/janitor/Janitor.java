@@ -55,6 +55,7 @@ public class Janitor {
     private final PaymentExecutors paymentExecutors;
 
     private final IncompletePaymentAttemptTask incompletePaymentAttemptTask;
+    private final IncompletePaymentTransactionSweepTask incompletePaymentTransactionSweepTask;
     private NotificationQueue janitorQueue;
     private ScheduledExecutorService janitorExecutor;
 
@@ -62,11 +63,13 @@ public class Janitor {
 
     @Inject
     public Janitor(final IncompletePaymentAttemptTask incompletePaymentAttemptTask,
+                   final IncompletePaymentTransactionSweepTask incompletePaymentTransactionSweepTask,
                    final GlobalLocker locker,
                    final PaymentConfig paymentConfig,
                    final NotificationQueueService notificationQueueService,
                    final PaymentExecutors paymentExecutors) {
         this.incompletePaymentAttemptTask = incompletePaymentAttemptTask;
+        this.incompletePaymentTransactionSweepTask = incompletePaymentTransactionSweepTask;
         this.notificationQueueService = notificationQueueService;
         this.paymentExecutors = paymentExecutors;
         this.paymentConfig = paymentConfig;
@@ -108,6 +111,14 @@ public class Janitor {
         final TimeUnit attemptCompletionRateUnit = paymentConfig.getJanitorRunningRate().getUnit();
         final long attemptCompletionPeriod = paymentConfig.getJanitorRunningRate().getPeriod();
         janitorExecutor.scheduleAtFixedRate(incompletePaymentAttemptTask, attemptCompletionPeriod, attemptCompletionPeriod, attemptCompletionRateUnit);
+
+        // Start task for sweeping incomplete payment transactions in parallel
+        if (paymentConfig.isParallelJanitorEnabled()) {
+            incompletePaymentTransactionSweepTask.start();
+            final TimeUnit sweepRateUnit = paymentConfig.getParallelJanitorRunningRate().getUnit();
+            final long sweepPeriod = paymentConfig.getParallelJanitorRunningRate().getPeriod();
+            janitorExecutor.scheduleAtFixedRate(incompletePaymentTransactionSweepTask, sweepPeriod, sweepPeriod, sweepRateUnit);
+        }
     }
 
     public void stop() throws NoSuchNotificationQueue {
@@ -117,6 +128,7 @@ public class Janitor {
         }
 
         incompletePaymentAttemptTask.stop();
+        incompletePaymentTransactionSweepTask.stop();
 
         try {
             /* Previously submitted tasks will be executed with shutdown(); when task executes as a result of shutdown being called
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.payment.core.sm.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.callcontext.DefaultCallContext;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.core.sm.control.ControlPluginRunner.DefaultPaymentControlContext;
+import org.killbill.billing.payment.dao.PluginPropertySerializer;
+import org.killbill.billing.payment.dao.PluginPropertySerializer.PluginPropertySerializerException;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.config.definition.PaymentConfig;
+import org.killbill.clock.Clock;
+import org.killbill.notificationq.api.NotificationEvent;
+import org.killbill.notificationq.api.NotificationEventWithMetadata;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueService;
+import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueAlreadyExists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the onSuccessCall/onFailureCall of the control plugins listed in {@code org.killbill.payment.plugin.control.async}
+ * outside of the payment request thread, through a notification queue.
+ * <p/>
+ * Callbacks of a given payment are run in the order they were dispatched: a callback waits for the previous ones
+ * (still pending or in processing) to be done. Results of those calls (adjusted properties, next retry dates) are ignored.
+ */
+public class AsyncControlPluginCallbacks {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncControlPluginCallbacks.class);
+
+    public static final String QUEUE_NAME = "control-plugin-callbacks";
+
+    // Delay before checking again whether the previous callbacks of the payment are done
+    private static final long ORDERING_RETRY_DELAY_MS = 1000;
+
+    private final NotificationQueueService notificationQueueService;
+    private final PaymentConfig paymentConfig;
+    private final InternalCallContextFactory internalCallContextFactory;
+    private final Clock clock;
+    // Provider to break the dependency cycle with the runner, which dispatches the callbacks
+    private final Provider<ControlPluginRunner> controlPluginRunnerProvider;
+
+    private NotificationQueue callbacksQueue;
+
+    @Inject
+    public AsyncControlPluginCallbacks(final NotificationQueueService notificationQueueService,
+                                       final PaymentConfig paymentConfig,
+                                       final InternalCallContextFactory internalCallContextFactory,
+                                       final Clock clock,
+                                       final Provider<ControlPluginRunner> controlPluginRunnerProvider) {
+        this.notificationQueueService = notificationQueueService;
+        this.paymentConfig = paymentConfig;
+        this.internalCallContextFactory = internalCallContextFactory;
+        this.clock = clock;
+        this.controlPluginRunnerProvider = controlPluginRunnerProvider;
+    }
+
+    public void initialize() throws NotificationQueueAlreadyExists {
+        callbacksQueue = notificationQueueService.createNotificationQueue(KILLBILL_SERVICES.PAYMENT_SERVICE.getServiceName(),
+                                                                          QUEUE_NAME,
+                                                                          new NotificationQueueService.NotificationQueueHandler() {
+                                                                              @Override
+                                                                              public void handleReadyNotification(final NotificationEvent notificationKey, final DateTime eventDateTime, final UUID userToken, final Long accountRecordId, final Long tenantRecordId) {
+                                                                                  if (!(notificationKey instanceof ControlPluginCallbackNotificationKey)) {
+                                                                                      log.error("Control plugin callbacks service received an unexpected event className='{}'", notificationKey.getClass());
+                                                                                      return;
+                                                                                  }
+                                                                                  processNotification((ControlPluginCallbackNotificationKey) notificationKey, userToken, accountRecordId, tenantRecordId);
+                                                                              }
+                                                                          });
+    }
+
+    public void start() {
+        callbacksQueue.startQueue();
+    }
+
+    public void stop() throws NoSuchNotificationQueue {
+        if (callbacksQueue != null) {
+            if (!callbacksQueue.stopQueue()) {
+                log.warn("Timed out while shutting down {} queue: IN_PROCESSING entries might be left behind", callbacksQueue.getFullQName());
+            }
+            notificationQueueService.deleteNotificationQueue(KILLBILL_SERVICES.PAYMENT_SERVICE.getServiceName(), QUEUE_NAME);
+        }
+    }
+
+    /**
+     * @return the control plugins, in order, whose callbacks are to be run asynchronously
+     */
+    public List<String> getAsyncPluginNames(final List<String> paymentControlPluginNames) {
+        final List<String> configuredAsyncPluginNames = paymentConfig.getAsyncPaymentControlPluginNames();
+        final List<String> asyncPluginNames = new ArrayList<>();
+        if (configuredAsyncPluginNames == null || configuredAsyncPluginNames.isEmpty()) {
+            return asyncPluginNames;
+        }
+        for (final String controlPluginName : paymentControlPluginNames) {
+            if (configuredAsyncPluginNames.contains(controlPluginName)) {
+                asyncPluginNames.add(controlPluginName);
+            }
+        }
+        return asyncPluginNames;
+    }
+
+    /**
+     * @return false if the callbacks couldn't be dispatched, in which case they should be run synchronously
+     */
+    public boolean dispatch(final boolean success,
+                            final List<String> asyncPluginNames,
+                            final DefaultPaymentControlContext paymentControlContext,
+                            final Iterable<PluginProperty> pluginProperties,
+                            final CallContext callContext) {
+        if (asyncPluginNames.isEmpty()) {
+            return true;
+        }
+        // Notifications are per account (e.g. PSP notifications for unknown accounts)
+        if (callbacksQueue == null || paymentControlContext.getAccountId() == null) {
+            return false;
+        }
+
+        try {
+            final ControlPluginCallbackNotificationKey key = new ControlPluginCallbackNotificationKey(UUID.randomUUID(),
+                                                                                                     clock.getUTCNow().getMillis(),
+                                                                                                     success,
+                                                                                                     asyncPluginNames,
+                                                                                                     paymentControlContext.getAccountId(),
+                                                                                                     paymentControlContext.getTenantId(),
+                                                                                                     paymentControlContext.getPaymentMethodId(),
+                                                                                                     paymentControlContext.getPaymentPluginName(),
+                                                                                                     paymentControlContext.getAttemptPaymentId(),
+                                                                                                     paymentControlContext.getPaymentId(),
+                                                                                                     paymentControlContext.getPaymentExternalKey(),
+                                                                                                     paymentControlContext.getTransactionId(),
+                                                                                                     paymentControlContext.getTransactionExternalKey(),
+                                                                                                     paymentControlContext.getPaymentApiType(),
+                                                                                                     paymentControlContext.getTransactionType(),
+                                                                                                     paymentControlContext.getHPPType(),
+                                                                                                     paymentControlContext.getAmount(),
+                                                                                                     paymentControlContext.getCurrency(),
+                                                                                                     paymentControlContext.getProcessedAmount(),
+                                                                                                     paymentControlContext.getProcessedCurrency(),
+                                                                                                     paymentControlContext.isApiPayment(),
+                                                                                                     callContext.getUserName(),
+                                                                                                     callContext.getCallOrigin(),
+                                                                                                     callContext.getUserType(),
+                                                                                                     callContext.getReasonCode(),
+                                                                                                     callContext.getComments(),
+                                                                                                     PluginPropertySerializer.serialize(pluginProperties));
+            final InternalCallContext internalCallContext = internalCallContextFactory.createInternalCallContext(paymentControlContext.getAccountId(), callContext);
+            callbacksQueue.recordFutureNotification(clock.getUTCNow(), key, callContext.getUserToken(), internalCallContext.getAccountRecordId(), internalCallContext.getTenantRecordId());
+            return true;
+        } catch (final PluginPropertySerializerException e) {
+            log.warn("Unable to serialize plugin properties, running callbacks of plugins='{}' synchronously for paymentExternalKey='{}'", asyncPluginNames, paymentControlContext.getPaymentExternalKey(), e);
+        } catch (final Exception e) {
+            log.warn("Unable to dispatch callbacks of plugins='{}', running them synchronously for paymentExternalKey='{}'", asyncPluginNames, paymentControlContext.getPaymentExternalKey(), e);
+        }
+        return false;
+    }
+
+    private void processNotification(final ControlPluginCallbackNotificationKey key, final UUID userToken, final Long accountRecordId, final Long tenantRecordId) {
+        if (hasPreviousCallbacks(key, accountRecordId, tenantRecordId)) {
+            log.debug("Postponing callbacks {}: previous callbacks of the payment aren't done yet", key);
+            try {
+                callbacksQueue.recordFutureNotification(clock.getUTCNow().plus(ORDERING_RETRY_DELAY_MS), key, userToken, accountRecordId, tenantRecordId);
+            } catch (final Exception e) {
+                // The queue will retry the whole notification
+                throw new IllegalStateException(String.format("Unable to postpone callbacks %s", key), e);
+            }
+            return;
+        }
+
+        final Iterable<PluginProperty> pluginProperties;
+        try {
+            pluginProperties = PluginPropertySerializer.deserialize(key.getPluginProperties());
+        } catch (final PluginPropertySerializerException e) {
+            log.warn("Unable to deserialize plugin properties, skipping callbacks {}", key, e);
+            return;
+        }
+
+        final DateTime dispatchedDate = new DateTime(key.getDispatchedDateMillis(), DateTimeZone.UTC);
+        final CallContext callContext = new DefaultCallContext(key.getAccountId(),
+                                                               key.getTenantId(),
+                                                               key.getUserName(),
+                                                               key.getCallOrigin(),
+                                                               key.getUserType(),
+                                                               key.getReasonCode(),
+                                                               key.getComments(),
+                                                               userToken,
+                                                               dispatchedDate,
+                                                               dispatchedDate);
+        final DefaultPaymentControlContext paymentControlContext = new DefaultPaymentControlContext(key.getAccountId(),
+                                                                                                    key.getPaymentMethodId(),
+                                                                                                    key.getPluginName(),
+                                                                                                    key.getAttemptId(),
+                                                                                                    key.getPaymentId(),
+                                                                                                    key.getPaymentExternalKey(),
+                                                                                                    key.getTransactionId(),
+                                                                                                    key.getTransactionExternalKey(),
+                                                                                                    key.getPaymentApiType(),
+                                                                                                    key.getTransactionType(),
+                                                                                                    key.getHppType(),
+                                                                                                    key.getAmount(),
+                                                                                                    key.getCurrency(),
+                                                                                                    key.getProcessedAmount(),
+                                                                                                    key.getProcessedCurrency(),
+                                                                                                    key.isApiPayment(),
+                                                                                                    callContext);
+        if (key.isSuccess()) {
+            controlPluginRunnerProvider.get().runOnSuccessCalls(paymentControlContext, key.getPaymentControlPluginNames(), pluginProperties);
+        } else {
+            controlPluginRunnerProvider.get().runOnFailureCalls(paymentControlContext, key.getPaymentControlPluginNames(), pluginProperties);
+        }
+    }
+
+    private boolean hasPreviousCallbacks(final ControlPluginCallbackNotificationKey key, final Long accountRecordId, final Long tenantRecordId) {
+        final Iterable<NotificationEventWithMetadata<ControlPluginCallbackNotificationKey>> notifications = callbacksQueue.getFutureOrInProcessingNotificationForSearchKeys(accountRecordId, tenantRecordId);
+        for (final NotificationEventWithMetadata<ControlPluginCallbackNotificationKey> notification : notifications) {
+            final ControlPluginCallbackNotificationKey other = notification.getEvent();
+            if (!other.getCallbackId().equals(key.getCallbackId()) &&
+                other.getOrderingKey().equals(key.getOrderingKey()) &&
+                other.isDispatchedBefore(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
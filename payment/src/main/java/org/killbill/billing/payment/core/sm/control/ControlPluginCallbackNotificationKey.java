@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.payment.core.sm.control;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.control.plugin.api.HPPType;
+import org.killbill.billing.control.plugin.api.PaymentApiType;
+import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.UserType;
+import org.killbill.notificationq.api.NotificationEvent;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Asynchronous onSuccessCall/onFailureCall of payment control plugins: carries everything needed to rebuild the PaymentControlContext.
+ */
+public class ControlPluginCallbackNotificationKey implements NotificationEvent {
+
+    private final UUID callbackId;
+    private final long dispatchedDateMillis;
+    private final boolean success;
+    private final List<String> paymentControlPluginNames;
+    private final UUID accountId;
+    private final UUID tenantId;
+    private final UUID paymentMethodId;
+    private final String pluginName;
+    private final UUID attemptId;
+    private final UUID paymentId;
+    private final String paymentExternalKey;
+    private final UUID transactionId;
+    private final String transactionExternalKey;
+    private final PaymentApiType paymentApiType;
+    private final TransactionType transactionType;
+    private final HPPType hppType;
+    private final BigDecimal amount;
+    private final Currency currency;
+    private final BigDecimal processedAmount;
+    private final Currency processedCurrency;
+    private final boolean isApiPayment;
+    private final String userName;
+    private final CallOrigin callOrigin;
+    private final UserType userType;
+    private final String reasonCode;
+    private final String comments;
+    private final byte[] pluginProperties;
+
+    @JsonCreator
+    public ControlPluginCallbackNotificationKey(@JsonProperty("callbackId") final UUID callbackId,
+                                                @JsonProperty("dispatchedDateMillis") final long dispatchedDateMillis,
+                                                @JsonProperty("success") final boolean success,
+                                                @JsonProperty("paymentControlPluginNames") final List<String> paymentControlPluginNames,
+                                                @JsonProperty("accountId") final UUID accountId,
+                                                @JsonProperty("tenantId") @Nullable final UUID tenantId,
+                                                @JsonProperty("paymentMethodId") @Nullable final UUID paymentMethodId,
+                                                @JsonProperty("pluginName") @Nullable final String pluginName,
+                                                @JsonProperty("attemptId") @Nullable final UUID attemptId,
+                                                @JsonProperty("paymentId") @Nullable final UUID paymentId,
+                                                @JsonProperty("paymentExternalKey") @Nullable final String paymentExternalKey,
+                                                @JsonProperty("transactionId") @Nullable final UUID transactionId,
+                                                @JsonProperty("transactionExternalKey") @Nullable final String transactionExternalKey,
+                                                @JsonProperty("paymentApiType") @Nullable final PaymentApiType paymentApiType,
+                                                @JsonProperty("transactionType") @Nullable final TransactionType transactionType,
+                                                @JsonProperty("hppType") @Nullable final HPPType hppType,
+                                                @JsonProperty("amount") @Nullable final BigDecimal amount,
+                                                @JsonProperty("currency") @Nullable final Currency currency,
+                                                @JsonProperty("processedAmount") @Nullable final BigDecimal processedAmount,
+                                                @JsonProperty("processedCurrency") @Nullable final Currency processedCurrency,
+                                                @JsonProperty("apiPayment") final boolean isApiPayment,
+                                                @JsonProperty("userName") @Nullable final String userName,
+                                                @JsonProperty("callOrigin") @Nullable final CallOrigin callOrigin,
+                                                @JsonProperty("userType") @Nullable final UserType userType,
+                                                @JsonProperty("reasonCode") @Nullable final String reasonCode,
+                                                @JsonProperty("comments") @Nullable final String comments,
+                                                @JsonProperty("pluginProperties") final byte[] pluginProperties) {
+        this.callbackId = callbackId;
+        this.dispatchedDateMillis = dispatchedDateMillis;
+        this.success = success;
+        this.paymentControlPluginNames = paymentControlPluginNames;
+        this.accountId = accountId;
+        this.tenantId = tenantId;
+        this.paymentMethodId = paymentMethodId;
+        this.pluginName = pluginName;
+        this.attemptId = attemptId;
+        this.paymentId = paymentId;
+        this.paymentExternalKey = paymentExternalKey;
+        this.transactionId = transactionId;
+        this.transactionExternalKey = transactionExternalKey;
+        this.paymentApiType = paymentApiType;
+        this.transactionType = transactionType;
+        this.hppType = hppType;
+        this.amount = amount;
+        this.currency = currency;
+        this.processedAmount = processedAmount;
+        this.processedCurrency = processedCurrency;
+        this.isApiPayment = isApiPayment;
+        this.userName = userName;
+        this.callOrigin = callOrigin;
+        this.userType = userType;
+        this.reasonCode = reasonCode;
+        this.comments = comments;
+        this.pluginProperties = pluginProperties;
+    }
+
+    public UUID getCallbackId() {
+        return callbackId;
+    }
+
+    public long getDispatchedDateMillis() {
+        return dispatchedDateMillis;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public List<String> getPaymentControlPluginNames() {
+        return paymentControlPluginNames;
+    }
+
+    public UUID getAccountId() {
+        return accountId;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public UUID getPaymentMethodId() {
+        return paymentMethodId;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public UUID getAttemptId() {
+        return attemptId;
+    }
+
+    public UUID getPaymentId() {
+        return paymentId;
+    }
+
+    public String getPaymentExternalKey() {
+        return paymentExternalKey;
+    }
+
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    public String getTransactionExternalKey() {
+        return transactionExternalKey;
+    }
+
+    public PaymentApiType getPaymentApiType() {
+        return paymentApiType;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public HPPType getHppType() {
+        return hppType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal getProcessedAmount() {
+        return processedAmount;
+    }
+
+    public Currency getProcessedCurrency() {
+        return processedCurrency;
+    }
+
+    public boolean isApiPayment() {
+        return isApiPayment;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public CallOrigin getCallOrigin() {
+        return callOrigin;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public String getReasonCode() {
+        return reasonCode;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public byte[] getPluginProperties() {
+        return pluginProperties;
+    }
+
+    // Callbacks sharing the same ordering key are run in the order they were dispatched
+    @JsonIgnore
+    public String getOrderingKey() {
+        if (paymentId != null) {
+            return paymentId.toString();
+        } else if (paymentExternalKey != null) {
+            return paymentExternalKey;
+        } else {
+            return callbackId.toString();
+        }
+    }
+
+    @JsonIgnore
+    public boolean isDispatchedBefore(final ControlPluginCallbackNotificationKey other) {
+        if (dispatchedDateMillis != other.dispatchedDateMillis) {
+            return dispatchedDateMillis < other.dispatchedDateMillis;
+        }
+        // Same millisecond (e.g. frozen clock): the order is arbitrary but stable, so that callbacks are at least not run concurrently
+        return callbackId.compareTo(other.callbackId) < 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ControlPluginCallbackNotificationKey{");
+        sb.append("callbackId=").append(callbackId);
+        sb.append(", dispatchedDateMillis=").append(dispatchedDateMillis);
+        sb.append(", success=").append(success);
+        sb.append(", paymentControlPluginNames=").append(paymentControlPluginNames);
+        sb.append(", paymentId=").append(paymentId);
+        sb.append(", paymentExternalKey='").append(paymentExternalKey).append('\'');
+        sb.append(", transactionId=").append(transactionId);
+        sb.append(", transactionType=").append(transactionType);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ControlPluginCallbackNotificationKey that = (ControlPluginCallbackNotificationKey) o;
+        return Objects.equals(callbackId, that.callbackId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(callbackId);
+    }
+}
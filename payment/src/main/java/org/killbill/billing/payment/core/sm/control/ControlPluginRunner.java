@@ -18,6 +18,7 @@
 package org.killbill.billing.payment.core.sm.control;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -53,12 +54,15 @@ public class ControlPluginRunner {
 
     private final OSGIServiceRegistration<PaymentControlPluginApi> paymentControlPluginRegistry;
     private final PaymentConfig paymentConfig;
+    private final AsyncControlPluginCallbacks asyncControlPluginCallbacks;
 
     @Inject
     public ControlPluginRunner(final OSGIServiceRegistration<PaymentControlPluginApi> paymentControlPluginRegistry,
-                              final PaymentConfig paymentConfig) {
+                              final PaymentConfig paymentConfig,
+                              final AsyncControlPluginCallbacks asyncControlPluginCallbacks) {
         this.paymentControlPluginRegistry = paymentControlPluginRegistry;
         this.paymentConfig = paymentConfig;
+        this.asyncControlPluginCallbacks = asyncControlPluginCallbacks;
     }
 
     public PriorPaymentControlResult executePluginPriorCalls(final Account account,
@@ -176,24 +180,30 @@ public class ControlPluginRunner {
                                                                      final CallContext callContext) {
 
         final UUID accountId = account != null ? account.getId() : null;
-        final PaymentControlContext inputPaymentControlContext = new DefaultPaymentControlContext(accountId,
-                                                                                                  paymentMethodId,
-                                                                                                  pluginName,
-                                                                                                  paymentAttemptId,
-                                                                                                  paymentId,
-                                                                                                  paymentExternalKey,
-                                                                                                  paymentTransactionId,
-                                                                                                  paymentTransactionExternalKey,
-                                                                                                  paymentApiType,
-                                                                                                  transactionType,
-                                                                                                  hppType,
-                                                                                                  amount,
-                                                                                                  currency,
-                                                                                                  processedAmount,
-                                                                                                  processedCurrency,
-                                                                                                  isApiPayment,
-                                                                                                  callContext);
+        final DefaultPaymentControlContext inputPaymentControlContext = new DefaultPaymentControlContext(accountId,
+                                                                                                         paymentMethodId,
+                                                                                                         pluginName,
+                                                                                                         paymentAttemptId,
+                                                                                                         paymentId,
+                                                                                                         paymentExternalKey,
+                                                                                                         paymentTransactionId,
+                                                                                                         paymentTransactionExternalKey,
+                                                                                                         paymentApiType,
+                                                                                                         transactionType,
+                                                                                                         hppType,
+                                                                                                         amount,
+                                                                                                         currency,
+                                                                                                         processedAmount,
+                                                                                                         processedCurrency,
+                                                                                                         isApiPayment,
+                                                                                                         callContext);
+
+        return runOnSuccessCalls(inputPaymentControlContext, getSynchronousPluginNames(true, paymentControlPluginNames, inputPaymentControlContext, pluginProperties, callContext), pluginProperties);
+    }
 
+    OnSuccessPaymentControlResult runOnSuccessCalls(final PaymentControlContext inputPaymentControlContext,
+                                                    final List<String> paymentControlPluginNames,
+                                                    final Iterable<PluginProperty> pluginProperties) {
         Iterable<PluginProperty> inputPluginProperties = pluginProperties;
         for (final String controlPluginName : paymentControlPluginNames) {
             final PaymentControlPluginApi plugin = paymentControlPluginRegistry.getServiceForName(controlPluginName);
@@ -242,24 +252,30 @@ public class ControlPluginRunner {
                                                                      final CallContext callContext) {
 
         final UUID accountId = account != null ? account.getId() : null;
-        final PaymentControlContext inputPaymentControlContext = new DefaultPaymentControlContext(accountId,
-                                                                                                  paymentMethodId,
-                                                                                                  pluginName,
-                                                                                                  paymentAttemptId,
-                                                                                                  paymentId,
-                                                                                                  paymentExternalKey,
-                                                                                                  transactionId,
-                                                                                                  paymentTransactionExternalKey,
-                                                                                                  paymentApiType,
-                                                                                                  transactionType,
-                                                                                                  hppType,
-                                                                                                  amount,
-                                                                                                  currency,
-                                                                                                  processedAmount,
-                                                                                                  processedCurrency,
-                                                                                                  isApiPayment,
-                                                                                                  callContext);
+        final DefaultPaymentControlContext inputPaymentControlContext = new DefaultPaymentControlContext(accountId,
+                                                                                                         paymentMethodId,
+                                                                                                         pluginName,
+                                                                                                         paymentAttemptId,
+                                                                                                         paymentId,
+                                                                                                         paymentExternalKey,
+                                                                                                         transactionId,
+                                                                                                         paymentTransactionExternalKey,
+                                                                                                         paymentApiType,
+                                                                                                         transactionType,
+                                                                                                         hppType,
+                                                                                                         amount,
+                                                                                                         currency,
+                                                                                                         processedAmount,
+                                                                                                         processedCurrency,
+                                                                                                         isApiPayment,
+                                                                                                         callContext);
+
+        return runOnFailureCalls(inputPaymentControlContext, getSynchronousPluginNames(false, paymentControlPluginNames, inputPaymentControlContext, pluginProperties, callContext), pluginProperties);
+    }
 
+    OnFailurePaymentControlResult runOnFailureCalls(final PaymentControlContext inputPaymentControlContext,
+                                                    final List<String> paymentControlPluginNames,
+                                                    final Iterable<PluginProperty> pluginProperties) {
         DateTime candidate = null;
         Iterable<PluginProperty> inputPluginProperties = pluginProperties;
 
@@ -294,6 +310,22 @@ public class ControlPluginRunner {
         return new DefaultFailureCallResult(candidate, inputPluginProperties);
     }
 
+    // Dispatch the callbacks of the asynchronous plugins (if any) and return the plugins to call right away
+    private List<String> getSynchronousPluginNames(final boolean success,
+                                                   final List<String> paymentControlPluginNames,
+                                                   final DefaultPaymentControlContext inputPaymentControlContext,
+                                                   final Iterable<PluginProperty> pluginProperties,
+                                                   final CallContext callContext) {
+        final List<String> asyncPluginNames = asyncControlPluginCallbacks.getAsyncPluginNames(paymentControlPluginNames);
+        if (asyncPluginNames.isEmpty() || !asyncControlPluginCallbacks.dispatch(success, asyncPluginNames, inputPaymentControlContext, pluginProperties, callContext)) {
+            return paymentControlPluginNames;
+        }
+
+        final List<String> syncPluginNames = new ArrayList<>(paymentControlPluginNames);
+        syncPluginNames.removeAll(asyncPluginNames);
+        return syncPluginNames;
+    }
+
     public static class DefaultPaymentControlContext extends DefaultCallContext implements PaymentControlContext {
 
         private final UUID paymentMethodId;
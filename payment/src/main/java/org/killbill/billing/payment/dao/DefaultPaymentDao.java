@@ -62,6 +62,7 @@ import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.entity.Entity;
 import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.KeysetPaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.EntityDaoBase;
@@ -217,6 +218,32 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
                                              );
     }
 
+    @Override
+    public List<PaymentTransactionModelDao> getByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, final DateTime createdBeforeDate, final Long fromRecordId, final int nbShards, final int shardIndex, final int limit) {
+        final Collection<String> allTransactionStatus = Iterables.toStream(transactionStatuses)
+                .map(Enum::toString)
+                .collect(Collectors.toUnmodifiableList());
+        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<PaymentTransactionModelDao>>() {
+            @Override
+            public List<PaymentTransactionModelDao> inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                return entitySqlDaoWrapperFactory.become(TransactionSqlDao.class).getByTransactionStatusForShardAcrossTenants(allTransactionStatus, createdBeforeDate.toDate(), fromRecordId, nbShards, shardIndex, limit);
+            }
+        });
+    }
+
+    @Override
+    public Long getCountByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, final DateTime createdBeforeDate, final int nbShards, final int shardIndex) {
+        final Collection<String> allTransactionStatus = Iterables.toStream(transactionStatuses)
+                .map(Enum::toString)
+                .collect(Collectors.toUnmodifiableList());
+        return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<Long>() {
+            @Override
+            public Long inTransaction(final EntitySqlDaoWrapperFactory entitySqlDaoWrapperFactory) throws Exception {
+                return entitySqlDaoWrapperFactory.become(TransactionSqlDao.class).getCountByTransactionStatusForShardAcrossTenants(allTransactionStatus, createdBeforeDate.toDate(), nbShards, shardIndex);
+            }
+        });
+    }
+
     @Override
     public List<PaymentTransactionModelDao> getPaymentTransactionsByExternalKey(final String transactionExternalKey, final InternalTenantContext context) {
         return transactionalSqlDao.execute(true, new EntitySqlDaoTransactionWrapper<List<PaymentTransactionModelDao>>() {
@@ -260,6 +287,15 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
 
     @Override
     public Pagination<PaymentModelDao> searchPayments(final String searchKey, final Long offset, final Long limit, final InternalTenantContext context) {
+        return searchPayments(searchKey, offset, limit, false, context);
+    }
+
+    @Override
+    public Pagination<PaymentModelDao> searchPaymentsFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        return searchPayments(searchKey, fromRecordId, limit, true, context);
+    }
+
+    private Pagination<PaymentModelDao> searchPayments(final String searchKey, final Long offsetOrRecordId, final Long limit, final boolean keyset, final InternalTenantContext context) {
         // Optimization: if the search key looks like a state name (e.g. _ERRORED), assume the user is searching by state only
         final List<String> paymentStates = expandSearchFilterToStateNames(searchKey);
 
@@ -285,6 +321,21 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
             searchQuery.addSearchClause("payment_method_id", SqlOperator.EQ, searchKey);
             searchQuery.addSearchClause("external_key", SqlOperator.LIKE, likeSearchKey);
         }
+        if (keyset) {
+            return paginationHelper.getKeysetPagination(PaymentSqlDao.class,
+                                                        new KeysetPaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao>() {
+                                                            @Override
+                                                            public Iterator<PaymentModelDao> buildFromRecordId(final PaymentSqlDao paymentSqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                                return !paymentStates.isEmpty() ?
+                                                                       paymentSqlDao.searchByStateFromRecordId(paymentStates, recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context) :
+                                                                       paymentSqlDao.searchFromRecordId(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+                                                            }
+                                                        },
+                                                        offsetOrRecordId,
+                                                        limit,
+                                                        context);
+        }
+
         return paginationHelper.getPagination(PaymentSqlDao.class,
                                               new PaginationIteratorBuilder<PaymentModelDao, Payment, PaymentSqlDao>() {
                                                   @Override
@@ -297,7 +348,7 @@ public class DefaultPaymentDao extends EntityDaoBase<PaymentModelDao, Payment, P
                                                       return !paymentStates.isEmpty() ? paymentSqlDao.searchByState(paymentStates, offset, limit, ordering.toString(), context) : paymentSqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
                                                   }
                                               },
-                                              offset,
+                                              offsetOrRecordId,
                                               limit,
                                               context);
     }
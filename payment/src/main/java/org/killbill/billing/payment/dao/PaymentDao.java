@@ -39,6 +39,10 @@ public interface PaymentDao extends EntityDao<PaymentModelDao, Payment, PaymentA
 
     public Pagination<PaymentTransactionModelDao> getByTransactionStatusAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, DateTime createdBeforeDate, DateTime createdAfterDate, final Long offset, final Long limit);
 
+    public List<PaymentTransactionModelDao> getByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, DateTime createdBeforeDate, final Long fromRecordId, final int nbShards, final int shardIndex, final int limit);
+
+    public Long getCountByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, DateTime createdBeforeDate, final int nbShards, final int shardIndex);
+
     public PaymentAttemptModelDao insertPaymentAttemptWithProperties(PaymentAttemptModelDao attempt, InternalCallContext context);
 
     public void updatePaymentAttemptWithProperties(UUID paymentAttemptId, UUID paymentMethodId, UUID transactionId, String state, final BigDecimal amount, final Currency currency, final byte[] pluginProperties, InternalCallContext context);
@@ -57,6 +61,9 @@ public interface PaymentDao extends EntityDao<PaymentModelDao, Payment, PaymentA
 
     public Pagination<PaymentModelDao> searchPayments(String searchKey, Long offset, Long limit, InternalTenantContext context);
 
+    // Keyset pagination, see DefaultPaginationSqlDaoHelper#getKeysetPagination
+    public Pagination<PaymentModelDao> searchPaymentsFromRecordId(String searchKey, Long fromRecordId, Long limit, InternalTenantContext context);
+
     public PaymentAndTransactionModelDao insertPaymentWithFirstTransaction(PaymentModelDao payment, PaymentTransactionModelDao paymentTransaction, InternalCallContext context);
 
     public PaymentTransactionModelDao updatePaymentWithNewTransaction(UUID paymentId, PaymentTransactionModelDao paymentTransaction, InternalCallContext context);
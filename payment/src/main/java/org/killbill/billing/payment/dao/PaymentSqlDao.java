@@ -28,6 +28,7 @@ import org.killbill.billing.payment.api.Payment;
 import org.killbill.billing.util.audit.ChangeType;
 import org.killbill.billing.util.entity.dao.Audited;
 import org.killbill.billing.util.entity.dao.EntitySqlDao;
+import org.killbill.billing.util.entity.dao.SqlOperator;
 import org.killbill.commons.jdbi.binder.SmartBindBean;
 import org.killbill.commons.jdbi.statement.SmartFetchSize;
 import org.killbill.commons.jdbi.template.KillBillSqlDaoStringTemplate;
@@ -76,6 +77,15 @@ public interface PaymentSqlDao extends EntitySqlDao<PaymentModelDao, Payment> {
                                                    @Define("ordering") final String ordering,
                                                    @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<PaymentModelDao> searchByStateFromRecordId(@BindIn("states") final Collection<String> paymentStates,
+                                                               @Bind("recordId") final Long recordId,
+                                                               @Bind("rowCount") final Long rowCount,
+                                                               @Define("comparisonOperator") final SqlOperator comparisonOperator,
+                                                               @Define("ordering") final String ordering,
+                                                               @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getSearchByStateCount(@BindIn("states") final Collection<String> paymentStates,
                                       @SmartBindBean final InternalTenantContext context);
@@ -69,6 +69,20 @@ public interface TransactionSqlDao extends EntitySqlDao<PaymentTransactionModelD
                                                                                       @Bind("rowCount") final Long rowCount,
                                                                                       @Define("ordering") final String ordering);
 
+    @SqlQuery
+    Long getCountByTransactionStatusForShardAcrossTenants(@BindIn("statuses") final Collection<String> statuses,
+                                                          @Bind("createdBeforeDate") final Date createdBeforeDate,
+                                                          @Bind("nbShards") final int nbShards,
+                                                          @Bind("shardIndex") final int shardIndex);
+
+    @SqlQuery
+    List<PaymentTransactionModelDao> getByTransactionStatusForShardAcrossTenants(@BindIn("statuses") final Collection<String> statuses,
+                                                                                 @Bind("createdBeforeDate") final Date createdBeforeDate,
+                                                                                 @Bind("fromRecordId") final Long fromRecordId,
+                                                                                 @Bind("nbShards") final int nbShards,
+                                                                                 @Bind("shardIndex") final int shardIndex,
+                                                                                 @Bind("rowCount") final int rowCount);
+
     @SqlQuery
     public List<PaymentTransactionModelDao> getByPaymentId(@Bind("paymentId") final UUID paymentId,
                                                            @SmartBindBean final InternalTenantContext context);
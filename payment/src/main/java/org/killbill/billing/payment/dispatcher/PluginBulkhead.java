@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.payment.dispatcher;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
+
+/**
+ * Per-plugin bulkhead: caps the number of in-flight calls to a given plugin, so that a degraded plugin cannot
+ * monopolize the shared plugin executor, and records how long calls wait before running.
+ */
+public class PluginBulkhead {
+
+    private static final String METRIC_PREFIX = "killbill.payment.plugin";
+
+    private final String pluginName;
+    // Null when the number of concurrent calls isn't capped
+    private final Semaphore permits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Histogram bulkheadWaitMs;
+    private final Histogram queueWaitMs;
+
+    public PluginBulkhead(final String pluginName, final int maxConcurrentCalls, final MetricRegistry metricRegistry) {
+        this.pluginName = pluginName;
+        this.permits = maxConcurrentCalls > 0 ? new Semaphore(maxConcurrentCalls, true) : null;
+        this.bulkheadWaitMs = metricRegistry.histogram(String.format("%s.%s.bulkheadWaitMs", METRIC_PREFIX, pluginName));
+        this.queueWaitMs = metricRegistry.histogram(String.format("%s.%s.queueWaitMs", METRIC_PREFIX, pluginName));
+        metricRegistry.gauge(String.format("%s.%s.inFlight", METRIC_PREFIX, pluginName), inFlight::get);
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    /**
+     * @return false if no permit could be obtained within the timeout
+     */
+    public boolean tryAcquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long startNanos = System.nanoTime();
+        if (permits != null && !permits.tryAcquire(timeout, unit)) {
+            return false;
+        }
+        inFlight.incrementAndGet();
+        bulkheadWaitMs.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return true;
+    }
+
+    public void recordQueueWait(final long queueWaitNanos) {
+        queueWaitMs.update(TimeUnit.NANOSECONDS.toMillis(queueWaitNanos));
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -22,9 +22,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import javax.annotation.Nullable;
+
 import org.apache.shiro.util.ThreadContext;
 import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.util.UUIDs;
@@ -48,12 +51,26 @@ public class PluginDispatcher<ReturnType> {
 
     // TODO Once we switch fully to automata, should this throw PaymentPluginApiException instead?
     public ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task) throws TimeoutException, ExecutionException, InterruptedException {
-        return dispatchWithTimeout(task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+        return dispatchWithTimeout(null, task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
+    }
+
+    public ReturnType dispatchWithTimeout(@Nullable final String pluginName, final Callable<PluginDispatcherReturnType<ReturnType>> task) throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(pluginName, task, timeoutSeconds, DEFAULT_PLUGIN_TIMEOUT_UNIT);
     }
 
     @VisibleForTesting
     ReturnType dispatchWithTimeout(final Callable<PluginDispatcherReturnType<ReturnType>> task, final long timeout, final TimeUnit unit)
             throws TimeoutException, ExecutionException, InterruptedException {
+        return dispatchWithTimeout(null, task, timeout, unit);
+    }
+
+    //
+    // When the payment plugin name is passed (null for the control plugins), the call first goes through its bulkhead: the time spent waiting for a permit
+    // counts towards the timeout, and the permit is released once the plugin call completes (even if the caller timed out).
+    //
+    @VisibleForTesting
+    ReturnType dispatchWithTimeout(@Nullable final String pluginName, final Callable<PluginDispatcherReturnType<ReturnType>> task, final long timeout, final TimeUnit unit)
+            throws TimeoutException, ExecutionException, InterruptedException {
 
         final ExecutorService pluginExecutor = paymentExecutors.getPluginExecutorService();
 
@@ -65,8 +82,37 @@ public class PluginDispatcher<ReturnType> {
                                                                                                                      MDC.getCopyOfContextMap(),
                                                                                                                      task);
 
-        final Future<PluginDispatcherReturnType<ReturnType>> future = pluginExecutor.submit(callableWithRequestData);
-        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(timeout, unit);
+        final PluginBulkhead bulkhead = pluginName != null ? paymentExecutors.getPluginBulkhead(pluginName) : null;
+        final Future<PluginDispatcherReturnType<ReturnType>> future;
+        final long remainingTimeout;
+        if (bulkhead == null) {
+            future = pluginExecutor.submit(callableWithRequestData);
+            remainingTimeout = unit.toNanos(timeout);
+        } else {
+            final long startNanos = System.nanoTime();
+            if (!bulkhead.tryAcquire(timeout, unit)) {
+                throw new TimeoutException(String.format("Too many concurrent calls to plugin %s", pluginName));
+            }
+            final long acquiredNanos = System.nanoTime();
+            remainingTimeout = unit.toNanos(timeout) - (acquiredNanos - startNanos);
+            try {
+                future = pluginExecutor.submit(new Callable<PluginDispatcherReturnType<ReturnType>>() {
+                    @Override
+                    public PluginDispatcherReturnType<ReturnType> call() throws Exception {
+                        bulkhead.recordQueueWait(System.nanoTime() - acquiredNanos);
+                        try {
+                            return callableWithRequestData.call();
+                        } finally {
+                            bulkhead.release();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                bulkhead.release();
+                throw e;
+            }
+        }
+        final PluginDispatcherReturnType<ReturnType> pluginDispatcherResult = future.get(remainingTimeout, TimeUnit.NANOSECONDS);
 
         if (pluginDispatcherResult instanceof WithProfilingPluginDispatcherReturnType) {
             // Transfer state from dispatch thread into current one.
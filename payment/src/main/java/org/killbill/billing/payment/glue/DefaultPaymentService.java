@@ -25,6 +25,7 @@ import org.killbill.billing.payment.bus.PaymentBusEventHandler;
 import org.killbill.billing.payment.caching.StateMachineConfigCache;
 import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.payment.core.janitor.Janitor;
+import org.killbill.billing.payment.core.sm.control.AsyncControlPluginCallbacks;
 import org.killbill.billing.payment.invoice.PaymentTagHandler;
 import org.killbill.billing.payment.retry.DefaultRetryService;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
@@ -48,6 +49,7 @@ public class DefaultPaymentService implements PaymentService {
     private final PaymentApi api;
     private final DefaultRetryService retryService;
     private final Janitor janitor;
+    private final AsyncControlPluginCallbacks asyncControlPluginCallbacks;
     private final PaymentExecutors paymentExecutors;
     private final StateMachineConfigCache stateMachineConfigCache;
 
@@ -58,6 +60,7 @@ public class DefaultPaymentService implements PaymentService {
                                  final DefaultRetryService retryService,
                                  final BusOptimizer eventBus,
                                  final Janitor janitor,
+                                 final AsyncControlPluginCallbacks asyncControlPluginCallbacks,
                                  final PaymentExecutors paymentExecutors,
                                  final StateMachineConfigCache stateMachineConfigCache) {
         this.paymentBusEventHandler = paymentBusEventHandler;
@@ -66,6 +69,7 @@ public class DefaultPaymentService implements PaymentService {
         this.api = api;
         this.retryService = retryService;
         this.janitor = janitor;
+        this.asyncControlPluginCallbacks = asyncControlPluginCallbacks;
         this.paymentExecutors = paymentExecutors;
         this.stateMachineConfigCache = stateMachineConfigCache;
     }
@@ -97,12 +101,14 @@ public class DefaultPaymentService implements PaymentService {
         paymentExecutors.initialize();
         retryService.initialize();
         janitor.initialize();
+        asyncControlPluginCallbacks.initialize();
     }
 
     @LifecycleHandlerType(LifecycleLevel.START_SERVICE)
     public void start() {
         retryService.start();
         janitor.start();
+        asyncControlPluginCallbacks.start();
     }
 
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
@@ -115,6 +121,7 @@ public class DefaultPaymentService implements PaymentService {
         }
         retryService.stop();
         janitor.stop();
+        asyncControlPluginCallbacks.stop();
         try {
             paymentExecutors.stop();
         } catch (InterruptedException e) {
@@ -48,11 +48,13 @@ import org.killbill.billing.payment.core.PaymentPluginServiceRegistration;
 import org.killbill.billing.payment.core.PaymentProcessor;
 import org.killbill.billing.payment.core.PluginControlPaymentProcessor;
 import org.killbill.billing.payment.core.janitor.IncompletePaymentAttemptTask;
+import org.killbill.billing.payment.core.janitor.IncompletePaymentTransactionSweepTask;
 import org.killbill.billing.payment.core.janitor.IncompletePaymentTransactionTask;
 import org.killbill.billing.payment.core.janitor.Janitor;
 import org.killbill.billing.payment.core.sm.PaymentControlStateMachineHelper;
 import org.killbill.billing.payment.core.sm.PaymentStateMachineHelper;
 import org.killbill.billing.payment.core.sm.PluginControlPaymentAutomatonRunner;
+import org.killbill.billing.payment.core.sm.control.AsyncControlPluginCallbacks;
 import org.killbill.billing.payment.core.sm.control.ControlPluginRunner;
 import org.killbill.billing.payment.dao.DefaultPaymentDao;
 import org.killbill.billing.payment.dao.PaymentDao;
@@ -126,6 +128,7 @@ public class PaymentModule extends KillBillModule {
         bind(PaymentStateMachineHelper.class).asEagerSingleton();
 
         bind(ControlPluginRunner.class).asEagerSingleton();
+        bind(AsyncControlPluginCallbacks.class).asEagerSingleton();
     }
 
     protected void installAutomatonRunner() {
@@ -135,6 +138,7 @@ public class PaymentModule extends KillBillModule {
     protected void installProcessors(final PaymentConfig paymentConfig) {
         bind(IncompletePaymentAttemptTask.class).asEagerSingleton();
         bind(IncompletePaymentTransactionTask.class).asEagerSingleton();
+        bind(IncompletePaymentTransactionSweepTask.class).asEagerSingleton();
         bind(PaymentProcessor.class).asEagerSingleton();
         bind(PluginControlPaymentProcessor.class).asEagerSingleton();
         bind(PaymentGatewayProcessor.class).asEagerSingleton();
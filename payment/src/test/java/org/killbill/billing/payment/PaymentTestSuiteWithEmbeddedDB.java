@@ -40,6 +40,7 @@ import org.killbill.billing.payment.core.PaymentRefresher;
 import org.killbill.billing.payment.core.janitor.IncompletePaymentAttemptTask;
 import org.killbill.billing.payment.core.janitor.IncompletePaymentTransactionTask;
 import org.killbill.billing.payment.core.janitor.Janitor;
+import org.killbill.billing.payment.core.sm.control.AsyncControlPluginCallbacks;
 import org.killbill.billing.payment.core.sm.PaymentControlStateMachineHelper;
 import org.killbill.billing.payment.core.sm.PaymentStateMachineHelper;
 import org.killbill.billing.payment.core.sm.PluginControlPaymentAutomatonRunner;
@@ -114,6 +115,8 @@ public abstract class PaymentTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
     @Inject
     protected Janitor janitor;
     @Inject
+    protected AsyncControlPluginCallbacks asyncControlPluginCallbacks;
+    @Inject
     protected IncompletePaymentTransactionTask incompletePaymentTransactionTask;
     @Inject
     protected IncompletePaymentAttemptTask incompletePaymentAttemptTask;
@@ -163,6 +166,8 @@ public abstract class PaymentTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
 
         janitor.initialize();
         janitor.start();
+        asyncControlPluginCallbacks.initialize();
+        asyncControlPluginCallbacks.start();
     }
 
     @AfterMethod(groups = "slow")
@@ -172,6 +177,7 @@ public abstract class PaymentTestSuiteWithEmbeddedDB extends GuicyKillbillTestSu
         }
 
         janitor.stop();
+        asyncControlPluginCallbacks.stop();
         eventBus.stopQueue();
         retryService.stop();
         paymentExecutors.stop();
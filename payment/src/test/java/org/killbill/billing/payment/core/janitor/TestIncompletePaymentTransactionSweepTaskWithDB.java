@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.payment.core.janitor;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.payment.PaymentTestSuiteWithEmbeddedDB;
+import org.killbill.billing.payment.api.Payment;
+import org.killbill.billing.payment.api.PaymentApiException;
+import org.killbill.billing.payment.api.TransactionStatus;
+import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.payment.dao.PaymentTransactionModelDao;
+import org.killbill.billing.payment.provider.MockPaymentProviderPlugin;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.killbill.billing.payment.core.janitor.IncompletePaymentTransactionTask.TRANSACTION_STATUSES_TO_CONSIDER;
+
+public class TestIncompletePaymentTransactionSweepTaskWithDB extends PaymentTestSuiteWithEmbeddedDB {
+
+    @Inject
+    private IncompletePaymentTransactionSweepTask incompletePaymentTransactionSweepTask;
+
+    private MockPaymentProviderPlugin mockPaymentProviderPlugin;
+    private Account account;
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.payment.janitor.parallel.enabled", "true");
+        // Sweeps are triggered manually
+        allExtraProperties.put("org.killbill.payment.janitor.parallel.rate", "1d");
+        allExtraProperties.put("org.killbill.payment.janitor.parallel.delay", "0s");
+        return getConfigSource(null, allExtraProperties);
+    }
+
+    @BeforeClass(groups = "slow")
+    protected void beforeClass() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        super.beforeClass();
+
+        mockPaymentProviderPlugin = (MockPaymentProviderPlugin) registry.getServiceForName(MockPaymentProviderPlugin.PLUGIN_NAME);
+    }
+
+    @BeforeMethod(groups = "slow")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+
+        super.beforeMethod();
+
+        mockPaymentProviderPlugin.clear();
+        account = testHelper.createTestAccount(UUID.randomUUID().toString(), true);
+    }
+
+    @Test(groups = "slow")
+    public void testSweepUnknownTransactions() throws PaymentApiException {
+        final PaymentTransactionModelDao transaction1 = createUnknownAuthorization();
+        final PaymentTransactionModelDao transaction2 = createUnknownAuthorization();
+        Assert.assertEquals(transaction1.getAccountRecordId(), transaction2.getAccountRecordId());
+
+        clock.addDeltaFromReality(1000);
+
+        // Transactions are sharded by account
+        final DateTime createdBeforeDate = clock.getUTCNow();
+        final int shardIndex = (int) (transaction1.getAccountRecordId() % 2);
+        Assert.assertEquals((long) paymentDao.getCountByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, 2, shardIndex), 2L);
+        Assert.assertEquals((long) paymentDao.getCountByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, 2, 1 - shardIndex), 0L);
+        final List<PaymentTransactionModelDao> page1 = paymentDao.getByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, 0L, 2, shardIndex, 1);
+        Assert.assertEquals(page1.size(), 1);
+        Assert.assertEquals(page1.get(0).getId(), transaction1.getId());
+        final List<PaymentTransactionModelDao> page2 = paymentDao.getByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, page1.get(0).getRecordId(), 2, shardIndex, 1);
+        Assert.assertEquals(page2.size(), 1);
+        Assert.assertEquals(page2.get(0).getId(), transaction2.getId());
+        Assert.assertTrue(paymentDao.getByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, createdBeforeDate, 0L, 2, 1 - shardIndex, 10).isEmpty());
+
+        // The plugin knows both transactions succeeded
+        incompletePaymentTransactionSweepTask.run();
+
+        Assert.assertEquals(incompletePaymentTransactionSweepTask.getBacklog(), 0L);
+        Assert.assertEquals(paymentDao.getPaymentTransaction(transaction1.getId(), internalCallContext).getTransactionStatus(), TransactionStatus.SUCCESS);
+        Assert.assertEquals(paymentDao.getPaymentTransaction(transaction2.getId(), internalCallContext).getTransactionStatus(), TransactionStatus.SUCCESS);
+        Assert.assertEquals(paymentDao.getPayment(transaction1.getPaymentId(), internalCallContext).getStateName(), "AUTH_SUCCESS");
+        Assert.assertEquals((long) paymentDao.getCountByTransactionStatusForShardAcrossTenants(TRANSACTION_STATUSES_TO_CONSIDER, clock.getUTCNow(), 2, shardIndex), 0L);
+    }
+
+    @Test(groups = "slow")
+    public void testSweepLeavesUnresolvedTransactions() throws PaymentApiException {
+        final PaymentTransactionModelDao transaction = createUnknownAuthorization();
+        // The plugin doesn't know about that payment anymore
+        mockPaymentProviderPlugin.clear();
+
+        clock.addDeltaFromReality(1000);
+        incompletePaymentTransactionSweepTask.run();
+
+        Assert.assertEquals(incompletePaymentTransactionSweepTask.getBacklog(), 1L);
+        Assert.assertEquals(paymentDao.getPaymentTransaction(transaction.getId(), internalCallContext).getTransactionStatus(), TransactionStatus.UNKNOWN);
+    }
+
+    private PaymentTransactionModelDao createUnknownAuthorization() throws PaymentApiException {
+        final Payment payment = paymentApi.createAuthorization(account,
+                                                               account.getPaymentMethodId(),
+                                                               null,
+                                                               BigDecimal.TEN,
+                                                               Currency.EUR,
+                                                               null,
+                                                               UUID.randomUUID().toString(),
+                                                               UUID.randomUUID().toString(),
+                                                               Collections.emptyList(),
+                                                               callContext);
+        final UUID transactionId = payment.getTransactions().get(0).getId();
+
+        // Artificially move the transaction status to UNKNOWN
+        final String paymentStateName = paymentSMHelper.getErroredStateForTransaction(TransactionType.AUTHORIZE);
+        paymentDao.updatePaymentAndTransactionOnCompletion(account.getId(), null, payment.getId(), TransactionType.AUTHORIZE, paymentStateName, paymentStateName,
+                                                           transactionId, TransactionStatus.UNKNOWN, BigDecimal.TEN, Currency.EUR,
+                                                           "foo", "bar", true, internalCallContext);
+        return paymentDao.getPaymentTransaction(transactionId, internalCallContext);
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.payment.core.sm.control;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.killbill.billing.account.api.Account;
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.catalog.api.Currency;
+import org.killbill.billing.control.plugin.api.OnFailurePaymentControlResult;
+import org.killbill.billing.control.plugin.api.OnSuccessPaymentControlResult;
+import org.killbill.billing.control.plugin.api.PaymentApiType;
+import org.killbill.billing.control.plugin.api.PaymentControlContext;
+import org.killbill.billing.control.plugin.api.PaymentControlPluginApi;
+import org.killbill.billing.control.plugin.api.PriorPaymentControlResult;
+import org.killbill.billing.osgi.api.OSGIServiceDescriptor;
+import org.killbill.billing.payment.PaymentTestSuiteWithEmbeddedDB;
+import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.payment.core.sm.control.ControlPluginRunner.DefaultPaymentControlContext;
+import org.killbill.billing.payment.dao.PluginPropertySerializer;
+import org.killbill.billing.payment.retry.DefaultFailureCallResult;
+import org.killbill.billing.payment.retry.DefaultOnSuccessPaymentControlResult;
+import org.killbill.billing.payment.retry.DefaultPriorPaymentControlResult;
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.util.callcontext.CallOrigin;
+import org.killbill.billing.util.callcontext.UserType;
+import org.killbill.notificationq.api.NotificationEventWithMetadata;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueService;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.awaitility.Awaitility.await;
+
+public class TestAsyncControlPluginCallbacks extends PaymentTestSuiteWithEmbeddedDB {
+
+    private static final int TIMEOUT = 10;
+
+    @Inject
+    private NotificationQueueService notificationQueueService;
+
+    private RecordingPaymentControlPluginApi recordingPaymentControlPluginApi;
+    private Account account;
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        allExtraProperties.put("org.killbill.payment.plugin.control.async", RecordingPaymentControlPluginApi.PLUGIN_NAME);
+        return super.getConfigSource(allExtraProperties);
+    }
+
+    @BeforeClass(groups = "slow")
+    protected void beforeClass() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        super.beforeClass();
+
+        recordingPaymentControlPluginApi = new RecordingPaymentControlPluginApi();
+        controlPluginRegistry.registerService(new OSGIServiceDescriptor() {
+                                                  @Override
+                                                  public String getPluginSymbolicName() {
+                                                      return null;
+                                                  }
+
+                                                  @Override
+                                                  public String getPluginName() {
+                                                      return RecordingPaymentControlPluginApi.PLUGIN_NAME;
+                                                  }
+
+                                                  @Override
+                                                  public String getRegistrationName() {
+                                                      return RecordingPaymentControlPluginApi.PLUGIN_NAME;
+                                                  }
+                                              },
+                                              recordingPaymentControlPluginApi);
+    }
+
+    @BeforeMethod(groups = "slow")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        super.beforeMethod();
+
+        recordingPaymentControlPluginApi.clear();
+        account = testHelper.createTestAccount(UUID.randomUUID().toString(), true);
+    }
+
+    @Test(groups = "slow")
+    public void testCallbacksOfAPaymentRunInOrder() throws Exception {
+        final UUID paymentId = UUID.randomUUID();
+        final String paymentExternalKey = UUID.randomUUID().toString();
+        final List<String> asyncPluginNames = asyncControlPluginCallbacks.getAsyncPluginNames(List.of(RecordingPaymentControlPluginApi.PLUGIN_NAME));
+        Assert.assertEquals(asyncPluginNames, List.of(RecordingPaymentControlPluginApi.PLUGIN_NAME));
+
+        final NotificationQueue callbacksQueue = notificationQueueService.getNotificationQueue(KILLBILL_SERVICES.PAYMENT_SERVICE.getServiceName(), AsyncControlPluginCallbacks.QUEUE_NAME);
+        final InternalCallContext accountInternalCallContext = internalCallContextFactory.createInternalCallContext(account.getId(), callContext);
+
+        // First callback of the payment, not ready yet (e.g. postponed itself)
+        final ControlPluginCallbackNotificationKey firstCallback = new ControlPluginCallbackNotificationKey(UUID.randomUUID(),
+                                                                                                           clock.getUTCNow().getMillis(),
+                                                                                                           true,
+                                                                                                           asyncPluginNames,
+                                                                                                           account.getId(),
+                                                                                                           callContext.getTenantId(),
+                                                                                                           account.getPaymentMethodId(),
+                                                                                                           null,
+                                                                                                           UUID.randomUUID(),
+                                                                                                           paymentId,
+                                                                                                           paymentExternalKey,
+                                                                                                           UUID.randomUUID(),
+                                                                                                           UUID.randomUUID().toString(),
+                                                                                                           PaymentApiType.PAYMENT_TRANSACTION,
+                                                                                                           TransactionType.AUTHORIZE,
+                                                                                                           null,
+                                                                                                           BigDecimal.TEN,
+                                                                                                           Currency.EUR,
+                                                                                                           BigDecimal.TEN,
+                                                                                                           Currency.EUR,
+                                                                                                           true,
+                                                                                                           "first",
+                                                                                                           CallOrigin.EXTERNAL,
+                                                                                                           UserType.ADMIN,
+                                                                                                           null,
+                                                                                                           null,
+                                                                                                           PluginPropertySerializer.serialize(List.of(new PluginProperty("callback", "first", false))));
+        callbacksQueue.recordFutureNotification(clock.getUTCNow().plusHours(1), firstCallback, callContext.getUserToken(), accountInternalCallContext.getAccountRecordId(), accountInternalCallContext.getTenantRecordId());
+
+        // Second callback of the payment, ready right away
+        clock.addDeltaFromReality(1000);
+        final DefaultPaymentControlContext paymentControlContext = new DefaultPaymentControlContext(account.getId(),
+                                                                                                    account.getPaymentMethodId(),
+                                                                                                    null,
+                                                                                                    UUID.randomUUID(),
+                                                                                                    paymentId,
+                                                                                                    paymentExternalKey,
+                                                                                                    UUID.randomUUID(),
+                                                                                                    UUID.randomUUID().toString(),
+                                                                                                    PaymentApiType.PAYMENT_TRANSACTION,
+                                                                                                    TransactionType.CAPTURE,
+                                                                                                    null,
+                                                                                                    BigDecimal.TEN,
+                                                                                                    Currency.EUR,
+                                                                                                    null,
+                                                                                                    null,
+                                                                                                    true,
+                                                                                                    callContext);
+        Assert.assertTrue(asyncControlPluginCallbacks.dispatch(false, asyncPluginNames, paymentControlContext, List.of(new PluginProperty("callback", "second", false)), callContext));
+
+        // The second callback is postponed while the first one is pending
+        await().atMost(TIMEOUT, TimeUnit.SECONDS).until(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                for (final NotificationEventWithMetadata<ControlPluginCallbackNotificationKey> notification : getCallbacks(callbacksQueue, accountInternalCallContext)) {
+                    if (!notification.getEvent().isSuccess() &&
+                        notification.getEffectiveDate().isAfter(new DateTime(notification.getEvent().getDispatchedDateMillis(), DateTimeZone.UTC))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+        Assert.assertTrue(recordingPaymentControlPluginApi.getCalls().isEmpty());
+
+        // Keys are read back from the queue as they were recorded
+        ControlPluginCallbackNotificationKey storedFirstCallback = null;
+        for (final NotificationEventWithMetadata<ControlPluginCallbackNotificationKey> notification : getCallbacks(callbacksQueue, accountInternalCallContext)) {
+            if (notification.getEvent().isSuccess()) {
+                storedFirstCallback = notification.getEvent();
+            }
+        }
+        Assert.assertNotNull(storedFirstCallback);
+        Assert.assertNotSame(storedFirstCallback, firstCallback);
+        Assert.assertEquals(storedFirstCallback.getCallbackId(), firstCallback.getCallbackId());
+        Assert.assertEquals(storedFirstCallback.getDispatchedDateMillis(), firstCallback.getDispatchedDateMillis());
+        Assert.assertEquals(storedFirstCallback.getPaymentControlPluginNames(), asyncPluginNames);
+        Assert.assertEquals(storedFirstCallback.getPaymentId(), paymentId);
+        Assert.assertEquals(storedFirstCallback.getPaymentApiType(), PaymentApiType.PAYMENT_TRANSACTION);
+        Assert.assertEquals(storedFirstCallback.getTransactionType(), TransactionType.AUTHORIZE);
+        Assert.assertNull(storedFirstCallback.getHppType());
+        Assert.assertEquals(storedFirstCallback.getAmount().compareTo(BigDecimal.TEN), 0);
+        Assert.assertEquals(storedFirstCallback.getCurrency(), Currency.EUR);
+        Assert.assertEquals(storedFirstCallback.getCallOrigin(), CallOrigin.EXTERNAL);
+        Assert.assertEquals(storedFirstCallback.getUserType(), UserType.ADMIN);
+        Assert.assertEquals(storedFirstCallback.getPluginProperties(), firstCallback.getPluginProperties());
+        Assert.assertEquals(storedFirstCallback.getOrderingKey(), paymentId.toString());
+
+        // Once the first callback is done, the second one runs
+        clock.addDeltaFromReality(3600 * 1000 + 1000);
+        await().atMost(TIMEOUT, TimeUnit.SECONDS).until(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return recordingPaymentControlPluginApi.getCalls().size() == 2;
+            }
+        });
+
+        final List<RecordedCall> calls = recordingPaymentControlPluginApi.getCalls();
+        Assert.assertTrue(calls.get(0).isSuccess());
+        Assert.assertEquals(calls.get(0).getPaymentControlContext().getPaymentId(), paymentId);
+        Assert.assertEquals(calls.get(0).getPaymentControlContext().getTransactionType(), TransactionType.AUTHORIZE);
+        Assert.assertEquals(calls.get(0).getPaymentControlContext().getCallOrigin(), CallOrigin.EXTERNAL);
+        Assert.assertEquals(calls.get(0).getPaymentControlContext().getUserName(), "first");
+        Assert.assertEquals(calls.get(0).getProperties().get(0).getValue(), "first");
+        Assert.assertFalse(calls.get(1).isSuccess());
+        Assert.assertEquals(calls.get(1).getPaymentControlContext().getPaymentId(), paymentId);
+        Assert.assertEquals(calls.get(1).getPaymentControlContext().getTransactionType(), TransactionType.CAPTURE);
+        Assert.assertEquals(calls.get(1).getPaymentControlContext().getCurrency(), Currency.EUR);
+        Assert.assertEquals(calls.get(1).getProperties().get(0).getValue(), "second");
+
+        await().atMost(TIMEOUT, TimeUnit.SECONDS).until(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return !getCallbacks(callbacksQueue, accountInternalCallContext).iterator().hasNext();
+            }
+        });
+    }
+
+    private Iterable<NotificationEventWithMetadata<ControlPluginCallbackNotificationKey>> getCallbacks(final NotificationQueue callbacksQueue, final InternalCallContext accountInternalCallContext) {
+        return callbacksQueue.getFutureOrInProcessingNotificationForSearchKeys(accountInternalCallContext.getAccountRecordId(), accountInternalCallContext.getTenantRecordId());
+    }
+
+    private static final class RecordedCall {
+
+        private final boolean success;
+        private final PaymentControlContext paymentControlContext;
+        private final List<PluginProperty> properties;
+
+        private RecordedCall(final boolean success, final PaymentControlContext paymentControlContext, final Iterable<PluginProperty> properties) {
+            this.success = success;
+            this.paymentControlContext = paymentControlContext;
+            this.properties = new ArrayList<PluginProperty>();
+            for (final PluginProperty property : properties) {
+                this.properties.add(property);
+            }
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public PaymentControlContext getPaymentControlContext() {
+            return paymentControlContext;
+        }
+
+        public List<PluginProperty> getProperties() {
+            return properties;
+        }
+    }
+
+    private static final class RecordingPaymentControlPluginApi implements PaymentControlPluginApi {
+
+        public static final String PLUGIN_NAME = "TEST_ASYNC_CONTROL_PLUGIN_NAME";
+
+        private final List<RecordedCall> calls = Collections.synchronizedList(new ArrayList<RecordedCall>());
+
+        @Override
+        public PriorPaymentControlResult priorCall(final PaymentControlContext paymentControlContext, final Iterable<PluginProperty> properties) {
+            return new DefaultPriorPaymentControlResult(false);
+        }
+
+        @Override
+        public OnSuccessPaymentControlResult onSuccessCall(final PaymentControlContext paymentControlContext, final Iterable<PluginProperty> properties) {
+            calls.add(new RecordedCall(true, paymentControlContext, properties));
+            return new DefaultOnSuccessPaymentControlResult();
+        }
+
+        @Override
+        public OnFailurePaymentControlResult onFailureCall(final PaymentControlContext paymentControlContext, final Iterable<PluginProperty> properties) {
+            calls.add(new RecordedCall(false, paymentControlContext, properties));
+            return new DefaultFailureCallResult();
+        }
+
+        public List<RecordedCall> getCalls() {
+            synchronized (calls) {
+                return new ArrayList<RecordedCall>(calls);
+            }
+        }
+
+        public void clear() {
+            calls.clear();
+        }
+    }
+}
@@ -25,10 +25,14 @@ import java.util.UUID;
 import org.killbill.billing.account.api.Account;
 import org.killbill.billing.catalog.api.Currency;
 import org.killbill.billing.control.plugin.api.PaymentApiType;
+import org.killbill.billing.control.plugin.api.PaymentControlContext;
+import org.killbill.billing.control.plugin.api.PaymentControlPluginApi;
 import org.killbill.billing.control.plugin.api.PriorPaymentControlResult;
+import org.killbill.billing.osgi.api.OSGIServiceDescriptor;
 import org.killbill.billing.payment.PaymentTestSuiteNoDB;
 import org.killbill.billing.payment.api.PluginProperty;
 import org.killbill.billing.payment.api.TransactionType;
+import org.killbill.billing.payment.core.sm.control.ControlPluginRunner.DefaultPaymentControlContext;
 import org.killbill.billing.payment.provider.DefaultPaymentControlProviderPluginRegistry;
 import org.killbill.billing.util.UUIDs;
 import org.mockito.Mockito;
@@ -50,7 +54,7 @@ public class TestControlPluginRunner extends PaymentTestSuiteNoDB {
         final List<String> paymentControlPluginNames = List.of("not-registered");
         final List<PluginProperty> pluginProperties = Collections.emptyList();
 
-        final ControlPluginRunner controlPluginRunner = new ControlPluginRunner(new DefaultPaymentControlProviderPluginRegistry(), paymentConfig);
+        final ControlPluginRunner controlPluginRunner = new ControlPluginRunner(new DefaultPaymentControlProviderPluginRegistry(), paymentConfig, Mockito.mock(AsyncControlPluginCallbacks.class));
         final PriorPaymentControlResult paymentControlResult = controlPluginRunner.executePluginPriorCalls(account,
                                                                                                            paymentMethodId,
                                                                                                            null,
@@ -89,7 +93,7 @@ public class TestControlPluginRunner extends PaymentTestSuiteNoDB {
         final List<String> paymentControlPluginNames = List.of("not-registered");
         final List<PluginProperty> pluginProperties = Collections.emptyList();
 
-        final ControlPluginRunner controlPluginRunner = new ControlPluginRunner(new DefaultPaymentControlProviderPluginRegistry(), paymentConfig);
+        final ControlPluginRunner controlPluginRunner = new ControlPluginRunner(new DefaultPaymentControlProviderPluginRegistry(), paymentConfig, Mockito.mock(AsyncControlPluginCallbacks.class));
         final PriorPaymentControlResult paymentControlResult = controlPluginRunner.executePluginPriorCalls(null,
                 null,
                 null,
@@ -113,4 +117,96 @@ public class TestControlPluginRunner extends PaymentTestSuiteNoDB {
         Assert.assertNotNull(paymentControlResult);
     }
 
+    @Test(groups = "fast")
+    public void testAsyncOnSuccessCalls() throws Exception {
+        final PaymentControlPluginApi syncPlugin = Mockito.mock(PaymentControlPluginApi.class);
+        final PaymentControlPluginApi asyncPlugin = Mockito.mock(PaymentControlPluginApi.class);
+        final DefaultPaymentControlProviderPluginRegistry registry = new DefaultPaymentControlProviderPluginRegistry();
+        registerPlugin(registry, "sync", syncPlugin);
+        registerPlugin(registry, "async", asyncPlugin);
+
+        final AsyncControlPluginCallbacks asyncControlPluginCallbacks = Mockito.mock(AsyncControlPluginCallbacks.class);
+        Mockito.when(asyncControlPluginCallbacks.getAsyncPluginNames(Mockito.<List<String>>any())).thenReturn(List.of("async"));
+        Mockito.when(asyncControlPluginCallbacks.dispatch(Mockito.anyBoolean(), Mockito.<List<String>>any(), Mockito.<DefaultPaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any(), Mockito.any()))
+               .thenReturn(true);
+
+        final ControlPluginRunner controlPluginRunner = new ControlPluginRunner(registry, paymentConfig, asyncControlPluginCallbacks);
+        executePluginOnSuccessCalls(controlPluginRunner, List.of("async", "sync"));
+        Mockito.verify(asyncControlPluginCallbacks).dispatch(Mockito.eq(true), Mockito.eq(List.of("async")), Mockito.<DefaultPaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any(), Mockito.any());
+        Mockito.verify(syncPlugin).onSuccessCall(Mockito.<PaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any());
+        Mockito.verify(asyncPlugin, Mockito.never()).onSuccessCall(Mockito.<PaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any());
+
+        // Callbacks which couldn't be dispatched are run synchronously
+        Mockito.when(asyncControlPluginCallbacks.dispatch(Mockito.anyBoolean(), Mockito.<List<String>>any(), Mockito.<DefaultPaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any(), Mockito.any()))
+               .thenReturn(false);
+        executePluginOnSuccessCalls(controlPluginRunner, List.of("async", "sync"));
+        Mockito.verify(asyncPlugin).onSuccessCall(Mockito.<PaymentControlContext>any(), Mockito.<Iterable<PluginProperty>>any());
+    }
+
+    @Test(groups = "fast")
+    public void testCallbacksOrdering() {
+        final UUID paymentId = UUIDs.randomUUID();
+        final ControlPluginCallbackNotificationKey first = createCallbackKey(UUIDs.randomUUID(), 1000L, paymentId);
+        final ControlPluginCallbackNotificationKey second = createCallbackKey(UUIDs.randomUUID(), 2000L, paymentId);
+        Assert.assertEquals(first.getOrderingKey(), second.getOrderingKey());
+        Assert.assertTrue(first.isDispatchedBefore(second));
+        Assert.assertFalse(second.isDispatchedBefore(first));
+
+        // Same dispatch date: one of them still goes first
+        final ControlPluginCallbackNotificationKey third = createCallbackKey(UUIDs.randomUUID(), 2000L, paymentId);
+        Assert.assertNotEquals(second.isDispatchedBefore(third), third.isDispatchedBefore(second));
+
+        // No payment: callbacks aren't ordered
+        Assert.assertNotEquals(createCallbackKey(UUIDs.randomUUID(), 1000L, null).getOrderingKey(), createCallbackKey(UUIDs.randomUUID(), 1000L, null).getOrderingKey());
+    }
+
+    private void executePluginOnSuccessCalls(final ControlPluginRunner controlPluginRunner, final List<String> paymentControlPluginNames) {
+        final Account account = Mockito.mock(Account.class);
+        Mockito.when(account.getId()).thenReturn(UUIDs.randomUUID());
+        controlPluginRunner.executePluginOnSuccessCalls(account,
+                                                        UUIDs.randomUUID(),
+                                                        null,
+                                                        UUIDs.randomUUID(),
+                                                        UUIDs.randomUUID(),
+                                                        UUIDs.randomUUID().toString(),
+                                                        UUIDs.randomUUID(),
+                                                        UUIDs.randomUUID().toString(),
+                                                        PaymentApiType.PAYMENT_TRANSACTION,
+                                                        TransactionType.PURCHASE,
+                                                        null,
+                                                        BigDecimal.ONE,
+                                                        Currency.USD,
+                                                        BigDecimal.ONE,
+                                                        Currency.USD,
+                                                        true,
+                                                        paymentControlPluginNames,
+                                                        Collections.emptyList(),
+                                                        callContext);
+    }
+
+    private ControlPluginCallbackNotificationKey createCallbackKey(final UUID callbackId, final long dispatchedDateMillis, final UUID paymentId) {
+        return new ControlPluginCallbackNotificationKey(callbackId, dispatchedDateMillis, true, List.of("async"), UUIDs.randomUUID(), null, null, null, null,
+                                                        paymentId, null, null, null, PaymentApiType.PAYMENT_TRANSACTION, TransactionType.PURCHASE, null,
+                                                        BigDecimal.ONE, Currency.USD, null, null, true, null, null, null, null, null, new byte[0]);
+    }
+
+    private void registerPlugin(final DefaultPaymentControlProviderPluginRegistry registry, final String pluginName, final PaymentControlPluginApi plugin) {
+        registry.registerService(new OSGIServiceDescriptor() {
+                                     @Override
+                                     public String getPluginSymbolicName() {
+                                         return null;
+                                     }
+
+                                     @Override
+                                     public String getPluginName() {
+                                         return pluginName;
+                                     }
+
+                                     @Override
+                                     public String getRegistrationName() {
+                                         return pluginName;
+                                     }
+                                 },
+                                 plugin);
+    }
 }
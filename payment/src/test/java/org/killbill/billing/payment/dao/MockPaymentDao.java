@@ -80,6 +80,16 @@ public class MockPaymentDao extends MockEntityDaoBase<PaymentModelDao, Payment,
         return new DefaultPagination<PaymentTransactionModelDao>(new Long(result.size()), result.iterator());
     }
 
+    @Override
+    public List<PaymentTransactionModelDao> getByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, final DateTime createdBeforeDate, final Long fromRecordId, final int nbShards, final int shardIndex, final int limit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Long getCountByTransactionStatusForShardAcrossTenants(final Iterable<TransactionStatus> transactionStatuses, final DateTime createdBeforeDate, final int nbShards, final int shardIndex) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PaymentAttemptModelDao insertPaymentAttemptWithProperties(final PaymentAttemptModelDao attempt, final InternalCallContext context) {
         attempt.setTenantRecordId(context.getTenantRecordId());
@@ -185,6 +195,11 @@ public class MockPaymentDao extends MockEntityDaoBase<PaymentModelDao, Payment,
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Pagination<PaymentModelDao> searchPaymentsFromRecordId(final String searchKey, final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public PaymentAndTransactionModelDao insertPaymentWithFirstTransaction(final PaymentModelDao payment, final PaymentTransactionModelDao paymentTransaction, final InternalCallContext context) {
         final PaymentAndTransactionModelDao paymentAndTransactionModelDao = new PaymentAndTransactionModelDao();
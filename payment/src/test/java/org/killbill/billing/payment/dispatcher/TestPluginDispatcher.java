@@ -18,18 +18,27 @@
 
 package org.killbill.billing.payment.dispatcher;
 
+import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.payment.PaymentTestSuiteNoDB;
 import org.killbill.billing.payment.api.PaymentApiException;
+import org.killbill.billing.payment.core.PaymentExecutors;
 import org.killbill.billing.payment.dispatcher.PluginDispatcher.PluginDispatcherReturnType;
 import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.config.definition.PaymentConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.killbill.commons.request.Request;
 import org.killbill.commons.request.RequestData;
+import org.skife.config.AugmentedConfigurationObjectFactory;
 import org.slf4j.MDC;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -151,4 +160,62 @@ public class TestPluginDispatcher extends PaymentTestSuiteNoDB {
         Assert.assertEquals(actualRequestId, requestId);
     }
 
+    @Test(groups = "fast")
+    public void testDispatchWithBulkhead() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.payment.plugin.maxConcurrentCalls", "1");
+        final PaymentExecutors bulkheadedExecutors = new PaymentExecutors(new AugmentedConfigurationObjectFactory(properties).build(PaymentConfig.class), new NoOpMetricRegistry());
+        bulkheadedExecutors.initialize();
+
+        final ExecutorService callers = Executors.newSingleThreadExecutor();
+        final CountDownLatch slowCallStarted = new CountDownLatch(1);
+        final CountDownLatch slowCallCanComplete = new CountDownLatch(1);
+        try {
+            final PluginDispatcher<String> dispatcher = new PluginDispatcher<String>(10, bulkheadedExecutors);
+
+            // Hold the only permit of the slow plugin
+            final Future<String> slowCall = callers.submit(() -> dispatcher.dispatchWithTimeout("slow-plugin", () -> {
+                slowCallStarted.countDown();
+                slowCallCanComplete.await();
+                return PluginDispatcher.<String>createPluginDispatcherReturnType("slow");
+            }));
+            Assert.assertTrue(slowCallStarted.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(bulkheadedExecutors.getPluginBulkhead("slow-plugin").getInFlight(), 1);
+
+            try {
+                dispatcher.dispatchWithTimeout("slow-plugin", () -> PluginDispatcher.<String>createPluginDispatcherReturnType("rejected"), 100, TimeUnit.MILLISECONDS);
+                Assert.fail("Bulkhead should have been full");
+            } catch (final TimeoutException e) {
+                Assert.assertEquals(bulkheadedExecutors.getPluginBulkhead("slow-plugin").getInFlight(), 1);
+            }
+
+            // Other plugins aren't impacted
+            Assert.assertEquals(dispatcher.dispatchWithTimeout("healthy-plugin", () -> PluginDispatcher.<String>createPluginDispatcherReturnType("healthy"), 100, TimeUnit.MILLISECONDS), "healthy");
+
+            slowCallCanComplete.countDown();
+            Assert.assertEquals(slowCall.get(5, TimeUnit.SECONDS), "slow");
+            Assert.assertEquals(bulkheadedExecutors.getPluginBulkhead("slow-plugin").getInFlight(), 0);
+            Assert.assertEquals(dispatcher.dispatchWithTimeout("slow-plugin", () -> PluginDispatcher.<String>createPluginDispatcherReturnType("slow"), 100, TimeUnit.MILLISECONDS), "slow");
+        } finally {
+            slowCallCanComplete.countDown();
+            callers.shutdownNow();
+            bulkheadedExecutors.stop();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testDispatchWithVirtualThreadsEnabled() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.payment.plugin.threads.virtual", "true");
+        final PaymentExecutors virtualThreadExecutors = new PaymentExecutors(new AugmentedConfigurationObjectFactory(properties).build(PaymentConfig.class), new NoOpMetricRegistry());
+        virtualThreadExecutors.initialize();
+        try {
+            // Virtual threads if supported by the JVM, the regular plugin pool otherwise
+            final PluginDispatcher<String> dispatcher = new PluginDispatcher<String>(10, virtualThreadExecutors);
+            final String threadName = dispatcher.dispatchWithTimeout("plugin", () -> PluginDispatcher.<String>createPluginDispatcherReturnType(Thread.currentThread().getName()));
+            Assert.assertTrue(threadName.startsWith("Plugin-th-"), threadName);
+        } finally {
+            virtualThreadExecutors.stop();
+        }
+    }
 }
@@ -18,6 +18,8 @@
 
 package org.killbill.billing.server;
 
+import java.io.IOException;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -63,6 +65,7 @@ public class DefaultServerService implements ServerService {
 
     @LifecycleHandlerType(LifecycleLevel.INIT_SERVICE)
     public void registerForNotifications() throws NotificationQueueAlreadyExists {
+        pushNotificationListener.start();
         try {
             bus.register(pushNotificationListener);
         } catch (final EventBusException e) {
@@ -83,6 +86,12 @@ public class DefaultServerService implements ServerService {
         } catch (final EventBusException e) {
             log.warn("Failed to unregister PushNotificationListener", e);
         }
+        // Before stopping the retry queue, which gets the pending notifications
+        try {
+            pushNotificationListener.shutdown();
+        } catch (final IOException e) {
+            log.warn("Failed to shutdown PushNotificationListener", e);
+        }
         pushNotificationRetryService.stop();
     }
 }
@@ -59,6 +59,41 @@ public class MultiTenantNotificationConfig extends MultiTenantConfigBase impleme
         return getPushNotificationsRetries();
     }
 
+    @Override
+    public boolean isAsyncPushNotificationsEnabled() {
+        return staticConfig.isAsyncPushNotificationsEnabled();
+    }
+
+    @Override
+    public int getAsyncPushNotificationsNbThreads() {
+        return staticConfig.getAsyncPushNotificationsNbThreads();
+    }
+
+    @Override
+    public int getAsyncPushNotificationsMaxConcurrentRequestsPerEndpoint() {
+        return staticConfig.getAsyncPushNotificationsMaxConcurrentRequestsPerEndpoint();
+    }
+
+    @Override
+    public int getAsyncPushNotificationsMaxQueueSizePerEndpoint() {
+        return staticConfig.getAsyncPushNotificationsMaxQueueSizePerEndpoint();
+    }
+
+    @Override
+    public int getAsyncPushNotificationsMaxBatchSize() {
+        return staticConfig.getAsyncPushNotificationsMaxBatchSize();
+    }
+
+    @Override
+    public int getAsyncPushNotificationsCircuitBreakerFailureThreshold() {
+        return staticConfig.getAsyncPushNotificationsCircuitBreakerFailureThreshold();
+    }
+
+    @Override
+    public TimeSpan getAsyncPushNotificationsCircuitBreakerOpenDuration() {
+        return staticConfig.getAsyncPushNotificationsCircuitBreakerOpenDuration();
+    }
+
     @Override
     protected Class<? extends KillbillConfig> getConfigClass() {
         return NotificationConfig.class;
@@ -23,6 +23,7 @@ import javax.sql.DataSource;
 import org.apache.shiro.cache.CacheManager;
 import org.killbill.billing.server.security.KillbillJdbcTenantRealm;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.shiro.AuthenticationResultCache;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -34,17 +35,22 @@ public class KillbillJdbcTenantRealmProvider implements Provider<KillbillJdbcTen
     private final SecurityConfig securityConfig;
     private final CacheManager cacheManager;
     private final DataSource dataSource;
+    private final AuthenticationResultCache authenticationResultCache;
 
     @Inject
-    public KillbillJdbcTenantRealmProvider(final SecurityConfig securityConfig, final CacheManager cacheManager, @Named(SHIRO_DATA_SOURCE_ID) final DataSource dataSource) {
+    public KillbillJdbcTenantRealmProvider(final SecurityConfig securityConfig,
+                                           final CacheManager cacheManager,
+                                           @Named(SHIRO_DATA_SOURCE_ID) final DataSource dataSource,
+                                           final AuthenticationResultCache authenticationResultCache) {
         this.securityConfig = securityConfig;
         this.cacheManager = cacheManager;
         this.dataSource = dataSource;
+        this.authenticationResultCache = authenticationResultCache;
     }
 
     @Override
     public KillbillJdbcTenantRealm get() {
-        final KillbillJdbcTenantRealm killbillJdbcTenantRealm = new KillbillJdbcTenantRealm(dataSource, securityConfig);
+        final KillbillJdbcTenantRealm killbillJdbcTenantRealm = new KillbillJdbcTenantRealm(dataSource, securityConfig, authenticationResultCache);
 
         // Set the cache manager
         // Note: the DefaultWebSecurityManager used for RBAC will have all of its realms (set in KillBillShiroWebModule)
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.notifications;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.killbill.billing.jaxrs.json.NotificationJson;
+import org.killbill.billing.util.config.definition.NotificationConfig;
+import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers push notifications asynchronously, so that a slow callback URL doesn't hold the external bus thread.
+ * <p/>
+ * Each callback URL gets its own bounded queue and a maximum number of in-flight requests (1 by default, which preserves
+ * the ordering of the notifications). Pending notifications can be sent together, as a JSON array, when batching is
+ * enabled. After too many consecutive failures, the circuit for the URL opens: pending and new notifications for it are
+ * directly handed over to the failure handler (i.e. scheduled for retry) until the open duration elapses.
+ * <p/>
+ * Notifications which were never sent (open circuit, full queue or dispatcher shutdown) are rejected, so that they don't
+ * count as a delivery attempt. The bus event is acked once the notification is queued: queued notifications only live in
+ * memory and are lost if the node crashes before they are sent (a clean shutdown hands the pending ones over for retry).
+ */
+public class PushNotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PushNotificationDispatcher.class);
+
+    private static final String METRIC_PREFIX = "killbill.server.notifications.push";
+    private static final String LATENCY_METRIC_NAME = METRIC_PREFIX + ".latencyMs";
+    private static final String QUEUED_METRIC_NAME = METRIC_PREFIX + ".queued";
+    private static final String IN_FLIGHT_METRIC_NAME = METRIC_PREFIX + ".inFlight";
+    private static final String OPEN_CIRCUITS_METRIC_NAME = METRIC_PREFIX + ".openCircuits";
+    private static final long TIMEOUT_EXECUTOR_SEC = 3L;
+
+    private static final String PUSH_NOTIFICATION_THREAD_PREFIX = "push-notification-th-";
+    private static final String PUSH_NOTIFICATION_TH_GROUP_NAME = "push-notification-grp";
+
+    public interface DeliveryFailureHandler {
+
+        // The notification was sent, but the callback URL failed
+        void onFailure(Delivery delivery, String reason);
+
+        // The notification wasn't sent
+        void onRejection(Delivery delivery, String reason);
+    }
+
+    private final int nbThreads;
+    private final Duration connectTimeout;
+    private final MetricRegistry metricRegistry;
+    private final HttpRequest.Builder requestTemplate;
+    private final DeliveryFailureHandler failureHandler;
+    private final int maxConcurrentRequestsPerEndpoint;
+    private final int maxQueueSizePerEndpoint;
+    private final int maxBatchSize;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile ExecutorService executor;
+    private volatile HttpClient httpClient;
+    private volatile Histogram latency;
+    private volatile boolean isRunning = false;
+
+    public PushNotificationDispatcher(final NotificationConfig notificationConfig,
+                                      final HttpRequest.Builder requestTemplate,
+                                      final Duration connectTimeout,
+                                      final MetricRegistry metricRegistry,
+                                      final DeliveryFailureHandler failureHandler) {
+        this.nbThreads = Math.max(1, notificationConfig.getAsyncPushNotificationsNbThreads());
+        this.connectTimeout = connectTimeout;
+        this.metricRegistry = metricRegistry;
+        this.requestTemplate = requestTemplate;
+        this.failureHandler = failureHandler;
+        this.maxConcurrentRequestsPerEndpoint = Math.max(1, notificationConfig.getAsyncPushNotificationsMaxConcurrentRequestsPerEndpoint());
+        this.maxQueueSizePerEndpoint = Math.max(1, notificationConfig.getAsyncPushNotificationsMaxQueueSizePerEndpoint());
+        this.maxBatchSize = Math.max(1, notificationConfig.getAsyncPushNotificationsMaxBatchSize());
+        this.failureThreshold = Math.max(1, notificationConfig.getAsyncPushNotificationsCircuitBreakerFailureThreshold());
+        this.openDurationMs = notificationConfig.getAsyncPushNotificationsCircuitBreakerOpenDuration().getMillis();
+    }
+
+    public synchronized void start() {
+        if (isRunning) {
+            return;
+        }
+
+        executor = new WithProfilingThreadPoolExecutor(nbThreads,
+                                                       nbThreads,
+                                                       0L,
+                                                       TimeUnit.MILLISECONDS,
+                                                       new LinkedBlockingQueue<Runnable>(),
+                                                       new ThreadFactory() {
+
+                                                           @Override
+                                                           public Thread newThread(final Runnable r) {
+                                                               final Thread th = new Thread(new ThreadGroup(PUSH_NOTIFICATION_TH_GROUP_NAME), r);
+                                                               th.setName(PUSH_NOTIFICATION_THREAD_PREFIX + th.getId());
+                                                               return th;
+                                                           }
+                                                       });
+        httpClient = HttpClient.newBuilder()
+                               .connectTimeout(connectTimeout)
+                               .executor(executor)
+                               .build();
+
+        // Time to get a response from the callback URL, per request
+        latency = metricRegistry.histogram(LATENCY_METRIC_NAME);
+        metricRegistry.gauge(QUEUED_METRIC_NAME, queued::get);
+        metricRegistry.gauge(IN_FLIGHT_METRIC_NAME, inFlight::get);
+        metricRegistry.gauge(OPEN_CIRCUITS_METRIC_NAME, this::getNbOpenCircuits);
+
+        isRunning = true;
+    }
+
+    public void submit(final Delivery delivery) {
+        if (!isRunning) {
+            handleRejection(delivery, "dispatcher is shutdown");
+            return;
+        }
+
+        final Endpoint endpoint = endpoints.computeIfAbsent(delivery.getUrl(), url -> new Endpoint());
+        final String rejectionReason;
+        synchronized (endpoint) {
+            if (endpoint.isOpen(System.currentTimeMillis())) {
+                rejectionReason = "circuit open";
+            } else if (endpoint.pending.size() >= maxQueueSizePerEndpoint) {
+                rejectionReason = "queue full";
+            } else {
+                rejectionReason = null;
+                endpoint.pending.add(delivery);
+                queued.incrementAndGet();
+            }
+        }
+
+        if (rejectionReason != null) {
+            handleRejection(delivery, rejectionReason);
+        } else {
+            drain(delivery.getUrl(), endpoint);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (!isRunning) {
+            return;
+        }
+        isRunning = false;
+
+        // Give a chance to the pending notifications to go out
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_EXECUTOR_SEC);
+        while ((queued.get() > 0 || inFlight.get() > 0) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        for (final Endpoint endpoint : endpoints.values()) {
+            final List<Delivery> remaining;
+            synchronized (endpoint) {
+                remaining = endpoint.pollAll();
+            }
+            queued.addAndGet(-remaining.size());
+            for (final Delivery delivery : remaining) {
+                handleRejection(delivery, "dispatcher is shutdown");
+            }
+        }
+
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS)) {
+                log.warn("Timed out while shutting down the push notification dispatcher");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        metricRegistry.remove(LATENCY_METRIC_NAME);
+        metricRegistry.remove(QUEUED_METRIC_NAME);
+        metricRegistry.remove(IN_FLIGHT_METRIC_NAME);
+        metricRegistry.remove(OPEN_CIRCUITS_METRIC_NAME);
+    }
+
+    // Sends the pending notifications of the endpoint, up to its maximum number of in-flight requests
+    private void drain(final String url, final Endpoint endpoint) {
+        while (true) {
+            final List<Delivery> batch;
+            synchronized (endpoint) {
+                if (endpoint.inFlight >= maxConcurrentRequestsPerEndpoint || endpoint.pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(Math.min(maxBatchSize, endpoint.pending.size()));
+                while (batch.size() < maxBatchSize && !endpoint.pending.isEmpty()) {
+                    batch.add(endpoint.pending.poll());
+                }
+                endpoint.inFlight++;
+            }
+            queued.addAndGet(-batch.size());
+            inFlight.incrementAndGet();
+            send(url, endpoint, batch);
+        }
+    }
+
+    private void send(final String url, final Endpoint endpoint, final List<Delivery> batch) {
+        final String body = toBody(batch);
+        log.info("Sending push notification url='{}', body='{}', attemptRetryNumber='{}'", url, body, batch.get(0).getAttemptRetryNumber());
+
+        final long startNanos = System.nanoTime();
+        try {
+            final HttpRequest request = requestTemplate.copy()
+                                                       .uri(URI.create(url))
+                                                       .POST(HttpRequest.BodyPublishers.ofString(body))
+                                                       .build();
+            // The completion can run in the calling thread (e.g. connection failure): it resubmits the drain instead of
+            // calling it, so that the stack doesn't grow with each notification
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                      .whenComplete((response, throwable) -> onCompletion(url, endpoint, batch, startNanos, response, throwable));
+        } catch (final RuntimeException e) {
+            onCompletion(url, endpoint, batch, startNanos, null, e);
+        }
+    }
+
+    private void onCompletion(final String url,
+                              final Endpoint endpoint,
+                              final List<Delivery> batch,
+                              final long startNanos,
+                              final HttpResponse<Void> response,
+                              final Throwable throwable) {
+        latency.update(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        final String failureReason;
+        if (throwable != null) {
+            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            log.warn("Failed to push notification url='{}', tenantId='{}'", url, batch.get(0).getTenantId(), cause);
+            failureReason = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        } else if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            failureReason = "statusCode=" + response.statusCode();
+        } else {
+            failureReason = null;
+        }
+
+        final List<Delivery> rejected;
+        synchronized (endpoint) {
+            endpoint.inFlight--;
+            if (failureReason == null) {
+                endpoint.consecutiveFailures = 0;
+                rejected = Collections.emptyList();
+            } else if (++endpoint.consecutiveFailures >= failureThreshold) {
+                endpoint.openUntil = System.currentTimeMillis() + openDurationMs;
+                rejected = endpoint.pollAll();
+            } else {
+                rejected = Collections.emptyList();
+            }
+        }
+        inFlight.decrementAndGet();
+
+        if (failureReason != null) {
+            for (final Delivery delivery : batch) {
+                handleFailure(delivery, failureReason);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            log.warn("Circuit open for push notification url='{}', {} pending notifications are scheduled for retry", url, rejected.size());
+            queued.addAndGet(-rejected.size());
+            for (final Delivery delivery : rejected) {
+                handleRejection(delivery, "circuit open");
+            }
+        }
+
+        try {
+            executor.execute(() -> drain(url, endpoint));
+        } catch (final RejectedExecutionException e) {
+            // Shutdown: the pending notifications were handed over to the failure handler
+            log.debug("Push notification dispatcher is shutdown, url='{}'", url);
+        }
+    }
+
+    private void handleFailure(final Delivery delivery, final String reason) {
+        try {
+            failureHandler.onFailure(delivery, reason);
+        } catch (final RuntimeException e) {
+            log.error("Failed to handle push notification failure url='{}', tenantId='{}'", delivery.getUrl(), delivery.getTenantId(), e);
+        }
+    }
+
+    private void handleRejection(final Delivery delivery, final String reason) {
+        try {
+            failureHandler.onRejection(delivery, reason);
+        } catch (final RuntimeException e) {
+            log.error("Failed to handle push notification rejection url='{}', tenantId='{}'", delivery.getUrl(), delivery.getTenantId(), e);
+        }
+    }
+
+    private int getNbOpenCircuits() {
+        final long now = System.currentTimeMillis();
+        int nbOpenCircuits = 0;
+        for (final Endpoint endpoint : endpoints.values()) {
+            synchronized (endpoint) {
+                if (endpoint.isOpen(now)) {
+                    nbOpenCircuits++;
+                }
+            }
+        }
+        return nbOpenCircuits;
+    }
+
+    private static String toBody(final List<Delivery> batch) {
+        if (batch.size() == 1) {
+            return batch.get(0).getBody();
+        }
+
+        final StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(batch.get(i).getBody());
+        }
+        return body.append(']').toString();
+    }
+
+    // Guarded by its own monitor
+    private static final class Endpoint {
+
+        private final Queue<Delivery> pending = new ArrayDeque<>();
+        private int inFlight = 0;
+        private int consecutiveFailures = 0;
+        private long openUntil = 0L;
+
+        private boolean isOpen(final long now) {
+            return openUntil > now;
+        }
+
+        private List<Delivery> pollAll() {
+            final List<Delivery> all = new ArrayList<>(pending);
+            pending.clear();
+            return all;
+        }
+    }
+
+    public static final class Delivery {
+
+        private final UUID tenantId;
+        private final String url;
+        private final NotificationJson notification;
+        private final String body;
+        private final int attemptRetryNumber;
+
+        public Delivery(final UUID tenantId, final String url, final NotificationJson notification, final String body, final int attemptRetryNumber) {
+            this.tenantId = tenantId;
+            this.url = url;
+            this.notification = notification;
+            this.body = body == null ? "{}" : body;
+            this.attemptRetryNumber = attemptRetryNumber;
+        }
+
+        public UUID getTenantId() {
+            return tenantId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public NotificationJson getNotification() {
+            return notification;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public int getAttemptRetryNumber() {
+            return attemptRetryNumber;
+        }
+    }
+}
@@ -39,6 +39,8 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.jaxrs.json.NotificationJson;
 import org.killbill.billing.notification.plugin.api.ExtBusEvent;
 import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.server.notifications.PushNotificationDispatcher.Delivery;
+import org.killbill.billing.server.notifications.PushNotificationDispatcher.DeliveryFailureHandler;
 import org.killbill.billing.tenant.api.TenantApiException;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.tenant.api.TenantUserApi;
@@ -50,6 +52,7 @@ import org.killbill.billing.util.config.definition.NotificationConfig;
 import org.killbill.clock.Clock;
 import org.killbill.commons.eventbus.AllowConcurrentEvents;
 import org.killbill.commons.eventbus.Subscribe;
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
@@ -81,13 +84,34 @@ public class PushNotificationListener {
     private final InternalCallContextFactory internalCallContextFactory;
     private final Clock clock;
     private final NotificationConfig notificationConfig;
+    private final PushNotificationDispatcher dispatcher;
 
     @Inject
     public PushNotificationListener(final ObjectMapper mapper, final TenantUserApi tenantApi, final CallContextFactory contextFactory,
                                     final NotificationQueueService notificationQueueService, final InternalCallContextFactory internalCallContextFactory,
-                                    final Clock clock, final NotificationConfig notificationConfig) {
+                                    final Clock clock, final NotificationConfig notificationConfig, final MetricRegistry metricRegistry) {
         this.httpClient = HttpClient.newBuilder()
                                     .connectTimeout(Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS)).build();
+        if (notificationConfig.isAsyncPushNotificationsEnabled()) {
+            this.dispatcher = new PushNotificationDispatcher(notificationConfig,
+                                                             newRequestBuilder(),
+                                                             Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS),
+                                                             metricRegistry,
+                                                             new DeliveryFailureHandler() {
+                                                                 @Override
+                                                                 public void onFailure(final Delivery delivery, final String reason) {
+                                                                     saveRetryPushNotificationInQueue(delivery.getTenantId(), delivery.getUrl(), delivery.getNotification(), delivery.getAttemptRetryNumber(), reason);
+                                                                 }
+
+                                                                 @Override
+                                                                 public void onRejection(final Delivery delivery, final String reason) {
+                                                                     // Never sent: doesn't use a retry
+                                                                     schedulePushNotification(delivery.getTenantId(), delivery.getUrl(), delivery.getNotification(), delivery.getAttemptRetryNumber(), reason);
+                                                                 }
+                                                             });
+        } else {
+            this.dispatcher = null;
+        }
         this.tenantApi = tenantApi;
         this.contextFactory = contextFactory;
         this.mapper = mapper;
@@ -115,27 +139,40 @@ public class PushNotificationListener {
         }
     }
 
+    public void start() {
+        if (dispatcher != null) {
+            dispatcher.start();
+        }
+    }
+
     public void shutdown() throws IOException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
     }
 
     private void dispatchCallback(final UUID tenantId, final ExtBusEvent event, final Iterable<String> callbacks) throws IOException {
         final NotificationJson notification = new NotificationJson(event);
         final String body = mapper.writeValueAsString(notification);
         for (final String cur : callbacks) {
-            doPost(tenantId, cur, body, notification, TIMEOUT_NOTIFICATION, 0);
+            post(tenantId, cur, body, notification, 0);
+        }
+    }
+
+    private void post(final UUID tenantId, final String url, final String body, final NotificationJson notification, final int attemptRetryNumber) {
+        if (dispatcher != null) {
+            dispatcher.submit(new PushNotificationDispatcher.Delivery(tenantId, url, notification, body, attemptRetryNumber));
+        } else {
+            doPost(tenantId, url, body, notification, TIMEOUT_NOTIFICATION, attemptRetryNumber);
         }
     }
 
     private boolean doPost(final UUID tenantId, final String url, final String body, final NotificationJson notification,
                            final int timeoutSec, final int attemptRetryNumber) {
         log.info("Sending push notification url='{}', body='{}', attemptRetryNumber='{}'", url, body, attemptRetryNumber);
-        final HttpRequest request = HttpRequest.newBuilder()
-                                               .uri(URI.create(url))
-                                               .header("User-Agent", USER_AGENT)
-                                               .header(HTTP_HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
-                                               .timeout(Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS))
-                                               .POST(HttpRequest.BodyPublishers.ofString(body == null ? "{}" : body))
-                                               .build();
+        final HttpRequest request = newRequestBuilder().uri(URI.create(url))
+                                                       .POST(HttpRequest.BodyPublishers.ofString(body == null ? "{}" : body))
+                                                       .build();
 
         final HttpResponse<InputStream> response;
         try {
@@ -162,16 +199,27 @@ public class PushNotificationListener {
                                                                    key.getObjectId(),
                                                                    key.getMetaData());
         final String body = mapper.writeValueAsString(notification);
-        doPost(key.getTenantId(), key.getUrl(), body, notification, TIMEOUT_NOTIFICATION, key.getAttemptNumber());
+        post(key.getTenantId(), key.getUrl(), body, notification, key.getAttemptNumber());
+    }
+
+    private static HttpRequest.Builder newRequestBuilder() {
+        return HttpRequest.newBuilder()
+                          .header("User-Agent", USER_AGENT)
+                          .header(HTTP_HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
+                          .timeout(Duration.of(TIMEOUT_NOTIFICATION, ChronoUnit.SECONDS));
     }
 
     private void saveRetryPushNotificationInQueue(final UUID tenantId, final String url, final NotificationJson notificationJson, final int attemptRetryNumber, final String reason) {
+        schedulePushNotification(tenantId, url, notificationJson, attemptRetryNumber + 1, reason);
+    }
+
+    private void schedulePushNotification(final UUID tenantId, final String url, final NotificationJson notificationJson, final int attemptNumber, final String reason) {
         final PushNotificationKey key = new PushNotificationKey(tenantId,
                                                                 notificationJson.getAccountId(),
                                                                 notificationJson.getEventType(),
                                                                 notificationJson.getObjectType(),
                                                                 notificationJson.getObjectId(),
-                                                                attemptRetryNumber + 1,
+                                                                attemptNumber,
                                                                 notificationJson.getMetaData(),
                                                                 url);
 
@@ -199,10 +247,11 @@ public class PushNotificationListener {
     private DateTime getNextNotificationTime(final int attemptNumber, final InternalTenantContext tenantContext) {
 
         final List<TimeSpan> retries = notificationConfig.getPushNotificationsRetries(tenantContext);
-        if (attemptNumber > retries.size()) {
+        if (retries.isEmpty() || attemptNumber > retries.size()) {
             return null;
         }
-        final TimeSpan nextDelay = retries.get(attemptNumber - 1);
+        // A rejected first attempt (attemptNumber 0) waits as long as the first retry
+        final TimeSpan nextDelay = retries.get(Math.max(attemptNumber, 1) - 1);
         return clock.getUTCNow().plusMillis((int) nextDelay.getMillis());
     }
 
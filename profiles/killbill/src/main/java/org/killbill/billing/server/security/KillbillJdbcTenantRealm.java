@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
 
 import org.apache.shiro.authc.AuthenticationException;
@@ -34,6 +35,7 @@ import org.apache.shiro.codec.Hex;
 import org.apache.shiro.realm.jdbc.JdbcRealm;
 import org.apache.shiro.util.ByteSource;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.shiro.AuthenticationResultCache;
 import org.killbill.billing.util.security.shiro.KillbillCredentialsMatcher;
 
 /**
@@ -45,14 +47,22 @@ public class KillbillJdbcTenantRealm extends JdbcRealm {
 
     private final DataSource dataSource;
     private final SecurityConfig securityConfig;
+    private final AuthenticationResultCache authenticationResultCache;
 
     public KillbillJdbcTenantRealm(final DataSource dataSource, final SecurityConfig securityConfig) {
+        this(dataSource, securityConfig, null);
+    }
+
+    public KillbillJdbcTenantRealm(final DataSource dataSource, final SecurityConfig securityConfig, @Nullable final AuthenticationResultCache authenticationResultCache) {
         super();
 
         this.dataSource = dataSource;
         this.securityConfig = securityConfig;
+        this.authenticationResultCache = authenticationResultCache;
 
         // Note: we don't support updating tenants credentials via API
+        // This only caches the api_key lookup: the api_secret hashing is skipped thanks to the AuthenticationResultCache,
+        // whose entries are bound to the stored secret and salt (a rotated secret never matches a previous verification)
         // See JavaDoc warning: https://shiro.apache.org/static/1.2.3/apidocs/org/apache/shiro/realm/AuthenticatingRealm.html
         setAuthenticationCachingEnabled(true);
 
@@ -79,7 +89,7 @@ public class KillbillJdbcTenantRealm extends JdbcRealm {
 
     private void configureSecurity() {
         setSaltStyle(SaltStyle.COLUMN);
-        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig));
+        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig, authenticationResultCache));
     }
 
     private void configureQueries() {
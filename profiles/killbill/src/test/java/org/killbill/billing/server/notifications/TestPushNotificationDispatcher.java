@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.notifications;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.killbill.billing.GuicyKillbillTestSuiteNoDB;
+import org.killbill.billing.server.notifications.PushNotificationDispatcher.Delivery;
+import org.killbill.billing.server.notifications.PushNotificationDispatcher.DeliveryFailureHandler;
+import org.killbill.billing.util.config.definition.NotificationConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class TestPushNotificationDispatcher extends GuicyKillbillTestSuiteNoDB {
+
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final List<String> failures = new CopyOnWriteArrayList<>();
+    private final List<String> rejections = new CopyOnWriteArrayList<>();
+    private final AtomicInteger statusCode = new AtomicInteger(200);
+
+    private volatile CountDownLatch firstRequestReceived;
+    private volatile CountDownLatch releaseRequests;
+    private HttpServer server;
+    private String url;
+
+    @BeforeMethod(groups = "fast")
+    public void setUpStub() throws IOException {
+        receivedBodies.clear();
+        failures.clear();
+        rejections.clear();
+        statusCode.set(200);
+        firstRequestReceived = new CountDownLatch(1);
+        releaseRequests = new CountDownLatch(0);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/callmeback", exchange -> {
+            try (final InputStream input = exchange.getRequestBody()) {
+                receivedBodies.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            firstRequestReceived.countDown();
+            try {
+                releaseRequests.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(statusCode.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/callmeback";
+    }
+
+    @AfterMethod(groups = "fast")
+    public void tearDownStub() {
+        releaseRequests.countDown();
+        server.stop(0);
+    }
+
+    @Test(groups = "fast")
+    public void testDeliveryInOrder() {
+        final PushNotificationDispatcher dispatcher = createDispatcher(new Properties());
+        try {
+            for (int i = 0; i < 10; i++) {
+                dispatcher.submit(newDelivery(i));
+            }
+
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> receivedBodies.size() == 10);
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(receivedBodies.get(i), body(i));
+            }
+            Assert.assertTrue(failures.isEmpty());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testBatching() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.billing.server.notifications.async.maxBatchSize", "10");
+        final PushNotificationDispatcher dispatcher = createDispatcher(properties);
+        try {
+            // The first request is held, the next notifications pile up in the endpoint queue
+            releaseRequests = new CountDownLatch(1);
+            dispatcher.submit(newDelivery(0));
+            Assert.assertTrue(firstRequestReceived.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < 5; i++) {
+                dispatcher.submit(newDelivery(i));
+            }
+            releaseRequests.countDown();
+
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> receivedBodies.size() == 2);
+            Assert.assertEquals(receivedBodies.get(0), body(0));
+            Assert.assertEquals(receivedBodies.get(1), "[" + body(1) + "," + body(2) + "," + body(3) + "," + body(4) + "]");
+            Assert.assertTrue(failures.isEmpty());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testQueueFull() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.billing.server.notifications.async.maxQueueSizePerEndpoint", "2");
+        final PushNotificationDispatcher dispatcher = createDispatcher(properties);
+        try {
+            releaseRequests = new CountDownLatch(1);
+            dispatcher.submit(newDelivery(0));
+            Assert.assertTrue(firstRequestReceived.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < 5; i++) {
+                dispatcher.submit(newDelivery(i));
+            }
+            // Notifications 3 and 4 didn't fit in the queue
+            Assert.assertEquals(rejections, List.of(body(3) + " queue full", body(4) + " queue full"));
+            releaseRequests.countDown();
+
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> receivedBodies.size() == 3);
+            Assert.assertEquals(receivedBodies, List.of(body(0), body(1), body(2)));
+            Assert.assertTrue(failures.isEmpty());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testCircuitBreaker() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.billing.server.notifications.async.circuitBreaker.failureThreshold", "2");
+        properties.setProperty("org.killbill.billing.server.notifications.async.circuitBreaker.openDuration", "1h");
+        final PushNotificationDispatcher dispatcher = createDispatcher(properties);
+        try {
+            statusCode.set(500);
+            releaseRequests = new CountDownLatch(1);
+            dispatcher.submit(newDelivery(0));
+            Assert.assertTrue(firstRequestReceived.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < 5; i++) {
+                dispatcher.submit(newDelivery(i));
+            }
+            releaseRequests.countDown();
+
+            // The circuit opens after the second failure: the pending notifications aren't sent
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> failures.size() == 2 && rejections.size() == 3);
+            Assert.assertEquals(receivedBodies, List.of(body(0), body(1)));
+            Assert.assertEquals(failures, List.of(body(0) + " statusCode=500", body(1) + " statusCode=500"));
+            Assert.assertEquals(rejections, List.of(body(2) + " circuit open", body(3) + " circuit open", body(4) + " circuit open"));
+
+            dispatcher.submit(newDelivery(5));
+            Assert.assertEquals(rejections.get(3), body(5) + " circuit open");
+            Assert.assertEquals(receivedBodies.size(), 2);
+            Assert.assertEquals(failures.size(), 2);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testShutdown() throws Exception {
+        final PushNotificationDispatcher dispatcher = createDispatcher(new Properties());
+        releaseRequests = new CountDownLatch(1);
+        dispatcher.submit(newDelivery(0));
+        Assert.assertTrue(firstRequestReceived.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 3; i++) {
+            dispatcher.submit(newDelivery(i));
+        }
+
+        // The pending notifications are handed over, without being sent
+        dispatcher.shutdown();
+        Assert.assertEquals(rejections, List.of(body(1) + " dispatcher is shutdown", body(2) + " dispatcher is shutdown"));
+
+        dispatcher.submit(newDelivery(3));
+        Assert.assertEquals(rejections.get(2), body(3) + " dispatcher is shutdown");
+        Assert.assertEquals(receivedBodies, List.of(body(0)));
+    }
+
+    @Test(groups = "fast")
+    public void testInvalidUrl() {
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.billing.server.notifications.async.circuitBreaker.failureThreshold", "1000");
+        final PushNotificationDispatcher dispatcher = createDispatcher(properties);
+        try {
+            // The requests fail in the submitting thread: the next ones are still sent (and fail) one at a time
+            url = "http://invalid url/callmeback";
+            for (int i = 0; i < 200; i++) {
+                dispatcher.submit(newDelivery(i));
+            }
+
+            Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> failures.size() == 200);
+            Assert.assertTrue(rejections.isEmpty());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private PushNotificationDispatcher createDispatcher(final Properties properties) {
+        final NotificationConfig notificationConfig = new AugmentedConfigurationObjectFactory(properties).build(NotificationConfig.class);
+        final PushNotificationDispatcher dispatcher = new PushNotificationDispatcher(notificationConfig,
+                                                                                     HttpRequest.newBuilder().timeout(Duration.ofSeconds(15)),
+                                                                                     Duration.ofSeconds(15),
+                                                                                     new NoOpMetricRegistry(),
+                                                                                     new DeliveryFailureHandler() {
+                                                                                         @Override
+                                                                                         public void onFailure(final Delivery delivery, final String reason) {
+                                                                                             failures.add(delivery.getBody() + " " + reason);
+                                                                                         }
+
+                                                                                         @Override
+                                                                                         public void onRejection(final Delivery delivery, final String reason) {
+                                                                                             rejections.add(delivery.getBody() + " " + reason);
+                                                                                         }
+                                                                                     });
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private Delivery newDelivery(final int i) {
+        return new Delivery(UUID.randomUUID(), url, null, body(i), 0);
+    }
+
+    private static String body(final int i) {
+        return "{\"n\":" + i + "}";
+    }
+}
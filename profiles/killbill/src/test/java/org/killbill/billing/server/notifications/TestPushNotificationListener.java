@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.server.notifications;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.GuicyKillbillTestSuiteNoDB;
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.tenant.api.TenantUserApi;
+import org.killbill.billing.util.callcontext.CallContextFactory;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.config.definition.NotificationConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.killbill.notificationq.api.NotificationEvent;
+import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueService;
+import org.mockito.ArgumentCaptor;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestPushNotificationListener extends GuicyKillbillTestSuiteNoDB {
+
+    private NotificationQueue notificationQueue;
+    private PushNotificationListener listener;
+
+    @BeforeMethod(groups = "fast")
+    public void setUpListener() throws Exception {
+        final CallContextFactory contextFactory = mock(CallContextFactory.class);
+        when(contextFactory.createTenantContext(any(), any())).thenReturn(mock(TenantContext.class));
+        final InternalCallContextFactory internalCallContextFactory = mock(InternalCallContextFactory.class);
+        when(internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(any())).thenReturn(mock(InternalTenantContext.class));
+        when(internalCallContextFactory.getRecordIdFromObject(any(), any(ObjectType.class), any())).thenReturn(1L);
+
+        notificationQueue = mock(NotificationQueue.class);
+        final NotificationQueueService notificationQueueService = mock(NotificationQueueService.class);
+        when(notificationQueueService.getNotificationQueue(anyString(), anyString())).thenReturn(notificationQueue);
+
+        final Properties properties = new Properties();
+        properties.setProperty("org.killbill.billing.server.notifications.async.enabled", "true");
+        final NotificationConfig notificationConfig = new AugmentedConfigurationObjectFactory(properties).build(NotificationConfig.class);
+
+        listener = new PushNotificationListener(new ObjectMapper(),
+                                                mock(TenantUserApi.class),
+                                                contextFactory,
+                                                notificationQueueService,
+                                                internalCallContextFactory,
+                                                clock,
+                                                notificationConfig,
+                                                new NoOpMetricRegistry());
+    }
+
+    @Test(groups = "fast", description = "Verify a failed delivery uses a retry")
+    public void testFailureIsRetried() throws Exception {
+        listener.start();
+        try {
+            listener.resendPushNotification(newKey("http://invalid url/callmeback", 2));
+
+            final PushNotificationKey key = captureRescheduledKey();
+            Assert.assertEquals(key.getAttemptNumber(), 3);
+        } finally {
+            listener.shutdown();
+        }
+    }
+
+    @Test(groups = "fast", description = "Verify a notification rejected by the dispatcher keeps its attempt number")
+    public void testRejectionIsRescheduled() throws Exception {
+        listener.start();
+        listener.shutdown();
+
+        listener.resendPushNotification(newKey("http://127.0.0.1/callmeback", 2));
+
+        final PushNotificationKey key = captureRescheduledKey();
+        Assert.assertEquals(key.getAttemptNumber(), 2);
+    }
+
+    @Test(groups = "fast", description = "Verify a rejected first delivery is rescheduled")
+    public void testRejectedFirstAttemptIsRescheduled() throws Exception {
+        // Not started
+        listener.resendPushNotification(newKey("http://127.0.0.1/callmeback", 0));
+
+        final PushNotificationKey key = captureRescheduledKey();
+        Assert.assertEquals(key.getAttemptNumber(), 0);
+    }
+
+    private PushNotificationKey captureRescheduledKey() throws Exception {
+        final ArgumentCaptor<NotificationEvent> captor = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(notificationQueue, timeout(TimeUnit.SECONDS.toMillis(10))).recordFutureNotification(any(DateTime.class), captor.capture(), any(), eq(1L), anyLong());
+        return (PushNotificationKey) captor.getValue();
+    }
+
+    private static PushNotificationKey newKey(final String url, final int attemptNumber) {
+        return new PushNotificationKey(UUID.randomUUID(), UUID.randomUUID(), "INVOICE_CREATION", "INVOICE", UUID.randomUUID(), attemptNumber, null, url);
+    }
+}
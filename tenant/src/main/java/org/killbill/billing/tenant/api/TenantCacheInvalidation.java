@@ -40,10 +40,13 @@ import org.killbill.billing.tenant.dao.TenantKVModelDao;
 import org.killbill.billing.tenant.glue.DefaultTenantModule;
 import org.killbill.commons.utils.collect.MultiValueHashMap;
 import org.killbill.commons.utils.collect.MultiValueMap;
+import org.killbill.billing.util.broadcast.BroadcastCatchUpTrigger;
+import org.killbill.billing.util.broadcast.BroadcastTransport;
 import org.killbill.billing.util.config.definition.TenantConfig;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.commons.concurrent.Executors;
+import org.skife.config.TimeSpan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,9 +59,14 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * When this class initializes, it reads the current entry in the tenant_broadcasts table and from then on, keeps polling for new entries; when new
  * entries are found, it invokes the callback to invalidate the current caching and force the TenantCacheLoader to be invoked again.
+ * <p/>
+ * When the BroadcastTransport pushes notifications, new entries are processed as soon as they are published and the polling
+ * only runs at the (slower) catch-up rate, to recover missed notifications.
  */
 public class TenantCacheInvalidation {
 
+    public static final String TENANT_BROADCAST_CHANNEL = "tenant_broadcasts";
+
     private static final int TERMINATION_TIMEOUT_SEC = 5;
 
     private static final Logger logger = LoggerFactory.getLogger(TenantCacheInvalidation.class);
@@ -68,6 +76,7 @@ public class TenantCacheInvalidation {
     private final TenantConfig tenantConfig;
     private final PersistentBus eventBus;
     private final TenantDao tenantDao;
+    private final BroadcastTransport broadcastTransport;
     private AtomicLong latestRecordIdProcessed;
     private volatile boolean isStopped;
 
@@ -77,12 +86,14 @@ public class TenantCacheInvalidation {
     public TenantCacheInvalidation(@Named(DefaultTenantModule.NO_CACHING_TENANT) final TenantBroadcastDao broadcastDao,
                                    @Named(DefaultTenantModule.NO_CACHING_TENANT) final TenantDao tenantDao,
                                    final PersistentBus eventBus,
-                                   final TenantConfig tenantConfig) {
+                                   final TenantConfig tenantConfig,
+                                   final BroadcastTransport broadcastTransport) {
         this.cache = new MultiValueHashMap<>();
         this.broadcastDao = broadcastDao;
         this.tenantConfig = tenantConfig;
         this.tenantDao = tenantDao;
         this.eventBus = eventBus;
+        this.broadcastTransport = broadcastTransport;
         this.isStopped = false;
     }
 
@@ -94,10 +105,10 @@ public class TenantCacheInvalidation {
     }
 
     public void start() {
-        final TimeUnit pendingRateUnit = tenantConfig.getTenantBroadcastServiceRunningRate().getUnit();
-        final long pendingPeriod = tenantConfig.getTenantBroadcastServiceRunningRate().getPeriod();
-        tenantExecutor.scheduleAtFixedRate(new TenantCacheInvalidationRunnable(this, broadcastDao, tenantDao), pendingPeriod, pendingPeriod, pendingRateUnit);
-
+        final TimeSpan rate = broadcastTransport.isPushEnabled() ? tenantConfig.getTenantBroadcastServiceCatchUpRate() : tenantConfig.getTenantBroadcastServiceRunningRate();
+        final Runnable tenantCacheInvalidationRunnable = new TenantCacheInvalidationRunnable(this, broadcastDao, tenantDao);
+        tenantExecutor.scheduleAtFixedRate(tenantCacheInvalidationRunnable, rate.getPeriod(), rate.getPeriod(), rate.getUnit());
+        broadcastTransport.subscribe(TENANT_BROADCAST_CHANNEL, new BroadcastCatchUpTrigger(tenantExecutor, tenantCacheInvalidationRunnable));
     }
 
     public void stop() {
@@ -106,6 +117,7 @@ public class TenantCacheInvalidation {
             return;
         }
         try {
+            broadcastTransport.unsubscribe(TENANT_BROADCAST_CHANNEL);
             tenantExecutor.shutdown();
             final boolean success = tenantExecutor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS);
             if (!success) {
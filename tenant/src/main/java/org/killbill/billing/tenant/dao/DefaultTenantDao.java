@@ -39,8 +39,10 @@ import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.entity.EntityPersistenceException;
 import org.killbill.billing.tenant.api.Tenant;
 import org.killbill.billing.tenant.api.TenantApiException;
+import org.killbill.billing.tenant.api.TenantCacheInvalidation;
 import org.killbill.billing.tenant.api.TenantKV.TenantKey;
 import org.killbill.billing.util.UUIDs;
+import org.killbill.billing.util.broadcast.BroadcastTransport;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.billing.util.cache.CacheControllerDispatcher;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
@@ -61,12 +63,15 @@ public class DefaultTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Tena
     private final RandomNumberGenerator rng = new SecureRandomNumberGenerator();
 
     private final SecurityConfig securityConfig;
+    private final BroadcastTransport broadcastTransport;
 
     @Inject
     public DefaultTenantDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
-                            final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final SecurityConfig securityConfig) {
+                            final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory, final SecurityConfig securityConfig,
+                            final BroadcastTransport broadcastTransport) {
         super(nonEntityDao, cacheControllerDispatcher, new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory), TenantSqlDao.class);
         this.securityConfig = securityConfig;
+        this.broadcastTransport = broadcastTransport;
     }
 
     @Override
@@ -134,6 +139,7 @@ public class DefaultTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Tena
             broadcastConfigurationChangeFromTransaction(rehydrated.getRecordId(), key, entitySqlDaoWrapperFactory, context);
             return null;
         });
+        notifyConfigurationChange(key);
     }
 
     @Override
@@ -154,6 +160,7 @@ public class DefaultTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Tena
             broadcastConfigurationChangeFromTransaction(rehydrated.getRecordId(), key, entitySqlDaoWrapperFactory, context);
             return null;
         });
+        notifyConfigurationChange(key);
     }
 
     @Override
@@ -163,6 +170,7 @@ public class DefaultTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Tena
             broadcastConfigurationChangeFromTransaction(null, key, entitySqlDaoWrapperFactory, context);
             return null;
         });
+        notifyConfigurationChange(key);
     }
 
     @Override
@@ -196,6 +204,13 @@ public class DefaultTenantDao extends EntityDaoBase<TenantModelDao, Tenant, Tena
         }
     }
 
+    // Once the tenant_broadcasts entry has been committed, wake up the other nodes instead of waiting for their next poll
+    private void notifyConfigurationChange(final String key) {
+        if (isSystemKey(key)) {
+            broadcastTransport.publish(TenantCacheInvalidation.TENANT_BROADCAST_CHANNEL);
+        }
+    }
+
     //
     // For now we restrict the caching to the (system) TenantKey keys
     //
@@ -78,6 +78,11 @@ public class NoCachingTenantBroadcastDao extends EntityDaoBase<TenantBroadcastMo
         throw new IllegalStateException("Not implemented by NoCachingTenantBroadcastDao");
     }
 
+    @Override
+    public Pagination<TenantBroadcastModelDao> getFromRecordId(final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        throw new IllegalStateException("Not implemented by NoCachingTenantBroadcastDao");
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         throw new IllegalStateException("Not implemented by NoCachingTenantBroadcastDao");
@@ -39,7 +39,7 @@ public class TestTenantCacheInvalidation extends TenantTestSuiteNoDB {
 
 
     private TenantCacheInvalidation newTenantCacheInvalidation() {
-        return new TenantCacheInvalidation(null, null , null, null);
+        return new TenantCacheInvalidation(null, null , null, null, null);
     }
 
     @Test(groups = "fast")
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage.api.svcs;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.killbill.billing.usage.AggregatedUsageRecord;
+
+public class DefaultAggregatedUsage implements AggregatedUsageRecord {
+
+    private final UUID subscriptionId;
+    private final DateTime recordDate;
+    private final String unitType;
+    private final BigDecimal amount;
+    private final BigDecimal maxAmount;
+    private final int nbRecords;
+
+    public DefaultAggregatedUsage(final UUID subscriptionId, final DateTime recordDate, final String unitType, final BigDecimal amount, final BigDecimal maxAmount, final int nbRecords) {
+        this.subscriptionId = subscriptionId;
+        this.recordDate = recordDate;
+        this.unitType = unitType;
+        this.amount = amount;
+        this.maxAmount = maxAmount;
+        this.nbRecords = nbRecords;
+    }
+
+    @Override
+    public UUID getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    @Override
+    public DateTime getDate() {
+        return recordDate;
+    }
+
+    @Override
+    public String getUnitType() {
+        return unitType;
+    }
+
+    @Override
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    @Override
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    @Override
+    public int getNbRecords() {
+        return nbRecords;
+    }
+
+    // Stable across calls, but it doesn't match any recorded tracking id
+    @Override
+    public String getTrackingId() {
+        return String.format("%s-%s-%s", unitType, recordDate.toLocalDate(), nbRecords);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultAggregatedUsage{");
+        sb.append("subscriptionId=").append(subscriptionId);
+        sb.append(", recordDate=").append(recordDate);
+        sb.append(", unitType='").append(unitType).append('\'');
+        sb.append(", amount=").append(amount);
+        sb.append(", maxAmount=").append(maxAmount);
+        sb.append(", nbRecords=").append(nbRecords);
+        sb.append('}');
+        return sb.toString();
+    }
+}
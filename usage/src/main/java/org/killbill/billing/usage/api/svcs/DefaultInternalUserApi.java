@@ -17,14 +17,19 @@
 
 package org.killbill.billing.usage.api.svcs;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.invoice.api.DryRunInfo;
@@ -35,6 +40,7 @@ import org.killbill.billing.usage.InternalUserApi;
 import org.killbill.billing.usage.api.BaseUserApi;
 import org.killbill.billing.usage.api.DefaultUsageContext;
 import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.dao.RolledUpUsageDailyModelDao;
 import org.killbill.billing.usage.dao.RolledUpUsageDao;
 import org.killbill.billing.usage.dao.RolledUpUsageModelDao;
 import org.killbill.billing.usage.plugin.api.UsageContext;
@@ -65,6 +71,73 @@ public class DefaultInternalUserApi extends BaseUserApi implements InternalUserA
 
         log.info("GetRawUsageForAccount startDate='{}', endDate='{}'", startDate, endDate);
 
+        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, dryRunInfo, pluginProperties, internalTenantContext);
+        if (resultFromPlugin != null) {
+            return resultFromPlugin;
+        }
+
+        return toRawUsage(rolledUpUsageDao.getRawUsageForAccount(startDate, endDate, internalTenantContext));
+    }
+
+    @Override
+    public List<RawUsageRecord> getAggregatedUsageForAccount(final DateTime startDate, final DateTime endDate, final Set<LocalDate> rawUsageDays, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, final InternalTenantContext internalTenantContext) {
+
+        log.info("GetAggregatedUsageForAccount startDate='{}', endDate='{}', nbRawUsageDays='{}'", startDate, endDate, rawUsageDays.size());
+
+        // Plugins only know about raw usage
+        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, dryRunInfo, pluginProperties, internalTenantContext);
+        if (resultFromPlugin != null) {
+            return resultFromPlugin;
+        }
+
+        final LocalDate startDay = startDate.toDateTime(DateTimeZone.UTC).toLocalDate();
+        final LocalDate endDay = endDate.toDateTime(DateTimeZone.UTC).toLocalDate();
+
+        // The first and last days are usually partial: only some of their points are in the range
+        final TreeSet<LocalDate> allRawUsageDays = new TreeSet<>(rawUsageDays);
+        if (startDate.toDateTime(DateTimeZone.UTC).getMillisOfDay() != 0) {
+            allRawUsageDays.add(startDay);
+        }
+        allRawUsageDays.add(endDay);
+
+        final List<RawUsageRecord> result = new ArrayList<>();
+        for (final RolledUpUsageDailyModelDao dailyUsage : rolledUpUsageDao.getDailyUsageForAccount(startDay, endDay, internalTenantContext)) {
+            if (!allRawUsageDays.contains(dailyUsage.getRecordDate())) {
+                result.add(new DefaultAggregatedUsage(dailyUsage.getSubscriptionId(), dailyUsage.getRecordDate().toDateTimeAtStartOfDay(DateTimeZone.UTC), dailyUsage.getUnitType(),
+                                                      dailyUsage.getAmount(), dailyUsage.getMaxAmount(), dailyUsage.getNbRecords()));
+            }
+        }
+
+        // One query per range of consecutive raw days
+        LocalDate rangeStartDay = null;
+        LocalDate rangeEndDay = null;
+        for (final LocalDate rawUsageDay : allRawUsageDays.subSet(startDay, true, endDay, true)) {
+            if (rangeEndDay != null && !rawUsageDay.equals(rangeEndDay.plusDays(1))) {
+                result.addAll(getRawUsageForDays(rangeStartDay, rangeEndDay, startDate, endDate, internalTenantContext));
+                rangeStartDay = null;
+            }
+            if (rangeStartDay == null) {
+                rangeStartDay = rawUsageDay;
+            }
+            rangeEndDay = rawUsageDay;
+        }
+        if (rangeStartDay != null) {
+            result.addAll(getRawUsageForDays(rangeStartDay, rangeEndDay, startDate, endDate, internalTenantContext));
+        }
+
+        result.sort(Comparator.comparing(RawUsageRecord::getDate));
+        return result;
+    }
+
+    private List<RawUsageRecord> getRawUsageForDays(final LocalDate startDay, final LocalDate endDay, final DateTime startDate, final DateTime endDate, final InternalTenantContext internalTenantContext) {
+        final DateTime startOfStartDay = startDay.toDateTimeAtStartOfDay(DateTimeZone.UTC);
+        final DateTime endOfEndDay = endDay.plusDays(1).toDateTimeAtStartOfDay(DateTimeZone.UTC).minusMillis(1);
+        return toRawUsage(rolledUpUsageDao.getRawUsageForAccount(startOfStartDay.isAfter(startDate) ? startOfStartDay : startDate,
+                                                                 endOfEndDay.isBefore(endDate) ? endOfEndDay : endDate,
+                                                                 internalTenantContext));
+    }
+
+    private List<RawUsageRecord> getAccountUsageFromPlugin(final DateTime startDate, final DateTime endDate, @Nullable final DryRunInfo dryRunInfo, final Iterable<PluginProperty> pluginProperties, final InternalTenantContext internalTenantContext) {
         final TenantContext tenantContext = internalCallContextFactory.createTenantContext(internalTenantContext);
 
         final DryRunType dryRunType = dryRunInfo != null ? dryRunInfo.getDryRunType() : null;
@@ -72,12 +145,10 @@ public class DefaultInternalUserApi extends BaseUserApi implements InternalUserA
 
         final UsageContext usageContext = new DefaultUsageContext(dryRunType, inputTargetDate, tenantContext);
 
-        final List<RawUsageRecord> resultFromPlugin = getAccountUsageFromPlugin(startDate, endDate, pluginProperties, usageContext);
-        if (resultFromPlugin != null) {
-            return resultFromPlugin;
-        }
+        return getAccountUsageFromPlugin(startDate, endDate, pluginProperties, usageContext);
+    }
 
-        final List<RolledUpUsageModelDao> usage = rolledUpUsageDao.getRawUsageForAccount(startDate, endDate, internalTenantContext);
+    private static List<RawUsageRecord> toRawUsage(final List<RolledUpUsageModelDao> usage) {
         return usage.stream()
                 .map(input -> new DefaultRawUsage(input.getSubscriptionId(), input.getRecordDate(), input.getUnitType(), input.getAmount(), input.getTrackingId()))
                 .collect(Collectors.toUnmodifiableList());
@@ -18,9 +18,13 @@ package org.killbill.billing.usage.api.user;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,6 +38,7 @@ import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.osgi.api.OSGIServiceRegistration;
 import org.killbill.billing.payment.api.PluginProperty;
+import org.killbill.billing.usage.BulkUsageUserApi;
 import org.killbill.billing.usage.api.BaseUserApi;
 import org.killbill.billing.usage.api.DefaultUsageContext;
 import org.killbill.billing.usage.api.RawUsageRecord;
@@ -53,7 +58,7 @@ import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.callcontext.TenantContext;
 
-public class DefaultUsageUserApi extends BaseUserApi implements UsageUserApi {
+public class DefaultUsageUserApi extends BaseUserApi implements UsageUserApi, BulkUsageUserApi {
 
     private final RolledUpUsageDao rolledUpUsageDao;
     private final InternalCallContextFactory internalCallContextFactory;
@@ -83,12 +88,50 @@ public class DefaultUsageUserApi extends BaseUserApi implements UsageUserApi {
 
 
         final List<RolledUpUsageModelDao> usages = new ArrayList<>();
-        for (final UnitUsageRecord unitUsageRecord : record.getUnitUsageRecord()) {
-            for (final UsageRecord usageRecord : unitUsageRecord.getDailyAmount()) {
-                usages.add(new RolledUpUsageModelDao(record.getSubscriptionId(), unitUsageRecord.getUnitType(), usageRecord.getDate(), usageRecord.getAmount(), trackingIds));
+        addRolledUpUsages(record, trackingIds, usages);
+        rolledUpUsageDao.record(usages, internalCallContext);
+    }
+
+    @Override
+    public List<SubscriptionUsageRecord> recordRolledUpUsage(final Iterable<SubscriptionUsageRecord> records, final CallContext callContext) {
+        final InternalTenantContext internalTenantContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(callContext);
+
+        // Look-up all tracking ids at once, instead of one query per record
+        final Set<String> trackingIds = new HashSet<>();
+        for (final SubscriptionUsageRecord record : records) {
+            if (record.getTrackingId() != null && !record.getTrackingId().isEmpty()) {
+                trackingIds.add(record.getTrackingId());
             }
         }
-        rolledUpUsageDao.record(usages, internalCallContext);
+        final Map<UUID, Set<String>> seenTrackingIds = rolledUpUsageDao.getExistingTrackingIds(trackingIds, internalTenantContext);
+
+        final Map<UUID, InternalCallContext> contextPerSubscription = new HashMap<>();
+        final Map<Long, InternalCallContext> contextPerAccount = new HashMap<>();
+        final Map<InternalCallContext, List<RolledUpUsageModelDao>> usagesByContext = new LinkedHashMap<>();
+        final List<SubscriptionUsageRecord> skippedRecords = new ArrayList<>();
+        for (final SubscriptionUsageRecord record : records) {
+            final String trackingId;
+            if (record.getTrackingId() == null || record.getTrackingId().isEmpty()) {
+                trackingId = UUIDs.randomUUID().toString();
+            } else if (!seenTrackingIds.computeIfAbsent(record.getSubscriptionId(), k -> new HashSet<>()).add(record.getTrackingId())) {
+                skippedRecords.add(record);
+                continue;
+            } else {
+                trackingId = record.getTrackingId();
+            }
+
+            final InternalCallContext internalCallContext = contextPerSubscription.computeIfAbsent(record.getSubscriptionId(), subscriptionId -> {
+                final InternalCallContext context = internalCallContextFactory.createInternalCallContext(subscriptionId, ObjectType.SUBSCRIPTION, callContext);
+                // Group the usage of all subscriptions of an account
+                return contextPerAccount.computeIfAbsent(context.getAccountRecordId(), k -> context);
+            });
+            addRolledUpUsages(record, trackingId, usagesByContext.computeIfAbsent(internalCallContext, k -> new ArrayList<>()));
+        }
+
+        if (!usagesByContext.isEmpty()) {
+            rolledUpUsageDao.record(usagesByContext);
+        }
+        return skippedRecords;
     }
 
     @Override
@@ -167,6 +210,14 @@ public class DefaultUsageUserApi extends BaseUserApi implements UsageUserApi {
                   .collect(Collectors.toUnmodifiableList());
     }
 
+    private static void addRolledUpUsages(final SubscriptionUsageRecord record, final String trackingId, final Collection<RolledUpUsageModelDao> usages) {
+        for (final UnitUsageRecord unitUsageRecord : record.getUnitUsageRecord()) {
+            for (final UsageRecord usageRecord : unitUsageRecord.getDailyAmount()) {
+                usages.add(new RolledUpUsageModelDao(record.getSubscriptionId(), unitUsageRecord.getUnitType(), usageRecord.getDate(), usageRecord.getAmount(), trackingId));
+            }
+        }
+    }
+
     private boolean recordsWithTrackingIdExist(final SubscriptionUsageRecord record, final InternalCallContext context) {
         return rolledUpUsageDao.recordsWithTrackingIdExist(record.getSubscriptionId(), record.getTrackingId(), context);
     }
@@ -18,33 +18,79 @@
 
 package org.killbill.billing.usage.dao;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.killbill.billing.callcontext.InternalCallContext;
 import org.killbill.billing.callcontext.InternalTenantContext;
+import org.killbill.billing.util.cache.CacheControllerDispatcher;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.entity.dao.DBRouter;
+import org.killbill.billing.util.entity.dao.EntitySqlDaoTransactionalJdbiWrapper;
+import org.killbill.clock.Clock;
+import org.killbill.commons.jdbi.mapper.LowerToCamelBeanMapperFactory;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
 
 import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
 
 public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
 
+    private static final int TRACKING_IDS_CHUNK_SIZE = 1000;
+
+    private final EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
     private final DBRouter<RolledUpUsageSqlDao> dbRouter;
+    private final DBRouter<RolledUpUsageDailySqlDao> dailyDbRouter;
 
     @Inject
-    public DefaultRolledUpUsageDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi) {
+    public DefaultRolledUpUsageDao(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final CacheControllerDispatcher cacheControllerDispatcher,
+                                   final NonEntityDao nonEntityDao, final InternalCallContextFactory internalCallContextFactory) {
+        this.transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
+        // Same as in DefaultCatalogOverrideDao, RolledUpUsageDailySqlDao isn't an EntitySqlDao
+        ((DBI) dbi).registerMapper(new LowerToCamelBeanMapperFactory(RolledUpUsageDailyModelDao.class));
+        if (roDbi != dbi) {
+            ((DBI) roDbi).registerMapper(new LowerToCamelBeanMapperFactory(RolledUpUsageDailyModelDao.class));
+        }
         this.dbRouter = new DBRouter<RolledUpUsageSqlDao>(dbi, roDbi, RolledUpUsageSqlDao.class);
+        this.dailyDbRouter = new DBRouter<RolledUpUsageDailySqlDao>(dbi, roDbi, RolledUpUsageDailySqlDao.class);
     }
 
     @Override
     public void record(final Iterable<RolledUpUsageModelDao> usages, final InternalCallContext context) {
-        dbRouter.onDemand(false).create(usages, context);
+        record(Map.of(context, usages));
+    }
+
+    @Override
+    public void record(final Map<InternalCallContext, ? extends Iterable<RolledUpUsageModelDao>> usagesByContext) {
+        transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            // Usage points aren't audited: attach the sql daos directly to the transaction handle, instead of using #become
+            final Handle handle = entitySqlDaoWrapperFactory.getHandle();
+            final RolledUpUsageSqlDao rolledUpUsageSqlDao = handle.attach(RolledUpUsageSqlDao.class);
+            final RolledUpUsageDailySqlDao rolledUpUsageDailySqlDao = handle.attach(RolledUpUsageDailySqlDao.class);
+            for (final Entry<InternalCallContext, ? extends Iterable<RolledUpUsageModelDao>> entry : usagesByContext.entrySet()) {
+                rolledUpUsageSqlDao.create(entry.getValue(), entry.getKey());
+                rolledUpUsageDailySqlDao.create(toDailyUsages(entry.getValue()), entry.getKey());
+            }
+            return null;
+        });
     }
 
     @Override
@@ -52,6 +98,25 @@ public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
         return dbRouter.onDemand(false).recordsWithTrackingIdExist(subscriptionId, trackingId, context) != null;
     }
 
+    @Override
+    public Map<UUID, Set<String>> getExistingTrackingIds(final Collection<String> trackingIds, final InternalTenantContext context) {
+        final Map<UUID, Set<String>> existingTrackingIds = new HashMap<>();
+        if (trackingIds.isEmpty()) {
+            return existingTrackingIds;
+        }
+
+        final RolledUpUsageSqlDao rolledUpUsageSqlDao = dbRouter.onDemand(false);
+        final List<String> allTrackingIds = new ArrayList<>(trackingIds);
+        // Keep the IN clauses to a reasonable size
+        for (int i = 0; i < allTrackingIds.size(); i += TRACKING_IDS_CHUNK_SIZE) {
+            final List<String> chunk = allTrackingIds.subList(i, Math.min(i + TRACKING_IDS_CHUNK_SIZE, allTrackingIds.size()));
+            for (final RolledUpUsageModelDao existing : rolledUpUsageSqlDao.getSubscriptionIdsAndTrackingIds(chunk, context)) {
+                existingTrackingIds.computeIfAbsent(existing.getSubscriptionId(), k -> new HashSet<>()).add(existing.getTrackingId());
+            }
+        }
+        return existingTrackingIds;
+    }
+
     @Override
     public List<RolledUpUsageModelDao> getUsageForSubscription(final UUID subscriptionId, final DateTime startDate, final DateTime endDate, final String unitType, final InternalTenantContext context) {
         return dbRouter.onDemand(true).getUsageForSubscription(subscriptionId, startDate.toDate(), endDate.toDate(), unitType, context);
@@ -67,4 +132,28 @@ public class DefaultRolledUpUsageDao implements RolledUpUsageDao {
     public List<RolledUpUsageModelDao> getRawUsageForAccount(final DateTime startDate, final DateTime endDate, final InternalTenantContext context) {
         return dbRouter.onDemand(true).getRawUsageForAccount(startDate.toDate(), endDate.toDate(), context);
     }
+
+    @Override
+    public List<RolledUpUsageDailyModelDao> getDailyUsageForAccount(final LocalDate startDate, final LocalDate endDate, final InternalTenantContext context) {
+        return dailyDbRouter.onDemand(true).getDailyUsageForAccount(startDate.toDate(), endDate.toDate(), context);
+    }
+
+    // Pre-aggregate the points of the call per subscription, unit type and UTC day
+    private static Iterable<RolledUpUsageDailyModelDao> toDailyUsages(final Iterable<RolledUpUsageModelDao> usages) {
+        final Map<List<Object>, RolledUpUsageDailyModelDao> dailyUsages = new LinkedHashMap<>();
+        for (final RolledUpUsageModelDao usage : usages) {
+            final LocalDate recordDate = usage.getRecordDate().toDateTime(DateTimeZone.UTC).toLocalDate();
+            final BigDecimal amount = Objects.requireNonNullElse(usage.getAmount(), BigDecimal.ZERO);
+            final List<Object> key = List.of(usage.getSubscriptionId(), usage.getUnitType(), recordDate);
+            final RolledUpUsageDailyModelDao dailyUsage = dailyUsages.get(key);
+            if (dailyUsage == null) {
+                dailyUsages.put(key, new RolledUpUsageDailyModelDao(usage.getSubscriptionId(), usage.getUnitType(), recordDate, amount, amount, 1));
+            } else {
+                dailyUsage.setAmount(dailyUsage.getAmount().add(amount));
+                dailyUsage.setMaxAmount(dailyUsage.getMaxAmount().max(amount));
+                dailyUsage.setNbRecords(dailyUsage.getNbRecords() + 1);
+            }
+        }
+        return dailyUsages.values();
+    }
 }
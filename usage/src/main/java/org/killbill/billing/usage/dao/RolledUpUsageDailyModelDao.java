@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage.dao;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Usage points of a subscription and unit type recorded on a given (UTC) day. A day can be made of several rows (one per
+ * recording call), the {@link RolledUpUsageDailySqlDao} queries merge them.
+ */
+public class RolledUpUsageDailyModelDao {
+
+    private UUID subscriptionId;
+    private String unitType;
+    private LocalDate recordDate;
+    private BigDecimal amount;
+    private BigDecimal maxAmount;
+    private Integer nbRecords;
+
+    public RolledUpUsageDailyModelDao() { /* For the DAO mapper */ }
+
+    public RolledUpUsageDailyModelDao(final UUID subscriptionId, final String unitType, final LocalDate recordDate, final BigDecimal amount, final BigDecimal maxAmount, final Integer nbRecords) {
+        this.subscriptionId = subscriptionId;
+        this.unitType = unitType;
+        this.recordDate = recordDate;
+        this.amount = amount;
+        this.maxAmount = maxAmount;
+        this.nbRecords = nbRecords;
+    }
+
+    public UUID getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public void setSubscriptionId(final UUID subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    public String getUnitType() {
+        return unitType;
+    }
+
+    public void setUnitType(final String unitType) {
+        this.unitType = unitType;
+    }
+
+    public LocalDate getRecordDate() {
+        return recordDate;
+    }
+
+    public void setRecordDate(final LocalDate recordDate) {
+        this.recordDate = recordDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(final BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(final BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Integer getNbRecords() {
+        return nbRecords;
+    }
+
+    public void setNbRecords(final Integer nbRecords) {
+        this.nbRecords = nbRecords;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RolledUpUsageDailyModelDao{");
+        sb.append("subscriptionId=").append(subscriptionId);
+        sb.append(", unitType='").append(unitType).append('\'');
+        sb.append(", recordDate=").append(recordDate);
+        sb.append(", amount=").append(amount);
+        sb.append(", maxAmount=").append(maxAmount);
+        sb.append(", nbRecords=").append(nbRecords);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,20 @@
+DROP TABLE IF EXISTS rolled_up_usage_daily;
+CREATE TABLE rolled_up_usage_daily (
+    record_id serial unique,
+    subscription_id varchar(36) NOT NULL,
+    unit_type varchar(255) NOT NULL,
+    record_date date NOT NULL,
+    amount decimal(18, 9) NOT NULL,
+    max_amount decimal(18, 9) NOT NULL,
+    nb_records int NOT NULL,
+    created_date datetime NOT NULL,
+    account_record_id bigint /*! unsigned */ not null,
+    tenant_record_id bigint /*! unsigned */ not null default 0,
+    PRIMARY KEY(record_id)
+) /*! CHARACTER SET utf8 COLLATE utf8_bin */;
+CREATE INDEX rolled_up_usage_daily_tenant_account_record_id_record_date ON rolled_up_usage_daily(tenant_record_id, account_record_id, record_date);
+
+insert into rolled_up_usage_daily (subscription_id, unit_type, record_date, amount, max_amount, nb_records, created_date, account_record_id, tenant_record_id)
+select subscription_id, unit_type, cast(record_date as date), sum(amount), max(amount), count(*), now(), account_record_id, tenant_record_id
+from rolled_up_usage
+group by tenant_record_id, account_record_id, subscription_id, unit_type, cast(record_date as date);
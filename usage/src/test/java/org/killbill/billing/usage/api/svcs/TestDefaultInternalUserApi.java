@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage.api.svcs;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.killbill.billing.usage.AggregatedUsageRecord;
+import org.killbill.billing.usage.InternalUserApi;
+import org.killbill.billing.usage.UsageTestSuiteWithEmbeddedDB;
+import org.killbill.billing.usage.api.RawUsageRecord;
+import org.killbill.billing.usage.dao.RolledUpUsageModelDao;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestDefaultInternalUserApi extends UsageTestSuiteWithEmbeddedDB {
+
+    @Inject
+    protected InternalUserApi internalUserApi;
+
+    @Test(groups = "slow")
+    public void testGetAggregatedUsageForAccount() {
+        // The usage API resolves the account id from the context
+        final UUID accountId = UUID.randomUUID();
+        dbi.withHandle(handle -> handle.insert("insert into accounts (record_id, id, external_key, name, reference_time, time_zone, created_date, created_by, tenant_record_id) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                                                internalCallContext.getAccountRecordId(), accountId.toString(), accountId.toString(), "usage", new Date(), "UTC", new Date(), "test", internalCallContext.getTenantRecordId()));
+
+        final UUID subscriptionId = UUID.randomUUID();
+        final String unitType = "bytes";
+
+        // Two recording calls for the first day, to verify the daily rows are merged
+        rolledUpUsageDao.record(List.of(createUsage(subscriptionId, unitType, "2024-01-01T00:00:00Z", 10),
+                                        createUsage(subscriptionId, unitType, "2024-01-01T10:00:00Z", 30)), internalCallContext);
+        rolledUpUsageDao.record(List.of(createUsage(subscriptionId, unitType, "2024-01-01T23:00:00Z", 5),
+                                        createUsage(subscriptionId, unitType, "2024-01-02T05:00:00Z", 7),
+                                        createUsage(subscriptionId, unitType, "2024-01-03T08:00:00Z", 1),
+                                        createUsage(subscriptionId, unitType, "2024-01-03T16:00:00Z", 2),
+                                        createUsage(subscriptionId, unitType, "2024-01-04T12:00:00Z", 3),
+                                        createUsage(subscriptionId, unitType, "2024-01-05T11:00:00Z", 4),
+                                        createUsage(subscriptionId, unitType, "2024-01-05T13:00:00Z", 100)), internalCallContext);
+
+        final DateTime startDate = new DateTime("2024-01-01T00:00:00Z");
+        final DateTime endDate = new DateTime("2024-01-05T12:00:00Z");
+
+        final List<RawUsageRecord> rawUsage = internalUserApi.getRawUsageForAccount(startDate, endDate, null, Collections.emptyList(), internalCallContext);
+        Assert.assertEquals(rawUsage.size(), 8);
+
+        final List<RawUsageRecord> aggregatedUsage = internalUserApi.getAggregatedUsageForAccount(startDate, endDate, Set.of(new LocalDate(2024, 1, 3)), null, Collections.emptyList(), internalCallContext);
+        Assert.assertEquals(aggregatedUsage.size(), 6);
+        checkAggregatedUsage(aggregatedUsage.get(0), "2024-01-01T00:00:00Z", 45, 30, 3);
+        checkAggregatedUsage(aggregatedUsage.get(1), "2024-01-02T00:00:00Z", 7, 7, 1);
+        // Requested raw day
+        checkRawUsage(aggregatedUsage.get(2), "2024-01-03T08:00:00Z", 1);
+        checkRawUsage(aggregatedUsage.get(3), "2024-01-03T16:00:00Z", 2);
+        checkAggregatedUsage(aggregatedUsage.get(4), "2024-01-04T00:00:00Z", 3, 3, 1);
+        // Partial last day
+        checkRawUsage(aggregatedUsage.get(5), "2024-01-05T11:00:00Z", 4);
+
+        Assert.assertEquals(sum(aggregatedUsage), sum(rawUsage));
+
+        // Partial first day
+        final List<RawUsageRecord> aggregatedUsageFromMiddleOfDay = internalUserApi.getAggregatedUsageForAccount(startDate.plusHours(1), endDate, Collections.emptySet(), null, Collections.emptyList(), internalCallContext);
+        Assert.assertEquals(aggregatedUsageFromMiddleOfDay.size(), 6);
+        checkRawUsage(aggregatedUsageFromMiddleOfDay.get(0), "2024-01-01T10:00:00Z", 30);
+        checkRawUsage(aggregatedUsageFromMiddleOfDay.get(1), "2024-01-01T23:00:00Z", 5);
+        checkAggregatedUsage(aggregatedUsageFromMiddleOfDay.get(3), "2024-01-03T00:00:00Z", 3, 2, 2);
+    }
+
+    private RolledUpUsageModelDao createUsage(final UUID subscriptionId, final String unitType, final String recordDate, final long amount) {
+        return new RolledUpUsageModelDao(subscriptionId, unitType, new DateTime(recordDate, DateTimeZone.UTC), BigDecimal.valueOf(amount), UUID.randomUUID().toString());
+    }
+
+    private void checkAggregatedUsage(final RawUsageRecord record, final String date, final long amount, final long maxAmount, final int nbRecords) {
+        Assert.assertTrue(record instanceof AggregatedUsageRecord);
+        Assert.assertEquals(record.getDate().compareTo(new DateTime(date)), 0);
+        Assert.assertEquals(record.getAmount().compareTo(BigDecimal.valueOf(amount)), 0);
+        Assert.assertEquals(((AggregatedUsageRecord) record).getMaxAmount().compareTo(BigDecimal.valueOf(maxAmount)), 0);
+        Assert.assertEquals(((AggregatedUsageRecord) record).getNbRecords(), nbRecords);
+    }
+
+    private void checkRawUsage(final RawUsageRecord record, final String date, final long amount) {
+        Assert.assertFalse(record instanceof AggregatedUsageRecord);
+        Assert.assertEquals(record.getDate().compareTo(new DateTime(date)), 0);
+        Assert.assertEquals(record.getAmount().compareTo(BigDecimal.valueOf(amount)), 0);
+    }
+
+    private BigDecimal sum(final List<RawUsageRecord> records) {
+        return records.stream().map(RawUsageRecord::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.usage.api.user;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.usage.UsageTestSuiteWithEmbeddedDB;
+import org.killbill.billing.usage.api.SubscriptionUsageRecord;
+import org.killbill.billing.usage.api.UnitUsageRecord;
+import org.killbill.billing.usage.api.UsageRecord;
+import org.killbill.billing.usage.dao.RolledUpUsageModelDao;
+import org.killbill.billing.util.callcontext.CallContext;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestDefaultUsageUserApi extends UsageTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow")
+    public void testRecordBulkRolledUpUsage() {
+        // There is no subscriptions table in this module
+        final InternalCallContextFactory internalCallContextFactory = Mockito.mock(InternalCallContextFactory.class);
+        Mockito.when(internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(Mockito.<CallContext>any())).thenReturn(internalCallContext);
+        Mockito.when(internalCallContextFactory.createInternalCallContext(Mockito.<UUID>any(), Mockito.eq(ObjectType.SUBSCRIPTION), Mockito.<CallContext>any())).thenReturn(internalCallContext);
+        final DefaultUsageUserApi usageUserApi = new DefaultUsageUserApi(rolledUpUsageDao, internalCallContextFactory, null);
+
+        final UUID subscriptionId1 = UUID.randomUUID();
+        final UUID subscriptionId2 = UUID.randomUUID();
+        final DateTime startDate = new LocalDate(2013, 1, 1).toDateTimeAtStartOfDay();
+
+        final List<SubscriptionUsageRecord> skippedRecords = usageUserApi.recordRolledUpUsage(List.of(createRecord(subscriptionId1, "t1", startDate, 1),
+                                                                                                      createRecord(subscriptionId2, "t1", startDate, 2),
+                                                                                                      createRecord(subscriptionId1, "t2", startDate.plusDays(1), 3),
+                                                                                                      // Duplicate in the batch
+                                                                                                      createRecord(subscriptionId1, "t2", startDate.plusDays(2), 4),
+                                                                                                      createRecord(subscriptionId2, null, startDate.plusDays(1), 5),
+                                                                                                      createRecord(subscriptionId2, null, startDate.plusDays(1), 6)),
+                                                                                              callContext);
+        Assert.assertEquals(skippedRecords.size(), 1);
+        Assert.assertEquals(skippedRecords.get(0).getSubscriptionId(), subscriptionId1);
+        Assert.assertEquals(skippedRecords.get(0).getTrackingId(), "t2");
+
+        Assert.assertTrue(rolledUpUsageDao.recordsWithTrackingIdExist(subscriptionId1, "t2", internalCallContext));
+        Assert.assertEquals(sum(rolledUpUsageDao.getAllUsageForSubscription(subscriptionId1, startDate, startDate.plusDays(5), internalCallContext)).compareTo(BigDecimal.valueOf(4)), 0);
+        Assert.assertEquals(sum(rolledUpUsageDao.getAllUsageForSubscription(subscriptionId2, startDate, startDate.plusDays(5), internalCallContext)).compareTo(BigDecimal.valueOf(13)), 0);
+
+        // Retry: duplicates in the database
+        final List<SubscriptionUsageRecord> skippedRecordsOnRetry = usageUserApi.recordRolledUpUsage(List.of(createRecord(subscriptionId1, "t1", startDate, 1),
+                                                                                                             createRecord(subscriptionId2, "t1", startDate, 2),
+                                                                                                             createRecord(subscriptionId2, "t2", startDate, 7)),
+                                                                                                     callContext);
+        Assert.assertEquals(skippedRecordsOnRetry.size(), 2);
+        Assert.assertEquals(sum(rolledUpUsageDao.getAllUsageForSubscription(subscriptionId1, startDate, startDate.plusDays(5), internalCallContext)).compareTo(BigDecimal.valueOf(4)), 0);
+        Assert.assertEquals(sum(rolledUpUsageDao.getAllUsageForSubscription(subscriptionId2, startDate, startDate.plusDays(5), internalCallContext)).compareTo(BigDecimal.valueOf(20)), 0);
+    }
+
+    private SubscriptionUsageRecord createRecord(final UUID subscriptionId, final String trackingId, final DateTime recordDate, final long amount) {
+        return new SubscriptionUsageRecord(subscriptionId, trackingId, List.of(new UnitUsageRecord("foo", List.of(new UsageRecord(recordDate, BigDecimal.valueOf(amount))))));
+    }
+
+    private BigDecimal sum(final List<RolledUpUsageModelDao> usages) {
+        return usages.stream().map(RolledUpUsageModelDao::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.audit.api;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.inject.Inject;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.audit.AuditInternalApi;
+import org.killbill.billing.util.api.AuditLevel;
+import org.killbill.billing.util.audit.AuditLog;
+import org.killbill.billing.util.audit.dao.AuditDao;
+import org.killbill.billing.util.callcontext.InternalCallContextFactory;
+import org.killbill.billing.util.callcontext.TenantContext;
+import org.killbill.billing.util.dao.TableName;
+
+public class DefaultAuditInternalApi implements AuditInternalApi {
+
+    private final AuditDao auditDao;
+    private final InternalCallContextFactory internalCallContextFactory;
+
+    @Inject
+    public DefaultAuditInternalApi(final AuditDao auditDao, final InternalCallContextFactory internalCallContextFactory) {
+        this.auditDao = auditDao;
+        this.internalCallContextFactory = internalCallContextFactory;
+    }
+
+    @Override
+    public Map<UUID, List<AuditLog>> getAuditLogsForIds(final Collection<UUID> objectIds, final ObjectType objectType, final AuditLevel auditLevel, final TenantContext context) {
+        final TableName tableName = TableName.fromObjectType(objectType);
+        // Optimization - bail early
+        if (AuditLevel.NONE.equals(auditLevel) || tableName == null || objectIds.isEmpty()) {
+            final Map<UUID, List<AuditLog>> result = new LinkedHashMap<>();
+            for (final UUID objectId : objectIds) {
+                result.put(objectId, List.of());
+            }
+            return result;
+        }
+
+        return auditDao.getAuditLogsForIds(tableName, objectIds, auditLevel, internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context));
+    }
+}
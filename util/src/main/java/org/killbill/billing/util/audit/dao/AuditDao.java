@@ -16,7 +16,9 @@
 
 package org.killbill.billing.util.audit.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -38,5 +40,8 @@ public interface AuditDao {
 
     public List<AuditLog> getAuditLogsForId(TableName tableName, UUID objectId, AuditLevel auditLevel, InternalTenantContext context);
 
+    // Same as getAuditLogsForId, for several objects at once (every object id is present in the result, possibly with no audit log)
+    public Map<UUID, List<AuditLog>> getAuditLogsForIds(TableName tableName, Collection<UUID> objectIds, AuditLevel auditLevel, InternalTenantContext context);
+
     List<AuditLogWithHistory> getAuditLogsWithHistoryForId(HistorySqlDao sqlDao, TableName tableName, UUID objectId, AuditLevel auditLevel, InternalTenantContext context);
 }
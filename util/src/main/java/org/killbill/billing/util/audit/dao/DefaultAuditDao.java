@@ -18,10 +18,15 @@
 
 package org.killbill.billing.util.audit.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -164,6 +169,55 @@ public class DefaultAuditDao implements AuditDao {
         return result;
     }
 
+    @Override
+    public Map<UUID, List<AuditLog>> getAuditLogsForIds(final TableName tableName, final Collection<UUID> objectIds, final AuditLevel auditLevel, final InternalTenantContext context) {
+        final Map<UUID, List<AuditLog>> result = new LinkedHashMap<>();
+        final Set<String> remainingIds = new LinkedHashSet<>();
+        for (final UUID objectId : objectIds) {
+            result.put(objectId, List.of());
+            remainingIds.add(objectId.toString());
+        }
+
+        if (tableName.hasHistoryTable() && !remainingIds.isEmpty()) {
+            final TableName historyTableName = tableName.getHistoryTableName();
+            final Iterable<RecordIdIdMappings> mappings = dbRouter.onDemand(true).getHistoryRecordIdIdMappingsForIds(tableName.getTableName(), historyTableName.getTableName().toLowerCase(), remainingIds, context);
+            final Map<UUID, List<AuditLog>> auditLogsViaHistory = getAuditLogsForRecordIds(historyTableName, tableName.getObjectType(), RecordIdIdMappings.toMap(mappings), auditLevel, context);
+            for (final Map.Entry<UUID, List<AuditLog>> entry : auditLogsViaHistory.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    result.put(entry.getKey(), entry.getValue());
+                    remainingIds.remove(entry.getKey().toString());
+                }
+            }
+        }
+
+        // Same fallback as getAuditLogsForId, for the objects without any audit log found through the history tables
+        if (!remainingIds.isEmpty()) {
+            final Iterable<RecordIdIdMappings> mappings = dbRouter.onDemand(true).getRecordIdIdMappingsForIds(tableName.getTableName(), remainingIds, context);
+            result.putAll(getAuditLogsForRecordIds(tableName, tableName.getObjectType(), RecordIdIdMappings.toMap(mappings), auditLevel, context));
+        }
+        return result;
+    }
+
+    // auditedTableName is the table name as found in the audit_log table (i.e. the history table name when going through the history)
+    private Map<UUID, List<AuditLog>> getAuditLogsForRecordIds(final TableName auditedTableName, final ObjectType objectType, final Map<Long, UUID> targetRecordIdsToIds, final AuditLevel auditLevel, final InternalTenantContext context) {
+        if (targetRecordIdsToIds.isEmpty()) {
+            return Map.of();
+        }
+
+        final List<AuditLogModelDao> auditLogsForTargetRecordIds = transactionalSqlDao.execute(true, entitySqlDaoWrapperFactory -> entitySqlDaoWrapperFactory
+                .become(EntitySqlDao.class)
+                .getAuditLogsForTargetRecordIds(auditedTableName.name(), targetRecordIdsToIds.keySet(), context));
+
+        // Audit logs are ordered by record id, which preserves the per object ordering filterAuditLogs relies on
+        final Map<UUID, List<AuditLog>> allAuditLogs = new LinkedHashMap<>();
+        for (final AuditLogModelDao input : auditLogsForTargetRecordIds) {
+            final UUID auditedEntityId = targetRecordIdsToIds.get(input.getTargetRecordId());
+            allAuditLogs.computeIfAbsent(auditedEntityId, id -> new ArrayList<>()).add(new DefaultAuditLog(input, objectType, auditedEntityId));
+        }
+        allAuditLogs.replaceAll((auditedEntityId, auditLogs) -> filterAuditLogs(auditLevel, auditLogs));
+        return allAuditLogs;
+    }
+
     @Override
     public List<AuditLogWithHistory> getAuditLogsWithHistoryForId(final HistorySqlDao transactional, final TableName tableName, final UUID objectId, final AuditLevel auditLevel, final InternalTenantContext context) {
         final TableName historyTableName = tableName.getHistoryTableName();
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.broadcast;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Listener for {@link BroadcastTransport} notifications: schedules a catch-up run on the (single-threaded) broadcast executor,
+ * so that notified entries are processed in order with the polled ones. Notifications received while a run is already
+ * pending are coalesced into that run.
+ */
+public class BroadcastCatchUpTrigger implements Runnable {
+
+    private final Executor executor;
+    private final Runnable catchUp;
+    private final AtomicBoolean pending;
+
+    public BroadcastCatchUpTrigger(final Executor executor, final Runnable catchUp) {
+        this.executor = executor;
+        this.catchUp = catchUp;
+        this.pending = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void run() {
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                // Reset first, so that a notification received during the run triggers a new one
+                pending.set(false);
+                catchUp.run();
+            });
+        } catch (final RejectedExecutionException e) {
+            // Shutting down
+            pending.set(false);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.broadcast;
+
+/**
+ * Transport used to notify the other nodes that new entries have been written in a broadcast table
+ * (broadcast or tenant_broadcasts). The tables remain the source of truth: the notification only carries
+ * the channel name, and subscribers are expected to catch up by reading the table from their last processed record id.
+ * <p/>
+ * Notifications are best effort: a lost message is eventually recovered by the (slower) catch-up polling.
+ */
+public interface BroadcastTransport {
+
+    /**
+     * @return true if notifications are pushed to the other nodes, false if they need to rely on polling only
+     */
+    public boolean isPushEnabled();
+
+    /**
+     * Notify all subscribers (including the local node) that new entries are available. Must be invoked after the entries have been committed.
+     *
+     * @param channel the channel name
+     */
+    public void publish(String channel);
+
+    /**
+     * @param channel  the channel name
+     * @param listener invoked, on a transport thread, each time a notification is received
+     */
+    public void subscribe(String channel, Runnable listener);
+
+    public void unsubscribe(String channel);
+}
@@ -36,11 +36,13 @@ public class DefaultBroadcastApi implements BroadcastApi {
 
     private final BroadcastDao dao;
     private final PersistentBus eventBus;
+    private final BroadcastTransport broadcastTransport;
 
     @Inject
-    public DefaultBroadcastApi(final BroadcastDao dao, final PersistentBus eventBus) {
+    public DefaultBroadcastApi(final BroadcastDao dao, final PersistentBus eventBus, final BroadcastTransport broadcastTransport) {
         this.dao = dao;
         this.eventBus = eventBus;
+        this.broadcastTransport = broadcastTransport;
     }
 
     @Override
@@ -57,6 +59,7 @@ public class DefaultBroadcastApi implements BroadcastApi {
         } else {
             final BroadcastModelDao modelDao = new BroadcastModelDao(serviceName, type, event, createdDate, createdBy);
             dao.create(modelDao);
+            broadcastTransport.publish(DefaultBroadcastService.BROADCAST_CHANNEL);
         }
     }
 }
@@ -34,11 +34,14 @@ import org.killbill.billing.util.optimizer.BusOptimizer;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.bus.api.PersistentBus.EventBusException;
 import org.killbill.commons.concurrent.Executors;
+import org.skife.config.TimeSpan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DefaultBroadcastService implements BroadcastService {
 
+    public static final String BROADCAST_CHANNEL = "broadcast";
+
     private final static int TERMINATION_TIMEOUT_SEC = 5;
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultBroadcastService.class);
@@ -47,16 +50,18 @@ public class DefaultBroadcastService implements BroadcastService {
     private final BroadcastConfig broadcastConfig;
     private final BroadcastDao broadcastDao;
     private final PersistentBus eventBus;
+    private final BroadcastTransport broadcastTransport;
 
     private AtomicLong latestRecordIdProcessed;
     private ScheduledExecutorService broadcastExecutor;
     private volatile boolean isStopped;
 
     @Inject
-    public DefaultBroadcastService(final BroadcastDao broadcastDao, final BroadcastConfig broadcastConfig, final PersistentBus eventBus) {
+    public DefaultBroadcastService(final BroadcastDao broadcastDao, final BroadcastConfig broadcastConfig, final PersistentBus eventBus, final BroadcastTransport broadcastTransport) {
         this.broadcastDao = broadcastDao;
         this.broadcastConfig = broadcastConfig;
         this.eventBus = eventBus;
+        this.broadcastTransport = broadcastTransport;
         this.isStopped = false;
     }
 
@@ -80,10 +85,11 @@ public class DefaultBroadcastService implements BroadcastService {
 
     @LifecycleHandlerType(LifecycleHandlerType.LifecycleLevel.START_SERVICE)
     public void start() {
-        final TimeUnit pendingRateUnit = broadcastConfig.getBroadcastServiceRunningRate().getUnit();
-        final long pendingPeriod = broadcastConfig.getBroadcastServiceRunningRate().getPeriod();
-        broadcastExecutor.scheduleAtFixedRate(new BroadcastServiceRunnable(this, broadcastDao, eventBus), pendingPeriod, pendingPeriod, pendingRateUnit);
-
+        // When entries are pushed, the table only needs to be polled to catch up on missed notifications
+        final TimeSpan rate = broadcastTransport.isPushEnabled() ? broadcastConfig.getBroadcastServiceCatchUpRate() : broadcastConfig.getBroadcastServiceRunningRate();
+        final Runnable broadcastServiceRunnable = new BroadcastServiceRunnable(this, broadcastDao, eventBus);
+        broadcastExecutor.scheduleAtFixedRate(broadcastServiceRunnable, rate.getPeriod(), rate.getPeriod(), rate.getUnit());
+        broadcastTransport.subscribe(BROADCAST_CHANNEL, new BroadcastCatchUpTrigger(broadcastExecutor, broadcastServiceRunnable));
     }
 
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
@@ -93,6 +99,7 @@ public class DefaultBroadcastService implements BroadcastService {
             return;
         }
         try {
+            broadcastTransport.unsubscribe(BROADCAST_CHANNEL);
             broadcastExecutor.shutdown();
             boolean success = broadcastExecutor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS);
             if (!success) {
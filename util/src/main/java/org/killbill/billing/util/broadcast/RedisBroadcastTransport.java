@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.broadcast;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Redis pub/sub based transport: each channel maps to a Redis topic, and publishing a notification wakes up all subscribed nodes immediately.
+ */
+public class RedisBroadcastTransport implements BroadcastTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisBroadcastTransport.class);
+
+    private static final String TOPIC_PREFIX = "killbill.broadcast.";
+
+    private final RedissonClient redissonClient;
+    private final Map<String, Integer> listenerIds;
+
+    public RedisBroadcastTransport(final RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+        this.listenerIds = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean isPushEnabled() {
+        return true;
+    }
+
+    @Override
+    public void publish(final String channel) {
+        try {
+            getTopic(channel).publish(channel);
+        } catch (final RuntimeException e) {
+            // The other nodes will pick up the new entries on their next catch-up run
+            logger.warn("Failed to publish broadcast notification for channel {}", channel, e);
+        }
+    }
+
+    @Override
+    public void subscribe(final String channel, final Runnable listener) {
+        final int listenerId = getTopic(channel).addListener(String.class, (topicChannel, message) -> listener.run());
+        final Integer previousListenerId = listenerIds.put(channel, listenerId);
+        if (previousListenerId != null) {
+            getTopic(channel).removeListener(previousListenerId);
+        }
+    }
+
+    @Override
+    public void unsubscribe(final String channel) {
+        final Integer listenerId = listenerIds.remove(channel);
+        if (listenerId == null) {
+            return;
+        }
+
+        try {
+            getTopic(channel).removeListener(listenerId);
+        } catch (final RuntimeException e) {
+            logger.warn("Failed to unsubscribe from broadcast channel {}", channel, e);
+        }
+    }
+
+    private RTopic getTopic(final String channel) {
+        return redissonClient.getTopic(TOPIC_PREFIX + channel, StringCodec.INSTANCE);
+    }
+}
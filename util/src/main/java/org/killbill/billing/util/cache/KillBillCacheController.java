@@ -21,6 +21,11 @@ package org.killbill.billing.util.cache;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,6 +34,9 @@ import javax.cache.Cache.Entry;
 import javax.cache.CacheException;
 
 import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
 import org.killbill.commons.utils.collect.Iterables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,12 +45,25 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
 
     private static final Logger logger = LoggerFactory.getLogger(KillBillCacheController.class);
 
+    private static final String METRIC_PREFIX = "killbill.cache.";
+
     private final Cache<K, V> cache;
     private final BaseCacheLoader<K, V> baseCacheLoader;
+    // Single-flight loading: at most one loader call per key at any given time, misses on different keys load in parallel
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<K, CompletableFuture<V>>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loads;
 
-    public KillBillCacheController(final Cache<K, V> cache, final BaseCacheLoader<K, V> baseCacheLoader) {
+    public KillBillCacheController(final Cache<K, V> cache, final BaseCacheLoader<K, V> baseCacheLoader, final MetricRegistry metricRegistry) {
         this.cache = cache;
         this.baseCacheLoader = baseCacheLoader;
+
+        final String metricPrefix = METRIC_PREFIX + baseCacheLoader.getCacheType().getCacheName();
+        this.hits = metricRegistry.counter(metricPrefix + ".hits");
+        this.misses = metricRegistry.counter(metricPrefix + ".misses");
+        this.loads = metricRegistry.timer(metricPrefix + ".loads");
     }
 
     @Override
@@ -66,14 +87,10 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
         V value;
         try {
             if (!isKeyInCache(key)) {
-                synchronized (this) {
-                    if (!isKeyInCache(key)) {
-                        value = computeAndCacheValue(key, cacheLoaderArgument);
-                    } else {
-                        value = cache.get(key);
-                    }
-                }
+                misses.inc(1);
+                value = loadValue(key, cacheLoaderArgument);
             } else {
+                hits.inc(1);
                 value = cache.get(key);
             }
         } catch (final CacheException e) {
@@ -129,6 +146,39 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
         return baseCacheLoader.getCacheType();
     }
 
+    private V loadValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
+        final CompletableFuture<V> load = new CompletableFuture<V>();
+        final CompletableFuture<V> inFlightLoad = inFlightLoads.putIfAbsent(key, load);
+        if (inFlightLoad != null) {
+            // Another thread is already loading that key: wait for its result instead of calling the loader again
+            return waitForLoad(inFlightLoad);
+        }
+
+        try {
+            // The value could have been cached between our cache miss and the registration of our load
+            final V value = isKeyInCache(key) ? cache.get(key) : computeAndCacheValue(key, cacheLoaderArgument);
+            load.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    private V waitForLoad(final CompletableFuture<V> inFlightLoad) {
+        try {
+            return inFlightLoad.join();
+        } catch (final CompletionException e) {
+            // Rethrow what the loading thread got (RuntimeException from computeValue or CacheException)
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private V computeAndCacheValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
         final V value = computeValue(key, cacheLoaderArgument);
         if (value == null) {
@@ -142,12 +192,15 @@ public class KillBillCacheController<K, V> implements CacheController<K, V> {
 
     private V computeValue(final K key, final CacheLoaderArgument cacheLoaderArgument) {
         final V value;
+        final long startNanos = System.nanoTime();
         try {
             value = baseCacheLoader.compute(key, cacheLoaderArgument);
         } catch (final Exception e) {
             // Remove noisy log (might be expected, see https://github.com/killbill/killbill/issues/842)
             //logger.warn("Unable to compute cached value for key='{}' and cacheLoaderArgument='{}'", key, cacheLoaderArgument, e);
             throw new RuntimeException(e);
+        } finally {
+            loads.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
         }
         return value;
     }
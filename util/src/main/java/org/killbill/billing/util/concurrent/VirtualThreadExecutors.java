@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.Nullable;
+
+import org.killbill.commons.profiling.Profiling;
+
+//
+// The JDK APIs are looked up reflectively, as we still need to run on JVMs without virtual threads.
+//
+public abstract class VirtualThreadExecutors {
+
+    /**
+     * @param threadNamePrefix prefix of the thread names (followed by a counter)
+     * @return an executor running each task on a new virtual thread, or null if the JVM doesn't support virtual threads
+     */
+    @Nullable
+    public static ExecutorService newVirtualThreadPerTaskExecutor(final String threadNamePrefix) {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            final ThreadFactory virtualThreadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            final ThreadFactory withProfilingThreadFactory = new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    // Same contract as WithProfilingThreadPoolExecutor (each virtual thread runs exactly one task)
+                    return virtualThreadFactory.newThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Profiling.setPerThreadProfilingData();
+                            try {
+                                r.run();
+                            } finally {
+                                Profiling.resetPerThreadProfilingData();
+                            }
+                        }
+                    });
+                }
+            };
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                                                    .invoke(null, withProfilingThreadFactory);
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -29,4 +29,9 @@ public interface BroadcastConfig extends KillbillConfig {
     @Description("Rate at which broadcast service task is scheduled")
     public TimeSpan getBroadcastServiceRunningRate();
 
+    @Config("org.killbill.billing.util.broadcast.catchUpRate")
+    @Default("1m")
+    @Description("Rate at which broadcast service task is scheduled when new entries are pushed by the broadcast transport")
+    public TimeSpan getBroadcastServiceCatchUpRate();
+
 }
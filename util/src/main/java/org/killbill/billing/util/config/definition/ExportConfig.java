@@ -30,4 +30,19 @@ public interface ExportConfig extends KillbillConfig {
     @Description("Prefix of the extra tables that need to be imported")
     List<String> getExtraTablesPrefix();
 
+    @Config("org.killbill.export.archive.parallelism")
+    @Default("4")
+    @Description("Number of threads dumping tables for the archive exports (shared by all the exports), and number of tables read ahead by each export")
+    int getArchiveParallelism();
+
+    @Config("org.killbill.export.archive.accountBatchSize")
+    @Default("1000")
+    @Description("Number of accounts exported by each query of the archive export")
+    int getArchiveAccountBatchSize();
+
+    @Config("org.killbill.export.archive.fetchSize")
+    @Default("1000")
+    @Description("JDBC fetch size used by the archive export (for MySQL, only honored with useCursorFetch=true)")
+    int getArchiveFetchSize();
+
 }
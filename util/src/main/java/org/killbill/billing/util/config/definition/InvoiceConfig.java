@@ -96,6 +96,16 @@ public interface InvoiceConfig extends LockAwareConfig {
     @Description("Whether we fail invoice when we discover missing past usage records")
     boolean isUsageMissingLenient();
 
+    @Config("org.killbill.invoice.usage.dryRun.aggregated")
+    @Default("false")
+    @Description("Whether dry-run invoices read the usage pre-aggregated per day instead of every usage record")
+    boolean isAggregatedUsageForDryRunEnabled();
+
+    @Config("org.killbill.invoice.usage.dryRun.aggregated")
+    @Default("false")
+    @Description("Whether dry-run invoices read the usage pre-aggregated per day instead of every usage record")
+    boolean isAggregatedUsageForDryRunEnabled(@Param("dummy") final InternalTenantContext tenantContext);
+
     @Config("org.killbill.invoice.usage.missing.lenient")
     @Default("false")
     @Description("Whether we fail invoice when we discover missing past usage records")
@@ -146,6 +156,21 @@ public interface InvoiceConfig extends LockAwareConfig {
     @Description("Default invoice plugin names")
     List<String> getInvoicePluginNames(@Param("dummy") final InternalTenantContext tenantContext);
 
+    @Config("org.killbill.invoice.plugin.parallelism")
+    @Default("0")
+    @Description("Number of threads used to call the invoice plugins which don't depend on each other concurrently (0 or 1 to call them sequentially, in the configured order)")
+    int getInvoicePluginParallelism();
+
+    @Config("org.killbill.invoice.plugin.dependencies")
+    @Default("")
+    @Description("Dependencies between invoice plugins called concurrently, as pluginName:dependencyName entries (the plugin is called once its dependency has returned)")
+    List<String> getInvoicePluginDependencies();
+
+    @Config("org.killbill.invoice.plugin.timeout")
+    @Default("60s")
+    @Description("Maximum time to wait for each stage of concurrent invoice plugin calls (ignored when plugins are called sequentially, i.e. org.killbill.invoice.plugin.parallelism <= 1)")
+    TimeSpan getInvoicePluginTimeout();
+
     @Config("org.killbill.invoice.emailNotificationsEnabled")
     @Default("false")
     @Description("Whether to send email notifications on invoice creation (for configured accounts)")
@@ -232,4 +257,19 @@ public interface InvoiceConfig extends LockAwareConfig {
     @Description("Fixed number of days in a month to avoid proration")
     int getProrationFixedDays(@Param("dummy") final InternalTenantContext tenantContext);
 
+    @Config("org.killbill.invoice.generation.parallelism")
+    @Default("0")
+    @Description("Number of threads used to generate the invoice items of an account across its subscriptions (0 or 1 to generate them sequentially)")
+    int getInvoiceGenerationParallelism();
+
+    @Config("org.killbill.invoice.generation.parallelism.minSubscriptions")
+    @Default("100")
+    @Description("Minimum number of subscriptions for the invoice items of an account to be generated in parallel")
+    int getInvoiceGenerationParallelismMinSubscriptions();
+
+    @Config("org.killbill.invoice.tree.compact")
+    @Default("false")
+    @Description("Whether to reconcile the existing and proposed items with the array-based item tree instead of the node-based one")
+    boolean isCompactItemTreeEnabled();
+
 }
@@ -30,6 +30,11 @@ public interface JaxrsConfig extends KillbillConfig {
     @Description("Number of threads for jaxrs executor")
     int getJaxrsThreadNb();
 
+    @Config("org.killbill.jaxrs.threads.virtual")
+    @Default("true")
+    @Description("Whether to run the callables of parallel api calls on virtual threads instead of the jaxrs thread pool (ignored if the JVM does not support virtual threads)")
+    boolean isJaxrsVirtualThreadsEnabled();
+
     @Config("org.killbill.jaxrs.timeout")
     @Default("30s")
     @Description("Total timeout for all callables associated to a given api call (parallel mode)")
@@ -54,4 +59,14 @@ public interface JaxrsConfig extends KillbillConfig {
     @Default("true")
     @Description("Whether GET calls should leverage the read-only database connection")
     boolean shouldGETUseROConnection();
+
+    @Config("org.killbill.jaxrs.get.ro.maxReplicationLag")
+    @Default("0s")
+    @Description("Replication lag of the read-only database above which read-only calls use the main database instead (0s disables the lag detection)")
+    TimeSpan getMaxReplicationLag();
+
+    @Config("org.killbill.jaxrs.get.ro.replicationLagCheckInterval")
+    @Default("1s")
+    @Description("Interval between two measurements of the replication lag of the read-only database")
+    TimeSpan getReplicationLagCheckInterval();
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.config.definition;
+
+import org.skife.config.Config;
+import org.skife.config.Default;
+import org.skife.config.Description;
+
+public interface JunctionConfig extends KillbillConfig {
+
+    @Config("org.killbill.billing.junction.billingEventsCache.enabled")
+    @Default("false")
+    @Description("Whether the billing transitions computed for each subscription are cached, and only recomputed when the subscription changes")
+    boolean isBillingEventsCacheEnabled();
+
+    @Config("org.killbill.billing.junction.billingEventsCache.maxAccounts")
+    @Default("10000")
+    @Description("Maximum number of accounts whose billing transitions are kept in the cache (least recently used accounts are evicted first)")
+    int getBillingEventsCacheMaxAccounts();
+}
@@ -38,4 +38,38 @@ public interface NotificationConfig extends KillbillConfig {
     @Description("Delay before which unresolved push notifications should be retried")
     List<TimeSpan> getPushNotificationsRetries(@Param("dummy") final InternalTenantContext tenantContext);
 
-}
\ No newline at end of file
+    @Config("org.killbill.billing.server.notifications.async.enabled")
+    @Default("false")
+    @Description("Whether push notifications are delivered asynchronously, through per-endpoint queues, instead of in the bus thread")
+    boolean isAsyncPushNotificationsEnabled();
+
+    @Config("org.killbill.billing.server.notifications.async.nbThreads")
+    @Default("4")
+    @Description("Number of threads handling the asynchronous push notification responses")
+    int getAsyncPushNotificationsNbThreads();
+
+    @Config("org.killbill.billing.server.notifications.async.maxConcurrentRequestsPerEndpoint")
+    @Default("1")
+    @Description("Maximum number of concurrent push notification requests per callback URL (values greater than 1 don't preserve ordering)")
+    int getAsyncPushNotificationsMaxConcurrentRequestsPerEndpoint();
+
+    @Config("org.killbill.billing.server.notifications.async.maxQueueSizePerEndpoint")
+    @Default("10000")
+    @Description("Maximum number of push notifications waiting per callback URL, before they are scheduled for retry")
+    int getAsyncPushNotificationsMaxQueueSizePerEndpoint();
+
+    @Config("org.killbill.billing.server.notifications.async.maxBatchSize")
+    @Default("1")
+    @Description("Maximum number of push notifications sent in a single request (as a JSON array) when greater than 1")
+    int getAsyncPushNotificationsMaxBatchSize();
+
+    @Config("org.killbill.billing.server.notifications.async.circuitBreaker.failureThreshold")
+    @Default("5")
+    @Description("Number of consecutive failed requests after which push notifications to a callback URL are directly scheduled for retry")
+    int getAsyncPushNotificationsCircuitBreakerFailureThreshold();
+
+    @Config("org.killbill.billing.server.notifications.async.circuitBreaker.openDuration")
+    @Default("30s")
+    @Description("Delay before trying again a callback URL for which the failure threshold was reached")
+    TimeSpan getAsyncPushNotificationsCircuitBreakerOpenDuration();
+}
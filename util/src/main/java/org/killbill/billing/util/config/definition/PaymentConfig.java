@@ -99,6 +99,11 @@ public interface PaymentConfig extends LockAwareConfig {
     @Description("Default payment control plugin names")
     List<String> getPaymentControlPluginNames(@Param("dummy") final InternalTenantContext tenantContext);
 
+    @Config("org.killbill.payment.plugin.control.async")
+    @Default("")
+    @Description("Payment control plugins whose onSuccessCall/onFailureCall are dispatched asynchronously through a notification queue (their results, e.g. next retry dates, are then ignored)")
+    List<String> getAsyncPaymentControlPluginNames();
+
     @Config("org.killbill.payment.janitor.rate")
     @Default("1h")
     @Description("Rate at which janitor tasks are scheduled")
@@ -109,6 +114,36 @@ public interface PaymentConfig extends LockAwareConfig {
     @Description("Delay before which unresolved attempt should be retried")
     TimeSpan getIncompleteAttemptsTimeSpanDelay();
 
+    @Config("org.killbill.payment.janitor.parallel.enabled")
+    @Default("false")
+    @Description("Whether to periodically sweep incomplete (PENDING or UNKNOWN) transactions in parallel, in addition to the janitor notifications")
+    boolean isParallelJanitorEnabled();
+
+    @Config("org.killbill.payment.janitor.parallel.rate")
+    @Default("5m")
+    @Description("Rate at which the parallel janitor sweeps are scheduled")
+    TimeSpan getParallelJanitorRunningRate();
+
+    @Config("org.killbill.payment.janitor.parallel.delay")
+    @Default("5m")
+    @Description("Minimum age of an incomplete transaction before the parallel janitor considers it")
+    TimeSpan getParallelJanitorTransactionsTimeSpanDelay();
+
+    @Config("org.killbill.payment.janitor.parallel.threads.nb")
+    @Default("4")
+    @Description("Number of threads used by the parallel janitor (accounts are processed concurrently)")
+    int getParallelJanitorThreadNb();
+
+    @Config("org.killbill.payment.janitor.parallel.nodes.nb")
+    @Default("1")
+    @Description("Number of nodes running the parallel janitor (transactions are sharded by account record id across nodes)")
+    int getParallelJanitorNbNodes();
+
+    @Config("org.killbill.payment.janitor.parallel.node.index")
+    @Default("0")
+    @Description("Shard handled by this node, between 0 and org.killbill.payment.janitor.parallel.nodes.nb - 1")
+    int getParallelJanitorNodeIndex();
+
     @Config("org.killbill.payment.provider.default")
     // See ExternalPaymentProviderPlugin.PLUGIN_NAME
     @Default("__external_payment__")
@@ -125,6 +160,16 @@ public interface PaymentConfig extends LockAwareConfig {
     @Description("Number of threads for plugin executor dispatcher")
     int getPaymentPluginThreadNb();
 
+    @Config("org.killbill.payment.plugin.threads.virtual")
+    @Default("false")
+    @Description("Whether to run plugin calls on virtual threads instead of the plugin thread pool (ignored if the JVM does not support virtual threads)")
+    boolean isPaymentPluginVirtualThreadsEnabled();
+
+    @Config("org.killbill.payment.plugin.maxConcurrentCalls")
+    @Default("0")
+    @Description("Maximum number of concurrent calls per plugin (0 for no limit)")
+    int getPaymentPluginMaxConcurrentCalls();
+
     @Config("org.killbill.payment.globalLock.retries")
     @Default("50")
     @Description("Maximum number of times the system will retry to grab global lock (with a 100ms wait each time)")
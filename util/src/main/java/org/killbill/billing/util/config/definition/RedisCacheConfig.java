@@ -29,6 +29,11 @@ public interface RedisCacheConfig extends KillbillConfig {
     @Description("Whether Redis integration for caching is enabled")
     public boolean isRedisCachingEnabled();
 
+    @Config("org.killbill.cache.config.redis.broadcast")
+    @Default("false")
+    @Description("Whether Redis pub/sub is used to notify the other nodes of new broadcast entries (the tables are then only polled to catch up)")
+    public boolean isRedisBroadcastEnabled();
+
     @Config("org.killbill.cache.config.redis.url")
     @Default("redis://127.0.0.1:6379")
     @Description("Redis URL")
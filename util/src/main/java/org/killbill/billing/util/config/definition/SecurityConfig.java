@@ -35,6 +35,16 @@ public interface SecurityConfig extends KillbillConfig {
     @Description("Sets the number of times submitted credentials will be hashed before comparing to the credentials stored in the system")
     public Integer getShiroNbHashIterations();
 
+    @Config("org.killbill.security.authenticationCache.maxSize")
+    @Default("0")
+    @Description("Maximum number of successful credentials verifications to remember (0, the default, disables the cache: when enabled, revoked credentials may still be accepted on other nodes until the entry expires)")
+    public int getAuthenticationCacheMaxSize();
+
+    @Config("org.killbill.security.authenticationCache.ttl")
+    @Default("5m")
+    @Description("How long a successful credentials verification is remembered before the credentials are hashed again")
+    public TimeSpan getAuthenticationCacheTTL();
+
     // LDAP Realm
 
     @Config("org.killbill.security.ldap.userDnTemplate")
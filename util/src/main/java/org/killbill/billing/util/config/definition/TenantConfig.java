@@ -29,4 +29,9 @@ public interface TenantConfig extends KillbillConfig {
     @Description("Rate at which tenant broadcast task is scheduled")
     public TimeSpan getTenantBroadcastServiceRunningRate();
 
+    @Config("org.killbill.tenant.broadcast.catchUpRate")
+    @Default("1m")
+    @Description("Rate at which tenant broadcast task is scheduled when new entries are pushed by the broadcast transport")
+    public TimeSpan getTenantBroadcastServiceCatchUpRate();
+
 }
@@ -36,6 +36,9 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     private final Long totalNbRecords;
     private final Long maxNbRecords;
     private final Iterator<T> delegateIterator;
+    // Keyset (seek) pagination: offsets are record ids and the next one is computed upfront (see DefaultPaginationSqlDaoHelper)
+    private final boolean keyset;
+    private final Long keysetNextOffset;
 
     // Builders when the streaming API can't be used (should only be used for tests)
     // Notes: elements should be the entire records set (regardless of filtering) otherwise maxNbRecords won't be accurate
@@ -57,9 +60,20 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
         return new DefaultPagination<T>(offset, limit, (long) results.size(), (long) maxNbRecords, results.iterator());
     }
 
+    // Builder for keyset pagination DAO calls
+    public static <T> DefaultPagination<T> withKeyset(final Long currentRecordId, final Long limit, @Nullable final Long nextRecordId, final Iterator<T> results) {
+        return new DefaultPagination<T>(currentRecordId, limit, null, null, true, nextRecordId, results);
+    }
+
     // Constructor for DAO -> API bridge
     public DefaultPagination(final Pagination original, final Long limit, final Iterator<T> delegate) {
-        this(original.getCurrentOffset(), limit, original.getTotalNbRecords(), original.getMaxNbRecords(), delegate);
+        this(original.getCurrentOffset(),
+             limit,
+             original.getTotalNbRecords(),
+             original.getMaxNbRecords(),
+             original instanceof DefaultPagination && ((DefaultPagination) original).keyset,
+             original.getNextOffset(),
+             delegate);
     }
 
     // Constructor for DAO getAll calls
@@ -70,12 +84,21 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
     public DefaultPagination(final Long currentOffset, final Long limit,
                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
                              final Iterator<T> delegateIterator) {
+        this(currentOffset, limit, totalNbRecords, maxNbRecords, false, null, delegateIterator);
+    }
+
+    private DefaultPagination(final Long currentOffset, final Long limit,
+                              @Nullable final Long totalNbRecords, @Nullable final Long maxNbRecords,
+                              final boolean keyset, @Nullable final Long keysetNextOffset,
+                              final Iterator<T> delegateIterator) {
         this.currentOffset = currentOffset;
         // See DefaultPaginationSqlDaoHelper
         this.limit = Math.abs(limit);
         this.totalNbRecords = totalNbRecords;
         this.maxNbRecords = maxNbRecords;
         this.delegateIterator = delegateIterator;
+        this.keyset = keyset;
+        this.keysetNextOffset = keysetNextOffset;
     }
 
     @Override
@@ -102,6 +125,11 @@ public class DefaultPagination<T> implements Pagination<T>, Closeable {
 
     @Override
     public Long getNextOffset() {
+        if (keyset) {
+            // Null when the last page has been reached
+            return keysetNextOffset;
+        }
+
         final long candidate = currentOffset + limit;
         if (totalNbRecords != null && candidate >= totalNbRecords) {
             // No more results
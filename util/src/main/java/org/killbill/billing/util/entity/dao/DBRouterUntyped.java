@@ -17,6 +17,9 @@
 
 package org.killbill.billing.util.entity.dao;
 
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.entity.dao.ReplicaLagMonitor.RoutingDecision;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
 import org.skife.jdbi.v2.Handle;
@@ -39,6 +42,9 @@ public class DBRouterUntyped {
         }
     };
 
+    // Registered while the node is running (see DefaultKillbillNodesService)
+    private static volatile ReplicaLagMonitor replicaLagMonitor;
+
     protected final IDBI dbi;
     protected final IDBI roDbi;
 
@@ -50,7 +56,8 @@ public class DBRouterUntyped {
     public static Object withRODBIAllowed(final boolean allowRODBI,
                                           final WithProfilingCallback<Object, Throwable> callback) throws Throwable {
         final THREAD_STATE currentState = getCurrentState();
-        CURRENT_THREAD_STATE.set(allowRODBI ? RO_ALLOWED : RW_ONLY);
+        // Decided once for the whole scope, so that all reads of a given request go to the same database
+        CURRENT_THREAD_STATE.set(allowRODBI && !isReplicaBehind() ? RO_ALLOWED : RW_ONLY);
 
         try {
             return callback.execute();
@@ -64,20 +71,45 @@ public class DBRouterUntyped {
         return CURRENT_THREAD_STATE.get();
     }
 
+    public static void setReplicaLagMonitor(@Nullable final ReplicaLagMonitor monitor) {
+        replicaLagMonitor = monitor;
+    }
+
+    private static boolean isReplicaBehind() {
+        final ReplicaLagMonitor monitor = replicaLagMonitor;
+        if (monitor == null || !monitor.isReplicaBehind()) {
+            return false;
+        }
+
+        logger.debug("RO DBI is {}ms behind, using RW DBI", monitor.getReplicationLagMillis());
+        monitor.recordRoutingDecision(RoutingDecision.REPLICA_BEHIND);
+        return true;
+    }
+
+    private static void recordRoutingDecision(final RoutingDecision routingDecision) {
+        final ReplicaLagMonitor monitor = replicaLagMonitor;
+        if (monitor != null) {
+            monitor.recordRoutingDecision(routingDecision);
+        }
+    }
+
     boolean shouldUseRODBI(final boolean requestedRO) {
         if (requestedRO) {
             if (isRODBIAllowed()) {
                 logger.debug("Using RO DBI");
+                recordRoutingDecision(RoutingDecision.RO);
                 return true;
             } else {
                 // Redirect to the rw instance, to work-around any replication delay
                 logger.debug("RO DBI requested, but thread state is {}, using RW DBI", getCurrentState());
+                recordRoutingDecision(RoutingDecision.RO_REDIRECTED);
                 return false;
             }
         } else {
             // Disable RO DBI for future calls in this thread
             disallowRODBI();
             logger.debug("Using RW DBI");
+            recordRoutingDecision(RoutingDecision.RW);
             return false;
         }
     }
@@ -18,7 +18,11 @@
 
 package org.killbill.billing.util.entity.dao;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -123,6 +127,56 @@ public class DefaultPaginationSqlDaoHelper {
         return new DefaultPagination<M>(offset, limit, totalNbRecords, maxNbRecords, results);
     }
 
+    /**
+     * Keyset (seek) pagination: return the records after fromRecordId, in record id order (the first page starts at 0). The next offset
+     * of the returned pagination is the record id of the last record of the page, null on the last page.
+     * <p>
+     * Contrary to offset pagination, the cost of a page doesn't depend on how deep it is and the total number of records isn't computed.
+     * The page (bounded by the limit) is read upfront, to derive the next offset from its last record.
+     */
+    public <E extends Entity, M extends EntityModelDao<E>, S extends EntitySqlDao<M, E>> Pagination<M> getKeysetPagination(final Class<? extends EntitySqlDao<M, E>> sqlDaoClazz,
+                                                                                                                           final KeysetPaginationIteratorBuilder<M, E, S> paginationIteratorBuilder,
+                                                                                                                           final Long fromRecordId,
+                                                                                                                           final Long limitMaybeNegative,
+                                                                                                                           @Nullable final InternalTenantContext context) {
+        // Same convention as offset pagination: a negative limit means going backwards
+        final Ordering ordering = limitMaybeNegative >= 0 ? Ordering.ASC : Ordering.DESC;
+        final Long limit = Math.abs(limitMaybeNegative);
+        // When going backwards, the first page starts from the most recent record
+        final Long cursor = fromRecordId <= 0 && ordering == Ordering.DESC ? Long.MAX_VALUE : fromRecordId;
+
+        final List<M> page = new ArrayList<M>();
+        boolean hasNextPage = false;
+        if (limit > 0) {
+            // One extra record is requested to know whether there is a next page (it is not returned)
+            final EntitySqlDao<M, E> sqlDao = transactionalSqlDao.onDemandForStreamingResults(sqlDaoClazz);
+            final Iterator<M> results = paginationIteratorBuilder.buildFromRecordId((S) sqlDao, cursor, limit + 1, ordering, context);
+            while (page.size() < limit && results.hasNext()) {
+                page.add(results.next());
+            }
+            hasNextPage = results.hasNext();
+            closeIterator(results);
+        }
+
+        final Long nextRecordIdOrNull = hasNextPage ? page.get(page.size() - 1).getRecordId() : null;
+        return DefaultPagination.<M>withKeyset(fromRecordId, limit, nextRecordIdOrNull, page.iterator());
+    }
+
+    private static void closeIterator(final Iterator<?> results) {
+        if (results instanceof Closeable) {
+            try {
+                ((Closeable) results).close();
+            } catch (final IOException e) {
+                logger.warn("Unable to close results", e);
+            }
+        } else {
+            // Release the connection
+            while (results.hasNext()) {
+                results.next();
+            }
+        }
+    }
+
     public abstract static class PaginationIteratorBuilder<M extends EntityModelDao<E>, E extends Entity, S extends EntitySqlDao<M, E>> {
 
         // Determine the totalNbRecords:
@@ -133,8 +187,26 @@ public class DefaultPaginationSqlDaoHelper {
         public abstract Iterator<M> build(final S sqlDao, final Long offset, final Long limit, final Ordering ordering, final InternalTenantContext context);
     }
 
+    // Keyset pagination (see getKeysetPagination): no count is computed
+    public abstract static class KeysetPaginationIteratorBuilder<M extends EntityModelDao<E>, E extends Entity, S extends EntitySqlDao<M, E>> {
+
+        // Return the next records after recordId, in record id order
+        public abstract Iterator<M> buildFromRecordId(final S sqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context);
+    }
+
     public enum Ordering {
-        ASC,
-        DESC
+        ASC(SqlOperator.GT),
+        DESC(SqlOperator.LT);
+
+        // Keyset pagination: how to compare record ids against the cursor
+        private final SqlOperator keysetOperator;
+
+        Ordering(final SqlOperator keysetOperator) {
+            this.keysetOperator = keysetOperator;
+        }
+
+        public SqlOperator getKeysetOperator() {
+            return keysetOperator;
+        }
     }
 }
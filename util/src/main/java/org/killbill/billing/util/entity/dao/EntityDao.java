@@ -37,6 +37,9 @@ public interface EntityDao<M extends EntityModelDao<E>, E extends Entity, U exte
     public Pagination<M> getAll(InternalTenantContext context);
 
     public Pagination<M> get(Long offset, Long limit, InternalTenantContext context);
+
+    // Keyset pagination: return the records after fromRecordId (0 for the first page), see DefaultPaginationSqlDaoHelper#getKeysetPagination
+    public Pagination<M> getFromRecordId(Long fromRecordId, Long limit, InternalTenantContext context);
     
     public Pagination<M> getByAccountRecordId(Long offset, Long limit, InternalTenantContext context);
 
@@ -38,6 +38,7 @@ import org.killbill.billing.util.dao.NonEntityDao;
 import org.killbill.billing.util.entity.DefaultPagination;
 import org.killbill.billing.util.entity.Entity;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.KeysetPaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
@@ -221,6 +222,20 @@ public abstract class EntityDaoBase<M extends EntityModelDao<E>, E extends Entit
                                               context);
     }
 
+    @Override
+    public Pagination<M> getFromRecordId(final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        return paginationHelper.getKeysetPagination(realSqlDao,
+                                                    new KeysetPaginationIteratorBuilder<M, E, EntitySqlDao<M, E>>() {
+                                                        @Override
+                                                        public Iterator<M> buildFromRecordId(final EntitySqlDao<M, E> sqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                                                            return sqlDao.getFromRecordId(recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+                                                        }
+                                                    },
+                                                    fromRecordId,
+                                                    limit,
+                                                    context);
+    }
+
     @Override
     public Pagination<M> getByAccountRecordId(final Long offset, final Long limit, final InternalTenantContext context) {
         return paginationHelper.getPaginationWithAccountRecordId(realSqlDao,
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.util.dao.EntityAudit;
+import org.killbill.billing.util.dao.EntityHistoryModelDao;
+import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.entity.Entity;
+import org.killbill.commons.utils.Preconditions;
+
+/**
+ * History and audit log rows recorded during a transaction, inserted with one batch per history table (and one for the
+ * audit log) right before the commit, instead of after each write.
+ * <p/>
+ * Rows are grouped per table and per context, in the order they were recorded. Only rows for entities that weren't handed
+ * back to the caller are deferred (the history row keeps a reference to the entity, which must not change until it is
+ * inserted): recording a row that can't be deferred, or reading the history or audit tables, flushes the buffer first.
+ * <p/>
+ * Not thread safe: one instance per transaction, see EntitySqlDaoWrapperFactory.
+ */
+public class EntityHistoryAndAuditBuffer {
+
+    private final Map<HistoryKey, PendingHistories> pendingHistories = new LinkedHashMap<>();
+    private final Map<ContextKey, PendingAudits> pendingAudits = new LinkedHashMap<>();
+
+    public boolean isEmpty() {
+        return pendingHistories.isEmpty() && pendingAudits.isEmpty();
+    }
+
+    public <M extends EntityModelDao<E>, E extends Entity> void addHistories(final EntitySqlDao<M, E> sqlDao,
+                                                                             final Class<?> sqlDaoClass,
+                                                                             final TableName tableName,
+                                                                             final Iterable<EntityHistoryModelDao<M, E>> histories,
+                                                                             final InternalCallContext context) {
+        Preconditions.checkState(tableName.getHistoryTableName() != null, "Table %s doesn't have a history table", tableName);
+        final PendingHistories pending = pendingHistories.computeIfAbsent(new HistoryKey(sqlDaoClass, context), key -> new PendingHistories(sqlDao, tableName, context));
+        for (final EntityHistoryModelDao<M, E> history : histories) {
+            pending.histories.add(history);
+        }
+    }
+
+    public void addAudits(final EntitySqlDao<?, ?> sqlDao, final Iterable<EntityAudit> audits, final InternalCallContext context) {
+        final PendingAudits pending = pendingAudits.computeIfAbsent(new ContextKey(context), key -> new PendingAudits(sqlDao, context));
+        for (final EntityAudit audit : audits) {
+            pending.audits.add(audit);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        if (isEmpty()) {
+            return;
+        }
+
+        // History rows first, audit entries point to their record id
+        for (final PendingHistories pending : pendingHistories.values()) {
+            final List<Long> historyRecordIds = pending.sqlDao.addHistoriesFromTransaction(pending.histories, pending.context);
+            Preconditions.checkState(historyRecordIds.size() == pending.histories.size(), "Wrong number of historyRecordIds=%s (histories=%s)", historyRecordIds, pending.histories);
+
+            final List<EntityAudit> audits = new ArrayList<>(historyRecordIds.size());
+            for (int i = 0; i < historyRecordIds.size(); i++) {
+                final EntityHistoryModelDao<?, ?> history = pending.histories.get(i);
+                audits.add(new EntityAudit(pending.tableName.getHistoryTableName(), historyRecordIds.get(i), history.getChangeType(), history.getCreatedDate()));
+            }
+            addAudits(pending.sqlDao, audits, pending.context);
+        }
+        pendingHistories.clear();
+
+        for (final PendingAudits pending : pendingAudits.values()) {
+            pending.sqlDao.insertAuditsFromTransaction(pending.audits, pending.context);
+        }
+        pendingAudits.clear();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final class PendingHistories {
+
+        private final EntitySqlDao sqlDao;
+        private final TableName tableName;
+        private final InternalCallContext context;
+        private final List<EntityHistoryModelDao> histories = new ArrayList<>();
+
+        private PendingHistories(final EntitySqlDao sqlDao, final TableName tableName, final InternalCallContext context) {
+            this.sqlDao = sqlDao;
+            this.tableName = tableName;
+            this.context = context;
+        }
+    }
+
+    private static final class PendingAudits {
+
+        private final EntitySqlDao<?, ?> sqlDao;
+        private final InternalCallContext context;
+        private final List<EntityAudit> audits = new ArrayList<>();
+
+        private PendingAudits(final EntitySqlDao<?, ?> sqlDao, final InternalCallContext context) {
+            this.sqlDao = sqlDao;
+            this.context = context;
+        }
+    }
+
+    // Contexts are compared by identity: rows are only batched together if they were recorded with the same context
+    private static class ContextKey {
+
+        protected final InternalCallContext context;
+
+        private ContextKey(final InternalCallContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return context == ((ContextKey) o).context;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(context);
+        }
+    }
+
+    private static final class HistoryKey extends ContextKey {
+
+        private final Class<?> sqlDaoClass;
+
+        private HistoryKey(final Class<?> sqlDaoClass, final InternalCallContext context) {
+            super(context);
+            this.sqlDaoClass = sqlDaoClass;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return super.equals(o) && sqlDaoClass.equals(((HistoryKey) o).sqlDaoClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(context), sqlDaoClass);
+        }
+    }
+}
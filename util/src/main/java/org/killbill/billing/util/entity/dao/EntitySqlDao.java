@@ -107,6 +107,17 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
                               @Define("ordering") final String ordering,
                               @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> searchFromRecordId(@BindMap final Map<String, Object> searchKeysBindMap,
+                                          @Define("searchAttributes") final List<SearchAttribute> searchAttributes,
+                                          @Define("logicalOperator") final SqlOperator logicalOperator,
+                                          @Bind("recordId") final Long recordId,
+                                          @Bind("rowCount") final Long rowCount,
+                                          @Define("comparisonOperator") final SqlOperator comparisonOperator,
+                                          @Define("ordering") final String ordering,
+                                          @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getSearchCount(@BindMap final Map<String, Object> searchKeysBindMap,
                                @Define("searchAttributes") final List<SearchAttribute> searchAttributes,
@@ -125,6 +136,14 @@ public interface EntitySqlDao<M extends EntityModelDao<E>, E extends Entity> ext
                            @Define("ordering") final String ordering,
                            @SmartBindBean final InternalTenantContext context);
 
+    @SqlQuery
+    @SmartFetchSize(shouldStream = true)
+    public Iterator<M> getFromRecordId(@Bind("recordId") final Long recordId,
+                                       @Bind("rowCount") final Long rowCount,
+                                       @Define("comparisonOperator") final SqlOperator comparisonOperator,
+                                       @Define("ordering") final String ordering,
+                                       @SmartBindBean final InternalTenantContext context);
+
     @SqlQuery
     public Long getRecordIdAtOffset(@Bind("offset") final Long offset);
     
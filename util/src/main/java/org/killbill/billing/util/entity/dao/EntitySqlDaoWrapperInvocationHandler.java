@@ -86,6 +86,7 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
 
     private final CacheControllerDispatcher cacheControllerDispatcher;
     private final InternalCallContextFactory internalCallContextFactory;
+    private final EntityHistoryAndAuditBuffer historyAndAuditBuffer;
     private final Profiling<Object, Throwable> prof;
 
     public EntitySqlDaoWrapperInvocationHandler(final Class<S> sqlDaoClass,
@@ -93,12 +94,14 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                                                 final Handle handle,
                                                 // Special DAO that don't require caching can invoke EntitySqlDaoWrapperInvocationHandler with no caching (e.g NoCachingTenantDao)
                                                 @Nullable final CacheControllerDispatcher cacheControllerDispatcher,
-                                                final InternalCallContextFactory internalCallContextFactory) {
+                                                final InternalCallContextFactory internalCallContextFactory,
+                                                final EntityHistoryAndAuditBuffer historyAndAuditBuffer) {
         this.sqlDaoClass = sqlDaoClass;
         this.sqlDao = sqlDao;
         this.handle = handle;
         this.cacheControllerDispatcher = cacheControllerDispatcher;
         this.internalCallContextFactory = internalCallContextFactory;
+        this.historyAndAuditBuffer = historyAndAuditBuffer;
         this.prof = new Profiling<Object, Throwable>();
     }
 
@@ -194,6 +197,11 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
         return prof.executeWithProfiling(ProfilingFeatureType.DAO_DETAILS, getProfilingId("raw", method), new WithProfilingCallback<Object, Throwable>() {
             @Override
             public Object execute() throws Throwable {
+                if (isHistoryOrAuditQuery(method)) {
+                    // Make sure the rows recorded so far in this transaction are visible
+                    flushHistoryAndAudit();
+                }
+
                 // Real jdbc call
                 final Object result = executeJDBCCall(method, args);
                 // This is *almost* the default invocation except that we want to intercept getById calls to populate the caches; the pattern is to always fetch
@@ -277,7 +285,9 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                                      "accountRecordId should be set for tableName=%s and changeType=%s", tableName, changeType);
         }
 
-        final Collection<M> reHydratedEntities = updateHistoryAndAudit(entityRecordIds, deletedAndUpdatedEntities, tableName, changeType, context);
+        // PERF: unless the (re-hydrated) entity is handed back to the caller, the history and audit rows are inserted at the end of the transaction
+        final boolean isDeferrable = method.getReturnType().equals(Void.TYPE) || isBatchQuery;
+        final Collection<M> reHydratedEntities = updateHistoryAndAudit(entityRecordIds, deletedAndUpdatedEntities, tableName, changeType, context, isDeferrable);
         if (method.getReturnType().equals(Void.TYPE)) {
             // Return early
             return null;
@@ -356,7 +366,8 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                                                 final Map<Long, M> deletedAndUpdatedEntities,
                                                 final TableName tableName,
                                                 final ChangeType changeType,
-                                                final InternalCallContext context) throws Throwable {
+                                                final InternalCallContext context,
+                                                final boolean isDeferrable) throws Throwable {
         // Arbitrary large batch size resulting in not too many round trips but also avoiding
         // too large of a set causing failures -- https://github.com/killbill/killbill/issues/1390
         int MAX_BATCH_SIZE = 10000;
@@ -365,8 +376,13 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
 
             @Override
             public Collection<M> execute() {
+                if (!isDeferrable) {
+                    // Preserve the ordering of the rows
+                    historyAndAuditBuffer.flush();
+                }
+
                 if (tableName.getHistoryTableName() == null) {
-                    insertAudits(entityRecordIds, tableName, changeType, context);
+                    insertAudits(entityRecordIds, tableName, changeType, context, isDeferrable);
                     return deletedAndUpdatedEntities.values();
                 } else {
                     // Make sure to re-hydrate the objects first (especially needed for create calls)
@@ -388,10 +404,16 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
                     }
                     Preconditions.checkState(reHydratedEntities.size() == entityRecordIds.size(), "Wrong number of reHydratedEntities=%s (entityRecordIds=%s)", reHydratedEntities, entityRecordIds);
 
+                    if (isDeferrable) {
+                        // Audit entries will be created when flushing, once the history record ids are known
+                        historyAndAuditBuffer.addHistories(sqlDao, sqlDaoClass, tableName, buildHistories(reHydratedEntities, changeType, context), context);
+                        return reHydratedEntities;
+                    }
+
                     final Collection<Long> auditTargetRecordIds = insertHistories(reHydratedEntities, changeType, context);
                     // Note: audit entries point to the history record id
                     Preconditions.checkState(auditTargetRecordIds.size() == entityRecordIds.size(), "Wrong number of auditTargetRecordIds=%s (entityRecordIds=%s)", auditTargetRecordIds, entityRecordIds);
-                    insertAudits(auditTargetRecordIds, tableName, changeType, context);
+                    insertAudits(auditTargetRecordIds, tableName, changeType, context, false);
 
                     return reHydratedEntities;
                 }
@@ -502,22 +524,26 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
     }
 
     private List<Long> insertHistories(final Iterable<M> reHydratedEntityModelDaos, final ChangeType changeType, final InternalCallContext context) {
+        final List<Long> recordIds = sqlDao.addHistoriesFromTransaction(buildHistories(reHydratedEntityModelDaos, changeType, context), context);
+        printSQLWarnings();
+        return recordIds;
+    }
+
+    private Collection<EntityHistoryModelDao<M, E>> buildHistories(final Iterable<M> reHydratedEntityModelDaos, final ChangeType changeType, final InternalCallContext context) {
         final Collection<EntityHistoryModelDao<M, E>> histories = new LinkedList<EntityHistoryModelDao<M, E>>();
         for (final M reHydratedEntityModelDao : reHydratedEntityModelDaos) {
             final EntityHistoryModelDao<M, E> history = new EntityHistoryModelDao<M, E>(reHydratedEntityModelDao, reHydratedEntityModelDao.getRecordId(), changeType, null, context.getCreatedDate());
             histories.add(history);
         }
-
-        final List<Long> recordIds = sqlDao.addHistoriesFromTransaction(histories, context);
-        printSQLWarnings();
-        return recordIds;
+        return histories;
     }
 
     // Bulk insert all audit logs for this operation
     private void insertAudits(final Iterable<Long> auditTargetRecordIds,
                               final TableName tableName,
                               final ChangeType changeType,
-                              final InternalCallContext context) {
+                              final InternalCallContext context,
+                              final boolean isDeferrable) {
         final TableName destinationTableName = Objects.requireNonNullElse(tableName.getHistoryTableName(), tableName);
 
         final Collection<EntityAudit> audits = new LinkedList<>();
@@ -526,8 +552,31 @@ public class EntitySqlDaoWrapperInvocationHandler<S extends EntitySqlDao<M, E>,
             audits.add(audit);
         }
 
-        sqlDao.insertAuditsFromTransaction(audits, context);
-        printSQLWarnings();
+        if (isDeferrable) {
+            historyAndAuditBuffer.addAudits(sqlDao, audits, context);
+        } else {
+            sqlDao.insertAuditsFromTransaction(audits, context);
+            printSQLWarnings();
+        }
+    }
+
+    private void flushHistoryAndAudit() throws Throwable {
+        if (historyAndAuditBuffer.isEmpty()) {
+            return;
+        }
+
+        prof.executeWithProfiling(ProfilingFeatureType.DAO_DETAILS, getProfilingId("history/audit", null), new WithProfilingCallback<Object, Throwable>() {
+            @Override
+            public Object execute() {
+                historyAndAuditBuffer.flush();
+                printSQLWarnings();
+                return null;
+            }
+        });
+    }
+
+    private static boolean isHistoryOrAuditQuery(final Method method) {
+        return method.getName().startsWith("getHistoryFor") || method.getName().startsWith("getAuditLogs");
     }
 
     private String getProfilingId(@Nullable final String prefix, @Nullable final Method method) {
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.entity.dao;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.CreatorName;
+import org.killbill.billing.util.nodes.dao.NodeInfoSqlDao;
+import org.killbill.clock.Clock;
+import org.killbill.commons.concurrent.Executors;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.skife.config.TimeSpan;
+import org.skife.jdbi.v2.IDBI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the replication lag of the read-only database, and exports the routing decisions of {@link DBRouterUntyped}.
+ * <p>
+ * The node_infos row of this node is used as the heartbeat: each check reads it back from the read-only database,
+ * compares it with the value previously written, and writes a new one on the main database. While the lag is above
+ * org.killbill.jaxrs.get.ro.maxReplicationLag, read-only scopes (GET calls, read-only plugin calls) are routed to
+ * the main database as a whole.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String METRIC_PREFIX = "killbill.db.router";
+    private static final int TERMINATION_TIMEOUT_SEC = 5;
+
+    public enum RoutingDecision {
+        // Read-only call, routed to the read-only database
+        RO("ro"),
+        // Read-write call, routed to the main database
+        RW("rw"),
+        // Read-only call routed to the main database: outside of a read-only scope, or after a write in the scope
+        RO_REDIRECTED("roRedirected"),
+        // Read-only scope routed to the main database, because the read-only database is behind
+        REPLICA_BEHIND("replicaBehind");
+
+        private final String metricName;
+
+        RoutingDecision(final String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private final NodeInfoSqlDao nodeInfoSqlDao;
+    private final NodeInfoSqlDao roNodeInfoSqlDao;
+    private final Clock clock;
+    private final long maxReplicationLagMillis;
+    private final long checkIntervalMillis;
+    private final Map<RoutingDecision, Counter> routingDecisions;
+
+    private ScheduledExecutorService replicaLagExecutor;
+    // Last heartbeat written on the main database (null until the first check)
+    private volatile Long lastHeartbeatMillis;
+    private volatile long replicationLagMillis;
+    private volatile boolean isReplicaBehind;
+
+    public ReplicaLagMonitor(final IDBI dbi,
+                             final IDBI roDbi,
+                             final Clock clock,
+                             final MetricRegistry metricRegistry,
+                             final TimeSpan maxReplicationLag,
+                             final TimeSpan checkInterval) {
+        this.nodeInfoSqlDao = dbi.onDemand(NodeInfoSqlDao.class);
+        this.roNodeInfoSqlDao = roDbi.onDemand(NodeInfoSqlDao.class);
+        this.clock = clock;
+        this.maxReplicationLagMillis = maxReplicationLag.getMillis();
+        this.checkIntervalMillis = checkInterval.getMillis();
+
+        this.routingDecisions = new EnumMap<RoutingDecision, Counter>(RoutingDecision.class);
+        for (final RoutingDecision routingDecision : RoutingDecision.values()) {
+            routingDecisions.put(routingDecision, metricRegistry.counter(METRIC_PREFIX + "." + routingDecision.metricName));
+        }
+        metricRegistry.gauge(METRIC_PREFIX + ".replicationLagMs", this::getReplicationLagMillis);
+    }
+
+    public synchronized void start() {
+        DBRouterUntyped.setReplicaLagMonitor(this);
+
+        if (maxReplicationLagMillis <= 0 || replicaLagExecutor != null) {
+            return;
+        }
+        replicaLagExecutor = Executors.newSingleThreadScheduledExecutor("ReplicaLagMonitor");
+        replicaLagExecutor.scheduleWithFixedDelay(this::checkReplicationLag, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        DBRouterUntyped.setReplicaLagMonitor(null);
+
+        if (replicaLagExecutor == null) {
+            return;
+        }
+        try {
+            replicaLagExecutor.shutdown();
+            final boolean success = replicaLagExecutor.awaitTermination(TERMINATION_TIMEOUT_SEC, TimeUnit.SECONDS);
+            if (!success) {
+                logger.warn("ReplicaLagMonitor failed to complete termination within {}sec", TERMINATION_TIMEOUT_SEC);
+                replicaLagExecutor.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            replicaLagExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+            logger.warn("ReplicaLagMonitor stop sequence got interrupted");
+        } finally {
+            replicaLagExecutor = null;
+            lastHeartbeatMillis = null;
+            isReplicaBehind = false;
+        }
+    }
+
+    public boolean isReplicaBehind() {
+        return isReplicaBehind;
+    }
+
+    public long getReplicationLagMillis() {
+        return replicationLagMillis;
+    }
+
+    void recordRoutingDecision(final RoutingDecision routingDecision) {
+        routingDecisions.get(routingDecision).inc(1);
+    }
+
+    @VisibleForTesting
+    void checkReplicationLag() {
+        final String nodeName = CreatorName.get();
+        try {
+            final Timestamp replicaHeartbeat = roNodeInfoSqlDao.getUpdatedDate(nodeName);
+            final Long previousHeartbeatMillis = lastHeartbeatMillis;
+            if (previousHeartbeatMillis == null) {
+                // Nothing to compare with yet
+                replicationLagMillis = 0;
+                isReplicaBehind = false;
+            } else if (replicaHeartbeat == null) {
+                // The heartbeat row itself hasn't been replicated
+                replicationLagMillis = Math.max(0, clock.getUTCNow().getMillis() - previousHeartbeatMillis);
+                isReplicaBehind = true;
+            } else {
+                // Another write (e.g. the node info refresh) may have updated the row since: the replica is then up-to-date
+                replicationLagMillis = Math.max(0, previousHeartbeatMillis - replicaHeartbeat.getTime());
+                isReplicaBehind = replicationLagMillis > maxReplicationLagMillis;
+            }
+
+            // Truncated to the second, as the column doesn't always store milliseconds (e.g. MySQL datetime)
+            final long heartbeatMillis = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(clock.getUTCNow().getMillis()));
+            nodeInfoSqlDao.setUpdatedDate(nodeName, new Date(heartbeatMillis));
+            lastHeartbeatMillis = heartbeatMillis;
+        } catch (final RuntimeException e) {
+            // Don't trust the read-only database until the next successful check
+            logger.warn("Unable to check the replication lag of the read-only database", e);
+            isReplicaBehind = true;
+        }
+    }
+}
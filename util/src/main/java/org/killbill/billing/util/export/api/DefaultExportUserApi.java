@@ -16,20 +16,27 @@
 
 package org.killbill.billing.util.export.api;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import javax.annotation.Nullable;
+
 import javax.inject.Inject;
 
 import org.killbill.billing.util.api.DatabaseExportOutputStream;
 import org.killbill.billing.util.api.ExportUserApi;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.callcontext.InternalCallContext;
+import org.killbill.billing.callcontext.InternalTenantContext;
 import org.killbill.billing.util.callcontext.InternalCallContextFactory;
 import org.killbill.billing.util.export.dao.CSVExportOutputStream;
 import org.killbill.billing.util.export.dao.DatabaseExportDao;
 
-public class DefaultExportUserApi implements ExportUserApi {
+public class DefaultExportUserApi implements ExportUserApi, StreamingExportUserApi {
 
     private final DatabaseExportDao exportDao;
     private final InternalCallContextFactory internalCallContextFactory;
@@ -51,4 +58,27 @@ public class DefaultExportUserApi implements ExportUserApi {
     public void exportDataAsCSVForAccount(final UUID accountId, final OutputStream out, final CallContext context) {
         exportDataForAccount(accountId, new CSVExportOutputStream(out), context);
     }
+
+    @Override
+    public void exportDataAsArchiveForAccount(final UUID accountId, final OutputStream out, final CallContext context) throws IOException {
+        final InternalCallContext internalContext = internalCallContextFactory.createInternalCallContext(accountId, context);
+        if (internalContext.getAccountRecordId() == null) {
+            return;
+        }
+        exportDao.exportDataAsArchive(out, Map.of(internalContext.getAccountRecordId(), accountId), context.getTenantId(), internalContext);
+    }
+
+    @Override
+    public void exportDataAsArchiveForTenant(@Nullable final List<UUID> accountIds, final OutputStream out, final CallContext context) throws IOException {
+        final InternalTenantContext internalContext = internalCallContextFactory.createInternalTenantContextWithoutAccountRecordId(context);
+
+        Map<Long, UUID> accounts = null;
+        if (accountIds != null) {
+            accounts = new LinkedHashMap<>();
+            for (final UUID accountId : accountIds) {
+                accounts.put(internalCallContextFactory.createInternalCallContext(accountId, context).getAccountRecordId(), accountId);
+            }
+        }
+        exportDao.exportDataAsArchive(out, accounts, context.getTenantId(), internalContext);
+    }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.export.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import org.killbill.billing.util.callcontext.CallContext;
+
+/**
+ * Zip archive flavor of {@link org.killbill.billing.util.api.ExportUserApi}: one CSV entry per table, tables being dumped in parallel
+ * on the read-only data source.
+ */
+public interface StreamingExportUserApi {
+
+    void exportDataAsArchiveForAccount(UUID accountId, OutputStream out, CallContext context) throws IOException;
+
+    /**
+     * @param accountIds accounts to export in one pass, or null to export all the accounts of the tenant
+     */
+    void exportDataAsArchiveForTenant(@Nullable List<UUID> accountIds, OutputStream out, CallContext context) throws IOException;
+}
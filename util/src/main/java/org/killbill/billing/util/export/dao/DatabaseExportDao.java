@@ -17,16 +17,31 @@
 package org.killbill.billing.util.export.dao;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.UUID;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.annotation.Nullable;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.killbill.billing.callcontext.InternalTenantContext;
@@ -36,30 +51,77 @@ import org.killbill.billing.util.config.definition.ExportConfig;
 import org.killbill.billing.util.dao.TableName;
 import org.killbill.billing.util.validation.DefaultColumnInfo;
 import org.killbill.billing.util.validation.dao.DatabaseSchemaDao;
+import org.killbill.commons.concurrent.WithProfilingThreadPoolExecutor;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.Query;
 import org.skife.jdbi.v2.ResultIterator;
-import org.skife.jdbi.v2.tweak.HandleCallback;
+import org.skife.jdbi.v2.exceptions.CallbackFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
+
 @Singleton
 public class DatabaseExportDao {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseExportDao.class);
 
+    private static final long TIMEOUT_EXECUTOR_SEC = 3L;
+
+    private static final String EXPORT_THREAD_PREFIX = "export-th-";
+    private static final String EXPORT_TH_GROUP_NAME = "export-grp";
+
+    // Rows read ahead are handed over in chunks: at most ARCHIVE_CHUNKS_PER_TABLE * ARCHIVE_CHUNK_SIZE bytes are buffered per table
+    private static final int ARCHIVE_CHUNK_SIZE = 64 * 1024;
+    private static final int ARCHIVE_CHUNKS_PER_TABLE = 16;
+    private static final long ARCHIVE_CHUNK_POLL_MS = 100L;
+
     private final DatabaseSchemaDao databaseSchemaDao;
 
     private final ExportConfig exportConfig;
     private final IDBI dbi;
+    private final IDBI roDbi;
+
+    private volatile ExecutorService archiveExecutor;
 
     @Inject
     public DatabaseExportDao(final DatabaseSchemaDao databaseSchemaDao,
                              final ExportConfig exportConfig,
-                             final IDBI dbi) {
+                             final IDBI dbi,
+                             @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi) {
         this.databaseSchemaDao = databaseSchemaDao;
         this.exportConfig = exportConfig;
         this.dbi = dbi;
+        this.roDbi = roDbi;
+    }
+
+    public void initialize() {
+        final int nbThreads = Math.max(1, exportConfig.getArchiveParallelism());
+        archiveExecutor = new WithProfilingThreadPoolExecutor(nbThreads,
+                                                              nbThreads,
+                                                              0L,
+                                                              TimeUnit.MILLISECONDS,
+                                                              new LinkedBlockingQueue<Runnable>(),
+                                                              new ThreadFactory() {
+
+                                                                  @Override
+                                                                  public Thread newThread(final Runnable r) {
+                                                                      final Thread th = new Thread(new ThreadGroup(EXPORT_TH_GROUP_NAME), r);
+                                                                      th.setName(EXPORT_THREAD_PREFIX + th.getId());
+                                                                      return th;
+                                                                  }
+                                                              });
+    }
+
+    public void stop() throws InterruptedException {
+        final ExecutorService executor = archiveExecutor;
+        if (executor == null) {
+            return;
+        }
+        // Exports in progress fail, new ones are rejected
+        executor.shutdownNow();
+        executor.awaitTermination(TIMEOUT_EXECUTOR_SEC, TimeUnit.SECONDS);
     }
 
     private enum TableType {
@@ -99,42 +161,244 @@ public class DatabaseExportDao {
             return;
         }
 
-        final List<DefaultColumnInfo> columns = databaseSchemaDao.getColumnInfoList();
-        if (columns.size() == 0) {
+        for (final TableExport table : getTableExports()) {
+            final String query;
+            if (table.tableType == TableType.EXTRA) {
+                query = table.selectClause + " where " +
+                        table.tableType.getTenantRecordIdColumnName() + "  = :tenantRecordId and (" +
+                        table.tableType.getAccountRecordIdColumnName() + " = :accountRecordId OR " +
+                        table.tableType.getAccountRecordIdColumnName() + " is null)"; //TODO_354 - Custom logic for aviate_catalog, to include tenant level entries when accountId is null
+            } else {
+                // Make sure to filter by account and tenant!
+                query = table.selectClause + " where " +
+                        table.tableType.getAccountRecordIdColumnName() + " = :accountRecordId and " +
+                        table.tableType.getTenantRecordIdColumnName() + "  = :tenantRecordId";
+            }
+
+            // Notify the stream that we're about to write data for a different table
+            out.newTable(table.tableName, table.columns);
+            dbi.withHandle(handle -> {
+                final Query<Map<String, Object>> q = handle.createQuery(query)
+                                                           .bind("accountRecordId", table.tableType == TableType.EXTRA ? accountId : context.getAccountRecordId())
+                                                           .bind("tenantRecordId", table.tableType == TableType.EXTRA ? tenantId : context.getTenantRecordId());
+                writeRows(q, table, out);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Streaming flavor of {@link #exportDataForAccount}: tables are dumped on the read-only data source (with a fixed fetch size, to
+     * avoid buffering whole tables in memory) and streamed to a zip archive, one entry per non-empty table, in table order.
+     * <p>
+     * The next tables are read ahead on the shared export threads (see {@link ExportConfig#getArchiveParallelism()}): their rows are
+     * handed over to the caller's thread in bounded in-memory chunks, nothing is written to disk. A table whose dump hasn't started
+     * yet when its turn comes (all the export threads being busy) is dumped on the caller's thread instead.
+     * <p>
+     * Accounts are exported in batches (see {@link ExportConfig#getArchiveAccountBatchSize()}), their ids being bound as query
+     * parameters. When {@code accounts} is null, all the accounts of the tenant are exported, batches being paginated by record id.
+     *
+     * @param out      destination of the zip archive (not closed)
+     * @param accounts account ids, keyed by account record id, or null for the whole tenant
+     * @param tenantId tenant id
+     * @param context  tenant context
+     * @throws IOException if a table cannot be dumped or the archive cannot be written
+     */
+    public void exportDataAsArchive(final OutputStream out,
+                                    @Nullable final Map<Long, UUID> accounts,
+                                    final UUID tenantId,
+                                    final InternalTenantContext context) throws IOException {
+        if (context.getTenantRecordId() == null || (accounts != null && accounts.isEmpty())) {
             return;
         }
 
-        final List<ColumnInfo> columnsForTable = new ArrayList<ColumnInfo>();
-        // Separate lookup table, to keep the ordering of the columns
-        final Map<String, Integer> columnsLookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // Ignore casing (for H2)
+        final List<TableExport> tables = getTableExports();
+        if (tables.isEmpty()) {
+            return;
+        }
+
+        final ExecutorService executor = archiveExecutor;
+        if (executor == null) {
+            throw new IllegalStateException("The archive export hasn't been initialized");
+        }
+
+        final int readAhead = Math.max(1, exportConfig.getArchiveParallelism());
+        final List<Future<?>> dumps = new ArrayList<>(tables.size());
+        final List<BlockingQueue<byte[]>> chunks = new ArrayList<>(tables.size());
+        try {
+            final ZipOutputStream zip = new ZipOutputStream(out);
+            for (int i = 0; i < tables.size(); i++) {
+                while (dumps.size() < Math.min(tables.size(), i + readAhead)) {
+                    final TableExport table = tables.get(dumps.size());
+                    final BlockingQueue<byte[]> tableChunks = new ArrayBlockingQueue<>(ARCHIVE_CHUNKS_PER_TABLE);
+                    chunks.add(tableChunks);
+                    dumps.add(executor.submit(() -> {
+                        try (final OutputStream chunkStream = new ChunkOutputStream(tableChunks)) {
+                            dumpTable(table, accounts, tenantId, context, chunkStream);
+                        }
+                        return null;
+                    }));
+                }
+
+                final OutputStream entry = new ZipEntryOutputStream(zip, tables.get(i).tableName.toLowerCase() + ".csv");
+                if (dumps.get(i).cancel(false)) {
+                    // Not started yet: dump it on this thread rather than waiting for an export thread
+                    dumpTable(tables.get(i), accounts, tenantId, context, entry);
+                } else {
+                    drainChunks(chunks.get(i), dumps.get(i), entry);
+                }
+                entry.close();
+                chunks.set(i, null);
+            }
+            zip.finish();
+        } finally {
+            // On failure, stop the dumps read ahead (no-op otherwise)
+            for (final Future<?> dump : dumps) {
+                dump.cancel(true);
+            }
+        }
+    }
+
+    private void dumpTable(final TableExport table,
+                           @Nullable final Map<Long, UUID> accounts,
+                           final UUID tenantId,
+                           final InternalTenantContext context,
+                           final OutputStream out) throws IOException {
+        final CSVExportOutputStream csv = new CSVExportOutputStream(out);
+        csv.newTable(table.tableName, table.columns);
+
+        final int batchSize = Math.max(1, exportConfig.getArchiveAccountBatchSize());
+        try {
+            roDbi.withHandle(handle -> {
+                if (accounts != null) {
+                    final List<Entry<Long, UUID>> entries = new ArrayList<>(accounts.entrySet());
+                    for (int i = 0; i < entries.size(); i += batchSize) {
+                        dumpBatch(handle, table, entries.subList(i, Math.min(entries.size(), i + batchSize)), i == 0, tenantId, context, csv);
+                    }
+                } else {
+                    // Whole tenant: paginate the accounts by record id
+                    List<Entry<Long, UUID>> batch = getAccountsBatch(handle, 0L, batchSize, context);
+                    dumpBatch(handle, table, batch, true, tenantId, context, csv);
+                    while (batch.size() == batchSize) {
+                        batch = getAccountsBatch(handle, batch.get(batch.size() - 1).getKey(), batchSize, context);
+                        dumpBatch(handle, table, batch, false, tenantId, context, csv);
+                    }
+                }
+                return null;
+            });
+        } catch (final CallbackFailedException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void dumpBatch(final Handle handle,
+                           final TableExport table,
+                           final List<Entry<Long, UUID>> batch,
+                           final boolean firstBatch,
+                           final UUID tenantId,
+                           final InternalTenantContext context,
+                           final DatabaseExportOutputStream out) throws Exception {
+        // Tenant level entries of the extra tables (account_id is null) are only exported once
+        final boolean withTenantLevelRows = firstBatch && table.tableType == TableType.EXTRA;
+        if (batch.isEmpty() && !withTenantLevelRows) {
+            return;
+        }
+
+        final String accountColumnName = table.tableType.getAccountRecordIdColumnName();
+        final StringBuilder queryBuilder = new StringBuilder(table.selectClause).append(" where ")
+                                                                                .append(table.tableType.getTenantRecordIdColumnName())
+                                                                                .append(" = :tenantRecordId and (");
+        if (!batch.isEmpty()) {
+            queryBuilder.append(accountColumnName).append(" in (");
+            for (int i = 0; i < batch.size(); i++) {
+                queryBuilder.append(i == 0 ? ":accountId" : ", :accountId").append(i);
+            }
+            queryBuilder.append(")");
+            if (withTenantLevelRows) {
+                queryBuilder.append(" or ");
+            }
+        }
+        if (withTenantLevelRows) {
+            queryBuilder.append(accountColumnName).append(" is null");
+        }
+        queryBuilder.append(")");
+
+        final Query<Map<String, Object>> q = handle.createQuery(queryBuilder.toString())
+                                                   .setFetchSize(exportConfig.getArchiveFetchSize())
+                                                   .bind("tenantRecordId", table.tableType == TableType.EXTRA ? tenantId : context.getTenantRecordId());
+        for (int i = 0; i < batch.size(); i++) {
+            q.bind("accountId" + i, table.tableType == TableType.EXTRA ? batch.get(i).getValue() : batch.get(i).getKey());
+        }
+        writeRows(q, table, out);
+    }
+
+    private static List<Entry<Long, UUID>> getAccountsBatch(final Handle handle, final Long fromRecordId, final int batchSize, final InternalTenantContext context) {
+        return handle.createQuery("select record_id, id from " + TableName.ACCOUNT.getTableName() +
+                                  " where tenant_record_id = :tenantRecordId and record_id > :fromRecordId order by record_id limit :batchSize")
+                     .bind("tenantRecordId", context.getTenantRecordId())
+                     .bind("fromRecordId", fromRecordId)
+                     .bind("batchSize", batchSize)
+                     .map((index, r, ctx) -> Map.entry(r.getLong("record_id"), UUID.fromString(r.getString("id"))))
+                     .list();
+    }
+
+    private static void drainChunks(final BlockingQueue<byte[]> chunks, final Future<?> dump, final OutputStream out) throws IOException {
+        try {
+            while (true) {
+                final byte[] chunk = chunks.poll(ARCHIVE_CHUNK_POLL_MS, TimeUnit.MILLISECONDS);
+                if (chunk != null) {
+                    out.write(chunk);
+                } else if (dump.isDone()) {
+                    // All the chunks were queued before the dump completed
+                    for (byte[] lastChunk = chunks.poll(); lastChunk != null; lastChunk = chunks.poll()) {
+                        out.write(lastChunk);
+                    }
+                    break;
+                }
+            }
+            dump.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the export");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    private List<TableExport> getTableExports() {
+        final List<TableExport> tables = new ArrayList<>();
+
+        final List<DefaultColumnInfo> columns = databaseSchemaDao.getColumnInfoList();
+        if (columns.size() == 0) {
+            return tables;
+        }
 
         // The list of columns is ordered by table name first
+        List<ColumnInfo> columnsForTable = new ArrayList<ColumnInfo>();
         String lastSeenTableName = columns.get(0).getTableName();
-        int j = 0;
         for (final ColumnInfo column : columns) {
             if (!column.getTableName().equals(lastSeenTableName)) {
-                exportDataForAccountAndTable(out, columnsForTable, columnsLookup, accountId, tenantId, context);
+                addTableExport(tables, columnsForTable);
                 lastSeenTableName = column.getTableName();
-                columnsForTable.clear();
-                columnsLookup.clear();
-                j = 0;
+                columnsForTable = new ArrayList<ColumnInfo>();
             }
             columnsForTable.add(column);
-            columnsLookup.put(column.getColumnName(), j);
-            j++;
         }
-        exportDataForAccountAndTable(out, columnsForTable, columnsLookup, accountId, tenantId, context);
-    }
-
-
-    private void exportDataForAccountAndTable(final DatabaseExportOutputStream out,
-                                              final List<ColumnInfo> columnsForTable,
-                                              final Map<String, Integer> columnsLookup,
-                                              final UUID accountId,
-                                              final UUID tenantId,
-                                              final InternalTenantContext context) {
+        addTableExport(tables, columnsForTable);
 
+        return tables;
+    }
 
+    private void addTableExport(final List<TableExport> tables, final List<ColumnInfo> columnsForTable) {
         TableType tableType = TableType.OTHER;
         final String tableName = columnsForTable.get(0).getTableName();
 
@@ -149,8 +413,12 @@ public class DatabaseExportDao {
         boolean accountIdColPresent = false;
         boolean tenantIdColPresent = false;
 
+        // Separate lookup table, to keep the ordering of the columns
+        final Map<String, Integer> columnsLookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // Ignore casing (for H2)
+
         boolean firstColumn = true;
         final StringBuilder queryBuilder = new StringBuilder("select ");
+        int j = 0;
         for (final ColumnInfo column : columnsForTable) {
             if (!firstColumn) {
                 queryBuilder.append(", ");
@@ -159,6 +427,8 @@ public class DatabaseExportDao {
             }
 
             queryBuilder.append(column.getColumnName());
+            columnsLookup.put(column.getColumnName(), j);
+            j++;
 
             if (tableType == TableType.OTHER || tableType == TableType.EXTRA) {
                 // Ignore casing (for H2)
@@ -185,77 +455,165 @@ public class DatabaseExportDao {
             return;
         }
 
-        if (tableType == TableType.EXTRA) {
-
-            queryBuilder.append(" from ")
-                        .append(tableName)
-                        .append(" where ")
-                        .append(tableType.getTenantRecordIdColumnName())
-                        .append("  = :tenantRecordId and (")
-                        .append(tableType.getAccountRecordIdColumnName())
-                        .append(" = :accountRecordId OR ")
-                        .append(tableType.getAccountRecordIdColumnName()) //TODO_354 - Custom logic for aviate_catalog, to include tenant level entries when accountId is null
-                        .append(" is null)")
-            ;
-
-        } else {
-
-            // Build the query - make sure to filter by account and tenant!
-            queryBuilder.append(" from ")
-                        .append(tableName)
-                        .append(" where ")
-                        .append(tableType.getAccountRecordIdColumnName())
-                        .append(" = :accountRecordId and ")
-                        .append(tableType.getTenantRecordIdColumnName())
-                        .append("  = :tenantRecordId");
-        }
-
-        // Notify the stream that we're about to write data for a different table
-        out.newTable(tableName, columnsForTable);
-        final TableType finalTableType = tableType;
-        dbi.withHandle(new HandleCallback<Void>() {
-            @Override
-            public Void withHandle(final Handle handle) throws Exception {
-                final ResultIterator<Map<String, Object>> iterator = handle.createQuery(queryBuilder.toString())
-                                                                           .bind("accountRecordId", finalTableType == TableType.EXTRA ? accountId : context.getAccountRecordId())
-                                                                           .bind("tenantRecordId", finalTableType == TableType.EXTRA ? tenantId : context.getTenantRecordId())
-                                                                           .iterator();
-                try {
-                    while (iterator.hasNext()) {
-                        final Map<String, Object> row = iterator.next();
-
-                        for (final Entry<String, Object> entry : row.entrySet()) {
-                            final String k = entry.getKey();
-                            final Object value = entry.getValue();
-                            // For h2, transform a JdbcBlob and a JdbcClob into a byte[]
-                            // See also LowerToCamelBeanMapper
-                            if (value instanceof Blob) {
-                                final Blob blob = (Blob) value;
-                                row.put(k, blob.getBytes(1, (int) blob.length()));
-                            } else if (value instanceof Clob) {
-                                // TODO Update LowerToCamelBeanMapper?
-                                final Clob clob = (Clob) value;
-                                row.put(k, clob.getSubString(1, (int) clob.length()));
-                            } else if (value != null &&
-                                       columnsLookup.get(k) != null &&
-                                       columnsForTable.get(columnsLookup.get(k)) != null &&
-                                       "boolean".equals(columnsForTable.get(columnsLookup.get(k)).getDataType())) {
-                                row.put(k, value instanceof Boolean ? value : "1".equals(value.toString())); // Most likely Byte
-                            }
-                        }
+        queryBuilder.append(" from ").append(tableName);
+        tables.add(new TableExport(tableName, tableType, columnsForTable, columnsLookup, queryBuilder.toString()));
+    }
 
-                        try {
-                            out.write(row);
-                        } catch (final IOException e) {
-                            logger.warn("Unable to write row: {}", row, e);
-                            throw e;
-                        }
+    private void writeRows(final Query<Map<String, Object>> query, final TableExport table, final DatabaseExportOutputStream out) throws Exception {
+        final ResultIterator<Map<String, Object>> iterator = query.iterator();
+        try {
+            while (iterator.hasNext()) {
+                final Map<String, Object> row = iterator.next();
+
+                for (final Entry<String, Object> entry : row.entrySet()) {
+                    final String k = entry.getKey();
+                    final Object value = entry.getValue();
+                    // For h2, transform a JdbcBlob and a JdbcClob into a byte[]
+                    // See also LowerToCamelBeanMapper
+                    if (value instanceof Blob) {
+                        final Blob blob = (Blob) value;
+                        row.put(k, blob.getBytes(1, (int) blob.length()));
+                    } else if (value instanceof Clob) {
+                        // TODO Update LowerToCamelBeanMapper?
+                        final Clob clob = (Clob) value;
+                        row.put(k, clob.getSubString(1, (int) clob.length()));
+                    } else if (value != null &&
+                               table.columnsLookup.get(k) != null &&
+                               table.columns.get(table.columnsLookup.get(k)) != null &&
+                               "boolean".equals(table.columns.get(table.columnsLookup.get(k)).getDataType())) {
+                        row.put(k, value instanceof Boolean ? value : "1".equals(value.toString())); // Most likely Byte
                     }
-                } finally {
-                    iterator.close();
                 }
-                return null;
+
+                try {
+                    out.write(row);
+                } catch (final IOException e) {
+                    logger.warn("Unable to write row: {}", row, e);
+                    throw e;
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    private static final class TableExport {
+
+        private final String tableName;
+        private final TableType tableType;
+        private final List<ColumnInfo> columns;
+        private final Map<String, Integer> columnsLookup;
+        // select clause, without filter
+        private final String selectClause;
+
+        private TableExport(final String tableName,
+                            final TableType tableType,
+                            final List<ColumnInfo> columns,
+                            final Map<String, Integer> columnsLookup,
+                            final String selectClause) {
+            this.tableName = tableName;
+            this.tableType = tableType;
+            this.columns = columns;
+            this.columnsLookup = columnsLookup;
+            this.selectClause = selectClause;
+        }
+    }
+
+    // Hands the bytes written over to the archive writer, in chunks
+    private static final class ChunkOutputStream extends OutputStream {
+
+        private final BlockingQueue<byte[]> chunks;
+        private final byte[] buffer = new byte[ARCHIVE_CHUNK_SIZE];
+        private int count;
+
+        private ChunkOutputStream(final BlockingQueue<byte[]> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                final int n = Math.min(remaining, buffer.length - count);
+                System.arraycopy(b, offset, buffer, count, n);
+                count += n;
+                offset += n;
+                remaining -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushChunk();
+        }
+
+        private void flushChunk() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            try {
+                // Blocks while the archive writer is behind
+                chunks.put(Arrays.copyOf(buffer, count));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export cancelled");
+            }
+            count = 0;
+        }
+    }
+
+    // Entry of the archive, only created if something is written (empty tables are skipped)
+    private static final class ZipEntryOutputStream extends OutputStream {
+
+        private final ZipOutputStream zip;
+        private final String entryName;
+        private boolean entryCreated = false;
+
+        private ZipEntryOutputStream(final ZipOutputStream zip, final String entryName) {
+            this.zip = zip;
+            this.entryName = entryName;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            createEntryIfNeeded();
+            zip.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            createEntryIfNeeded();
+            zip.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Don't close the archive
+            if (entryCreated) {
+                zip.closeEntry();
             }
-        });
+        }
+
+        private void createEntryIfNeeded() throws IOException {
+            if (!entryCreated) {
+                zip.putNextEntry(new ZipEntry(entryName));
+                entryCreated = true;
+            }
+        }
     }
 }
@@ -22,6 +22,8 @@ package org.killbill.billing.util.glue;
 import javax.cache.CacheManager;
 
 import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.broadcast.BroadcastTransport;
+import org.killbill.billing.util.broadcast.NoOpBroadcastTransport;
 import org.killbill.billing.util.cache.AccountBCDCacheLoader;
 import org.killbill.billing.util.cache.AccountIdFromBundleIdCacheLoader;
 import org.killbill.billing.util.cache.AccountRecordIdCacheLoader;
@@ -69,14 +71,25 @@ public class CacheModule extends KillBillModule {
         final RedisCacheConfig redisCacheConfig = new AugmentedConfigurationObjectFactory(skifeConfigSource).build(RedisCacheConfig.class);
         bind(RedisCacheConfig.class).toInstance(redisCacheConfig);
 
-        if (redisCacheConfig.isRedisCachingEnabled()) {
+        if (redisCacheConfig.isRedisCachingEnabled() || redisCacheConfig.isRedisBroadcastEnabled()) {
             bind(RedissonClient.class).annotatedWith(Names.named(REDIS_CACHE_CLIENT)).toProvider(RedissonCacheClientProvider.class).asEagerSingleton();
-            bind(CacheManager.class).toProvider(Redis107CacheManagerProvider.class).asEagerSingleton();
         } else {
             bind(RedissonClient.class).annotatedWith(Names.named(REDIS_CACHE_CLIENT)).toProvider(Providers.<RedissonClient>of(null));
+        }
+
+        if (redisCacheConfig.isRedisCachingEnabled()) {
+            bind(CacheManager.class).toProvider(Redis107CacheManagerProvider.class).asEagerSingleton();
+        } else {
             bind(CacheManager.class).toProvider(Eh107CacheManagerProvider.class).asEagerSingleton();
         }
 
+        // Cross-node notifications for the broadcast tables
+        if (redisCacheConfig.isRedisBroadcastEnabled()) {
+            bind(BroadcastTransport.class).toProvider(RedisBroadcastTransportProvider.class).asEagerSingleton();
+        } else {
+            bind(BroadcastTransport.class).to(NoOpBroadcastTransport.class).asEagerSingleton();
+        }
+
         // Kill Bill generic cache dispatcher
         bind(CacheControllerDispatcher.class).toProvider(CacheControllerDispatcherProvider.class).asEagerSingleton();
 
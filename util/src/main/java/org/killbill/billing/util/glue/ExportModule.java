@@ -22,6 +22,7 @@ import org.killbill.billing.platform.api.KillbillConfigSource;
 import org.killbill.billing.util.api.ExportUserApi;
 import org.killbill.billing.util.config.definition.ExportConfig;
 import org.killbill.billing.util.export.api.DefaultExportUserApi;
+import org.killbill.billing.util.export.api.StreamingExportUserApi;
 import org.skife.config.AugmentedConfigurationObjectFactory;
 
 public class ExportModule extends KillBillModule {
@@ -31,7 +32,9 @@ public class ExportModule extends KillBillModule {
     }
 
     protected void installUserApi() {
-        bind(ExportUserApi.class).to(DefaultExportUserApi.class).asEagerSingleton();
+        bind(DefaultExportUserApi.class).asEagerSingleton();
+        bind(ExportUserApi.class).to(DefaultExportUserApi.class);
+        bind(StreamingExportUserApi.class).to(DefaultExportUserApi.class);
     }
 
     @Override
@@ -17,7 +17,12 @@
 
 package org.killbill.billing.util.glue;
 
+import javax.inject.Named;
+import javax.inject.Singleton;
+
 import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.killbill.billing.util.config.definition.JaxrsConfig;
+import org.killbill.billing.util.entity.dao.ReplicaLagMonitor;
 import org.killbill.billing.util.nodes.DefaultKillbillNodesApi;
 import org.killbill.billing.util.nodes.DefaultKillbillNodesService;
 import org.killbill.billing.util.nodes.KillbillNodesService;
@@ -25,6 +30,14 @@ import org.killbill.billing.util.nodes.KillbillNodesApi;
 import org.killbill.billing.util.nodes.NodeInfoMapper;
 import org.killbill.billing.util.nodes.dao.DefaultNodeInfoDao;
 import org.killbill.billing.util.nodes.dao.NodeInfoDao;
+import org.killbill.clock.Clock;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.skife.config.AugmentedConfigurationObjectFactory;
+import org.skife.jdbi.v2.IDBI;
+
+import com.google.inject.Provides;
+
+import static org.killbill.billing.util.glue.IDBISetup.MAIN_RO_IDBI_NAMED;
 
 public class NodesModule extends KillBillModule {
 
@@ -42,6 +55,14 @@ public class NodesModule extends KillBillModule {
         bind(NodeInfoMapper.class).asEagerSingleton();
     }
 
+    @Provides
+    @Singleton
+    // The heartbeat is the node_infos row, the monitor is started and stopped by the nodes service
+    protected ReplicaLagMonitor provideReplicaLagMonitor(final IDBI dbi, @Named(MAIN_RO_IDBI_NAMED) final IDBI roDbi, final Clock clock, final MetricRegistry metricRegistry) {
+        final JaxrsConfig jaxrsConfig = new AugmentedConfigurationObjectFactory(skifeConfigSource).build(JaxrsConfig.class);
+        return new ReplicaLagMonitor(dbi, roDbi, clock, metricRegistry, jaxrsConfig.getMaxReplicationLag(), jaxrsConfig.getReplicationLagCheckInterval());
+    }
+
 
     @Override
     protected void configure() {
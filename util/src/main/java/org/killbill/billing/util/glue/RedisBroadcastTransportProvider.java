@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.glue;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.killbill.billing.util.broadcast.BroadcastTransport;
+import org.killbill.billing.util.broadcast.RedisBroadcastTransport;
+import org.redisson.api.RedissonClient;
+
+import static org.killbill.billing.util.glue.CacheModule.REDIS_CACHE_CLIENT;
+
+public class RedisBroadcastTransportProvider implements Provider<BroadcastTransport> {
+
+    private final RedissonClient redissonClient;
+
+    @Inject
+    public RedisBroadcastTransportProvider(@Named(REDIS_CACHE_CLIENT) final RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    @Override
+    public BroadcastTransport get() {
+        // Same Redis client instance as the rest of the system
+        return new RedisBroadcastTransport(redissonClient);
+    }
+}
@@ -23,7 +23,9 @@ import org.killbill.billing.security.api.SecurityApi;
 import org.killbill.billing.util.config.definition.SecurityConfig;
 import org.killbill.billing.util.security.api.DefaultSecurityApi;
 import org.killbill.billing.util.security.api.DefaultSecurityService;
+import org.killbill.billing.util.security.api.SecurityBroadcastHandler;
 import org.killbill.billing.util.security.api.SecurityService;
+import org.killbill.billing.util.security.shiro.AuthenticationResultCache;
 import org.killbill.billing.util.security.shiro.dao.DefaultUserDao;
 import org.killbill.billing.util.security.shiro.dao.UserDao;
 import org.skife.config.AugmentedConfigurationObjectFactory;
@@ -37,6 +39,7 @@ public class SecurityModule extends KillBillModule {
     public void configure() {
         installConfig();
         installDao();
+        installAuthenticationCache();
         installSecurityApi();
         installSecurityService();
     }
@@ -50,6 +53,11 @@ public class SecurityModule extends KillBillModule {
         bind(SecurityConfig.class).toInstance(securityConfig);
     }
 
+    private void installAuthenticationCache() {
+        bind(AuthenticationResultCache.class).asEagerSingleton();
+        bind(SecurityBroadcastHandler.class).asEagerSingleton();
+    }
+
     private void installSecurityApi() {
         bind(SecurityApi.class).to(DefaultSecurityApi.class).asEagerSingleton();
     }
@@ -32,6 +32,7 @@ import org.killbill.billing.osgi.api.PluginInfo;
 import org.killbill.billing.osgi.api.PluginsInfoApi;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
+import org.killbill.billing.util.entity.dao.ReplicaLagMonitor;
 import org.killbill.billing.util.nodes.dao.NodeInfoDao;
 import org.killbill.billing.util.nodes.dao.NodeInfoModelDao;
 import org.killbill.billing.util.nodes.json.NodeInfoModelJson;
@@ -56,16 +57,18 @@ public class DefaultKillbillNodesService implements KillbillNodesService {
     private final PluginsInfoApi pluginInfoApi;
     private final Clock clock;
     private final NodeInfoMapper mapper;
+    private final ReplicaLagMonitor replicaLagMonitor;
 
     private ScheduledExecutorService nodeInfoExecutor;
     private volatile boolean isStopped;
 
     @Inject
-    public DefaultKillbillNodesService(final NodeInfoDao nodeInfoDao, final PluginsInfoApi pluginInfoApi, final Clock clock, final NodeInfoMapper mapper) {
+    public DefaultKillbillNodesService(final NodeInfoDao nodeInfoDao, final PluginsInfoApi pluginInfoApi, final Clock clock, final NodeInfoMapper mapper, final ReplicaLagMonitor replicaLagMonitor) {
         this.nodeInfoDao = nodeInfoDao;
         this.pluginInfoApi = pluginInfoApi;
         this.clock = clock;
         this.mapper = mapper;
+        this.replicaLagMonitor = replicaLagMonitor;
         this.isStopped = false;
     }
 
@@ -120,6 +123,8 @@ public class DefaultKillbillNodesService implements KillbillNodesService {
             createBootNodeInfo(false);
             this.nodeInfoExecutor = Executors.newSingleThreadScheduledExecutor("NodeInfoExecutor");
             nodeInfoExecutor.scheduleAtFixedRate(new NodeInfoRunnable(nodeInfoDao), INITIAL_DELAY_SEC, TIME_PERIOD_SEC, TimeUnit.SECONDS);
+            // The node_infos row now exists and can be used as the replication heartbeat
+            replicaLagMonitor.start();
             // In tests, the service is created once and re-used.
             this.isStopped = false;
             logger.info("Created nodeInfo for {}", CreatorName.get());
@@ -130,6 +135,7 @@ public class DefaultKillbillNodesService implements KillbillNodesService {
 
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
     public void stop() {
+        replicaLagMonitor.stop();
         logger.info("Deleting nodeInfo for {}", CreatorName.get());
         nodeInfoDao.delete(CreatorName.get());
         if (isStopped) {
@@ -17,6 +17,7 @@
 
 package org.killbill.billing.util.nodes.dao;
 
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 
@@ -47,4 +48,7 @@ public interface NodeInfoSqlDao {
     @SqlQuery
     public List<NodeInfoModelDao> getAll(@Bind("updatedDate") final Date updatedDate);
 
+    @SqlQuery
+    public Timestamp getUpdatedDate(@Bind("nodeName") final String nodeName);
+
 }
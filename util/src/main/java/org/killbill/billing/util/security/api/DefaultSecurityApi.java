@@ -38,11 +38,9 @@ import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.UsernamePasswordToken;
 import org.apache.shiro.authz.AuthorizationException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.mgt.DefaultSecurityManager;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.realm.Realm;
 import org.apache.shiro.session.UnknownSessionException;
-import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.security.Logical;
@@ -53,7 +51,6 @@ import org.killbill.commons.utils.Strings;
 import org.killbill.billing.util.callcontext.CallContext;
 import org.killbill.billing.util.callcontext.TenantContext;
 import org.killbill.billing.util.security.shiro.dao.UserDao;
-import org.killbill.billing.util.security.shiro.realm.KillBillJdbcRealm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,12 +61,14 @@ public class DefaultSecurityApi implements SecurityApi {
 
     private final UserDao userDao;
     private final Set<Realm> realms;
+    private final SecurityBroadcastHandler securityBroadcastHandler;
     private final Map<Realm, Method> getAuthorizationInfoMethods = new HashMap<Realm, Method>();
 
     @Inject
-    public DefaultSecurityApi(final UserDao userDao, final Set<Realm> realms) {
+    public DefaultSecurityApi(final UserDao userDao, final Set<Realm> realms, final SecurityBroadcastHandler securityBroadcastHandler) {
         this.userDao = userDao;
         this.realms = realms;
+        this.securityBroadcastHandler = securityBroadcastHandler;
         buildGetAuthorizationInfoMethods();
     }
 
@@ -210,17 +209,20 @@ public class DefaultSecurityApi implements SecurityApi {
     @Override
     public void updateUserPassword(final String username, final String password, final CallContext callContext) throws SecurityApiException {
         userDao.updateUserPassword(username, password, callContext.getUserName());
+        // Other nodes are notified through the broadcast entry recorded by the dao
+        securityBroadcastHandler.invalidate(SecurityBroadcastHandler.INVALIDATE_USER, username);
     }
 
     @Override
     public void updateUserRoles(final String username, final List<String> roles, final CallContext callContext) throws SecurityApiException {
         userDao.updateUserRoles(username, roles, callContext.getUserName());
-        invalidateJDBCAuthorizationCache(username);
+        securityBroadcastHandler.invalidate(SecurityBroadcastHandler.INVALIDATE_USER, username);
     }
 
     @Override
     public void invalidateUser(final String username, final CallContext callContext) throws SecurityApiException {
         userDao.invalidateUser(username, callContext.getUserName());
+        securityBroadcastHandler.invalidate(SecurityBroadcastHandler.INVALIDATE_USER, username);
         // Invalidate the JSESSIONID
         logout();
     }
@@ -242,6 +244,7 @@ public class DefaultSecurityApi implements SecurityApi {
     public void updateRoleDefinition(final String role, final List<String> permissions, final CallContext callContext) throws SecurityApiException {
         final List<String> sanitizedPermissions = sanitizePermissions(permissions);
         userDao.updateRoleDefinition(role, sanitizedPermissions, callContext.getUserName());
+        securityBroadcastHandler.invalidate(SecurityBroadcastHandler.INVALIDATE_ROLE, role);
     }
 
     @Override
@@ -292,20 +295,6 @@ public class DefaultSecurityApi implements SecurityApi {
         return expandedPermissions;
     }
 
-    private void invalidateJDBCAuthorizationCache(final String username) {
-        final Collection<Realm> realms = ((DefaultSecurityManager) SecurityUtils.getSecurityManager()).getRealms();
-        final KillBillJdbcRealm killBillJdbcRealm = (KillBillJdbcRealm) realms.stream()
-                .filter(realm -> (realm instanceof KillBillJdbcRealm))
-                .findFirst()
-                .orElse(null);
-
-        if (killBillJdbcRealm != null) {
-            final SimplePrincipalCollection principals = new SimplePrincipalCollection();
-            principals.add(username, killBillJdbcRealm.getName());
-            killBillJdbcRealm.clearCachedAuthorizationInfo(principals);
-        }
-    }
-
     private void buildGetAuthorizationInfoMethods() {
         for (final Realm realm : realms) {
             if (!(realm instanceof AuthorizingRealm)) {
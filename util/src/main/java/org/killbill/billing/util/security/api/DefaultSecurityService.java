@@ -24,15 +24,21 @@ import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.mgt.SecurityManager;
 import org.killbill.billing.platform.api.LifecycleHandlerType;
 import org.killbill.billing.platform.api.LifecycleHandlerType.LifecycleLevel;
+import org.killbill.bus.api.PersistentBus;
+import org.killbill.bus.api.PersistentBus.EventBusException;
 
 public class DefaultSecurityService implements SecurityService {
 
 
     private final SecurityManager securityManager;
+    private final SecurityBroadcastHandler securityBroadcastHandler;
+    private final PersistentBus eventBus;
 
     @Inject
-    public DefaultSecurityService(final SecurityManager securityManager) {
+    public DefaultSecurityService(final SecurityManager securityManager, final SecurityBroadcastHandler securityBroadcastHandler, final PersistentBus eventBus) {
         this.securityManager = securityManager;
+        this.securityBroadcastHandler = securityBroadcastHandler;
+        this.eventBus = eventBus;
     }
 
     @Override
@@ -48,10 +54,20 @@ public class DefaultSecurityService implements SecurityService {
     @LifecycleHandlerType(LifecycleHandlerType.LifecycleLevel.INIT_SERVICE)
     public void initialize() {
         SecurityUtils.setSecurityManager(securityManager);
+        try {
+            eventBus.register(securityBroadcastHandler);
+        } catch (final EventBusException e) {
+            throw new RuntimeException("Failed to register bus handlers", e);
+        }
     }
 
     @LifecycleHandlerType(LifecycleLevel.STOP_SERVICE)
     public void stop() {
+        try {
+            eventBus.unregister(securityBroadcastHandler);
+        } catch (final EventBusException e) {
+            throw new RuntimeException("Failed to unregister bus handlers", e);
+        }
         SecurityUtils.setSecurityManager(null);
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.security.api;
+
+import java.util.Collection;
+
+import javax.inject.Inject;
+
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.UnavailableSecurityManagerException;
+import org.apache.shiro.mgt.DefaultSecurityManager;
+import org.apache.shiro.mgt.SecurityManager;
+import org.apache.shiro.realm.Realm;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.killbill.billing.events.BroadcastInternalEvent;
+import org.killbill.billing.platform.api.KillbillService.KILLBILL_SERVICES;
+import org.killbill.billing.util.security.shiro.AuthenticationResultCache;
+import org.killbill.billing.util.security.shiro.realm.KillBillJdbcRealm;
+import org.killbill.commons.eventbus.AllowConcurrentEvents;
+import org.killbill.commons.eventbus.Subscribe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invalidates the authentication and authorization caches when users, roles or passwords change.
+ * <p>
+ * Changes are recorded in the service_broadcasts table by the UserDao, so that every node (including the local one)
+ * eventually sees them through the broadcast service.
+ */
+public class SecurityBroadcastHandler {
+
+    public static final String SECURITY_BROADCAST_SERVICE_NAME = KILLBILL_SERVICES.SECURITY_SERVICE.getServiceName();
+    // The event is the username
+    public static final String INVALIDATE_USER = "INVALIDATE_USER";
+    // The event is the role name
+    public static final String INVALIDATE_ROLE = "INVALIDATE_ROLE";
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityBroadcastHandler.class);
+
+    private final AuthenticationResultCache authenticationResultCache;
+
+    @Inject
+    public SecurityBroadcastHandler(final AuthenticationResultCache authenticationResultCache) {
+        this.authenticationResultCache = authenticationResultCache;
+    }
+
+    @AllowConcurrentEvents
+    @Subscribe
+    public void handleBroadcastEvent(final BroadcastInternalEvent event) {
+        if (!SECURITY_BROADCAST_SERVICE_NAME.equals(event.getServiceName())) {
+            return;
+        }
+        invalidate(event.getType(), event.getJsonEvent());
+    }
+
+    public void invalidate(final String type, final String target) {
+        if (INVALIDATE_USER.equals(type)) {
+            authenticationResultCache.invalidate(target);
+            invalidateJDBCAuthorizationCache(target);
+        } else if (INVALIDATE_ROLE.equals(type)) {
+            // We don't know which users have that role: drop everything
+            authenticationResultCache.invalidateAll();
+            invalidateJDBCAuthorizationCache(null);
+        } else {
+            logger.warn("Ignoring unknown security broadcast type {}", type);
+        }
+    }
+
+    private void invalidateJDBCAuthorizationCache(final String usernameOrNull) {
+        final SecurityManager securityManager;
+        try {
+            securityManager = SecurityUtils.getSecurityManager();
+        } catch (final UnavailableSecurityManagerException e) {
+            return;
+        }
+        if (!(securityManager instanceof DefaultSecurityManager)) {
+            return;
+        }
+
+        final Collection<Realm> realms = ((DefaultSecurityManager) securityManager).getRealms();
+        if (realms == null) {
+            return;
+        }
+        final KillBillJdbcRealm killBillJdbcRealm = (KillBillJdbcRealm) realms.stream()
+                .filter(realm -> (realm instanceof KillBillJdbcRealm))
+                .findFirst()
+                .orElse(null);
+
+        if (killBillJdbcRealm == null) {
+            return;
+        }
+
+        if (usernameOrNull == null) {
+            killBillJdbcRealm.clearAllCachedAuthorizationInfo();
+        } else {
+            final SimplePrincipalCollection principals = new SimplePrincipalCollection();
+            principals.add(usernameOrNull, killBillJdbcRealm.getName());
+            killBillJdbcRealm.clearCachedAuthorizationInfo(principals);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.security.shiro;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.inject.Inject;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.SaltedAuthenticationInfo;
+import org.apache.shiro.codec.Hex;
+import org.apache.shiro.crypto.SecureRandomNumberGenerator;
+import org.apache.shiro.util.ByteSource;
+import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+
+/**
+ * Remembers successful credentials verifications, so that the (deliberately expensive) salted hash
+ * doesn't need to be recomputed on every request.
+ * <p>
+ * Entries are keyed on an HMAC of the presented credentials together with the stored credentials and salt:
+ * a password or secret rotation naturally misses, and the keys cannot be used as offline verifiers.
+ * Explicit invalidation happens on user, role and password changes (see SecurityBroadcastHandler).
+ * <p>
+ * Opt-in: disabled unless org.killbill.security.authenticationCache.maxSize is set.
+ */
+public class AuthenticationResultCache {
+
+    private static final String METRIC_PREFIX = "killbill.security.authenticationCache";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final SecretKeySpec hmacKey;
+    private final Map<String, CachedVerification> verifications;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Inject
+    public AuthenticationResultCache(final SecurityConfig securityConfig, final MetricRegistry metricRegistry) {
+        this.maxSize = securityConfig.getAuthenticationCacheMaxSize();
+        this.ttlNanos = securityConfig.getAuthenticationCacheTTL().getMillis() * 1000L * 1000L;
+        // Per-process key, never persisted
+        this.hmacKey = new SecretKeySpec(new SecureRandomNumberGenerator().nextBytes(32).getBytes(), HMAC_ALGORITHM);
+        this.hits = metricRegistry.counter(METRIC_PREFIX + ".hits");
+        this.misses = metricRegistry.counter(METRIC_PREFIX + ".misses");
+        this.evictions = metricRegistry.counter(METRIC_PREFIX + ".evictions");
+        this.verifications = new LinkedHashMap<String, CachedVerification>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedVerification> eldest) {
+                final boolean shouldEvict = size() > maxSize;
+                if (shouldEvict) {
+                    evictions.inc(1);
+                }
+                return shouldEvict;
+            }
+        };
+        metricRegistry.gauge(METRIC_PREFIX + ".size", this::size);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlNanos > 0;
+    }
+
+    public boolean isVerified(final AuthenticationToken token, final AuthenticationInfo info) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        final String key = computeKey(token, info);
+        final boolean verified;
+        synchronized (verifications) {
+            final CachedVerification cachedVerification = verifications.get(key);
+            if (cachedVerification == null) {
+                verified = false;
+            } else if (cachedVerification.isExpired(System.nanoTime())) {
+                verifications.remove(key);
+                verified = false;
+            } else {
+                verified = true;
+            }
+        }
+
+        if (verified) {
+            hits.inc(1);
+        } else {
+            misses.inc(1);
+        }
+        return verified;
+    }
+
+    public void recordVerified(final AuthenticationToken token, final AuthenticationInfo info) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        final String key = computeKey(token, info);
+        final CachedVerification cachedVerification = new CachedVerification(String.valueOf(token.getPrincipal()), System.nanoTime() + ttlNanos);
+        synchronized (verifications) {
+            verifications.put(key, cachedVerification);
+        }
+    }
+
+    public void invalidate(final String principal) {
+        synchronized (verifications) {
+            final Iterator<CachedVerification> iterator = verifications.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().principal.equals(principal)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (verifications) {
+            verifications.clear();
+        }
+    }
+
+    public long size() {
+        synchronized (verifications) {
+            return verifications.size();
+        }
+    }
+
+    private String computeKey(final AuthenticationToken token, final AuthenticationInfo info) {
+        final Mac mac;
+        try {
+            // Mac instances aren't thread-safe
+            mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+
+        update(mac, String.valueOf(token.getPrincipal()).getBytes(StandardCharsets.UTF_8));
+        update(mac, toBytes(token.getCredentials()));
+        update(mac, toBytes(info.getCredentials()));
+        if (info instanceof SaltedAuthenticationInfo && ((SaltedAuthenticationInfo) info).getCredentialsSalt() != null) {
+            update(mac, ((SaltedAuthenticationInfo) info).getCredentialsSalt().getBytes());
+        }
+        return Hex.encodeToString(mac.doFinal());
+    }
+
+    private static byte[] toBytes(final Object credentials) {
+        return credentials == null ? new byte[0] : ByteSource.Util.bytes(credentials).getBytes();
+    }
+
+    // Length-prefixed, to avoid ambiguities between adjacent fields
+    private static void update(final Mac mac, final byte[] bytes) {
+        final int length = bytes.length;
+        mac.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        mac.update(bytes);
+    }
+
+    private static final class CachedVerification {
+
+        private final String principal;
+        private final long expiresAtNanos;
+
+        private CachedVerification(final String principal, final long expiresAtNanos) {
+            this.principal = Objects.requireNonNull(principal);
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(final long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -18,6 +18,10 @@
 
 package org.killbill.billing.util.security.shiro;
 
+import javax.annotation.Nullable;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.credential.CredentialsMatcher;
 import org.apache.shiro.authc.credential.HashedCredentialsMatcher;
 import org.apache.shiro.crypto.hash.Sha512Hash;
@@ -39,4 +43,37 @@ public class KillbillCredentialsMatcher {
 
         return credentialsMatcher;
     }
+
+    public static CredentialsMatcher getCredentialsMatcher(final SecurityConfig securityConfig, @Nullable final AuthenticationResultCache authenticationResultCache) {
+        final CredentialsMatcher credentialsMatcher = getCredentialsMatcher(securityConfig);
+        if (authenticationResultCache == null || !authenticationResultCache.isEnabled()) {
+            return credentialsMatcher;
+        }
+        return new CachingCredentialsMatcher(credentialsMatcher, authenticationResultCache);
+    }
+
+    // Skip the hashing iterations for credentials which have recently been verified
+    private static final class CachingCredentialsMatcher implements CredentialsMatcher {
+
+        private final CredentialsMatcher delegate;
+        private final AuthenticationResultCache authenticationResultCache;
+
+        private CachingCredentialsMatcher(final CredentialsMatcher delegate, final AuthenticationResultCache authenticationResultCache) {
+            this.delegate = delegate;
+            this.authenticationResultCache = authenticationResultCache;
+        }
+
+        @Override
+        public boolean doCredentialsMatch(final AuthenticationToken token, final AuthenticationInfo info) {
+            if (authenticationResultCache.isVerified(token, info)) {
+                return true;
+            }
+
+            final boolean match = delegate.doCredentialsMatch(token, info);
+            if (match) {
+                authenticationResultCache.recordVerified(token, info);
+            }
+            return match;
+        }
+    }
 }
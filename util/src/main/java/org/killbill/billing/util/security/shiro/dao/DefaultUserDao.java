@@ -30,7 +30,10 @@ import org.apache.shiro.util.ByteSource;
 import org.joda.time.DateTime;
 import org.killbill.billing.ErrorCode;
 import org.killbill.billing.security.SecurityApiException;
+import org.killbill.billing.util.broadcast.dao.BroadcastModelDao;
+import org.killbill.billing.util.broadcast.dao.BroadcastSqlDao;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.api.SecurityBroadcastHandler;
 import org.killbill.billing.util.security.shiro.KillbillCredentialsMatcher;
 import org.killbill.clock.Clock;
 import org.skife.jdbi.v2.Handle;
@@ -141,6 +144,8 @@ public class DefaultUserDao implements UserDao {
             for (final String permission : toBeAdded) {
                 rolesPermissionsSqlDao.create(new RolesPermissionsModelDao(role, permission, createdDate, createdBy));
             }
+
+            recordSecurityBroadcast(handle, SecurityBroadcastHandler.INVALIDATE_ROLE, role, createdDate, createdBy);
             return null;
         });
     }
@@ -172,6 +177,8 @@ public class DefaultUserDao implements UserDao {
             final UsersSqlDao usersSqlDao = handle.attach(UsersSqlDao.class);
             validateUser(username, usersSqlDao);
             usersSqlDao.updatePassword(username, hashedPasswordBase64, salt.toBase64(), updatedDate.toDate(), updatedBy);
+
+            recordSecurityBroadcast(handle, SecurityBroadcastHandler.INVALIDATE_USER, username, updatedDate, updatedBy);
             return null;
         });
     }
@@ -199,6 +206,8 @@ public class DefaultUserDao implements UserDao {
                     userRolesSqlDao.create(new UserRolesModelDao(username, curNewRole, updatedDate, updatedBy));
                 }
             }
+
+            recordSecurityBroadcast(handle, SecurityBroadcastHandler.INVALIDATE_USER, username, updatedDate, updatedBy);
             return null;
         });
     }
@@ -210,10 +219,18 @@ public class DefaultUserDao implements UserDao {
             final UsersSqlDao usersSqlDao = handle.attach(UsersSqlDao.class);
             validateUser(username, usersSqlDao);
             usersSqlDao.invalidate(username, updatedDate.toDate(), updatedBy);
+
+            recordSecurityBroadcast(handle, SecurityBroadcastHandler.INVALIDATE_USER, username, updatedDate, updatedBy);
             return null;
         });
     }
 
+    // Picked up by the broadcast service on all nodes, so that cached credentials and permissions are dropped
+    private void recordSecurityBroadcast(final Handle handle, final String type, final String target, final DateTime createdDate, final String createdBy) {
+        final BroadcastSqlDao broadcastSqlDao = handle.attach(BroadcastSqlDao.class);
+        broadcastSqlDao.create(new BroadcastModelDao(SecurityBroadcastHandler.SECURITY_BROADCAST_SERVICE_NAME, type, target, createdDate, createdBy));
+    }
+
     private <T> T inTransactionWithExceptionHandling(final TransactionCallback<T> callback) throws SecurityApiException {
         // Similar to EntitySqlDaoTransactionalJdbiWrapper#execute
         try {
@@ -17,14 +17,18 @@
 
 package org.killbill.billing.util.security.shiro.realm;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.sql.DataSource;
 
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.cache.Cache;
 import org.apache.shiro.realm.jdbc.JdbcRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.killbill.billing.platform.glue.KillBillPlatformModuleBase;
 import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.billing.util.security.shiro.AuthenticationResultCache;
 import org.killbill.billing.util.security.shiro.KillbillCredentialsMatcher;
 
 public class KillBillJdbcRealm extends JdbcRealm {
@@ -35,16 +39,25 @@ public class KillBillJdbcRealm extends JdbcRealm {
 
     private final DataSource dataSource;
     private final SecurityConfig securityConfig;
+    private final AuthenticationResultCache authenticationResultCache;
+
+    public KillBillJdbcRealm(final DataSource dataSource, final SecurityConfig securityConfig) {
+        this(dataSource, securityConfig, null);
+    }
 
     @Inject
-    public KillBillJdbcRealm(@Named(KillBillPlatformModuleBase.SHIRO_DATA_SOURCE_ID) final DataSource dataSource, final SecurityConfig securityConfig) {
+    public KillBillJdbcRealm(@Named(KillBillPlatformModuleBase.SHIRO_DATA_SOURCE_ID) final DataSource dataSource,
+                             final SecurityConfig securityConfig,
+                             @Nullable final AuthenticationResultCache authenticationResultCache) {
         super();
         this.dataSource = dataSource;
         this.securityConfig = securityConfig;
+        this.authenticationResultCache = authenticationResultCache;
 
-        // TODO Enable when we add support for cache invalidation
+        // Shiro's authentication caching stays disabled: it would only save the users query, not the hashing iterations.
+        // Successful verifications are instead remembered by the AuthenticationResultCache, which is invalidated
+        // on password, roles and user changes (see SecurityBroadcastHandler)
         // See JavaDoc warning: https://shiro.apache.org/static/1.2.3/apidocs/org/apache/shiro/realm/AuthenticatingRealm.html
-        //setAuthenticationCachingEnabled(true);
 
         // See https://issues.apache.org/jira/browse/SHIRO-552 and https://github.com/apache/shiro/pull/138
         setSaltIsBase64Encoded(false);
@@ -64,9 +77,16 @@ public class KillBillJdbcRealm extends JdbcRealm {
         super.clearCachedAuthorizationInfo(principals);
     }
 
+    public void clearAllCachedAuthorizationInfo() {
+        final Cache<Object, AuthorizationInfo> authorizationCache = getAuthorizationCache();
+        if (authorizationCache != null) {
+            authorizationCache.clear();
+        }
+    }
+
     private void configureSecurity() {
         setSaltStyle(SaltStyle.COLUMN);
-        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig));
+        setCredentialsMatcher(KillbillCredentialsMatcher.getCredentialsMatcher(securityConfig, authenticationResultCache));
     }
 
     private void configureDataSource() {
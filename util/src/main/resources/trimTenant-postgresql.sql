@@ -35,6 +35,7 @@ BEGIN
     DELETE FROM bus_ext_events_history WHERE search_key2 = v_tenant_record_id;
     DELETE FROM custom_field_history WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM custom_fields WHERE tenant_record_id = v_tenant_record_id;
+    DELETE FROM invoice_account_balances WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM invoice_item_history WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM invoice_items WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM invoice_parent_children WHERE tenant_record_id = v_tenant_record_id;
@@ -58,6 +59,7 @@ BEGIN
     DELETE FROM payment_transactions WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM payments WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM rolled_up_usage WHERE tenant_record_id = v_tenant_record_id;
+    DELETE FROM rolled_up_usage_daily WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM subscription_event_history WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM subscription_events WHERE tenant_record_id = v_tenant_record_id;
     DELETE FROM subscription_history WHERE tenant_record_id = v_tenant_record_id;
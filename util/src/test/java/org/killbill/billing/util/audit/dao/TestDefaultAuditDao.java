@@ -17,6 +17,7 @@
 package org.killbill.billing.util.audit.dao;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.skife.jdbi.v2.Handle;
@@ -55,6 +56,9 @@ public class TestDefaultAuditDao extends UtilTestSuiteWithEmbeddedDB {
         for (final AuditLevel level : AuditLevel.values()) {
             final List<AuditLog> auditLogs = auditDao.getAuditLogsForId(TableName.TAG_HISTORY, UUID.fromString(tagHistoryString), level, internalCallContext);
             verifyAuditLogsForTag(auditLogs, level);
+
+            final Map<UUID, List<AuditLog>> auditLogsForIds = auditDao.getAuditLogsForIds(TableName.TAG_HISTORY, List.of(UUID.fromString(tagHistoryString)), level, internalCallContext);
+            verifyAuditLogsForTag(auditLogsForIds.get(UUID.fromString(tagHistoryString)), level);
         }
     }
 
@@ -66,6 +70,11 @@ public class TestDefaultAuditDao extends UtilTestSuiteWithEmbeddedDB {
             final List<AuditLog> auditLogs = auditDao.getAuditLogsForId(TableName.TAG, tag.getId(), level, internalCallContext);
             verifyAuditLogsForTag(auditLogs, level);
 
+            final UUID unknownId = UUID.randomUUID();
+            final Map<UUID, List<AuditLog>> auditLogsForIds = auditDao.getAuditLogsForIds(TableName.TAG, List.of(tag.getId(), unknownId), level, internalCallContext);
+            verifyAuditLogsForTag(auditLogsForIds.get(tag.getId()), level);
+            Assert.assertEquals(auditLogsForIds.get(unknownId).size(), 0);
+
             final AccountAuditLogs accountAuditLogs = auditDao.getAuditLogsForAccountRecordId(level, internalCallContext);
             verifyAuditLogsForTag(accountAuditLogs.getAuditLogs(ObjectType.TAG).getAuditLogs(tag.getId()), level);
 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.broadcast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.glue.RedissonCacheClientProvider;
+import org.redisson.api.RedissonClient;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import redis.embedded.RedisServer;
+
+public class TestBroadcastTransport extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testCatchUpTriggerCoalescesNotifications() {
+        final List<Runnable> scheduled = new ArrayList<>();
+        final AtomicInteger nbRuns = new AtomicInteger();
+        final BroadcastCatchUpTrigger trigger = new BroadcastCatchUpTrigger(scheduled::add, nbRuns::incrementAndGet);
+
+        // Notifications received while a run is pending are folded into that run
+        trigger.run();
+        trigger.run();
+        trigger.run();
+        Assert.assertEquals(scheduled.size(), 1);
+
+        scheduled.remove(0).run();
+        Assert.assertEquals(nbRuns.get(), 1);
+
+        // Once the run has started, a new notification schedules a new run
+        trigger.run();
+        Assert.assertEquals(scheduled.size(), 1);
+        scheduled.remove(0).run();
+        Assert.assertEquals(nbRuns.get(), 2);
+    }
+
+    @Test(groups = "fast")
+    public void testRedisPubSub() {
+        final RedisServer redisServer = new RedisServer(56380);
+        redisServer.start();
+        final RedissonClient publisherClient = new RedissonCacheClientProvider("redis://127.0.0.1:56380", 1, null).get();
+        final RedissonClient subscriberClient = new RedissonCacheClientProvider("redis://127.0.0.1:56380", 1, null).get();
+        try {
+            final BroadcastTransport publisher = new RedisBroadcastTransport(publisherClient);
+            final BroadcastTransport subscriber = new RedisBroadcastTransport(subscriberClient);
+            Assert.assertTrue(subscriber.isPushEnabled());
+
+            final AtomicInteger nbBroadcastNotifications = new AtomicInteger();
+            final AtomicInteger nbOtherNotifications = new AtomicInteger();
+            subscriber.subscribe("broadcast", nbBroadcastNotifications::incrementAndGet);
+            subscriber.subscribe("other", nbOtherNotifications::incrementAndGet);
+
+            publisher.publish("broadcast");
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> nbBroadcastNotifications.get() == 1);
+            Assert.assertEquals(nbOtherNotifications.get(), 0);
+
+            subscriber.unsubscribe("broadcast");
+            publisher.publish("broadcast");
+            publisher.publish("other");
+            Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> nbOtherNotifications.get() == 1);
+            Assert.assertEquals(nbBroadcastNotifications.get(), 1);
+        } finally {
+            publisherClient.shutdown();
+            subscriberClient.shutdown();
+            redisServer.stop();
+        }
+    }
+}
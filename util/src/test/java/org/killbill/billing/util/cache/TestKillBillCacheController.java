@@ -17,11 +17,23 @@
 
 package org.killbill.billing.util.cache;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.cache.Cache;
 import javax.cache.CacheException;
 
 import org.killbill.billing.util.UtilTestSuiteNoDB;
 import org.killbill.billing.util.cache.Cachable.CacheType;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -52,7 +64,7 @@ public class TestKillBillCacheController extends UtilTestSuiteNoDB {
             }
         };
 
-        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader);
+        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader, new NoOpMetricRegistry());
 
         try {
             killBillCacheController.getKeys();
@@ -64,4 +76,62 @@ public class TestKillBillCacheController extends UtilTestSuiteNoDB {
         // This will go back to the cache loader
         Assert.assertEquals(killBillCacheController.get("12", null), new Long(12));
     }
+
+    @Test(groups = "fast")
+    public void testConcurrentMisses() throws Exception {
+        final Cache<String, Long> cache = createInMemoryCache();
+
+        final AtomicInteger nbLoads = new AtomicInteger();
+        // Both keys need to be loaded at the same time for the latch to be released
+        final CountDownLatch allKeysLoading = new CountDownLatch(2);
+        final BaseCacheLoader<String, Long> baseCacheLoader = new BaseCacheLoader<String, Long>() {
+            @Override
+            public CacheType getCacheType() {
+                return CacheType.RECORD_ID;
+            }
+
+            @Override
+            public Long compute(final String key, final CacheLoaderArgument cacheLoaderArgument) {
+                nbLoads.incrementAndGet();
+                allKeysLoading.countDown();
+                try {
+                    Assert.assertTrue(allKeysLoading.await(10, TimeUnit.SECONDS), "Loads for different keys should not block each other");
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                return Long.valueOf(key);
+            }
+        };
+        final KillBillCacheController<String, Long> killBillCacheController = new KillBillCacheController<String, Long>(cache, baseCacheLoader, new NoOpMetricRegistry());
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(10);
+        try {
+            final List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < 10; i++) {
+                final String key = i % 2 == 0 ? "1" : "2";
+                results.add(executorService.submit(() -> killBillCacheController.get(key, null)));
+            }
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(results.get(i).get(10, TimeUnit.SECONDS), Long.valueOf(i % 2 == 0 ? 1 : 2));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Concurrent misses on the same key are loaded once
+        Assert.assertEquals(nbLoads.get(), 2);
+        Assert.assertEquals(killBillCacheController.get("1", null), Long.valueOf(1));
+        Assert.assertEquals(killBillCacheController.get("2", null), Long.valueOf(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, Long> createInMemoryCache() {
+        final Map<String, Long> entries = new ConcurrentHashMap<String, Long>();
+        final Cache<String, Long> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.containsKey(Mockito.<String>any())).thenAnswer(invocation -> entries.containsKey(invocation.<String>getArgument(0)));
+        Mockito.when(cache.get(Mockito.<String>any())).thenAnswer(invocation -> entries.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> entries.put(invocation.getArgument(0), invocation.getArgument(1))).when(cache).put(Mockito.<String>any(), Mockito.<Long>any());
+        return cache;
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.killbill.billing.util.dao;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.killbill.billing.ObjectType;
@@ -26,6 +27,7 @@ import org.testng.annotations.Test;
 
 import org.killbill.billing.api.TestApiListener.NextEvent;
 import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.entity.Pagination;
 import org.killbill.billing.util.tag.dao.TagDefinitionModelDao;
 import org.killbill.billing.util.tag.dao.TagDefinitionSqlDao;
 
@@ -74,5 +76,32 @@ public class TestPagination extends UtilTestSuiteWithEmbeddedDB {
                 Assert.assertEquals(tagDefinitions.get(j).getDescription(), "description-" + j);
             }
         }
+
+        // Tests via DAO in keyset mode
+        for (final long limit : new long[]{1L, 3L, 5L, 10L, 100L}) {
+            Assert.assertEquals(getTagDefinitionNamesWithKeyset(limit), List.of("name-0", "name-1", "name-2", "name-3", "name-4", "name-5", "name-6", "name-7", "name-8", "name-9"));
+            Assert.assertEquals(getTagDefinitionNamesWithKeyset(-limit), List.of("name-9", "name-8", "name-7", "name-6", "name-5", "name-4", "name-3", "name-2", "name-1", "name-0"));
+        }
+    }
+
+    private List<String> getTagDefinitionNamesWithKeyset(final long limit) throws Exception {
+        final List<String> names = new ArrayList<String>();
+
+        Long lastRecordId = 0L;
+        do {
+            final Long currentRecordId = lastRecordId;
+            final Pagination<TagDefinitionModelDao> tagDefinitions = tagDefinitionDao.getFromRecordId(currentRecordId, limit, internalCallContext);
+            final List<TagDefinitionModelDao> page = Iterables.toUnmodifiableList(tagDefinitions);
+            Assert.assertTrue(page.size() <= Math.abs(limit));
+            page.forEach(tagDefinition -> names.add(tagDefinition.getName()));
+
+            lastRecordId = tagDefinitions.getNextOffset();
+            if (lastRecordId != null) {
+                // The cursor is the last record of the page
+                Assert.assertEquals(lastRecordId, page.get(page.size() - 1).getRecordId());
+            }
+        } while (lastRecordId != null);
+
+        return names;
     }
 }
@@ -77,6 +77,19 @@ public class MockEntityDaoBase<M extends EntityModelDao<E>, E extends Entity, U
         return DefaultPagination.<M>build(offset, limit, Iterables.toUnmodifiableList(getAll(context)));
     }
 
+    @Override
+    public Pagination<M> getFromRecordId(final Long fromRecordId, final Long limit, final InternalTenantContext context) {
+        final List<M> result = new ArrayList<>();
+        for (final Map<Long, M> cur : entities.values()) {
+            for (final Map.Entry<Long, M> entry : cur.entrySet()) {
+                if (entry.getKey() > fromRecordId && result.size() < limit) {
+                    result.add(entry.getValue());
+                }
+            }
+        }
+        return DefaultPagination.<M>withKeyset(fromRecordId, limit, null, result.iterator());
+    }
+
     @Override
     public Long getCount(final InternalTenantContext context) {
         return (long) entities.keySet().size();
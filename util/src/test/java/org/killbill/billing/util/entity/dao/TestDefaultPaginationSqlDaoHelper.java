@@ -29,8 +29,10 @@ import org.killbill.billing.util.dao.Kombucha;
 import org.killbill.billing.util.dao.KombuchaModelDao;
 import org.killbill.billing.util.dao.KombuchaSqlDao;
 import org.killbill.billing.util.entity.Pagination;
+import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.KeysetPaginationIteratorBuilder;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.Ordering;
 import org.killbill.billing.util.entity.dao.DefaultPaginationSqlDaoHelper.PaginationIteratorBuilder;
+import org.killbill.commons.utils.collect.Iterables;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -145,6 +147,66 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
         listAndValidateKombuchas(0L, 2L, 1L, 8L, null, 0L, 2L, false);
     }
 
+    @Test(groups = "slow")
+    public void testListKombuchasWithKeyset() throws Exception {
+        insertKombuchas(null);
+        insertKombuchas(2347L); //dummy accountRecordId
+
+        // 8 kombuchas: 3 + 3 + 2
+        Assert.assertEquals(walkKombuchasWithKeyset(null, 3L), 3);
+        Assert.assertEquals(walkKombuchasWithKeyset(null, -3L), 3);
+        // The last page is full: no trailing empty page
+        Assert.assertEquals(walkKombuchasWithKeyset(null, 4L), 2);
+        Assert.assertEquals(walkKombuchasWithKeyset(null, 8L), 1);
+        Assert.assertEquals(walkKombuchasWithKeyset(null, 10L), 1);
+    }
+
+    @Test(groups = "slow")
+    public void testSearchKombuchasWithKeyset() throws Exception {
+        insertKombuchas(4);
+
+        // 2 matches
+        Assert.assertEquals(walkKombuchasWithKeyset("ginger", 1L), 2);
+        Assert.assertEquals(walkKombuchasWithKeyset("ginger", -1L), 2);
+        Assert.assertEquals(walkKombuchasWithKeyset("ginger", 10L), 1);
+        Assert.assertEquals(walkKombuchasWithKeyset("oolong", 10L), 1);
+    }
+
+    // Return the number of pages
+    private int walkKombuchasWithKeyset(final String searchKeyOrNull, final Long limit) throws Exception {
+        int nbPages = 0;
+
+        Long lastRecordId = 0L;
+        do {
+            final Long currentRecordId = lastRecordId;
+            final DefaultPaginationSqlDaoHelper defaultPaginationSqlDaoHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao);
+            final Pagination<KombuchaModelDao> pagination = defaultPaginationSqlDaoHelper.getKeysetPagination(KombuchaSqlDao.class,
+                                                                                                              searchKeyOrNull == null ? listKombuchasKeysetBuilder() : searchKombuchasKeysetBuilder(searchKeyOrNull),
+                                                                                                              currentRecordId,
+                                                                                                              limit,
+                                                                                                              internalCallContext);
+            nbPages++;
+
+            // No count in keyset mode
+            Assert.assertNull(pagination.getTotalNbRecords());
+            Assert.assertNull(pagination.getMaxNbRecords());
+            Assert.assertEquals(pagination.getCurrentOffset(), currentRecordId);
+            final List<KombuchaModelDao> page = Iterables.toUnmodifiableList(pagination);
+            // Only the first page can be empty (no match)
+            Assert.assertTrue(!page.isEmpty() || currentRecordId == 0);
+            Assert.assertTrue(page.size() <= Math.abs(limit));
+
+            lastRecordId = pagination.getNextOffset();
+            if (lastRecordId != null) {
+                // The cursor is the last record of the (full) page
+                Assert.assertEquals(page.size(), Math.abs(limit));
+                Assert.assertEquals(lastRecordId, page.get(page.size() - 1).getRecordId());
+            }
+        } while (lastRecordId != null);
+
+        return nbPages;
+    }
+
     private void listAndValidateKombuchas(final Long offset,
     									  final Long limit,
     									  final Long simplePaginationThreshold, 
@@ -185,10 +247,19 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
                                                          final Long offset,
                                                          final Long limit,
                                                          final Long simplePaginationThreshold) {
+        final DefaultPaginationSqlDaoHelper defaultPaginationSqlDaoHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao, simplePaginationThreshold);
+        return defaultPaginationSqlDaoHelper.getPagination(KombuchaSqlDao.class,
+                                                           searchKombuchasBuilder(searchKey),
+                                                           offset,
+                                                           limit,
+                                                           internalCallContext);
+    }
+
+    private PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> searchKombuchasBuilder(final String searchKey) {
         final SearchQuery searchQuery = new SearchQuery(SqlOperator.OR);
         searchQuery.addSearchClause("tea", SqlOperator.EQ, searchKey);
 
-        final PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> searchBestKombuchas = new PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
+        return new PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
             @Override
             public Long getCount(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final InternalTenantContext context) {
                 return sqlDao.getSearchCount(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), context);
@@ -199,13 +270,18 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
                 return sqlDao.search(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), offset, limit, ordering.toString(), context);
             }
         };
+    }
 
-        final DefaultPaginationSqlDaoHelper defaultPaginationSqlDaoHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao, simplePaginationThreshold);
-        return defaultPaginationSqlDaoHelper.getPagination(KombuchaSqlDao.class,
-                                                           searchBestKombuchas,
-                                                           offset,
-                                                           limit,
-                                                           internalCallContext);
+    private KeysetPaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> searchKombuchasKeysetBuilder(final String searchKey) {
+        final SearchQuery searchQuery = new SearchQuery(SqlOperator.OR);
+        searchQuery.addSearchClause("tea", SqlOperator.EQ, searchKey);
+
+        return new KeysetPaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
+            @Override
+            public Iterator<KombuchaModelDao> buildFromRecordId(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return sqlDao.searchFromRecordId(searchQuery.getSearchKeysBindMap(), searchQuery.getSearchAttributes(), searchQuery.getLogicalOperator(), recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+            }
+        };
     }
 
     private Pagination<KombuchaModelDao> listKombuchasWithAccountRecordId(final Long offset, final Long limit, final Long simplePaginationThreshold) {
@@ -232,7 +308,16 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
 
     //method that queries the tables without the accountRecordId
     private Pagination<KombuchaModelDao> listKombuchas(final Long offset, final Long limit, final Long simplePaginationThreshold) {
-        final PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> paginationIteratorBuilder = new PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
+        final DefaultPaginationSqlDaoHelper defaultPaginationSqlDaoHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao, simplePaginationThreshold);
+        return defaultPaginationSqlDaoHelper.getPagination(KombuchaSqlDao.class,
+                                                           listKombuchasBuilder(),
+                                                           offset,
+                                                           limit,
+                                                           internalCallContext);
+    }
+
+    private PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> listKombuchasBuilder() {
+        return new PaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
             @Override
             public Long getCount(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final InternalTenantContext context) {
                 return sqlDao.getCount(context);
@@ -244,13 +329,15 @@ public class TestDefaultPaginationSqlDaoHelper extends UtilTestSuiteWithEmbedded
             }
 
         };
+    }
 
-        final DefaultPaginationSqlDaoHelper defaultPaginationSqlDaoHelper = new DefaultPaginationSqlDaoHelper(transactionalSqlDao, simplePaginationThreshold);
-        return defaultPaginationSqlDaoHelper.getPagination(KombuchaSqlDao.class,
-                                                           paginationIteratorBuilder,
-                                                           offset,
-                                                           limit,
-                                                           internalCallContext);
+    private KeysetPaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>> listKombuchasKeysetBuilder() {
+        return new KeysetPaginationIteratorBuilder<KombuchaModelDao, Kombucha, EntitySqlDao<KombuchaModelDao, Kombucha>>() {
+            @Override
+            public Iterator<KombuchaModelDao> buildFromRecordId(final EntitySqlDao<KombuchaModelDao, Kombucha> sqlDao, final Long recordId, final Long limit, final Ordering ordering, final InternalTenantContext context) {
+                return sqlDao.getFromRecordId(recordId, limit, ordering.getKeysetOperator(), ordering.toString(), context);
+            }
+        };
     }
 
     private void insertKombuchas(final int nb) {
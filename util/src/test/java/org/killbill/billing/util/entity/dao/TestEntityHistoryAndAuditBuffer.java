@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.entity.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.killbill.billing.ObjectType;
+import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.api.AuditLevel;
+import org.killbill.billing.util.audit.AuditLog;
+import org.killbill.billing.util.audit.ChangeType;
+import org.killbill.billing.util.dao.TableName;
+import org.killbill.billing.util.tag.DescriptiveTag;
+import org.killbill.billing.util.tag.dao.TagModelDao;
+import org.killbill.billing.util.tag.dao.TagSqlDao;
+import org.skife.jdbi.v2.Handle;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestEntityHistoryAndAuditBuffer extends UtilTestSuiteWithEmbeddedDB {
+
+    private EntitySqlDaoTransactionalJdbiWrapper transactionalSqlDao;
+
+    @BeforeMethod(groups = "slow")
+    public void setUpTransactionalSqlDao() {
+        if (hasFailed()) {
+            return;
+        }
+        transactionalSqlDao = new EntitySqlDaoTransactionalJdbiWrapper(dbi, roDbi, clock, cacheControllerDispatcher, nonEntityDao, internalCallContextFactory);
+    }
+
+    @Test(groups = "slow")
+    public void testDeferredUntilCommit() throws Exception {
+        final List<TagModelDao> tags = newTags(3);
+
+        transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            final TagSqlDao tagSqlDao = entitySqlDaoWrapperFactory.become(TagSqlDao.class);
+            tagSqlDao.create(tags, internalCallContext);
+            tagSqlDao.markTagAsDeleted(tags.get(0).getId().toString(), internalCallContext);
+
+            // Nothing written yet
+            Assert.assertEquals(countRows(entitySqlDaoWrapperFactory.getHandle(), "tag_history"), 0);
+            Assert.assertEquals(countRows(entitySqlDaoWrapperFactory.getHandle(), "audit_log"), 0);
+            return null;
+        });
+
+        Assert.assertEquals(countRows("tag_history"), 4);
+        Assert.assertEquals(countRows("audit_log"), 4);
+
+        final List<AuditLog> deletedTagAuditLogs = auditDao.getAuditLogsForId(TableName.TAG, tags.get(0).getId(), AuditLevel.FULL, internalCallContext);
+        Assert.assertEquals(deletedTagAuditLogs.size(), 2);
+        Assert.assertEquals(deletedTagAuditLogs.get(0).getChangeType(), ChangeType.INSERT);
+        Assert.assertEquals(deletedTagAuditLogs.get(1).getChangeType(), ChangeType.DELETE);
+        Assert.assertEquals(deletedTagAuditLogs.get(1).getUserName(), internalCallContext.getCreatedBy());
+
+        final List<AuditLog> otherTagAuditLogs = auditDao.getAuditLogsForId(TableName.TAG, tags.get(2).getId(), AuditLevel.FULL, internalCallContext);
+        Assert.assertEquals(otherTagAuditLogs.size(), 1);
+        Assert.assertEquals(otherTagAuditLogs.get(0).getChangeType(), ChangeType.INSERT);
+    }
+
+    @Test(groups = "slow")
+    public void testFlushedBeforeReturningEntity() throws Exception {
+        final List<TagModelDao> tags = newTags(2);
+
+        transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+            final TagSqlDao tagSqlDao = entitySqlDaoWrapperFactory.become(TagSqlDao.class);
+            tagSqlDao.create(tags.subList(0, 1), internalCallContext);
+            Assert.assertEquals(countRows(entitySqlDaoWrapperFactory.getHandle(), "tag_history"), 0);
+
+            // The created entity is returned: the pending rows are inserted first, to keep their ordering
+            tagSqlDao.create(tags.get(1), internalCallContext);
+            Assert.assertEquals(countRows(entitySqlDaoWrapperFactory.getHandle(), "tag_history"), 2);
+            Assert.assertEquals(countRows(entitySqlDaoWrapperFactory.getHandle(), "audit_log"), 2);
+
+            // Reading the history also flushes the pending rows
+            final Long recordId = tagSqlDao.getRecordId(tags.get(1).getId().toString(), internalCallContext);
+            tagSqlDao.markTagAsDeleted(tags.get(1).getId().toString(), internalCallContext);
+            Assert.assertEquals(tagSqlDao.getHistoryForTargetRecordId(false, recordId, internalCallContext).size(), 2);
+            return null;
+        });
+
+        Assert.assertEquals(countRows("tag_history"), 3);
+        Assert.assertEquals(countRows("audit_log"), 3);
+    }
+
+    @Test(groups = "slow")
+    public void testDiscardedOnRollback() throws Exception {
+        final List<TagModelDao> tags = newTags(2);
+
+        try {
+            transactionalSqlDao.execute(false, entitySqlDaoWrapperFactory -> {
+                entitySqlDaoWrapperFactory.become(TagSqlDao.class).create(tags, internalCallContext);
+                throw new IllegalStateException("rollback");
+            });
+            Assert.fail();
+        } catch (final IllegalStateException expected) {
+        }
+
+        Assert.assertEquals(countRows("tags"), 0);
+        Assert.assertEquals(countRows("tag_history"), 0);
+        Assert.assertEquals(countRows("audit_log"), 0);
+    }
+
+    private List<TagModelDao> newTags(final int nbTags) {
+        final UUID tagDefinitionId = UUID.randomUUID();
+        final List<TagModelDao> tags = new ArrayList<>(nbTags);
+        for (int i = 0; i < nbTags; i++) {
+            tags.add(new TagModelDao(new DescriptiveTag(tagDefinitionId, ObjectType.ACCOUNT, UUID.randomUUID(), clock.getUTCNow())));
+        }
+        return tags;
+    }
+
+    private long countRows(final String tableName) {
+        return dbi.withHandle(handle -> countRows(handle, tableName));
+    }
+
+    private static long countRows(final Handle handle, final String tableName) {
+        return ((Number) handle.select("select count(*) cnt from " + tableName).get(0).get("cnt")).longValue();
+    }
+}
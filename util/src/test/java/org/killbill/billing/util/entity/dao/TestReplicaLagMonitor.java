@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.entity.dao;
+
+import java.util.Date;
+
+import org.killbill.CreatorName;
+import org.killbill.billing.util.UtilTestSuiteWithEmbeddedDB;
+import org.killbill.billing.util.entity.dao.DBRouterUntyped.THREAD_STATE;
+import org.killbill.billing.util.nodes.dao.NodeInfoModelDao;
+import org.killbill.billing.util.nodes.dao.NodeInfoSqlDao;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.skife.config.TimeSpan;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestReplicaLagMonitor extends UtilTestSuiteWithEmbeddedDB {
+
+    @Test(groups = "slow")
+    public void testRoutingWithLaggingReplica() throws Throwable {
+        nodeInfoDao.create(new NodeInfoModelDao(CreatorName.get(), clock.getUTCNow(), "nodeInfo"));
+
+        final ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(dbi, roDbi, clock, new NoOpMetricRegistry(), new TimeSpan("2s"), new TimeSpan("1s"));
+        DBRouterUntyped.setReplicaLagMonitor(replicaLagMonitor);
+        try {
+            // First heartbeat
+            replicaLagMonitor.checkReplicationLag();
+            assertFalse(replicaLagMonitor.isReplicaBehind());
+            assertEquals(getScopeState(), THREAD_STATE.RO_ALLOWED);
+
+            // Both DBIs point to the same database: the replica is up-to-date
+            clock.addDeltaFromReality(5000);
+            replicaLagMonitor.checkReplicationLag();
+            assertFalse(replicaLagMonitor.isReplicaBehind());
+            assertEquals(replicaLagMonitor.getReplicationLagMillis(), 0);
+
+            // Simulate a replica which only saw a 10s old heartbeat
+            clock.addDeltaFromReality(5000);
+            final Date staleHeartbeat = clock.getUTCNow().minusSeconds(10).toDate();
+            replicaLagMonitor.checkReplicationLag();
+            dbi.onDemand(NodeInfoSqlDao.class).setUpdatedDate(CreatorName.get(), staleHeartbeat);
+            replicaLagMonitor.checkReplicationLag();
+            assertTrue(replicaLagMonitor.isReplicaBehind());
+            assertTrue(replicaLagMonitor.getReplicationLagMillis() >= 10000);
+            // The whole scope uses the main database
+            assertEquals(getScopeState(), THREAD_STATE.RW_ONLY);
+
+            // The replica caught up
+            replicaLagMonitor.checkReplicationLag();
+            assertFalse(replicaLagMonitor.isReplicaBehind());
+            assertEquals(getScopeState(), THREAD_STATE.RO_ALLOWED);
+
+            // The heartbeat row isn't on the replica
+            nodeInfoDao.delete(CreatorName.get());
+            replicaLagMonitor.checkReplicationLag();
+            assertTrue(replicaLagMonitor.isReplicaBehind());
+            assertEquals(getScopeState(), THREAD_STATE.RW_ONLY);
+        } finally {
+            DBRouterUntyped.setReplicaLagMonitor(null);
+        }
+    }
+
+    private THREAD_STATE getScopeState() throws Throwable {
+        return (THREAD_STATE) DBRouterUntyped.withRODBIAllowed(true, DBRouterUntyped::getCurrentState);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.killbill.billing.util.export.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.killbill.billing.platform.api.KillbillConfigSource;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestDatabaseExportDaoArchive extends TestDatabaseExportDaoBase {
+
+    private UUID accountId;
+    private UUID otherAccountId;
+    private Long otherAccountRecordId;
+
+    @Override
+    protected KillbillConfigSource getConfigSource(final Map<String, String> extraProperties) {
+        final Map<String, String> allExtraProperties = new HashMap<String, String>(extraProperties);
+        // Export the accounts one by one, to go through several batches
+        allExtraProperties.put("org.killbill.export.archive.accountBatchSize", "1");
+        return getConfigSource(null, allExtraProperties);
+    }
+
+    @BeforeClass(groups = "slow")
+    public void beforeClassExport() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        dao.initialize();
+    }
+
+    @AfterClass(groups = "slow", alwaysRun = true)
+    public void afterClassExport() throws Exception {
+        if (dao != null) {
+            dao.stop();
+        }
+    }
+
+    @BeforeMethod(groups = "slow")
+    public void beforeMethod() throws Exception {
+        if (hasFailed()) {
+            return;
+        }
+        super.beforeMethod();
+
+        accountId = UUID.randomUUID();
+        otherAccountId = UUID.randomUUID();
+        otherAccountRecordId = internalCallContext.getAccountRecordId() + 1000;
+
+        dbi.withHandle(handle -> {
+            handle.execute("drop table if exists " + tableNameA);
+            handle.execute("create table " + tableNameA + "(record_id serial unique," +
+                           "a_column char default 'a'," +
+                           "account_record_id bigint /*! unsigned */ not null," +
+                           "tenant_record_id bigint /*! unsigned */ not null default 0," +
+                           "primary key(record_id));");
+            handle.execute("drop table if exists " + tableNameB);
+            handle.execute("create table " + tableNameB + "(record_id serial unique," +
+                           "b_column char default 'b'," +
+                           "account_record_id bigint /*! unsigned */ not null," +
+                           "tenant_record_id bigint /*! unsigned */ not null default 0," +
+                           "primary key(record_id));");
+            handle.execute("insert into " + tableNameA + " (account_record_id, tenant_record_id) values (?, ?)",
+                           internalCallContext.getAccountRecordId(), internalCallContext.getTenantRecordId());
+            handle.execute("insert into " + tableNameA + " (account_record_id, tenant_record_id) values (?, ?)",
+                           otherAccountRecordId, internalCallContext.getTenantRecordId());
+            // Other tenant
+            handle.execute("insert into " + tableNameA + " (account_record_id, tenant_record_id) values (?, ?)",
+                           otherAccountRecordId, internalCallContext.getTenantRecordId() + 1);
+            handle.execute("insert into " + tableNameB + " (account_record_id, tenant_record_id) values (?, ?)",
+                           internalCallContext.getAccountRecordId(), internalCallContext.getTenantRecordId());
+            for (final Map.Entry<Long, UUID> account : Map.of(internalCallContext.getAccountRecordId(), accountId, otherAccountRecordId, otherAccountId).entrySet()) {
+                handle.execute("insert into accounts (record_id, id, external_key, email, name, first_name_length, is_payment_delegated_to_parent, reference_time, time_zone, created_date, created_by, updated_date, updated_by, tenant_record_id) " +
+                               "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                               account.getKey(), account.getValue(), account.getValue(), "yo@t.com", "toto", 4, false, new Date(12421982000L), "UTC", new Date(12421982000L), "i", new Date(382910622000L), "j", internalCallContext.getTenantRecordId());
+            }
+            return null;
+        });
+    }
+
+    @Test(groups = "slow")
+    public void testArchiveForAccountMatchesDump() throws Exception {
+        final Map<String, String> entries = getArchive(Map.of(internalCallContext.getAccountRecordId(), accountId));
+
+        Assert.assertEquals(String.join("", entries.values()), getDump(accountId, UUID.randomUUID()));
+        Assert.assertEquals(entries.keySet().toArray(), new String[]{"accounts.csv", tableNameA + ".csv", tableNameB + ".csv"});
+    }
+
+    @Test(groups = "slow")
+    public void testArchiveForSeveralAccounts() throws Exception {
+        final Map<Long, UUID> accounts = new LinkedHashMap<>();
+        accounts.put(internalCallContext.getAccountRecordId(), accountId);
+        accounts.put(otherAccountRecordId, otherAccountId);
+        final Map<String, String> entries = getArchive(accounts);
+
+        Assert.assertEquals(entries.get(tableNameA + ".csv"), "-- " + tableNameA + " record_id|a_column|account_record_id|tenant_record_id\n" +
+                                                              "1|a|" + internalCallContext.getAccountRecordId() + "|" + internalCallContext.getTenantRecordId() + "\n" +
+                                                              "2|a|" + otherAccountRecordId + "|" + internalCallContext.getTenantRecordId() + "\n");
+        Assert.assertEquals(entries.get(tableNameB + ".csv"), "-- " + tableNameB + " record_id|b_column|account_record_id|tenant_record_id\n" +
+                                                              "1|b|" + internalCallContext.getAccountRecordId() + "|" + internalCallContext.getTenantRecordId() + "\n");
+
+        Assert.assertEquals(entries.get("accounts.csv").split("\n").length, 3);
+
+        // Whole tenant
+        Assert.assertEquals(getArchive(null), entries);
+    }
+
+    @Test(groups = "slow")
+    public void testArchiveForUnknownAccount() throws Exception {
+        Assert.assertTrue(getArchive(Map.of(internalCallContext.getAccountRecordId() + 2000, UUID.randomUUID())).isEmpty());
+    }
+
+    private Map<String, String> getArchive(final Map<Long, UUID> accounts) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dao.exportDataAsArchive(out, accounts, UUID.randomUUID(), internalCallContext);
+
+        final Map<String, String> entries = new LinkedHashMap<>();
+        try (final ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
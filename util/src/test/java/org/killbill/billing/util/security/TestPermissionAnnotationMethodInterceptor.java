@@ -31,6 +31,7 @@ import org.killbill.billing.util.glue.CacheModule;
 import org.killbill.billing.util.glue.KillBillShiroAopModule;
 import org.killbill.billing.util.glue.TestSecurityModuleNoDB;
 import org.killbill.billing.util.glue.TestUtilModuleNoDB.ShiroModuleNoDB;
+import org.killbill.bus.api.PersistentBus;
 import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
 import org.mockito.Mockito;
@@ -93,6 +94,7 @@ public class TestPermissionAnnotationMethodInterceptor extends UtilTestSuiteNoDB
                                                                bind(TenantInternalApi.class).toInstance(Mockito.mock(TenantInternalApi.class));
                                                                bind(NonEntityDao.class).toInstance(Mockito.mock(NonEntityDao.class));
                                                                bind(MetricRegistry.class).to(NoOpMetricRegistry.class).asEagerSingleton();
+                                                               bind(PersistentBus.class).toInstance(Mockito.mock(PersistentBus.class));
                                                            }
                                                        });
         final AopTester aopedTester = injector.getInstance(AopTester.class);
@@ -126,6 +128,7 @@ public class TestPermissionAnnotationMethodInterceptor extends UtilTestSuiteNoDB
                                                                bind(TenantInternalApi.class).toInstance(Mockito.mock(TenantInternalApi.class));
                                                                bind(NonEntityDao.class).toInstance(Mockito.mock(NonEntityDao.class));
                                                                bind(MetricRegistry.class).to(NoOpMetricRegistry.class).asEagerSingleton();
+                                                               bind(PersistentBus.class).toInstance(Mockito.mock(PersistentBus.class));
                                                            }
                                                        });
         final IAopTester aopedTester = injector.getInstance(IAopTester.class);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2026 Equinix, Inc
+ * Copyright 2014-2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.billing.util.security.shiro;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.SimpleAuthenticationInfo;
+import org.apache.shiro.authc.UsernamePasswordToken;
+import org.apache.shiro.authc.credential.CredentialsMatcher;
+import org.apache.shiro.crypto.hash.SimpleHash;
+import org.apache.shiro.util.ByteSource;
+import org.killbill.billing.util.UtilTestSuiteNoDB;
+import org.killbill.billing.util.config.definition.SecurityConfig;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.mockito.Mockito;
+import org.skife.config.TimeSpan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestAuthenticationResultCache extends UtilTestSuiteNoDB {
+
+    @Test(groups = "fast")
+    public void testCachedVerifications() {
+        final SecurityConfig config = createSecurityConfig(10, "5m");
+        final AuthenticationResultCache cache = new AuthenticationResultCache(config, new NoOpMetricRegistry());
+        final CredentialsMatcher credentialsMatcher = KillbillCredentialsMatcher.getCredentialsMatcher(config, cache);
+
+        final AuthenticationInfo info = createAuthenticationInfo("toto", "supperCompli43cated", "salt1");
+        final AuthenticationToken goodToken = new UsernamePasswordToken("toto", "supperCompli43cated");
+        final AuthenticationToken badToken = new UsernamePasswordToken("toto", "somethingelse");
+
+        Assert.assertFalse(cache.isVerified(goodToken, info));
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+        Assert.assertTrue(cache.isVerified(goodToken, info));
+        Assert.assertTrue(credentialsMatcher.doCredentialsMatch(goodToken, info));
+
+        // Failed verifications are never remembered
+        Assert.assertFalse(credentialsMatcher.doCredentialsMatch(badToken, info));
+        Assert.assertFalse(cache.isVerified(badToken, info));
+        Assert.assertEquals(cache.size(), 1);
+
+        // Password rotation: the previous verification doesn't apply to the new stored credentials
+        final AuthenticationInfo rotatedInfo = createAuthenticationInfo("toto", "suppersimple", "salt2");
+        Assert.assertFalse(cache.isVerified(goodToken, rotatedInfo));
+        Assert.assertFalse(credentialsMatcher.doCredentialsMatch(goodToken, rotatedInfo));
+
+        cache.invalidate("toto");
+        Assert.assertFalse(cache.isVerified(goodToken, info));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testBoundedSize() {
+        final SecurityConfig config = createSecurityConfig(2, "5m");
+        final AuthenticationResultCache cache = new AuthenticationResultCache(config, new NoOpMetricRegistry());
+
+        final AuthenticationInfo info = createAuthenticationInfo("toto", "pwd", "salt");
+        for (int i = 0; i < 5; i++) {
+            cache.recordVerified(new UsernamePasswordToken("toto", "pwd" + i), info);
+        }
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertFalse(cache.isVerified(new UsernamePasswordToken("toto", "pwd0"), info));
+        Assert.assertTrue(cache.isVerified(new UsernamePasswordToken("toto", "pwd4"), info));
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testExpiredVerifications() throws InterruptedException {
+        final SecurityConfig config = createSecurityConfig(10, "10ms");
+        final AuthenticationResultCache cache = new AuthenticationResultCache(config, new NoOpMetricRegistry());
+
+        final AuthenticationInfo info = createAuthenticationInfo("toto", "pwd", "salt");
+        final AuthenticationToken token = new UsernamePasswordToken("toto", "pwd");
+        cache.recordVerified(token, info);
+        Thread.sleep(50);
+        Assert.assertFalse(cache.isVerified(token, info));
+    }
+
+    @Test(groups = "fast")
+    public void testDisabledCache() {
+        final SecurityConfig config = createSecurityConfig(0, "5m");
+        final AuthenticationResultCache cache = new AuthenticationResultCache(config, new NoOpMetricRegistry());
+
+        final AuthenticationInfo info = createAuthenticationInfo("toto", "pwd", "salt");
+        final AuthenticationToken token = new UsernamePasswordToken("toto", "pwd");
+        Assert.assertTrue(KillbillCredentialsMatcher.getCredentialsMatcher(config, cache).doCredentialsMatch(token, info));
+        Assert.assertFalse(cache.isVerified(token, info));
+    }
+
+    private SecurityConfig createSecurityConfig(final int maxSize, final String ttl) {
+        final SecurityConfig config = Mockito.mock(SecurityConfig.class);
+        Mockito.when(config.getShiroNbHashIterations()).thenReturn(1024);
+        Mockito.when(config.getAuthenticationCacheMaxSize()).thenReturn(maxSize);
+        Mockito.when(config.getAuthenticationCacheTTL()).thenReturn(new TimeSpan(ttl));
+        return config;
+    }
+
+    private AuthenticationInfo createAuthenticationInfo(final String username, final String password, final String salt) {
+        final String hashedPasswordBase64 = new SimpleHash(KillbillCredentialsMatcher.HASH_ALGORITHM_NAME, password, salt, 1024).toBase64();
+        return new SimpleAuthenticationInfo(username, hashedPasswordBase64.toCharArray(), ByteSource.Util.bytes(salt), "test");
+    }
+}